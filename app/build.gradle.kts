@@ -33,6 +33,14 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    buildFeatures {
+        // FrameTimeMonitor 等诊断只在 debug 包开启
+        buildConfig = true
+    }
+    testOptions {
+        // JVM 单元测试中 android.util.Log 等调用返回默认值，不抛异常
+        unitTests.isReturnDefaultValues = true
+    }
 }
 
 dependencies {
@@ -0,0 +1,253 @@
+package com.app.gameform.manager;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.app.gameform.domain.Post;
+import com.app.gameform.network.ApiService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 本地优先加载与同步
+ * 用本机上的替身服务器返回分页数据，检查写入数据库、先本地后服务器的回调顺序，以及断网时的本地翻页
+ */
+@RunWith(AndroidJUnit4.class)
+public class FeedSyncInstrumentedTest {
+
+    private static final int PAGE_SIZE = 3;
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private Context context;
+    private StandInServer server;
+    private String feed;
+    // 每次请求带不同参数，避开 HTTP 缓存
+    private final AtomicInteger attempt = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        server = new StandInServer();
+        feed = "test:" + System.nanoTime();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void syncedPagesAreServedLocallyFirst() throws Exception {
+        server.setPage(1, 1, 2, 3);
+        List<Event> first = load(newSync(), 1, 1);
+        assertEquals(1, first.size());
+        assertTrue(first.get(0).fromNetwork);
+        assertEquals(ids(1, 2, 3), first.get(0).ids);
+
+        // 新实例（相当于重新打开页面）：先回调本地数据，再回调服务器数据
+        server.setPage(1, 4, 1, 2);
+        List<Event> second = load(newSync(), 1, 2);
+        assertFalse(second.get(0).fromNetwork);
+        assertEquals(ids(1, 2, 3), second.get(0).ids);
+        assertTrue(second.get(1).fromNetwork);
+        assertEquals(ids(4, 1, 2), second.get(1).ids);
+
+        // 第一页的同步结果替换了整个列表
+        assertEquals(ids(4, 1, 2), idsOf(PostStore.getInstance(context).readPage(feed, 1, PAGE_SIZE)));
+    }
+
+    @Test
+    public void loadMoreFallsBackToLocalPageWhenOffline() throws Exception {
+        server.setPage(1, 1, 2, 3);
+        server.setPage(2, 4, 5, 6);
+        FeedSync sync = newSync();
+        load(sync, 1, 1);
+        load(sync, 2, 1);
+
+        server.setDown(true);
+        List<Event> offline = load(sync, 2, 1);
+        assertFalse(offline.get(0).fromNetwork);
+        assertEquals(ids(4, 5, 6), offline.get(0).ids);
+
+        // 本地也没有的页按失败回调
+        List<Event> missing = load(sync, 3, 1);
+        assertNotNull(missing.get(0).error);
+    }
+
+    @Test
+    public void pageWritesReplaceOnlyThatPage() throws Exception {
+        server.setPage(1, 1, 2, 3);
+        server.setPage(2, 4, 5, 6);
+        FeedSync sync = newSync();
+        load(sync, 1, 1);
+        load(sync, 2, 1);
+
+        server.setPage(2, 7, 8);
+        load(sync, 2, 1);
+
+        PostStore store = PostStore.getInstance(context);
+        assertEquals(ids(1, 2, 3), idsOf(store.readPage(feed, 1, PAGE_SIZE)));
+        assertEquals(ids(7, 8), idsOf(store.readPage(feed, 2, PAGE_SIZE)));
+    }
+
+    // ==================== 辅助 ====================
+
+    private FeedSync newSync() {
+        return new FeedSync(context, feed, PAGE_SIZE, (page, callback) -> ApiService.getInstance().getPosts(
+                server.url() + "/user/post/list?page=" + page + "&attempt=" + attempt.incrementAndGet(), callback));
+    }
+
+    private static final class Event {
+        final List<Integer> ids;
+        final boolean fromNetwork;
+        final String error;
+
+        Event(List<Integer> ids, boolean fromNetwork, String error) {
+            this.ids = ids;
+            this.fromNetwork = fromNetwork;
+            this.error = error;
+        }
+    }
+
+    /**
+     * 在主线程加载一页，等到收到 expected 个回调
+     */
+    private List<Event> load(FeedSync sync, int page, int expected) throws InterruptedException {
+        List<Event> events = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(expected);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> sync.loadPage(page, new FeedSync.Listener() {
+            @Override
+            public void onPage(List<Post> posts, boolean fromNetwork) {
+                events.add(new Event(idsOf(posts), fromNetwork, null));
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(String error) {
+                events.add(new Event(null, false, error != null ? error : "error"));
+                latch.countDown();
+            }
+        }));
+        assertTrue("等待回调超时", latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        return events;
+    }
+
+    private static List<Integer> ids(Integer... ids) {
+        List<Integer> result = new ArrayList<>();
+        for (Integer id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    private static List<Integer> idsOf(List<Post> posts) {
+        List<Integer> result = new ArrayList<>();
+        for (Post post : posts) {
+            result.add(post.getPostId());
+        }
+        return result;
+    }
+
+    /**
+     * 替身服务器：按 page 参数返回预先设置的帖子，down 时直接断开连接
+     */
+    private static final class StandInServer implements Runnable {
+        private final ServerSocket socket;
+        private final Map<Integer, int[]> pages = new ConcurrentHashMap<>();
+        private volatile boolean down;
+
+        StandInServer() throws IOException {
+            socket = new ServerSocket(0, 16, InetAddress.getByName("127.0.0.1"));
+            Thread thread = new Thread(this, "stand-in-server");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + socket.getLocalPort();
+        }
+
+        void setPage(int page, int... postIds) {
+            pages.put(page, postIds);
+        }
+
+        void setDown(boolean down) {
+            this.down = down;
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!socket.isClosed()) {
+                try (Socket client = socket.accept()) {
+                    handle(client);
+                } catch (IOException e) {
+                    // 服务器关闭或客户端断开
+                }
+            }
+        }
+
+        private void handle(Socket client) throws IOException {
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+            String requestLine = reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                // 跳过请求头
+            }
+            if (down || requestLine == null) {
+                return;
+            }
+            int page = Integer.parseInt(requestLine.replaceAll(".*[?&]page=(\\d+).*", "$1"));
+            StringBuilder body = new StringBuilder("{\"code\":200,\"msg\":\"ok\",\"data\":[");
+            int[] ids = pages.get(page);
+            if (ids != null) {
+                for (int i = 0; i < ids.length; i++) {
+                    if (i > 0) body.append(',');
+                    body.append("{\"postId\":").append(ids[i])
+                            .append(",\"postTitle\":\"帖子").append(ids[i]).append("\"}");
+                }
+            }
+            body.append("]}");
+            byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+            OutputStream out = client.getOutputStream();
+            out.write(("HTTP/1.1 200 OK\r\n"
+                    + "Content-Type: application/json; charset=utf-8\r\n"
+                    + "Content-Length: " + bytes.length + "\r\n"
+                    + "Cache-Control: no-store\r\n"
+                    + "Connection: close\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            out.write(bytes);
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.app.gameform.manager;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.app.gameform.domain.Post;
+import com.app.gameform.network.LocalInteractionStatusSource;
+import com.app.gameform.network.RemoteInteractionStatusSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * 互动状态的批量加载与缓存
+ * 用 LocalInteractionStatusSource 代替远程接口，检查一页只查询一次、已缓存的不重复查询，以及登出清空
+ */
+@RunWith(AndroidJUnit4.class)
+public class InteractionStatusManagerInstrumentedTest {
+
+    private static final long CURRENT_USER_ID = 1;
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private SharedPrefManager prefs;
+    private InteractionStatusManager manager;
+    private LocalInteractionStatusSource source;
+    private String savedToken;
+    private long savedUserId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        prefs = SharedPrefManager.getInstance(context);
+        savedToken = prefs.getToken();
+        savedUserId = prefs.getUserId();
+        prefs.saveToken("test-token");
+        prefs.saveUserId(CURRENT_USER_ID);
+
+        source = new LocalInteractionStatusSource()
+                .setLiked(10, true)
+                .setFavorited(11, true)
+                .setFollowed(100, true);
+        manager = InteractionStatusManager.getInstance(context);
+        manager.setSource(source);
+    }
+
+    @After
+    public void tearDown() {
+        manager.setSource(new RemoteInteractionStatusSource());
+        prefs.saveToken(savedToken);
+        prefs.saveUserId(savedUserId);
+    }
+
+    @Test
+    public void onePageIsOneFetch() throws InterruptedException {
+        load(page(post(10, 100), post(11, 101), post(12, 100)));
+
+        assertEquals(1, source.getFetchCount());
+        assertEquals(Boolean.TRUE, manager.getLikeStatus(10));
+        assertEquals(Boolean.FALSE, manager.getLikeStatus(11));
+        assertEquals(Boolean.TRUE, manager.getFavoriteStatus(11));
+        assertEquals(Boolean.FALSE, manager.getFavoriteStatus(12));
+        assertEquals(Boolean.TRUE, manager.getFollowStatus(100L));
+        assertEquals(Boolean.FALSE, manager.getFollowStatus(101L));
+    }
+
+    @Test
+    public void cachedPageIsNotFetchedAgain() throws InterruptedException {
+        List<Post> page = page(post(10, 100), post(11, 101));
+        load(page);
+        // 全部已缓存时不查询，也不回调
+        manager.loadForPosts(page, () -> fail("已缓存的页不应回调"));
+        assertEquals(1, source.getFetchCount());
+
+        // 下一页只有新帖子需要查询
+        load(page(post(11, 101), post(13, 102)));
+        assertEquals(2, source.getFetchCount());
+        assertEquals(Boolean.FALSE, manager.getLikeStatus(13));
+    }
+
+    @Test
+    public void ownPostsSkipFollowStatus() throws InterruptedException {
+        load(page(post(20, CURRENT_USER_ID)));
+        assertNull(manager.getFollowStatus(CURRENT_USER_ID));
+        assertEquals(Boolean.FALSE, manager.getLikeStatus(20));
+    }
+
+    @Test
+    public void logoutClearsStatus() throws InterruptedException {
+        load(page(post(10, 100)));
+        assertEquals(Boolean.TRUE, manager.getLikeStatus(10));
+
+        manager.onUserLoggedOut();
+        assertNull(manager.getLikeStatus(10));
+        assertNull(manager.getFollowStatus(100L));
+    }
+
+    // ==================== 辅助 ====================
+
+    private void load(List<Post> page) throws InterruptedException {
+        CountDownLatch loaded = new CountDownLatch(1);
+        manager.loadForPosts(page, loaded::countDown);
+        assertTrue("等待互动状态超时", loaded.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    private static List<Post> page(Post... posts) {
+        return new ArrayList<>(Arrays.asList(posts));
+    }
+
+    private static Post post(int postId, long userId) {
+        Post post = new Post();
+        post.setPostId(postId);
+        post.setUserId(userId);
+        return post;
+    }
+}
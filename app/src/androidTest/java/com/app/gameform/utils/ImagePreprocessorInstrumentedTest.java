@@ -0,0 +1,148 @@
+package com.app.gameform.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.media.ExifInterface;
+import android.net.Uri;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * 上传前预处理
+ * 用带方向和 GPS 信息的真实 JPEG 检查：输出不含 EXIF、方向已经转正、尺寸和体积都在限制内
+ */
+@RunWith(AndroidJUnit4.class)
+public class ImagePreprocessorInstrumentedTest {
+
+    // 横拍的相机原图，左半红、右半蓝
+    private static final int PHOTO_WIDTH = 3200;
+    private static final int PHOTO_HEIGHT = 2400;
+    private static final int MAX_DIMENSION = ImagePreprocessor.DEFAULT_MAX_DIMENSION;
+
+    private Context context;
+    private File photo;
+    private ImagePreprocessor.Result result;
+
+    @Before
+    public void setUp() throws IOException {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        photo = new File(context.getCacheDir(), "exif_photo.jpg");
+        writePhoto(photo);
+
+        ExifInterface exif = new ExifInterface(photo.getAbsolutePath());
+        exif.setAttribute(ExifInterface.TAG_ORIENTATION, String.valueOf(ExifInterface.ORIENTATION_ROTATE_90));
+        exif.setAttribute(ExifInterface.TAG_GPS_LATITUDE, "31/1,14/1,2400/100");
+        exif.setAttribute(ExifInterface.TAG_GPS_LATITUDE_REF, "N");
+        exif.setAttribute(ExifInterface.TAG_GPS_LONGITUDE, "121/1,28/1,1200/100");
+        exif.setAttribute(ExifInterface.TAG_GPS_LONGITUDE_REF, "E");
+        exif.saveAttributes();
+
+        // 前提：原图确实带着这些信息
+        ExifInterface saved = new ExifInterface(photo.getAbsolutePath());
+        assertEquals(ExifInterface.ORIENTATION_ROTATE_90,
+                saved.getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL));
+        assertNotNull(saved.getAttribute(ExifInterface.TAG_GPS_LATITUDE));
+    }
+
+    @After
+    public void tearDown() {
+        if (result != null) {
+            result.delete();
+        }
+        photo.delete();
+    }
+
+    @Test
+    public void outputHasNoExif() throws IOException {
+        result = prepare();
+
+        ExifInterface exif = new ExifInterface(result.file.getAbsolutePath());
+        assertNull(exif.getAttribute(ExifInterface.TAG_GPS_LATITUDE));
+        assertNull(exif.getAttribute(ExifInterface.TAG_GPS_LONGITUDE));
+        // 方向已经转到像素里，不能再带旋转标记，否则查看时会再转一次
+        assertEquals(ExifInterface.ORIENTATION_NORMAL,
+                exif.getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL));
+    }
+
+    @Test
+    public void orientationIsAppliedToPixels() throws IOException {
+        result = prepare();
+
+        // 顺时针转 90 度后变成竖图，原来的左半（红）在上，右半（蓝）在下
+        assertEquals(PHOTO_HEIGHT / 2, result.width);
+        assertEquals(PHOTO_WIDTH / 2, result.height);
+        Bitmap output = BitmapFactory.decodeFile(result.file.getAbsolutePath());
+        assertNotNull(output);
+        try {
+            assertEquals(result.width, output.getWidth());
+            assertEquals(result.height, output.getHeight());
+            assertColorNear(Color.RED, output.getPixel(output.getWidth() / 2, output.getHeight() / 4));
+            assertColorNear(Color.BLUE, output.getPixel(output.getWidth() / 2, output.getHeight() * 3 / 4));
+        } finally {
+            output.recycle();
+        }
+    }
+
+    @Test
+    public void sizeIsBounded() throws IOException {
+        result = prepare();
+
+        assertEquals(MAX_DIMENSION, Math.max(result.width, result.height));
+        assertTrue("输出应小于原图: " + result.file.length() + " / " + photo.length(),
+                result.file.length() < photo.length());
+    }
+
+    // ==================== 辅助 ====================
+
+    private ImagePreprocessor.Result prepare() throws IOException {
+        ImagePreprocessor preprocessor = new ImagePreprocessor(
+                context, MAX_DIMENSION, ImagePreprocessor.Format.JPEG, ImagePreprocessor.DEFAULT_QUALITY);
+        ImagePreprocessor.Result prepared = preprocessor.prepareNow(Uri.fromFile(photo));
+        assertNotNull(prepared);
+        assertTrue(prepared.file.exists());
+        return prepared;
+    }
+
+    private static void writePhoto(File file) throws IOException {
+        Bitmap bitmap = Bitmap.createBitmap(PHOTO_WIDTH, PHOTO_HEIGHT, Bitmap.Config.ARGB_8888);
+        try {
+            Canvas canvas = new Canvas(bitmap);
+            Paint paint = new Paint();
+            paint.setColor(Color.RED);
+            canvas.drawRect(0, 0, PHOTO_WIDTH / 2f, PHOTO_HEIGHT, paint);
+            paint.setColor(Color.BLUE);
+            canvas.drawRect(PHOTO_WIDTH / 2f, 0, PHOTO_WIDTH, PHOTO_HEIGHT, paint);
+            try (OutputStream out = new FileOutputStream(file)) {
+                // 相机原图通常是 90 以上的质量
+                assertTrue(bitmap.compress(Bitmap.CompressFormat.JPEG, 95, out));
+            }
+        } finally {
+            bitmap.recycle();
+        }
+    }
+
+    private static void assertColorNear(int expected, int actual) {
+        int tolerance = 40;
+        String message = String.format("期望 #%06X，实际 #%06X", expected & 0xFFFFFF, actual & 0xFFFFFF);
+        assertTrue(message, Math.abs(Color.red(expected) - Color.red(actual)) <= tolerance);
+        assertTrue(message, Math.abs(Color.green(expected) - Color.green(actual)) <= tolerance);
+        assertTrue(message, Math.abs(Color.blue(expected) - Color.blue(actual)) <= tolerance);
+    }
+}
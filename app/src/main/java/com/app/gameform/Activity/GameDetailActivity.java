@@ -21,6 +21,8 @@ import com.app.gameform.adapter.SectionAdapter;
 import com.app.gameform.domain.Game;
 import com.app.gameform.domain.Section;
 import com.app.gameform.network.ApiConstants;
+import com.app.gameform.network.ApiDateParser;
+import com.app.gameform.network.HttpClientProvider;
 import com.app.gameform.utils.ImageUtils;
 import com.app.gameform.manager.SharedPrefManager;
 
@@ -28,13 +30,10 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.io.IOException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Locale;
-import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
 import okhttp3.Callback;
@@ -67,11 +66,7 @@ public class GameDetailActivity extends AppCompatActivity {
     private List<String> gameImages = new ArrayList<>();
 
     // 网络
-    private OkHttpClient client = new OkHttpClient.Builder()
-            .connectTimeout(30, TimeUnit.SECONDS)
-            .readTimeout(30, TimeUnit.SECONDS)
-            .writeTimeout(30, TimeUnit.SECONDS)
-            .build();
+    private OkHttpClient client = HttpClientProvider.getInstance().getClient(30);
 
     // 传入的游戏ID
     private Integer gameId;
@@ -163,6 +158,7 @@ public class GameDetailActivity extends AppCompatActivity {
 
         Request request = new Request.Builder()
                 .url(url)
+                .tag(this)
                 .addHeader("Authorization", token)
                 .addHeader("Content-Type", "application/json")
                 .get()
@@ -268,23 +264,12 @@ public class GameDetailActivity extends AppCompatActivity {
         // 解析创建时间
         String createTimeStr = gameData.optString("createTime");
         if (!TextUtils.isEmpty(createTimeStr)) {
-            try {
-                // 注意：服务器返回的时间格式是 ISO 8601，需要特殊处理
-                SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX", Locale.getDefault());
-                Date createTime = dateFormat.parse(createTimeStr);
+            // 服务器返回 ISO 8601 或 yyyy-MM-dd HH:mm:ss，统一交给 ApiDateParser
+            Date createTime = ApiDateParser.parse(createTimeStr);
+            if (createTime != null) {
                 game.setCreateTime(createTime);
-                Log.d(TAG, "解析创建时间成功: " + createTime);
-            } catch (Exception e) {
-                Log.w(TAG, "解析创建时间失败: " + createTimeStr, e);
-                // 尝试备用格式
-                try {
-                    SimpleDateFormat fallbackFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
-                    Date createTime = fallbackFormat.parse(createTimeStr.substring(0, 19).replace("T", " "));
-                    game.setCreateTime(createTime);
-                    Log.d(TAG, "使用备用格式解析创建时间成功: " + createTime);
-                } catch (Exception e2) {
-                    Log.e(TAG, "备用格式也解析失败", e2);
-                }
+            } else {
+                Log.w(TAG, "解析创建时间失败: " + createTimeStr);
             }
         }
 
@@ -398,6 +383,7 @@ public class GameDetailActivity extends AppCompatActivity {
 
         Request request = new Request.Builder()
                 .url(url)
+                .tag(this)
                 .addHeader("Authorization", token)
                 .addHeader("Content-Type", "application/json")
                 .get()
@@ -429,7 +415,7 @@ public class GameDetailActivity extends AppCompatActivity {
                             runOnUiThread(() -> {
                                 sectionList.clear();
                                 sectionList.addAll(sections);
-                                sectionAdapter.notifyDataSetChanged();
+                                sectionAdapter.submitList(sectionList);
 
                                 // 更新版块标题，显示数量
                                 tvSectionsTitle.setText("相关版块 (" + sections.size() + ")");
@@ -459,7 +445,6 @@ public class GameDetailActivity extends AppCompatActivity {
      */
     private List<Section> parseSectionsFromJson(JSONArray dataArray) {
         List<Section> sections = new ArrayList<>();
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
 
         try {
             for (int i = 0; i < dataArray.length(); i++) {
@@ -477,11 +462,11 @@ public class GameDetailActivity extends AppCompatActivity {
                 // 解析创建时间
                 String createTimeStr = sectionObj.optString("createTime");
                 if (!TextUtils.isEmpty(createTimeStr)) {
-                    try {
-                        Date createTime = dateFormat.parse(createTimeStr);
+                    Date createTime = ApiDateParser.parse(createTimeStr);
+                    if (createTime != null) {
                         section.setCreateTime(createTime);
-                    } catch (Exception e) {
-                        Log.w(TAG, "解析版块创建时间失败: " + createTimeStr, e);
+                    } else {
+                        Log.w(TAG, "解析版块创建时间失败: " + createTimeStr);
                     }
                 }
 
@@ -514,9 +499,7 @@ public class GameDetailActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        // 取消所有网络请求
-        if (client != null) {
-            client.dispatcher().cancelAll();
-        }
+        // 取消本页面发出的网络请求
+        HttpClientProvider.getInstance().cancelByTag(this);
     }
 }
\ No newline at end of file
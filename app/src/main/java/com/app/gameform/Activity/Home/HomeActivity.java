@@ -6,6 +6,7 @@ import android.content.Intent;
 import android.graphics.Color;
 import android.graphics.Typeface;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.util.Log;
 import android.widget.ImageView;
 import android.widget.TextView;
@@ -21,18 +22,30 @@ import com.app.gameform.Activity.SearchActivity;
 import com.app.gameform.Activity.UserProfileActivity;
 import com.app.gameform.R;
 import com.app.gameform.adapter.PostAdapter;
+import com.app.gameform.adapter.PostDisplayModel;
 import com.app.gameform.domain.Post;
+import com.app.gameform.manager.FeedStore;
+import com.app.gameform.manager.FeedSync;
 import com.app.gameform.manager.PostLikeManager;
+import com.app.gameform.manager.RecommendationCache;
 import com.app.gameform.manager.SharedPrefManager;
-import com.app.gameform.network.ApiCallback;
 import com.app.gameform.network.ApiConstants;
 import com.app.gameform.network.ApiService;
+import com.app.gameform.network.HedgedFetcher;
 import com.app.gameform.utils.BottomNavigationHelper;
+import com.app.gameform.utils.DecodePipeline;
+import com.app.gameform.utils.FrameTimeMonitor;
+import com.app.gameform.utils.PostWindow;
+import com.app.gameform.utils.PrefetchPolicy;
+import com.app.gameform.utils.PrefetchScrollListener;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class HomeActivity extends BaseActivity implements
         PostAdapter.OnPostClickListener,
@@ -56,9 +69,27 @@ public class HomeActivity extends BaseActivity implements
     private Map<String, Integer> currentPageMap = new HashMap<>();
     private Map<String, Boolean> hasMoreDataMap = new HashMap<>();
     private Map<String, Boolean> isLoadingMap = new HashMap<>();
-
-    // 数据缓存
-    private Map<String, List<Post>> dataCache = new HashMap<>();
+    // 提前量按滚动速度和加载耗时调整，静止时仍是剩余 2 条开始加载
+    private final PrefetchPolicy prefetchPolicy = new PrefetchPolicy(PAGE_SIZE, PAGE_SIZE - LOAD_MORE_THRESHOLD);
+
+    // 推荐页：混合推荐、个性化推荐、热门帖子对冲请求，没有统计数据时 1.5 秒没返回就发下一个
+    private static final long RECOMMEND_HEDGE_MS = 1500;
+    // 推荐页首屏最多等这么久，之后用已有的最好结果
+    private static final long RECOMMEND_BUDGET_MS = 3000;
+    private HedgedFetcher<List<Post>> recommendFetcher;
+    // 当前显示本地数据（推荐缓存、帖子数据库）的标签页，刷新结果到达后替换
+    private final Set<String> localTabs = new HashSet<>();
+    // 热门、最新等标签页的本地优先加载
+    private final Map<String, FeedSync> feedSyncs = new HashMap<>();
+
+    // 各标签页的帖子：按ID索引、去重，详情页的计数变化同步到所有标签页
+    private final FeedStore feedStore = FeedStore.getInstance();
+    private final FeedStore.Listener feedListener = this::onFeedPostChanged;
+    // 各标签页的窗口：只保留可见区域附近几页的完整帖子，其余换成占位并暂存到本地
+    private final Map<String, PostWindow> postWindows = new HashMap<>();
+
+    // 帧耗时监测，debug 包中页面可见期间开启
+    private final FrameTimeMonitor frameTimeMonitor = new FrameTimeMonitor("HomeActivity");
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -77,6 +108,10 @@ public class HomeActivity extends BaseActivity implements
             setupSwipeRefresh();
             setupScrollListener();
             sharedPrefManager = SharedPrefManager.getInstance(this);
+            feedStore.addListener(feedListener);
+            prefetchPolicy.setConnectionType(PrefetchPolicy.detect(this));
+            prefetchPolicy.seedFromMetrics("GET_HYBRID_RECOMMENDATIONS", "GET_HOT_POSTS");
+            restoreCachedRecommendations();
 
             switchTab(currentTab);
             loadPostDataWithCache(currentTab, true);
@@ -118,23 +153,32 @@ public class HomeActivity extends BaseActivity implements
     }
 
     private void setupScrollListener() {
-        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+        recyclerView.addOnScrollListener(new PrefetchScrollListener() {
             @Override
             public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                windowOf(currentTab).onVisibleRange(layoutManager.findFirstVisibleItemPosition(),
+                        layoutManager.findLastVisibleItemPosition());
                 super.onScrolled(recyclerView, dx, dy);
+            }
 
-                if (dy > 0) {
-                    int visibleItemCount = layoutManager.getChildCount();
-                    int totalItemCount = layoutManager.getItemCount();
-                    int firstVisibleItemPosition = layoutManager.findFirstVisibleItemPosition();
+            @Override
+            protected PrefetchPolicy getPolicy() {
+                return prefetchPolicy;
+            }
 
-                    int lastVisibleItem = firstVisibleItemPosition + visibleItemCount;
+            @Override
+            protected boolean canLoadMore(int totalItemCount) {
+                return !isCurrentTabLoading() && hasMoreData(currentTab);
+            }
 
-                    if (!isCurrentTabLoading() && hasMoreData(currentTab) &&
-                            (totalItemCount - lastVisibleItem) <= (PAGE_SIZE - LOAD_MORE_THRESHOLD)) {
-                        loadMorePosts();
-                    }
-                }
+            @Override
+            protected boolean isLoading() {
+                return isCurrentTabLoading();
+            }
+
+            @Override
+            protected void loadMore(RecyclerView view, int totalItemCount) {
+                loadMorePosts();
             }
         });
     }
@@ -245,12 +289,15 @@ public class HomeActivity extends BaseActivity implements
      */
     private void loadPostDataWithCache(String type, boolean isRefresh) {
         if (isRefresh) {
+            // 切换标签时先显示缓存的内容，刷新结果到达后再差量更新
+            if (type.equals(currentTab) && feedStore.hasTab(type)) {
+                showTabPosts(type, Collections.emptyList());
+            }
             resetTabData(type);
             loadPostData(type, true, false);
         } else {
-            List<Post> cachedData = dataCache.get(type);
-            if (cachedData != null && !cachedData.isEmpty() && getCurrentPage(type) == 1) {
-                updatePostList(cachedData, false);
+            if (feedStore.hasTab(type) && getCurrentPage(type) == 1) {
+                showTabPosts(type, Collections.emptyList());
             } else {
                 loadPostData(type, false, false);
             }
@@ -264,6 +311,7 @@ public class HomeActivity extends BaseActivity implements
         if (!isCurrentTabLoading() && hasMoreData(currentTab)) {
             int nextPage = getCurrentPage(currentTab) + 1;
             setCurrentPage(currentTab, nextPage);
+            prefetchPolicy.onLoadStarted(SystemClock.uptimeMillis());
             loadPostData(currentTab, false, true);
         }
     }
@@ -278,29 +326,21 @@ public class HomeActivity extends BaseActivity implements
             showLoading();
         }
 
+        // 记下发起时的代数，加载更多返回前列表被刷新过就丢弃这一页
+        long generation = feedStore.getGeneration(type);
         if ("recommend".equals(type)) {
-            int page = getCurrentPage(type);
-            int limit = PAGE_SIZE;
-            int offset = (page - 1) * limit;
-
-            ApiService.getInstance().getHybridRecommendations(this, offset, page, new ApiCallback<List<Post>>() {
-                @Override
-                public void onSuccess(List<Post> posts) {
-                    handlePostsResponse(posts, type, isRefresh, isLoadMore);
-                }
-
-                @Override
-                public void onError(String error) {
-                    Log.w("HomeActivity", "混合推荐失败，尝试个性化推荐: " + error);
-                    loadFallbackPersonalizedRecommendations(limit, type, isRefresh, isLoadMore);
-                }
-            });
+            loadRecommendations(type, isRefresh, isLoadMore, generation);
         } else {
-            String url = getApiUrl(type, getCurrentPage(type), PAGE_SIZE);
-            ApiService.getInstance().getPosts(url, new ApiCallback<List<Post>>() {
+            int page = getCurrentPage(type);
+            syncOf(type).loadPage(page, new FeedSync.Listener() {
                 @Override
-                public void onSuccess(List<Post> posts) {
-                    handlePostsResponse(posts, type, isRefresh, isLoadMore);
+                public void onPage(List<Post> posts, boolean fromNetwork) {
+                    if (!fromNetwork && page == 1) {
+                        // 本地数据库中的第一页先显示，服务器结果到达后差量替换
+                        showLocalPosts(type, posts);
+                        return;
+                    }
+                    handlePostsResponse(posts, type, isRefresh, isLoadMore, generation);
                 }
 
                 @Override
@@ -312,105 +352,246 @@ public class HomeActivity extends BaseActivity implements
     }
 
     /**
-     * 备选个性化推荐（当混合推荐失败时使用）
+     * 推荐页：首选混合推荐，超过对冲延迟没返回或失败时再发个性化推荐、热门帖子，
+     * 预算内优先用排在前面的结果，选定后取消其余请求。
+     * 加载更多时备选接口不分页，不按时间对冲也不设预算，只在失败时降级
      */
-    // 5. 修改备选推荐方法
-    private void loadFallbackPersonalizedRecommendations(int limit, String type, boolean isRefresh, boolean isLoadMore) {
-        ApiService.getInstance().getPersonalizedRecommendations(this, limit, new ApiCallback<List<Post>>() {
+    private void loadRecommendations(String type, boolean isRefresh, boolean isLoadMore, long generation) {
+        int page = getCurrentPage(type);
+        int offset = (page - 1) * PAGE_SIZE;
+        long hedgeDelay = page == 1
+                ? HedgedFetcher.hedgeDelayFor("GET_HYBRID_RECOMMENDATIONS", RECOMMEND_HEDGE_MS)
+                : HedgedFetcher.NO_HEDGE;
+        long budget = page == 1 ? RECOMMEND_BUDGET_MS : HedgedFetcher.NO_BUDGET;
+
+        if (recommendFetcher != null) {
+            recommendFetcher.cancel();
+        }
+        HedgedFetcher<List<Post>> fetcher = new HedgedFetcher<List<Post>>(hedgeDelay, budget)
+                .add((tag, callback) -> ApiService.getInstance()
+                        .getHybridRecommendations(this, offset, page, tag, callback))
+                .add((tag, callback) -> ApiService.getInstance()
+                        .getPersonalizedRecommendations(this, PAGE_SIZE, tag, callback))
+                .add((tag, callback) -> ApiService.getInstance()
+                        .getPosts(ApiConstants.GET_HOT_POSTS + "?limit=" + PAGE_SIZE, tag, callback));
+        recommendFetcher = fetcher;
+        fetcher.start(new HedgedFetcher.Listener<List<Post>>() {
             @Override
-            public void onSuccess(List<Post> posts) {
-                handlePostsResponse(posts, type, isRefresh, isLoadMore);
-                Toast.makeText(HomeActivity.this, "推荐服务已切换到个性化模式", Toast.LENGTH_SHORT).show();
+            public void onResult(List<Post> posts, int source) {
+                if (recommendFetcher == fetcher) {
+                    recommendFetcher = null;
+                }
+                handlePostsResponse(posts, type, isRefresh, isLoadMore, generation);
+                if (source == 1) {
+                    Toast.makeText(HomeActivity.this, "推荐服务已切换到个性化模式", Toast.LENGTH_SHORT).show();
+                } else if (source == 2) {
+                    Toast.makeText(HomeActivity.this, "推荐服务暂时不可用，为您显示热门内容", Toast.LENGTH_SHORT).show();
+                }
             }
 
             @Override
             public void onError(String error) {
-                Log.w("HomeActivity", "个性化推荐也失败，降级到热门帖子: " + error);
-                loadFallbackHotPosts(type, isRefresh, isLoadMore);
+                if (recommendFetcher == fetcher) {
+                    recommendFetcher = null;
+                }
+                handleApiError(error, type, isRefresh, isLoadMore);
             }
         });
     }
 
-    private void loadFallbackHotPosts(String type, boolean isRefresh, boolean isLoadMore) {
-        String hotUrl = ApiConstants.GET_HOT_POSTS + "?limit=" + PAGE_SIZE;
-        ApiService.getInstance().getPosts(hotUrl, new ApiCallback<List<Post>>() {
-            @Override
-            public void onSuccess(List<Post> posts) {
-                handlePostsResponse(posts, type, isRefresh, isLoadMore);
-                Toast.makeText(HomeActivity.this, "推荐服务暂时不可用，为您显示热门内容", Toast.LENGTH_SHORT).show();
-            }
+    /**
+     * 处理帖子列表响应 - 修改版本，添加用户标识
+     * 展示模型在后台计算线程构建，主线程只做按ID合并和绑定
+     */
+    private void handlePostsResponse(List<Post> posts, String type, boolean isRefresh, boolean isLoadMore,
+                                     long generation) {
+        DecodePipeline.submit(
+                () -> preparePage(posts),
+                new DecodePipeline.Delivery<PreparedPage>() {
+                    @Override
+                    public void onReady(PreparedPage page) {
+                        if (isFinishing() || isDestroyed()) return;
+                        applyPostsResponse(page, type, isRefresh, isLoadMore, generation);
+                    }
 
-            @Override
-            public void onError(String error) {
-                handleApiError(error, type, isRefresh, isLoadMore);
-            }
-        });
+                    @Override
+                    public void onFailed(Exception e) {
+                        if (isFinishing() || isDestroyed()) return;
+                        handleApiError(e.getMessage(), type, isRefresh, isLoadMore);
+                    }
+                });
     }
+
     /**
-     * 处理帖子列表响应 - 修改版本，添加用户标识
+     * 后台线程：生成本页的展示模型
      */
-    private void handlePostsResponse(List<Post> posts, String type, boolean isRefresh, boolean isLoadMore) {
-        runOnUiThread(() -> {
-            setLoading(type, false);
+    private static PreparedPage preparePage(List<Post> posts) {
+        if (posts == null) {
+            return null;
+        }
+        return new PreparedPage(posts, PostDisplayModel.fromAll(posts));
+    }
 
-            if (!isRefresh && !isLoadMore) {
-                hideLoading();
-            }
+    /**
+     * 主线程：把后台准备好的一页并入数据仓库并绑定
+     */
+    private void applyPostsResponse(PreparedPage page, String type, boolean isRefresh, boolean isLoadMore,
+                                    long generation) {
+        setLoading(type, false);
+        if (isLoadMore) {
+            prefetchPolicy.onLoadFinished(SystemClock.uptimeMillis(), true);
+        }
 
-            if (swipeRefreshLayout.isRefreshing()) {
-                swipeRefreshLayout.setRefreshing(false);
+        if (!isRefresh && !isLoadMore) {
+            hideLoading();
+        }
+
+        if (swipeRefreshLayout.isRefreshing()) {
+            swipeRefreshLayout.setRefreshing(false);
+        }
+
+        if (page == null) {
+            setHasMoreData(type, false);
+            return;
+        }
+
+        boolean hasMore = page.posts.size() == PAGE_SIZE;
+
+        // 对于推荐页面的特殊处理
+        if ("recommend".equals(type)) {
+            hasMore = page.posts.size() >= PAGE_SIZE;
+        }
+
+        setHasMoreData(type, hasMore);
+        postAdapter.putDisplayModels(page.displayModels);
+
+        List<Post> added;
+        boolean replacingLocal = false;
+        if (isRefresh || (!isLoadMore && getCurrentPage(type) == 1)) {
+            // 刷新时整体替换，确保获取最新推荐
+            replacingLocal = localTabs.remove(type);
+            windowOf(type).reset();
+            feedStore.replace(type, page.posts);
+            added = page.posts;
+        } else if (isLoadMore) {
+            // 按ID去重后追加；请求期间列表已被刷新（或被淘汰）时返回 null，丢弃这一页
+            added = feedStore.append(type, page.posts, generation);
+            if (added == null) {
+                return;
             }
+        } else {
+            return;
+        }
 
-            boolean hasMore = posts != null && posts.size() == PAGE_SIZE;
+        if ("recommend".equals(type) && getCurrentPage(type) <= RecommendationCache.MAX_PAGES) {
+            saveRecommendations();
+        }
 
-            // 对于推荐页面的特殊处理
-            if ("recommend".equals(type) && posts != null) {
-                hasMore = posts.size() >= PAGE_SIZE;
+        // 加载期间切换了标签，只更新仓库，不动当前列表
+        if (type.equals(currentTab)) {
+            showTabPosts(type, added);
+            if (replacingLocal && layoutManager.findFirstVisibleItemPosition() <= 0) {
+                // 还停在顶部：本地数据换成新内容后回到第一条，新内容不会被插在屏幕上方
+                recyclerView.post(() -> recyclerView.scrollToPosition(0));
             }
+        }
 
-            setHasMoreData(type, hasMore);
+        if (isRefresh) {
+            String message = "recommend".equals(type) ? "推荐已更新" : "刷新成功";
+            Toast.makeText(HomeActivity.this, message, Toast.LENGTH_SHORT).show();
+        }
+    }
 
-            if (posts != null) {
-                if (isRefresh || (!isLoadMore && getCurrentPage(type) == 1)) {
-                    // 刷新时清除本地缓存，确保获取最新推荐
-                    if ("recommend".equals(type)) {
-                        dataCache.remove(type); // 清除本地缓存
-                    }
-                    dataCache.put(type, new ArrayList<>(posts));
-                    updatePostList(posts, false);
-                } else if (isLoadMore) {
-                    List<Post> cachedData = dataCache.get(type);
-                    if (cachedData == null) {
-                        cachedData = new ArrayList<>();
-                        dataCache.put(type, cachedData);
-                    }
-                    // 去重处理，防止重复数据
-                    List<Post> newPosts = new ArrayList<>();
-                    for (Post post : posts) {
-                        boolean isDuplicate = false;
-                        for (Post existingPost : cachedData) {
-                            if (existingPost.getPostId().equals(post.getPostId())) {
-                                isDuplicate = true;
-                                break;
-                            }
-                        }
-                        if (!isDuplicate) {
-                            newPosts.add(post);
-                        }
-                    }
-                    cachedData.addAll(newPosts);
-                    updatePostList(newPosts, true);
-                }
+    /**
+     * 冷启动：推荐页还没有数据时先显示本地缓存，刷新结果到达后按ID差量替换。
+     * 读文件和生成展示模型都在后台线程，主线程只做一次合并和绑定，首屏不等网络
+     */
+    private void restoreCachedRecommendations() {
+        if (feedStore.hasTab("recommend")) {
+            return;
+        }
+        RecommendationCache cache = RecommendationCache.getInstance(this);
+        long userId = sharedPrefManager.getUserId();
+        showLocalPage("recommend", () -> preparePage(cache.load(userId)));
+    }
+
+    /**
+     * 标签页还没有数据时先显示帖子数据库中的第一页
+     */
+    private void showLocalPosts(String type, List<Post> posts) {
+        if (feedStore.hasTab(type)) {
+            return;
+        }
+        showLocalPage(type, () -> preparePage(posts));
+    }
 
-                if (isRefresh) {
-                    String message = "recommend".equals(type) ? "推荐已更新" : "刷新成功";
-                    Toast.makeText(HomeActivity.this, message, Toast.LENGTH_SHORT).show();
+    /**
+     * 后台准备好本地数据后并入仓库；期间刷新结果已经到达（代数变化）时丢弃
+     */
+    private void showLocalPage(String type, DecodePipeline.Stage<PreparedPage> stage) {
+        long generation = feedStore.getGeneration(type);
+        DecodePipeline.submit(stage, new DecodePipeline.Delivery<PreparedPage>() {
+            @Override
+            public void onReady(PreparedPage page) {
+                if (page == null || page.posts.isEmpty() || isFinishing() || isDestroyed()) return;
+                if (feedStore.getGeneration(type) != generation) return;
+                postAdapter.putDisplayModels(page.displayModels);
+                windowOf(type).reset();
+                feedStore.replace(type, page.posts);
+                localTabs.add(type);
+                if (type.equals(currentTab)) {
+                    showTabPosts(type, page.posts);
                 }
-            } else {
-                setHasMoreData(type, false);
+            }
+
+            @Override
+            public void onFailed(Exception e) {
+                Log.w("HomeActivity", "读取本地帖子失败: " + e.getMessage());
             }
         });
     }
+
+    private FeedSync syncOf(String type) {
+        FeedSync sync = feedSyncs.get(type);
+        if (sync == null) {
+            sync = new FeedSync(this, "home:" + type, PAGE_SIZE,
+                    (page, callback) -> ApiService.getInstance().getPosts(getApiUrl(type, page, PAGE_SIZE), callback));
+            feedSyncs.put(type, sync);
+        }
+        return sync;
+    }
+
+    /**
+     * 把推荐页前几页写入本地缓存（换成占位的帖子不写）
+     */
+    private void saveRecommendations() {
+        List<Post> posts = new ArrayList<>();
+        for (Post post : feedStore.getPosts("recommend")) {
+            if (!PostWindow.isPlaceholder(post)) {
+                posts.add(post);
+            }
+        }
+        RecommendationCache cache = RecommendationCache.getInstance(this);
+        long userId = sharedPrefManager.getUserId();
+        DecodePipeline.backgroundExecutor().execute(
+                () -> cache.save(userId, posts, PAGE_SIZE * RecommendationCache.MAX_PAGES));
+    }
+
+    /**
+     * 后台准备好的一页数据
+     */
+    private static final class PreparedPage {
+        // 接口返回的帖子
+        final List<Post> posts;
+        // 本页帖子的展示模型
+        final List<PostDisplayModel> displayModels;
+
+        PreparedPage(List<Post> posts, List<PostDisplayModel> displayModels) {
+            this.posts = posts;
+            this.displayModels = displayModels;
+        }
+    }
+
     /**
      * 处理API错误
      */
@@ -426,6 +607,10 @@ public class HomeActivity extends BaseActivity implements
                 swipeRefreshLayout.setRefreshing(false);
             }
 
+            if (isLoadMore) {
+                prefetchPolicy.onLoadFinished(SystemClock.uptimeMillis(), false);
+            }
+
             // 加载失败时回退页码
             if (isLoadMore && getCurrentPage(type) > 1) {
                 setCurrentPage(type, getCurrentPage(type) - 1);
@@ -437,15 +622,40 @@ public class HomeActivity extends BaseActivity implements
         });
     }
 
-    private void updatePostList(List<Post> newPosts, boolean isAppend) {
-        if (isAppend) {
-            int startPosition = postList.size();
-            postList.addAll(newPosts);
-            postAdapter.notifyItemRangeInserted(startPosition, newPosts.size());
-        } else {
-            postList.clear();
-            postList.addAll(newPosts);
-            postAdapter.notifyDataSetChanged();
+    /**
+     * 显示标签页在仓库中的帖子
+     * @param loaded 本次新加载的帖子，用于批量查询互动状态
+     */
+    private void showTabPosts(String type, List<Post> loaded) {
+        postList.clear();
+        postList.addAll(feedStore.getPosts(type));
+        // 刷新和加载更多都提交完整列表，后台比较后只重绑变化的行
+        postAdapter.submitList(postList);
+        // 本页的点赞/收藏/关注状态一次批量查询
+        postAdapter.loadInteractionStatus(loaded);
+    }
+
+    private PostWindow windowOf(String tab) {
+        PostWindow window = postWindows.get(tab);
+        if (window == null) {
+            window = new PostWindow(this, "home_" + tab, PAGE_SIZE, feedStore.windowHost(tab), () -> {
+                // 换出或恢复了帖子：重新提交当前标签页，差量更新只重绑这些行
+                if (tab.equals(currentTab)) {
+                    showTabPosts(tab, Collections.emptyList());
+                }
+            });
+            postWindows.put(tab, window);
+        }
+        return window;
+    }
+
+    /**
+     * 帖子计数在其他页面（如详情页）变化：按ID定位当前标签页中的位置，只刷新这一行
+     */
+    private void onFeedPostChanged(Post post) {
+        int position = feedStore.indexOf(currentTab, post.getPostId());
+        if (position >= 0) {
+            postAdapter.notifyPostChanged(position, post.getPostId());
         }
     }
 
@@ -577,7 +787,6 @@ public class HomeActivity extends BaseActivity implements
             public void onUpdate(boolean hasLiked, int newLikeCount) {
                 runOnUiThread(() -> {
                     postAdapter.updateLikeStatus(position, hasLiked, newLikeCount);
-                    //dataCache.remove("recommend");
                 });
             }
 
@@ -593,9 +802,28 @@ public class HomeActivity extends BaseActivity implements
         // 暂时不需要删除功能
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        frameTimeMonitor.start();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        frameTimeMonitor.stop();
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        feedStore.removeListener(feedListener);
+        if (recommendFetcher != null) {
+            recommendFetcher.cancel();
+        }
+        for (PostWindow window : postWindows.values()) {
+            window.release();
+        }
         if (bottomNavigationHelper != null) {
             bottomNavigationHelper.destroy();
         }
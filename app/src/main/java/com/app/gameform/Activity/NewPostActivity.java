@@ -36,7 +36,9 @@ import com.app.gameform.domain.GameType;
 import com.app.gameform.domain.Section;
 import com.app.gameform.manager.DraftManager;
 import com.app.gameform.network.ApiConstants;
+import com.app.gameform.network.HttpClientProvider;
 import com.app.gameform.utils.ImageUploadHelper;
+import com.app.gameform.utils.ImageUploadQueue;
 import com.app.gameform.manager.SharedPrefManager;
 
 import org.json.JSONArray;
@@ -45,7 +47,6 @@ import org.json.JSONObject;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
 import okhttp3.Callback;
@@ -68,6 +69,8 @@ public class NewPostActivity extends AppCompatActivity {
     private RecyclerView rvSelectedImages;
 
     private List<Uri> selectedImageUris = new ArrayList<>();
+    // 和 selectedImageUris 一一对应的上传标识，没有上传时为 null；同一张图片可以选多次，只能按标识区分
+    private final List<String> selectedImageUploadIds = new ArrayList<>();
     private ImageAdapter imageAdapter;
 
     // 话题选择相关
@@ -94,17 +97,16 @@ public class NewPostActivity extends AppCompatActivity {
 
     // 富文本编辑器相关
     private String currentHtmlContent = "";
-    private List<String> uploadedImageUrls = new ArrayList<>();
 
     // 优化 OkHttpClient 配置
-    private OkHttpClient client = new OkHttpClient.Builder()
-            .connectTimeout(30, TimeUnit.SECONDS)
-            .readTimeout(30, TimeUnit.SECONDS)
-            .writeTimeout(30, TimeUnit.SECONDS)
-            .build();
+    private OkHttpClient client = HttpClientProvider.getInstance().getClient(30);
 
     // 图片上传工具类
     private ImageUploadHelper imageUploadHelper;
+    // 多张图片并行上传，完成后替换编辑器里的占位图
+    private ImageUploadQueue uploadQueue;
+    // 已点击发布、还没收到结果：等图片上传期间内容变化不能重新启用按钮，否则会发布两次
+    private boolean publishPending = false;
 
     // 主线程 Handler
     private Handler mainHandler = new Handler(Looper.getMainLooper());
@@ -146,6 +148,11 @@ public class NewPostActivity extends AppCompatActivity {
         imageAdapter = new ImageAdapter(selectedImageUris);
         imageAdapter.setOnImageDeleteListener(position -> {
             hasContentChanged = true;
+            // 还没传完的图片不再上传，并移除占位图
+            String uploadId = selectedImageUploadIds.remove(position);
+            if (uploadId != null && uploadQueue != null && uploadQueue.cancel(uploadId)) {
+                runEditorScript("removeImage(" + JSONObject.quote(uploadId) + ");");
+            }
             if (selectedImageUris.isEmpty()) {
                 rvSelectedImages.setVisibility(View.GONE);
             }
@@ -249,10 +256,56 @@ public class NewPostActivity extends AppCompatActivity {
                 "            }\n" +
                 "        });\n" +
                 "        \n" +
-                "        function insertImage(imageUrl) {\n" +
+                "        function insertImage(imageUrl, uploadId) {\n" +
+                "            const placeholder = uploadId ? findUpload(uploadId) : null;\n" +
+                "            if (placeholder) {\n" +
+                "                placeholder.src = imageUrl;\n" +
+                "                placeholder.removeAttribute('data-upload-id');\n" +
+                "                placeholder.style.opacity = '';\n" +
+                "                notifyChanged();\n" +
+                "                return;\n" +
+                "            }\n" +
                 "            const img = document.createElement('img');\n" +
                 "            img.src = imageUrl;\n" +
+                "            insertAtCursor(img);\n" +
+                "        }\n" +
+                "        \n" +
+                "        function insertPlaceholder(localUrl, uploadId) {\n" +
+                "            const img = document.createElement('img');\n" +
+                "            img.src = localUrl;\n" +
+                "            img.setAttribute('data-upload-id', uploadId);\n" +
+                "            img.style.opacity = '0.4';\n" +
+                "            insertAtCursor(img);\n" +
+                "        }\n" +
+                "        \n" +
+                "        function setUploadProgress(uploadId, percent) {\n" +
+                "            const img = findUpload(uploadId);\n" +
+                "            if (img) img.style.opacity = String(0.4 + 0.6 * percent / 100);\n" +
+                "        }\n" +
+                "        \n" +
+                "        function removeImage(uploadId) {\n" +
+                "            const img = findUpload(uploadId);\n" +
+                "            if (!img) return;\n" +
+                "            img.remove();\n" +
+                "            notifyChanged();\n" +
+                "        }\n" +
+                "        \n" +
+                "        function findUpload(uploadId) {\n" +
+                "            return editor.querySelector('img[data-upload-id=\"' + uploadId + '\"]');\n" +
+                "        }\n" +
+                "        \n" +
+                "        function notifyChanged() {\n" +
+                "            if (typeof Android !== 'undefined') {\n" +
+                "                Android.onContentChanged(editor.innerHTML);\n" +
+                "            }\n" +
+                "        }\n" +
+                "        \n" +
+                "        function insertAtCursor(img) {\n" +
                 "            img.style.maxWidth = '100%';\n" +
+                "            if (editor.classList.contains('placeholder')) {\n" +
+                "                editor.innerHTML = '';\n" +
+                "                editor.classList.remove('placeholder');\n" +
+                "            }\n" +
                 "            \n" +
                 "            const selection = window.getSelection();\n" +
                 "            if (selection.rangeCount > 0) {\n" +
@@ -268,10 +321,7 @@ public class NewPostActivity extends AppCompatActivity {
                 "                editor.appendChild(img);\n" +
                 "                editor.appendChild(document.createElement('br'));\n" +
                 "            }\n" +
-                "            \n" +
-                "            if (typeof Android !== 'undefined') {\n" +
-                "                Android.onContentChanged(editor.innerHTML);\n" +
-                "            }\n" +
+                "            notifyChanged();\n" +
                 "        }\n" +
                 "        \n" +
                 "        function formatText(tag) {\n" +
@@ -312,13 +362,13 @@ public class NewPostActivity extends AppCompatActivity {
 
     private void initImagePicker() {
         pickImageLauncher = registerForActivityResult(
-                new ActivityResultContracts.GetContent(),
-                uri -> {
-                    if (uri != null) {
-                        selectedImageUris.add(uri);
+                new ActivityResultContracts.GetMultipleContents(),
+                uris -> {
+                    if (uris != null && !uris.isEmpty()) {
+                        selectedImageUris.addAll(uris);
                         rvSelectedImages.setVisibility(View.VISIBLE);
                         imageAdapter.notifyDataSetChanged();
-                        uploadAndInsertImage(uri);
+                        uploadAndInsertImages(uris);
                     }
                 }
         );
@@ -361,6 +411,40 @@ public class NewPostActivity extends AppCompatActivity {
 
     private void initImageUploadHelper() {
         imageUploadHelper = new ImageUploadHelper(this);
+        uploadQueue = new ImageUploadQueue(imageUploadHelper, ImageUploadQueue.DEFAULT_MAX_PARALLEL,
+                new ImageUploadQueue.Listener() {
+                    @Override
+                    public void onProgress(ImageUploadQueue.Item item, int percent) {
+                        runEditorScript("setUploadProgress(" + JSONObject.quote(item.id) + ", " + percent + ");");
+                    }
+
+                    @Override
+                    public void onUploaded(ImageUploadQueue.Item item, String imageUrl) {
+                        runEditorScript("insertImage(" + JSONObject.quote(imageUrl) + ", "
+                                + JSONObject.quote(item.id) + ");");
+                    }
+
+                    @Override
+                    public void onFailed(ImageUploadQueue.Item item, String error) {
+                        Toast.makeText(NewPostActivity.this, "图片上传失败: " + error, Toast.LENGTH_SHORT).show();
+                        runEditorScript("removeImage(" + JSONObject.quote(item.id) + ");");
+                        int index = selectedImageUploadIds.indexOf(item.id);
+                        if (index >= 0) {
+                            selectedImageUploadIds.remove(index);
+                            selectedImageUris.remove(index);
+                            imageAdapter.notifyItemRemoved(index);
+                            if (selectedImageUris.isEmpty()) {
+                                rvSelectedImages.setVisibility(View.GONE);
+                            }
+                        }
+                    }
+                });
+    }
+
+    private void runEditorScript(String script) {
+        if (webViewContent != null) {
+            webViewContent.evaluateJavascript(script, null);
+        }
     }
 
     private void handleIntent() {
@@ -378,6 +462,9 @@ public class NewPostActivity extends AppCompatActivity {
      * 更新发布按钮状态
      */
     private void updatePublishButton() {
+        if (publishPending) {
+            return;
+        }
         boolean hasTitle = etTitle.getText().length() > 0;
         boolean hasContent = !currentHtmlContent.isEmpty() &&
                 !currentHtmlContent.equals("请输入内容...") &&
@@ -775,6 +862,7 @@ public class NewPostActivity extends AppCompatActivity {
             if (TextUtils.isEmpty(content) || content.equals("请输入内容...")) {
                 content = "";
             }
+            content = stripUploadPlaceholders(content);
 
             Integer typeId = null;
             Integer gameId = null;
@@ -812,43 +900,40 @@ public class NewPostActivity extends AppCompatActivity {
         }
     }
 
-    private void uploadAndInsertImage(Uri imageUri) {
+    /**
+     * 先插入本地图片作为占位，上传完成后换成服务器地址
+     */
+    private void uploadAndInsertImages(List<Uri> imageUris) {
         String token = getValidToken();
         if (token == null) {
+            for (int i = 0; i < imageUris.size(); i++) {
+                selectedImageUploadIds.add(null);
+            }
             Toast.makeText(this, "请先登录", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        Toast.makeText(this, "正在上传图片...", Toast.LENGTH_SHORT).show();
+        Toast.makeText(this, "正在上传 " + imageUris.size() + " 张图片...", Toast.LENGTH_SHORT).show();
 
-        imageUploadHelper.uploadImage(imageUri, token, new ImageUploadHelper.ImageUploadCallback() {
-            @Override
-            public void onSuccess(String imageUrl) {
-                runOnUiThread(() -> {
-                    uploadedImageUrls.add(imageUrl);
-                    String jsCode = String.format("insertImage('%s');", imageUrl);
-                    webViewContent.evaluateJavascript(jsCode, null);
-                    Toast.makeText(NewPostActivity.this, "图片上传成功", Toast.LENGTH_SHORT).show();
-                });
-            }
+        for (Uri uri : imageUris) {
+            ImageUploadQueue.Item item = uploadQueue.enqueue(uri, token);
+            selectedImageUploadIds.add(item.id);
+            runEditorScript("insertPlaceholder(" + JSONObject.quote(uri.toString()) + ", "
+                    + JSONObject.quote(item.id) + ");");
+        }
+    }
 
-            @Override
-            public void onFailure(String error) {
-                runOnUiThread(() -> {
-                    Toast.makeText(NewPostActivity.this, "图片上传失败: " + error, Toast.LENGTH_SHORT).show();
-                    if (!selectedImageUris.isEmpty()) {
-                        selectedImageUris.remove(selectedImageUris.size() - 1);
-                        imageAdapter.notifyDataSetChanged();
-                        if (selectedImageUris.isEmpty()) {
-                            rvSelectedImages.setVisibility(View.GONE);
-                        }
-                    }
-                });
-            }
-        });
+    /**
+     * 去掉还没上传完成的占位图，本地地址不能发布或存进草稿
+     */
+    private static String stripUploadPlaceholders(String html) {
+        return html == null ? "" : html.replaceAll("<img[^>]*data-upload-id=[^>]*>", "");
     }
 
     private void publishPost() {
+        if (publishPending) {
+            return;
+        }
         String title = etTitle.getText().toString().trim();
         String content = currentHtmlContent;
 
@@ -874,7 +959,24 @@ public class NewPostActivity extends AppCompatActivity {
             return;
         }
 
-        publishPostWithRichText(title, content, token);
+        publishPending = true;
+        if (uploadQueue.isIdle()) {
+            publishPostWithRichText(title, stripUploadPlaceholders(content), token);
+            return;
+        }
+
+        // 图片并行上传，等最慢的一张完成后读取替换过地址的内容再发布
+        btnPublish.setEnabled(false);
+        btnPublish.setText("等待图片上传...");
+        uploadQueue.whenIdle(() -> webViewContent.evaluateJavascript("getContent()", value -> {
+            String html = currentHtmlContent;
+            try {
+                html = new JSONArray("[" + value + "]").getString(0);
+            } catch (Exception e) {
+                Log.w(TAG, "读取编辑器内容失败: " + e.getMessage());
+            }
+            publishPostWithRichText(title, stripUploadPlaceholders(html), token);
+        }));
     }
 
     private void publishPostWithRichText(String title, String content, String token) {
@@ -884,6 +986,7 @@ public class NewPostActivity extends AppCompatActivity {
             jsonBody.put("postContent", content);
             jsonBody.put("sectionId", selectedSection.getSectionId());
 
+            List<String> uploadedImageUrls = uploadQueue.getUploadedUrls();
             if (!uploadedImageUrls.isEmpty()) {
                 jsonBody.put("photo", uploadedImageUrls.get(0));
             }
@@ -907,8 +1010,7 @@ public class NewPostActivity extends AppCompatActivity {
                 @Override
                 public void onFailure(Call call, IOException e) {
                     runOnUiThread(() -> {
-                        btnPublish.setEnabled(true);
-                        btnPublish.setText("发布");
+                        onPublishFinished();
                         Toast.makeText(NewPostActivity.this, "发布失败：" + e.getMessage(), Toast.LENGTH_SHORT).show();
                     });
                 }
@@ -918,8 +1020,7 @@ public class NewPostActivity extends AppCompatActivity {
                     String respStr = response.body().string();
 
                     runOnUiThread(() -> {
-                        btnPublish.setEnabled(true);
-                        btnPublish.setText("发布");
+                        onPublishFinished();
 
                         if (response.isSuccessful()) {
                             try {
@@ -950,11 +1051,19 @@ public class NewPostActivity extends AppCompatActivity {
         } catch (Exception e) {
             Log.e(TAG, "构造请求错误: " + e.getMessage());
             Toast.makeText(this, "构造请求失败: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-            btnPublish.setEnabled(true);
-            btnPublish.setText("发布");
+            onPublishFinished();
         }
     }
 
+    /**
+     * 发布结束（成功或失败），恢复发布按钮
+     */
+    private void onPublishFinished() {
+        publishPending = false;
+        btnPublish.setEnabled(true);
+        btnPublish.setText("发布");
+    }
+
     public static void startForEditDraft(Context context, int draftId) {
         Intent intent = new Intent(context, NewPostActivity.class);
         intent.putExtra("draft_id", draftId);
@@ -967,6 +1076,9 @@ public class NewPostActivity extends AppCompatActivity {
         if (webViewContent != null) {
             webViewContent.destroy();
         }
+        if (uploadQueue != null) {
+            uploadQueue.cancelAll();
+        }
         if (imageUploadHelper != null) {
             imageUploadHelper.destroy();
         }
@@ -29,20 +29,24 @@ import com.app.gameform.domain.Comment;
 import com.app.gameform.domain.Post;
 import com.app.gameform.manager.CommentLikeManager;
 import com.app.gameform.manager.CommentManager;
+import com.app.gameform.manager.FeedStore;
+import com.app.gameform.manager.InteractionStatusManager;
 import com.app.gameform.manager.PostFavoriteManager;
 import com.app.gameform.manager.SharedPrefManager;
 import com.app.gameform.manager.UserFollowManager;
 import com.app.gameform.network.ApiCallback;
-import com.app.gameform.network.ApiService;
+import com.app.gameform.network.GsonProvider;
+import com.app.gameform.network.HttpClientProvider;
+import com.app.gameform.network.RequestScheduler;
 import com.app.gameform.utils.ImageUtils;
 import com.app.gameform.utils.TimeUtils;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import de.hdodenhof.circleimageview.CircleImageView;
@@ -101,15 +105,14 @@ public class PostDetailActivity extends AppCompatActivity {
     private boolean favoriteLoading = false;
 
     // 管理器
-    private OkHttpClient client = new OkHttpClient();
-    private Gson gson = new GsonBuilder()
-            .setDateFormat("yyyy-MM-dd HH:mm:ss")
-            .create();
+    private OkHttpClient client = HttpClientProvider.getInstance().getClient();
+    private Gson gson = GsonProvider.getGson();
     private PostFavoriteManager favoriteManager;
     private CommentManager commentManager;
     private SharedPrefManager sharedPrefManager;
     private CommentLikeManager commentLikeManager;
     private UserFollowManager followManager;  // 新增：关注管理器
+    private InteractionStatusManager interactionStatusManager;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -143,6 +146,7 @@ public class PostDetailActivity extends AppCompatActivity {
         commentManager = new CommentManager(this);
         commentLikeManager = new CommentLikeManager(this);
         followManager = new UserFollowManager(this);  // 新增：初始化关注管理器
+        interactionStatusManager = InteractionStatusManager.getInstance(this);
     }
 
     /**
@@ -340,7 +344,7 @@ public class PostDetailActivity extends AppCompatActivity {
             String url = USER_POST + postId;
             Request request = createGetRequest(url);
 
-            client.newCall(request).enqueue(new Callback() {
+            RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.VISIBLE, new Callback() {
                 @Override
                 public void onFailure(Call call, IOException e) {
                     Log.e(TAG, "loadPostDetails onFailure: ", e);
@@ -409,6 +413,8 @@ public class PostDetailActivity extends AppCompatActivity {
 
     /**
      * 检查所有状态（点赞、收藏、关注）
+     * 列表页批量查询过的状态直接使用，缺少的再合并成一次批量查询；
+     * 批量查询不可用时退回到逐项查询，详情页只有这一个帖子
      */
     private void checkAllStatus() {
         if (!isLoggedIn || currentPost == null) {
@@ -423,28 +429,55 @@ public class PostDetailActivity extends AppCompatActivity {
             ivFollow.setVisibility(View.GONE);
         } else {
             ivFollow.setVisibility(View.VISIBLE);
-            checkFollowStatus();
         }
 
-        // 检查点赞和收藏状态
-        checkLikeStatus();
-        checkFavoriteStatus();
+        if (applyCachedStatus()) {
+            return;
+        }
+        interactionStatusManager.loadForPosts(Collections.singletonList(currentPost), () -> {
+            if (!isFinishing() && !isDestroyed()) {
+                applyCachedStatus();
+            }
+        }, () -> {
+            if (!isFinishing() && !isDestroyed()) {
+                checkMissingStatus();
+            }
+        });
     }
 
     /**
-     * 检查点赞状态 - 参照Vue网页端实现
+     * 逐项查询缓存中还没有的状态
      */
-    private void checkLikeStatus() {
+    private void checkMissingStatus() {
         if (currentPost == null) return;
 
+        if (interactionStatusManager.getLikeStatus(currentPost.getPostId()) == null) {
+            checkLikeStatus();
+        }
+        if (interactionStatusManager.getFavoriteStatus(currentPost.getPostId()) == null) {
+            checkFavoriteStatus();
+        }
+        if (!isOwnPost && interactionStatusManager.getFollowStatus(currentPost.getUserId()) == null) {
+            checkFollowStatus();
+        }
+    }
+
+    /**
+     * 检查点赞状态 - 参照Vue网页端实现
+     */
+    private void checkLikeStatus() {
         ApiService.getInstance().checkPostLikeStatus(this, currentPost.getPostId(),
                 new ApiCallback<Boolean>() {
                     @Override
                     public void onSuccess(Boolean liked) {
                         runOnUiThread(() -> {
-                            hasLiked = liked != null && liked;
-                            updateLikeUI();
-                            Log.d(TAG, "点赞状态检查完成 - hasLiked: " + hasLiked);
+                            boolean value = liked != null && liked;
+                            interactionStatusManager.setLiked(currentPost.getPostId(), value);
+                            if (!likeLoading) {
+                                hasLiked = value;
+                                updateLikeUI();
+                            }
+                            Log.d(TAG, "点赞状态检查完成 - hasLiked: " + value);
                         });
                     }
 
@@ -463,8 +496,12 @@ public class PostDetailActivity extends AppCompatActivity {
             @Override
             public void onSuccess(Boolean favorited) {
                 runOnUiThread(() -> {
-                    hasFavorited = favorited != null && favorited;
-                    updateFavoriteUI();
+                    boolean value = favorited != null && favorited;
+                    interactionStatusManager.setFavorited(currentPost.getPostId(), value);
+                    if (!favoriteLoading) {
+                        hasFavorited = value;
+                        updateFavoriteUI();
+                    }
                 });
             }
 
@@ -479,16 +516,16 @@ public class PostDetailActivity extends AppCompatActivity {
      * 检查关注状态
      */
     private void checkFollowStatus() {
-        if (currentPost == null || currentPost.getUserId() == null) {
+        if (currentPost.getUserId() == null) {
             return;
         }
 
-        // 使用 UserFollowManager 检查关注状态
         followManager.checkFollowStatus(currentPost.getUserId(), new ApiCallback<Boolean>() {
             @Override
             public void onSuccess(Boolean hasFollowedStatus) {
                 runOnUiThread(() -> {
                     hasFollowed = hasFollowedStatus != null && hasFollowedStatus;
+                    interactionStatusManager.setFollowed(currentPost.getUserId(), hasFollowed);
                     updateFollowUI();
                     Log.d(TAG, "关注状态检查完成 - hasFollowed: " + hasFollowed);
                 });
@@ -497,15 +534,36 @@ public class PostDetailActivity extends AppCompatActivity {
             @Override
             public void onError(String error) {
                 Log.e(TAG, "检查关注状态失败: " + error);
-                // 失败时默认显示未关注状态
-                runOnUiThread(() -> {
-                    hasFollowed = false;
-                    updateFollowUI();
-                });
             }
         });
     }
 
+    /**
+     * 把缓存中的互动状态应用到界面
+     * @return 点赞、收藏、关注状态是否都已知
+     */
+    private boolean applyCachedStatus() {
+        Boolean liked = interactionStatusManager.getLikeStatus(currentPost.getPostId());
+        Boolean favorited = interactionStatusManager.getFavoriteStatus(currentPost.getPostId());
+        Boolean followed = isOwnPost ? Boolean.FALSE
+                : interactionStatusManager.getFollowStatus(currentPost.getUserId());
+
+        if (liked != null && !likeLoading) {
+            hasLiked = liked;
+            updateLikeUI();
+        }
+        if (favorited != null && !favoriteLoading) {
+            hasFavorited = favorited;
+            updateFavoriteUI();
+        }
+        if (followed != null && !isOwnPost) {
+            hasFollowed = followed;
+            updateFollowUI();
+        }
+        Log.d(TAG, "互动状态 - hasLiked: " + liked + ", hasFavorited: " + favorited + ", hasFollowed: " + followed);
+        return liked != null && favorited != null && followed != null;
+    }
+
     /**
      * 更新帖子UI
      */
@@ -603,6 +661,8 @@ public class PostDetailActivity extends AppCompatActivity {
                 currentPost.getCommentCount() != null ? currentPost.getCommentCount() : 0));
         tvViewCount.setText(String.valueOf(
                 currentPost.getViewCount() != null ? currentPost.getViewCount() : 0));
+        // 同步到首页各标签页中的同一帖子
+        FeedStore.getInstance().updateCounts(currentPost);
     }
 
     /**
@@ -676,7 +736,7 @@ public class PostDetailActivity extends AppCompatActivity {
                 Log.d(TAG, "发送POST请求点赞: " + url);
             }
 
-            client.newCall(request).enqueue(new Callback() {
+            RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.INTERACTION, new Callback() {
                 @Override
                 public void onFailure(Call call, IOException e) {
                     Log.e(TAG, "点赞请求失败: ", e);
@@ -708,6 +768,8 @@ public class PostDetailActivity extends AppCompatActivity {
                                     Log.d(TAG, "点赞操作成功 - 最终状态: " +
                                             (hasLiked ? "已点赞" : "未点赞") +
                                             ", 点赞数: " + currentPost.getLikeCount());
+                                    interactionStatusManager.setLiked(currentPost.getPostId(), hasLiked);
+                                    FeedStore.getInstance().notifyChanged(currentPost.getPostId());
                                     showToast(hasLiked ? "点赞成功" : "取消点赞");
                                 } else {
                                     // 服务器返回失败：回滚状态
@@ -784,6 +846,7 @@ public class PostDetailActivity extends AppCompatActivity {
                 public void onSuccess(String message) {
                     runOnUiThread(() -> {
                         hasFavorited = false;
+                        interactionStatusManager.setFavorited(currentPost.getPostId(), false);
                         updateFavoriteUI();
                         showToast("取消收藏成功");
                         favoriteLoading = false;
@@ -803,6 +866,7 @@ public class PostDetailActivity extends AppCompatActivity {
                 public void onSuccess(String message) {
                     runOnUiThread(() -> {
                         hasFavorited = true;
+                        interactionStatusManager.setFavorited(currentPost.getPostId(), true);
                         updateFavoriteUI();
                         showToast("收藏成功");
                         favoriteLoading = false;
@@ -844,6 +908,7 @@ public class PostDetailActivity extends AppCompatActivity {
                     public void onUpdate(boolean hasFollowedNow, String message) {
                         // 更新关注状态
                         hasFollowed = hasFollowedNow;
+                        interactionStatusManager.setFollowed(currentPost.getUserId(), hasFollowedNow);
                         // 更新UI
                         updateFollowUI();
                         Log.d(TAG, "关注状态更新: " + hasFollowedNow);
@@ -907,7 +972,7 @@ public class PostDetailActivity extends AppCompatActivity {
                     if (comments != null) {
                         commentList.addAll(comments);
                     }
-                    commentAdapter.notifyDataSetChanged();
+                    commentAdapter.updateCommentList(commentList);
                     Log.d(TAG, "评论加载成功，共 " + commentList.size() + " 条");
                 });
             }
@@ -315,7 +315,7 @@ public class PostFavoriteActivity extends AppCompatActivity {
                         showEmpty();
                     } else {
                         showContent();
-                        adapter.notifyDataSetChanged();
+                        adapter.submitList(favoriteList);
                     }
                 });
             }
@@ -23,10 +23,12 @@ import com.app.gameform.adapter.PostAdapter;
 import com.app.gameform.domain.Draft;
 import com.app.gameform.domain.Post;
 import com.app.gameform.manager.DraftManager;
+import com.app.gameform.manager.FeedSync;
 import com.app.gameform.manager.SharedPrefManager;
 import com.app.gameform.network.ApiCallback;
 import com.app.gameform.network.ApiConstants;
 import com.app.gameform.network.ApiService;
+import com.app.gameform.utils.FrameTimeMonitor;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -49,6 +51,8 @@ public class PostListFragment extends Fragment {
     private int currentPage = 1;
     private boolean hasMoreData = true;
     private boolean isLoading = false;
+    // 第一页显示的是本地保存的帖子
+    private boolean hasLocalPosts = false;
 
     // 根据类型使用不同的适配器
     private PostAdapter postAdapter;
@@ -61,6 +65,9 @@ public class PostListFragment extends Fragment {
     private DraftManager draftManager;
     private SharedPrefManager sharedPrefManager;
 
+    // 帧耗时监测，debug 包中页面可见期间开启
+    private final FrameTimeMonitor frameTimeMonitor = new FrameTimeMonitor(TAG);
+
     public static PostListFragment newInstance(int type) {
         PostListFragment fragment = new PostListFragment();
         Bundle args = new Bundle();
@@ -245,6 +252,7 @@ public class PostListFragment extends Fragment {
         currentPage = 1;
         hasMoreData = true;
         isLoading = false;
+        hasLocalPosts = false;
     }
 
     private void loadMorePosts() {
@@ -294,91 +302,68 @@ public class PostListFragment extends Fragment {
         Log.d(TAG, "Token: Bearer " + token.substring(0, Math.min(30, token.length())) + "...");
         Log.d(TAG, "=====================================");
 
-        ApiService.getInstance().getRequestWithAuth(
-                getContext(),
-                url,
-                new ApiCallback<String>() {
-                    @Override
-                    public void onSuccess(String response) {
-                        Log.d(TAG, "✅ API请求成功");
-                        Log.d(TAG, "响应内容: " + response);
+        // 本地保存的帖子先显示，服务器结果写入本地后再更新；离线时继续翻本地保存的页
+        String feed = "my:" + sharedPrefManager.getUserId();
+        FeedSync sync = new FeedSync(requireContext(), feed, PAGE_SIZE,
+                (page, callback) -> ApiService.getInstance().getPostsWithAuthAndPagination(
+                        requireContext(), ApiConstants.GET_MY_POSTS, page, PAGE_SIZE, callback));
 
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                isLoading = false;
-                                try {
-                                    ApiService.ApiResponse<List<Post>> apiResponse =
-                                            ApiService.getInstance().getGson().fromJson(
-                                                    response,
-                                                    new com.google.gson.reflect.TypeToken<ApiService.ApiResponse<List<Post>>>(){}.getType()
-                                            );
-
-                                    Log.d(TAG, "响应解析成功 - code: " + apiResponse.getCode() + ", msg: " + apiResponse.getMsg());
-
-                                    if (apiResponse.isSuccess() && apiResponse.getData() != null) {
-                                        List<Post> newPosts = apiResponse.getData();
-                                        Log.d(TAG, "获取到帖子数量: " + newPosts.size());
-
-                                        hasMoreData = newPosts.size() == PAGE_SIZE;
-
-                                        if (isLoadMore) {
-                                            int startPosition = postList.size();
-                                            postList.addAll(newPosts);
-                                            postAdapter.notifyItemRangeInserted(startPosition, newPosts.size());
-                                            Log.d(TAG, "追加帖子 - 从位置: " + startPosition + ", 数量: " + newPosts.size());
-                                        } else {
-                                            postList.clear();
-                                            postList.addAll(newPosts);
-                                            postAdapter.notifyDataSetChanged();
-                                            Log.d(TAG, "刷新帖子列表 - 总数: " + postList.size());
-                                        }
-                                    } else {
-                                        Log.w(TAG, "API返回失败或无数据");
-                                        if (!isLoadMore) {
-                                            postList.clear();
-                                        }
-                                        hasMoreData = false;
-                                        Toast.makeText(getContext(),
-                                                apiResponse.getMsg() != null ? apiResponse.getMsg() : "获取数据失败",
-                                                Toast.LENGTH_SHORT).show();
-                                    }
-                                    updateUI();
-                                } catch (Exception e) {
-                                    Log.e(TAG, "❌ 解析响应失败: " + e.getMessage());
-                                    e.printStackTrace();
-
-                                    if (!isLoadMore) {
-                                        postList.clear();
-                                    }
-                                    hasMoreData = false;
-                                    updateUI();
-                                    Toast.makeText(getContext(), "解析数据失败: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                                }
-                            });
-                        }
-                    }
-
-                    @Override
-                    public void onError(String error) {
-                        Log.e(TAG, "❌ API请求失败: " + error);
+        int page = currentPage;
+        sync.loadPage(page, new FeedSync.Listener() {
+            @Override
+            public void onPage(List<Post> posts, boolean fromNetwork) {
+                if (!isAdded()) return;
+                if (!fromNetwork && page == 1) {
+                    // 第一页的本地数据，保持加载状态等服务器结果
+                    hasLocalPosts = true;
+                    postList.clear();
+                    postList.addAll(posts);
+                    postAdapter.submitList(postList);
+                    updateUI();
+                    return;
+                }
 
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                isLoading = false;
+                isLoading = false;
+                Log.d(TAG, "获取到帖子数量: " + posts.size() + (fromNetwork ? "" : "（本地）"));
+                hasMoreData = posts.size() == PAGE_SIZE;
 
-                                if (isLoadMore && currentPage > 1) {
-                                    currentPage--;
-                                } else if (!isLoadMore) {
-                                    postList.clear();
-                                }
+                if (isLoadMore) {
+                    postList.addAll(posts);
+                } else {
+                    postList.clear();
+                    postList.addAll(posts);
+                }
+                // 后台比较后只重绑变化的行
+                postAdapter.submitList(postList);
+                // 本页的点赞/收藏/关注状态一次批量查询，本地数据离线时不查询
+                if (fromNetwork) {
+                    postAdapter.loadInteractionStatus(posts);
+                }
+                updateUI();
+            }
 
-                                updateUI();
-                                Toast.makeText(getContext(), "加载失败: " + error, Toast.LENGTH_SHORT).show();
-                            });
-                        }
+            @Override
+            public void onError(String error) {
+                if (!isAdded()) return;
+                Log.e(TAG, "❌ API请求失败: " + error);
+                isLoading = false;
+
+                if (isLoadMore) {
+                    if (currentPage > 1) {
+                        currentPage--;
                     }
+                } else if (hasLocalPosts) {
+                    // 离线：本地第一页已显示，按本地条数决定能否继续往下翻
+                    hasMoreData = postList.size() == PAGE_SIZE;
+                } else {
+                    postList.clear();
+                    postAdapter.submitList(postList);
                 }
-        );
+
+                updateUI();
+                Toast.makeText(getContext(), "加载失败: " + error, Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     private void updateEmptyText(String text) {
@@ -533,8 +518,7 @@ public class PostListFragment extends Fragment {
                             getActivity().runOnUiThread(() -> {
                                 if (position >= 0 && position < postList.size()) {
                                     postList.remove(position);
-                                    postAdapter.notifyItemRemoved(position);
-                                    postAdapter.notifyItemRangeChanged(position, postList.size());
+                                    postAdapter.submitList(postList);
                                 }
                                 updateUI();
                                 Toast.makeText(getContext(), "帖子已删除", Toast.LENGTH_SHORT).show();
@@ -656,8 +640,7 @@ public class PostListFragment extends Fragment {
     public void addPost(Post post) {
         if (type == TYPE_PUBLISHED && postList != null) {
             postList.add(0, post);
-            postAdapter.notifyItemInserted(0);
-            recyclerView.scrollToPosition(0);
+            postAdapter.submitList(postList, () -> recyclerView.scrollToPosition(0));
             updateUI();
         }
     }
@@ -685,6 +668,7 @@ public class PostListFragment extends Fragment {
     public void onResume() {
         super.onResume();
         Log.d(TAG, "Fragment onResume - 类型: " + (type == TYPE_DRAFT ? "草稿" : "已发布"));
+        frameTimeMonitor.start();
 
         if (type == TYPE_DRAFT) {
             loadDraftPosts();
@@ -697,6 +681,7 @@ public class PostListFragment extends Fragment {
     public void onPause() {
         super.onPause();
         Log.d(TAG, "Fragment onPause");
+        frameTimeMonitor.stop();
     }
 
     @Override
@@ -35,6 +35,8 @@ import com.app.gameform.network.ApiConstants;
 import com.app.gameform.network.ApiService;
 
 import com.app.gameform.utils.EndlessRecyclerViewScrollListener;
+import com.app.gameform.utils.PostWindow;
+import com.app.gameform.utils.PrefetchPolicy;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
@@ -81,10 +83,13 @@ public class SearchResultActivity extends AppCompatActivity implements
     private int totalCount = 0;
 
     // 分页参数
+    private static final int POST_PAGE_SIZE = 10;
     private int currentPage = 1;
     private boolean isLoading = false;
     private boolean hasMore = true;
     private EndlessRecyclerViewScrollListener scrollListener;
+    // 帖子结果的窗口：可见区域附近之外的帖子换成占位并暂存到本地
+    private PostWindow postWindow;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -186,8 +191,33 @@ public class SearchResultActivity extends AppCompatActivity implements
                     loadMoreData();
                 }
             }
+
+            @Override
+            protected boolean hasMoreData() {
+                return hasMore;
+            }
         };
+        // 提前量按滚动速度和搜索接口的耗时调整，静止时仍是剩余 5 条开始加载
+        PrefetchPolicy prefetchPolicy = new PrefetchPolicy(POST_PAGE_SIZE, scrollListener.getVisibleThreshold());
+        prefetchPolicy.setConnectionType(PrefetchPolicy.detect(this));
+        prefetchPolicy.seedFromMetrics("SEARCH_POSTS");
+        scrollListener.setPrefetchPolicy(prefetchPolicy);
         rvSearchResults.addOnScrollListener(scrollListener);
+
+        postWindow = new PostWindow(this, "search", POST_PAGE_SIZE, PostWindow.listHost(postList),
+                () -> postAdapter.submitList(postList));
+        rvSearchResults.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                // 游戏、版块标签页不是帖子列表，位置对不上；切换标签时布局管理器会被替换
+                if (recyclerView.getAdapter() == postAdapter
+                        && recyclerView.getLayoutManager() instanceof LinearLayoutManager) {
+                    LinearLayoutManager manager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                    postWindow.onVisibleRange(manager.findFirstVisibleItemPosition(),
+                            manager.findLastVisibleItemPosition());
+                }
+            }
+        });
     }
 
     private void handleSearch() {
@@ -213,6 +243,7 @@ public class SearchResultActivity extends AppCompatActivity implements
 
     private void clearAllData() {
         postList.clear();
+        postWindow.reset();
         gameList.clear();
         sectionList.clear();
 
@@ -395,12 +426,14 @@ public class SearchResultActivity extends AppCompatActivity implements
                 runOnUiThread(() -> {
                     if (currentPage == 1) {
                         postList.clear();
+                        postWindow.reset();
                     }
 
                     if (posts != null && !posts.isEmpty()) {
                         postList.addAll(posts);
+                        postAdapter.loadInteractionStatus(posts);
                         postsCount = postList.size();
-                        hasMore = posts.size() >= 10; // 假设每页10条
+                        hasMore = posts.size() >= POST_PAGE_SIZE;
                     } else {
                         hasMore = false;
                     }
@@ -558,22 +591,11 @@ public class SearchResultActivity extends AppCompatActivity implements
             layoutSearchStats.setVisibility(View.GONE);
         }
 
-        // 通知适配器数据更新
-        switch (currentTab) {
-            case "posts":
-                postAdapter.notifyDataSetChanged();
-                break;
-            case "games":
-                gameAdapter.notifyDataSetChanged();
-                break;
-            case "sections":
-                sectionAdapter.notifyDataSetChanged();
-                break;
-            case "all":
-                // 全部标签页主要显示帖子
-                postAdapter.notifyDataSetChanged();
-                break;
-        }
+        // 三个列表都提交给适配器，切换标签时显示的就是最新快照；
+        // 差异在后台计算，没有变化的列表不会重绑
+        postAdapter.submitList(postList);
+        gameAdapter.submitList(gameList);
+        sectionAdapter.submitList(sectionList);
     }
 
     private void showLoading() {
@@ -715,6 +737,14 @@ public class SearchResultActivity extends AppCompatActivity implements
     }
 
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (postWindow != null) {
+            postWindow.release();
+        }
+    }
+
     // 实现 GameAdapter 接口
     @Override
     public void onItemClick(Game game) {
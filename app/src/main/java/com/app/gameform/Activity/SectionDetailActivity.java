@@ -22,12 +22,15 @@ import com.app.gameform.adapter.PostAdapter;
 import com.app.gameform.domain.Game;
 import com.app.gameform.domain.Post;
 import com.app.gameform.domain.Section;
+import com.app.gameform.manager.FeedSync;
 import com.app.gameform.manager.PostLikeManager;
 import com.app.gameform.network.ApiCallback;
 import com.app.gameform.network.ApiConstants;
 import com.app.gameform.network.ApiService;
 import com.app.gameform.utils.ImageUtils;
 import com.app.gameform.utils.LazyLoadingHelper;
+import com.app.gameform.utils.PostWindow;
+import com.app.gameform.utils.PrefetchPolicy;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
@@ -74,6 +77,10 @@ public class SectionDetailActivity extends AppCompatActivity implements
     // Cache
     private SharedPreferences prefs;
     private Map<String, List<Post>> dataCache = new HashMap<>();
+    // 各标签页缓存列表的窗口：可见区域附近之外的帖子换成占位并暂存到本地
+    private final Map<String, PostWindow> postWindows = new HashMap<>();
+    // 各标签页的本地优先加载：先显示数据库中的帖子，服务器结果写入数据库后再更新
+    private final Map<String, FeedSync> feedSyncs = new HashMap<>();
     private Map<String, Integer> scrollPositionCache = new HashMap<>();
 
     // Like manager
@@ -126,8 +133,13 @@ public class SectionDetailActivity extends AppCompatActivity implements
 
         // 为每个标签页初始化状态
         String[] tabs = {"hot", "latest"};
+        PrefetchPolicy.ConnectionType connectionType = PrefetchPolicy.detect(this);
         for (String tab : tabs) {
-            tabStates.put(tab, new LazyLoadingHelper.PaginationState(config));
+            LazyLoadingHelper.PaginationState state = new LazyLoadingHelper.PaginationState(config);
+            // 还没有本页的实测耗时前，先按网络类型和该接口的历史耗时估计提前量
+            state.getPrefetchPolicy().setConnectionType(connectionType);
+            state.getPrefetchPolicy().seedFromMetrics("hot".equals(tab) ? "GET_HOT_POSTS" : "GET_POSTS_BY_SECTION");
+            tabStates.put(tab, state);
         }
     }
 
@@ -143,6 +155,14 @@ public class SectionDetailActivity extends AppCompatActivity implements
         restoreScrollPosition();
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        for (PostWindow window : postWindows.values()) {
+            window.release();
+        }
+    }
+
     private void initViews() {
         tvBack = findViewById(R.id.tv_back);
         ivGameIcon = findViewById(R.id.iv_game_icon);
@@ -178,7 +198,7 @@ public class SectionDetailActivity extends AppCompatActivity implements
         if (state != null) {
             state.reset();
             // 清除缓存
-            dataCache.remove(currentTab);
+            replaceCache(currentTab, new ArrayList<>());
             loadPostDataWithCache(currentTab);
         }
     }
@@ -198,13 +218,21 @@ public class SectionDetailActivity extends AppCompatActivity implements
             loadMorePosts();
         };
 
+        // 按当前标签页的分页状态判断，切换标签后提前量和页码跟着切换
         RecyclerView.OnScrollListener scrollListener = LazyLoadingHelper.createScrollListener(
                 layoutManager,
-                getCurrentTabState(),
+                this::getCurrentTabState,
                 loadMoreListener
         );
 
         recyclerView.addOnScrollListener(scrollListener);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                windowOf(currentTab).onVisibleRange(layoutManager.findFirstVisibleItemPosition(),
+                        layoutManager.findLastVisibleItemPosition());
+            }
+        });
     }
 
     private void setupClickListeners() {
@@ -367,18 +395,19 @@ public class SectionDetailActivity extends AppCompatActivity implements
     }
 
     private void refreshDataInBackground(String type) {
-        loadPostsFromServer(type, 1, new ApiCallback<List<Post>>() {
+        syncOf(type).loadPage(1, new FeedSync.Listener() {
             @Override
-            public void onSuccess(List<Post> posts) {
-                runOnUiThread(() -> {
-                    // 更新缓存
-                    dataCache.put(type, new ArrayList<>(posts));
+            public void onPage(List<Post> posts, boolean fromNetwork) {
+                // 内存里已经有数据，只关心服务器结果
+                if (!fromNetwork) return;
 
-                    // 如果当前标签页还是这个类型，更新UI
-                    if (currentTab.equals(type)) {
-                        updatePostList(posts, false);
-                    }
-                });
+                // 更新缓存
+                replaceCache(type, posts);
+
+                // 如果当前标签页还是这个类型，更新UI
+                if (currentTab.equals(type)) {
+                    updatePostList(posts, false);
+                }
             }
 
             @Override
@@ -403,64 +432,73 @@ public class SectionDetailActivity extends AppCompatActivity implements
             // 显示加载状态
         }
 
-        loadPostsFromServer(type, state.getCurrentPage(), new ApiCallback<List<Post>>() {
+        int page = state.getCurrentPage();
+        // 第一页本地数据的条数，没有时为 -1
+        int[] localFirstPageSize = {-1};
+        syncOf(type).loadPage(page, new FeedSync.Listener() {
             @Override
-            public void onSuccess(List<Post> posts) {
-                runOnUiThread(() -> {
-                    state.setLoading(false);
-
-                    if (swipeRefreshLayout != null && swipeRefreshLayout.isRefreshing()) {
-                        swipeRefreshLayout.setRefreshing(false);
+            public void onPage(List<Post> posts, boolean fromNetwork) {
+                if (!fromNetwork && page == 1) {
+                    // 本地数据先显示，服务器结果到达后差量更新；加载状态保持不变
+                    localFirstPageSize[0] = posts.size();
+                    replaceCache(type, posts);
+                    if (currentTab.equals(type)) {
+                        updatePostList(posts, false);
                     }
+                    return;
+                }
 
-                    if (posts != null) {
-                        // 检查是否还有更多数据
-                        boolean hasMore = LazyLoadingHelper.shouldLoadMore(posts.size(), config.getPageSize());
-                        state.setHasMoreData(hasMore);
-
-                        if (isRefresh || state.getCurrentPage() == 1) {
-                            // 刷新或首次加载：替换数据
-                            dataCache.put(type, new ArrayList<>(posts));
-                            updatePostList(posts, false);
-                            if (isRefresh) {
-                                Toast.makeText(SectionDetailActivity.this, "刷新成功", Toast.LENGTH_SHORT).show();
-                            }
-                        } else {
-                            // 加载更多：追加数据
-                            List<Post> cachedData = dataCache.get(type);
-                            if (cachedData == null) {
-                                cachedData = new ArrayList<>();
-                                dataCache.put(type, cachedData);
-                            }
-                            cachedData.addAll(posts);
-                            updatePostList(posts, true);
-                        }
+                state.setLoading(false);
 
-                        if (hasMore) {
-                            state.nextPage();
-                        }
-                    } else {
-                        state.setHasMoreData(false);
+                if (swipeRefreshLayout != null && swipeRefreshLayout.isRefreshing()) {
+                    swipeRefreshLayout.setRefreshing(false);
+                }
+
+                // 检查是否还有更多数据
+                boolean hasMore = LazyLoadingHelper.shouldLoadMore(posts.size(), config.getPageSize());
+                state.setHasMoreData(hasMore);
+
+                if (isRefresh || page == 1) {
+                    // 刷新或首次加载：替换数据
+                    replaceCache(type, posts);
+                    if (currentTab.equals(type)) {
+                        updatePostList(posts, false);
                     }
-                });
+                    if (isRefresh) {
+                        Toast.makeText(SectionDetailActivity.this, "刷新成功", Toast.LENGTH_SHORT).show();
+                    }
+                } else {
+                    // 加载更多：追加数据（离线时是本地保存的同一页）
+                    cacheOf(type).addAll(posts);
+                    if (currentTab.equals(type)) {
+                        updatePostList(posts, true);
+                    }
+                }
+
+                if (hasMore) {
+                    state.nextPage();
+                }
             }
 
             @Override
             public void onError(String error) {
-                runOnUiThread(() -> {
-                    state.setLoading(false);
+                state.setLoading(false);
 
-                    if (swipeRefreshLayout != null && swipeRefreshLayout.isRefreshing()) {
-                        swipeRefreshLayout.setRefreshing(false);
-                    }
+                if (swipeRefreshLayout != null && swipeRefreshLayout.isRefreshing()) {
+                    swipeRefreshLayout.setRefreshing(false);
+                }
 
-                    // 加载失败时回退页码
-                    if (!isRefresh && state.getCurrentPage() > 1) {
-                        state.previousPage();
+                if (page == 1 && localFirstPageSize[0] >= 0) {
+                    // 离线：本地第一页已显示，和加载更多的本地页一样按条数往下翻本地保存的页
+                    boolean hasMore = LazyLoadingHelper.shouldLoadMore(localFirstPageSize[0], config.getPageSize());
+                    state.setHasMoreData(hasMore);
+                    if (hasMore) {
+                        state.nextPage();
                     }
+                }
+                // 页码只在成功后前进，失败时保持当前页，下次加载更多重试同一页
 
-                    Toast.makeText(SectionDetailActivity.this, "加载帖子失败: " + error, Toast.LENGTH_SHORT).show();
-                });
+                Toast.makeText(SectionDetailActivity.this, "加载帖子失败: " + error, Toast.LENGTH_SHORT).show();
             }
         });
     }
@@ -473,16 +511,65 @@ public class SectionDetailActivity extends AppCompatActivity implements
     }
 
     private void updatePostList(List<Post> newPosts, boolean isAppend) {
+        if (!isAppend) {
+            postList.clear();
+        }
+        postList.addAll(newPosts);
         if (isAppend) {
-            int startPosition = postList.size();
-            postList.addAll(newPosts);
-            postAdapter.notifyItemRangeInserted(startPosition, newPosts.size());
+            // 加载更多：后台比较后只插入新的行
+            postAdapter.submitList(postList);
         } else {
-            postList.clear();
-            postList.addAll(newPosts);
-            postAdapter.notifyDataSetChanged();
-            restoreScrollPosition();
+            // 刷新：差异提交到列表后再恢复滚动位置
+            postAdapter.submitList(postList, this::restoreScrollPosition);
+        }
+        // 本页的点赞/收藏/关注状态一次批量查询
+        postAdapter.loadInteractionStatus(newPosts);
+    }
+
+    /**
+     * 标签页的缓存列表；对象保持不变，窗口直接在这个列表上换出和恢复
+     */
+    private List<Post> cacheOf(String type) {
+        List<Post> cachedData = dataCache.get(type);
+        if (cachedData == null) {
+            cachedData = new ArrayList<>();
+            dataCache.put(type, cachedData);
+        }
+        return cachedData;
+    }
+
+    private void replaceCache(String type, List<Post> posts) {
+        windowOf(type).reset();
+        List<Post> cachedData = cacheOf(type);
+        cachedData.clear();
+        cachedData.addAll(posts);
+    }
+
+    private PostWindow windowOf(String type) {
+        PostWindow window = postWindows.get(type);
+        if (window == null) {
+            window = new PostWindow(this, "section_" + type, config.getPageSize(),
+                    PostWindow.listHost(cacheOf(type)), () -> {
+                        // 换出或恢复了帖子：按缓存重新提交，差量更新只重绑这些行
+                        if (type.equals(currentTab)) {
+                            postList.clear();
+                            postList.addAll(cacheOf(type));
+                            postAdapter.submitList(postList);
+                        }
+                    });
+            postWindows.put(type, window);
+        }
+        return window;
+    }
+
+    private FeedSync syncOf(String type) {
+        FeedSync sync = feedSyncs.get(type);
+        if (sync == null) {
+            sync = new FeedSync(this, "section:" + sectionId + ":" + type, config.getPageSize(),
+                    (page, callback) -> loadPostsFromServer(type, page, callback));
+            feedSyncs.put(type, sync);
         }
+        return sync;
     }
 
     private void loadPostsFromServer(String type, int page, ApiCallback<List<Post>> callback) {
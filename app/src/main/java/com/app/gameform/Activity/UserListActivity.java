@@ -145,7 +145,7 @@ public class UserListActivity extends AppCompatActivity {
                     if (data != null && !data.isEmpty()) {
                         userList.addAll(data);
                     }
-                    adapter.notifyDataSetChanged();
+                    adapter.submitList(userList);
                     updateEmptyState();
                 });
             }
@@ -174,7 +174,7 @@ public class UserListActivity extends AppCompatActivity {
                     if (data != null && !data.isEmpty()) {
                         userList.addAll(data);
                     }
-                    adapter.notifyDataSetChanged();
+                    adapter.submitList(userList);
                     updateEmptyState();
                 });
             }
@@ -238,8 +238,8 @@ public class UserListActivity extends AppCompatActivity {
                 runOnUiThread(() -> {
                     Toast.makeText(UserListActivity.this, "取消关注成功", Toast.LENGTH_SHORT).show();
                     // 从列表中移除
-                    userList.remove(position);
-                    adapter.notifyItemRemoved(position);
+                    userList.remove(user);
+                    adapter.submitList(userList);
                     updateEmptyState();
                 });
             }
@@ -20,6 +20,8 @@ import com.app.gameform.R;
 import com.app.gameform.adapter.PostAdapter;
 import com.app.gameform.domain.Post;
 import com.app.gameform.domain.User;
+import com.app.gameform.manager.FeedSync;
+import com.app.gameform.manager.PostStore;
 import com.app.gameform.manager.SharedPrefManager;
 import com.app.gameform.network.ApiCallback;
 import com.app.gameform.network.ApiConstants;
@@ -230,31 +232,39 @@ public class UserProfileActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * 先显示本地保存的帖子，服务器结果写入本地后再更新；离线时保留本地内容
+     */
     private void loadUserPosts() {
         String url = ApiConstants.GET_POSTS_BY_USER + userId;
+        // 这个接口不分页，整个列表当作一页
+        FeedSync sync = new FeedSync(this, "user:" + userId, PostStore.MAX_FEED_POSTS,
+                (page, callback) -> ApiService.getInstance().getPosts(url, callback));
 
-        ApiService.getInstance().getPosts(url, new ApiCallback<List<Post>>() {
+        sync.loadPage(1, new FeedSync.Listener() {
             @Override
-            public void onSuccess(List<Post> data) {
-                runOnUiThread(() -> {
-                    hideLoading();
-                    postList.clear();
-                    if (data != null && !data.isEmpty()) {
-                        postList.addAll(data);
-                    }
-                    postAdapter.notifyDataSetChanged();
-                    updateEmptyState();
-                    tvPostCount.setText(String.valueOf(postList.size()));
-                });
+            public void onPage(List<Post> data, boolean fromNetwork) {
+                if (isFinishing() || isDestroyed()) return;
+                hideLoading();
+                postList.clear();
+                postList.addAll(data);
+                postAdapter.submitList(postList);
+                // 本地数据随后会被服务器结果替换，只对服务器结果查询互动状态
+                if (fromNetwork) {
+                    postAdapter.loadInteractionStatus(data);
+                }
+                updateEmptyState();
+                tvPostCount.setText(String.valueOf(postList.size()));
             }
 
             @Override
             public void onError(String error) {
-                runOnUiThread(() -> {
-                    hideLoading();
-                    updateEmptyState();
+                if (isFinishing() || isDestroyed()) return;
+                hideLoading();
+                updateEmptyState();
+                if (postList.isEmpty()) {
                     tvPostCount.setText("0");
-                });
+                }
             }
         });
     }
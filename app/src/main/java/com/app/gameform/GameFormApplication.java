@@ -0,0 +1,19 @@
+package com.app.gameform;
+
+import android.app.Application;
+
+import com.app.gameform.network.HttpClientProvider;
+
+/**
+ * 应用入口
+ * 负责在任何页面之前初始化全局组件
+ */
+public class GameFormApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // 共享 HTTP 客户端需要 Context 来创建磁盘缓存
+        HttpClientProvider.init(this);
+    }
+}
@@ -9,22 +9,26 @@ import android.widget.TextView;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.app.gameform.R;
 import com.app.gameform.domain.Comment;
-import com.app.gameform.utils.HtmlUtils;
+import com.app.gameform.utils.HtmlPreviewScanner;
 import com.app.gameform.utils.ImageUtils;
 
 import java.text.SimpleDateFormat;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 import de.hdodenhof.circleimageview.CircleImageView;
 
 public class CommentAdapter extends RecyclerView.Adapter<CommentAdapter.ViewHolder> {
 
-    private List<Comment> commentList;
+    // 当前显示的评论快照，新列表通过 updateCommentList 在后台比较后更新
+    private final AsyncListDiffer<Comment> differ;
     private OnCommentLikeClickListener likeClickListener;
     private OnCommentReplyClickListener replyClickListener;
     private OnUserAvatarClickListener avatarClickListener;
@@ -33,10 +37,55 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentAdapter.ViewHold
                           OnCommentLikeClickListener likeClickListener,
                           OnCommentReplyClickListener replyClickListener,
                           OnUserAvatarClickListener avatarClickListener) {
-        this.commentList = commentList;
         this.likeClickListener = likeClickListener;
         this.replyClickListener = replyClickListener;
         this.avatarClickListener = avatarClickListener;
+        this.differ = ListDiffer.create(this, DIFF_CALLBACK);
+        setHasStableIds(true);
+        ListDiffer.submit(differ, commentList, null);
+    }
+
+    /**
+     * 同一评论ID视为同一行；内容、点赞和回复都相同时不重绑（回复区每次绑定都要重新 inflate）
+     */
+    private static final DiffUtil.ItemCallback<Comment> DIFF_CALLBACK = new DiffUtil.ItemCallback<Comment>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Comment oldItem, @NonNull Comment newItem) {
+            return Objects.equals(oldItem.getCommentId(), newItem.getCommentId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Comment oldItem, @NonNull Comment newItem) {
+            return sameComment(oldItem, newItem) && sameReplies(oldItem.getChildren(), newItem.getChildren());
+        }
+    };
+
+    private static boolean sameComment(Comment a, Comment b) {
+        return Objects.equals(a.getCommentContent(), b.getCommentContent())
+                && Objects.equals(a.getNickName(), b.getNickName())
+                && Objects.equals(a.getUserAvatar(), b.getUserAvatar())
+                && Objects.equals(a.getLikeCount(), b.getLikeCount())
+                && Objects.equals(a.getHasLiked(), b.getHasLiked())
+                && Objects.equals(a.getCreateTime(), b.getCreateTime());
+    }
+
+    private static boolean sameReplies(List<Comment> a, List<Comment> b) {
+        int sizeA = a != null ? a.size() : 0;
+        int sizeB = b != null ? b.size() : 0;
+        if (sizeA != sizeB) return false;
+        for (int i = 0; i < sizeA; i++) {
+            Comment x = a.get(i);
+            Comment y = b.get(i);
+            if (!Objects.equals(x.getCommentId(), y.getCommentId()) || !sameComment(x, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return ListDiffer.idOf(differ.getCurrentList().get(position).getCommentId());
     }
 
     @NonNull
@@ -49,7 +98,7 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentAdapter.ViewHold
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Comment comment = commentList.get(position);
+        Comment comment = differ.getCurrentList().get(position);
         bindMainCommentData(holder, comment);
         bindReplyComments(holder, comment);
     }
@@ -151,15 +200,15 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentAdapter.ViewHold
 
     @Override
     public int getItemCount() {
-        return commentList.size();
+        return differ.getCurrentList().size();
     }
 
     public void updateCommentList(List<Comment> newCommentList) {
-        this.commentList = newCommentList;
-        notifyDataSetChanged();
+        ListDiffer.submit(differ, newCommentList, null);
     }
 
     public void updateCommentLikeStatus(int commentId, boolean hasLiked, int likeCount) {
+        List<Comment> commentList = differ.getCurrentList();
         for (int i = 0; i < commentList.size(); i++) {
             Comment comment = commentList.get(i);
             if (comment.getCommentId() == commentId) {
@@ -223,7 +272,7 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentAdapter.ViewHold
     }
 
     private void setCommentContent(TextView textView, String content) {
-        textView.setText(HtmlUtils.removeHtmlTags(content));
+        textView.setText(HtmlPreviewScanner.toPlainText(content));
     }
 
     private void setLikeCount(TextView textView, int count) {
@@ -310,7 +359,7 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentAdapter.ViewHold
     }
 
     private void setupReplyContent(TextView contentView, TextView expandButton, String content) {
-        String cleanContent = HtmlUtils.removeHtmlTags(content);
+        String cleanContent = HtmlPreviewScanner.toPlainText(content);
         setupTextCollapse(contentView, expandButton, cleanContent);
     }
 
@@ -6,14 +6,18 @@ import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.app.gameform.R;
 import com.app.gameform.domain.Game;
 import com.app.gameform.utils.ImageUtils;
 import java.util.List;
+import java.util.Objects;
 
 public class GameAdapter extends RecyclerView.Adapter<GameAdapter.GameViewHolder> {
-    private List<Game> gameList;
+    // 当前显示的游戏快照，新列表通过 submitList 在后台比较后更新
+    private final AsyncListDiffer<Game> differ;
     private OnItemClickListener onItemClickListener;
 
     public interface OnItemClickListener {
@@ -21,7 +25,34 @@ public class GameAdapter extends RecyclerView.Adapter<GameAdapter.GameViewHolder
     }
 
     public GameAdapter(List<Game> gameList) {
-        this.gameList = gameList;
+        this.differ = ListDiffer.create(this, DIFF_CALLBACK);
+        setHasStableIds(true);
+        ListDiffer.submit(differ, gameList, null);
+    }
+
+    private static final DiffUtil.ItemCallback<Game> DIFF_CALLBACK = new DiffUtil.ItemCallback<Game>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Game oldItem, @NonNull Game newItem) {
+            return Objects.equals(oldItem.getGameId(), newItem.getGameId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Game oldItem, @NonNull Game newItem) {
+            return Objects.equals(oldItem.getGameName(), newItem.getGameName())
+                    && Objects.equals(oldItem.getGameIcon(), newItem.getGameIcon());
+        }
+    };
+
+    /**
+     * 提交新的游戏列表（加载、筛选、搜索后调用），只重绑变化的行
+     */
+    public void submitList(List<Game> items) {
+        ListDiffer.submit(differ, items, null);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return ListDiffer.idOf(differ.getCurrentList().get(position).getGameId());
     }
 
     public void setOnItemClickListener(OnItemClickListener listener) {
@@ -37,13 +68,13 @@ public class GameAdapter extends RecyclerView.Adapter<GameAdapter.GameViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull GameViewHolder holder, int position) {
-        Game game = gameList.get(position);
+        Game game = differ.getCurrentList().get(position);
         holder.bind(game);
     }
 
     @Override
     public int getItemCount() {
-        return gameList.size();
+        return differ.getCurrentList().size();
     }
 
     class GameViewHolder extends RecyclerView.ViewHolder {
@@ -59,7 +90,7 @@ public class GameAdapter extends RecyclerView.Adapter<GameAdapter.GameViewHolder
                 if (onItemClickListener != null) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
-                        onItemClickListener.onItemClick(gameList.get(position));
+                        onItemClickListener.onItemClick(differ.getCurrentList().get(position));
                     }
                 }
             });
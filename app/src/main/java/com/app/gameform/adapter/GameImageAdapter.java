@@ -8,6 +8,8 @@ import android.view.ViewGroup;
 import android.widget.ImageView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.app.gameform.R;
@@ -25,13 +27,27 @@ public class GameImageAdapter extends RecyclerView.Adapter<GameImageAdapter.Game
 
     private static final String TAG = "GameImageAdapter";
 
-    private List<String> gameImages;
+    // 当前显示的图片地址快照；同一地址可能重复出现，不使用稳定ID
+    private final AsyncListDiffer<String> differ;
     private Context context;
 
     public GameImageAdapter(List<String> gameImages) {
-        this.gameImages = gameImages;
+        this.differ = ListDiffer.create(this, DIFF_CALLBACK);
+        ListDiffer.submit(differ, gameImages, null);
     }
 
+    private static final DiffUtil.ItemCallback<String> DIFF_CALLBACK = new DiffUtil.ItemCallback<String>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull String oldItem, @NonNull String newItem) {
+            return oldItem.equals(newItem);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull String oldItem, @NonNull String newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
     @NonNull
     @Override
     public GameImageViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -43,7 +59,8 @@ public class GameImageAdapter extends RecyclerView.Adapter<GameImageAdapter.Game
 
     @Override
     public void onBindViewHolder(@NonNull GameImageViewHolder holder, int position) {
-        if (gameImages == null || gameImages.isEmpty()) {
+        List<String> gameImages = differ.getCurrentList();
+        if (gameImages.isEmpty()) {
             // 设置默认图片
             holder.ivGameImage.setImageResource(R.color.light_gray);
             return;
@@ -59,15 +76,14 @@ public class GameImageAdapter extends RecyclerView.Adapter<GameImageAdapter.Game
 
     @Override
     public int getItemCount() {
-        return gameImages != null ? gameImages.size() : 0;
+        return differ.getCurrentList().size();
     }
 
     /**
      * 更新图片列表
      */
     public void updateImages(List<String> newImages) {
-        this.gameImages = newImages;
-        notifyDataSetChanged();
+        ListDiffer.submit(differ, newImages, null);
     }
 
     public static class GameImageViewHolder extends RecyclerView.ViewHolder {
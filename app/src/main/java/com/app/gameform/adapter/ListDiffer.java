@@ -0,0 +1,45 @@
+package com.app.gameform.adapter;
+
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.app.gameform.utils.DecodePipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 列表差量更新
+ * 适配器只显示 AsyncListDiffer 持有的快照，新列表提交后在后台计算线程池里比较，
+ * 主线程只分发插入、删除、移动和内容变化的行，不再整表 notifyDataSetChanged
+ */
+final class ListDiffer {
+
+    private ListDiffer() {
+    }
+
+    static <T> AsyncListDiffer<T> create(RecyclerView.Adapter<?> adapter, DiffUtil.ItemCallback<T> callback) {
+        return new AsyncListDiffer<>(new AdapterListUpdateCallback(adapter),
+                new AsyncDifferConfig.Builder<>(callback)
+                        .setBackgroundThreadExecutor(DecodePipeline.backgroundExecutor())
+                        .build());
+    }
+
+    /**
+     * 提交调用方列表的副本：调用方之后继续修改自己的列表不会影响正在显示的快照，
+     * 同一个列表对象反复提交也能触发比较
+     */
+    static <T> void submit(AsyncListDiffer<T> differ, List<T> items, Runnable onCommitted) {
+        differ.submitList(items != null ? new ArrayList<>(items) : new ArrayList<>(), onCommitted);
+    }
+
+    /**
+     * 稳定ID，ID 缺失时返回 NO_ID
+     */
+    static long idOf(Number id) {
+        return id != null ? id.longValue() : RecyclerView.NO_ID;
+    }
+}
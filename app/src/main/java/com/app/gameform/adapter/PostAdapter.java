@@ -1,8 +1,6 @@
 package com.app.gameform.adapter;
 
 import android.content.Context;
-import android.graphics.Color;
-import android.graphics.Typeface;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -11,32 +9,124 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.app.gameform.R;
 import com.app.gameform.domain.Post;
-import com.app.gameform.utils.HtmlUtils;
+import com.app.gameform.manager.InteractionStatusManager;
 import com.app.gameform.utils.ImageUtils;
+import com.app.gameform.utils.PostWindow;
+import com.bumptech.glide.Glide;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import de.hdodenhof.circleimageview.CircleImageView;
 
 public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder> {
+    // 局部刷新：只更新互动状态
+    private static final Object PAYLOAD_INTERACTION = new Object();
+    // 局部刷新：只更新评论、点赞、浏览数
+    private static final Object PAYLOAD_COUNTS = new Object();
+
     private Context context;
-    private List<Post> postList;
+    // 当前显示的列表快照，新数据通过 submitList 在后台比较后更新
+    private final AsyncListDiffer<Post> differ;
     private OnPostClickListener onPostClickListener;
     private OnPostLikeListener onPostLikeListener;
-    private SimpleDateFormat dateFormat;
     private boolean isUserPostList = false; // 新增：标识是否为用户发布页面
+    private InteractionStatusManager interactionStatusManager;
+    // 按帖子ID缓存的展示模型，只在主线程读写
+    private final Map<Integer, PostDisplayModel> displayModels = new HashMap<>();
 
     public PostAdapter(Context context, List<Post> postList) {
         this.context = context;
-        this.postList = postList;
-        this.dateFormat = new SimpleDateFormat("MM-dd HH:mm", Locale.getDefault());
+        this.interactionStatusManager = InteractionStatusManager.getInstance(context);
+        this.differ = ListDiffer.create(this, DIFF_CALLBACK);
+        setHasStableIds(true);
+        ListDiffer.submit(differ, postList, null);
+    }
+
+    /**
+     * 同一帖子ID视为同一行；只有计数变化时返回 PAYLOAD_COUNTS，不重新加载头像和图片
+     */
+    private static final DiffUtil.ItemCallback<Post> DIFF_CALLBACK = new DiffUtil.ItemCallback<Post>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Post oldItem, @NonNull Post newItem) {
+            return Objects.equals(oldItem.getPostId(), newItem.getPostId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Post oldItem, @NonNull Post newItem) {
+            return sameDisplay(oldItem, newItem) && sameCounts(oldItem, newItem);
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull Post oldItem, @NonNull Post newItem) {
+            return sameDisplay(oldItem, newItem) ? PAYLOAD_COUNTS : null;
+        }
+    };
+
+    private static boolean sameDisplay(Post a, Post b) {
+        return Objects.equals(a.getNickName(), b.getNickName())
+                && Objects.equals(a.getAvatar(), b.getAvatar())
+                && Objects.equals(a.getPostContent(), b.getPostContent())
+                && Objects.equals(a.getPhoto(), b.getPhoto())
+                && Objects.equals(a.getCreateTime(), b.getCreateTime())
+                && Objects.equals(a.getTopFlag(), b.getTopFlag())
+                && Objects.equals(a.getHotFlag(), b.getHotFlag());
+    }
+
+    private static boolean sameCounts(Post a, Post b) {
+        return Objects.equals(a.getCommentCount(), b.getCommentCount())
+                && Objects.equals(a.getLikeCount(), b.getLikeCount())
+                && Objects.equals(a.getViewCount(), b.getViewCount());
+    }
+
+    /**
+     * 提交新的帖子列表（刷新、加载更多、删除后都调用），只重绑变化的行
+     */
+    public void submitList(List<Post> posts) {
+        submitList(posts, null);
+    }
+
+    /**
+     * @param onCommitted 差异分发到列表后在主线程回调
+     */
+    public void submitList(List<Post> posts, Runnable onCommitted) {
+        ListDiffer.submit(differ, posts, () -> {
+            releaseDisplayModels();
+            if (onCommitted != null) {
+                onCommitted.run();
+            }
+        });
+    }
+
+    /**
+     * 被窗口换成占位的帖子不再保留展示模型（模型引用着完整帖子）
+     */
+    private void releaseDisplayModels() {
+        for (Post post : differ.getCurrentList()) {
+            if (PostWindow.isPlaceholder(post)) {
+                displayModels.remove(post.getPostId());
+            }
+        }
+    }
+
+    private Post getItem(int position) {
+        return differ.getCurrentList().get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return ListDiffer.idOf(getItem(position).getPostId());
     }
 
     // 新增：设置是否为用户发布页面
@@ -75,42 +165,156 @@ public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull PostViewHolder holder, int position) {
-        Post post = postList.get(position);
-        // 使用工具类加载用户头像
-        ImageUtils.loadUserAvatar(context, holder.ivAvatar, post.getAvatar());
-        // 设置用户昵称
-        holder.tvUsername.setText(post.getNickName() != null ? post.getNickName() : "未知用户");
-        // 设置发帖时间
-        holder.tvTime.setText(formatTime(post.getCreateTime()));
-        // 设置帖子内容 - 处理富文本标签
-        holder.tvContent.setText(HtmlUtils.removeHtmlTags(post.getPostContent()));
-        // 使用工具类加载帖子图片
-        loadPostImage(holder.ivPostImage, holder.cvImage, post.getPhoto());
-        // 设置互动数据
-        holder.tvCommentCount.setText(String.format("%d",
-                post.getCommentCount() != null ? post.getCommentCount() : 0));
-        holder.tvLikeCount.setText(String.format("%d",
-                post.getLikeCount() != null ? post.getLikeCount() : 0));
+        Post post = getItem(position);
+        if (PostWindow.isPlaceholder(post)) {
+            bindPlaceholder(holder);
+            return;
+        }
+        PostDisplayModel model = displayModelFor(post);
+        // 绑定只做字段赋值，文本和图片地址都已在展示模型中算好
+        ImageUtils.loadResolvedAvatar(context, holder.ivAvatar, model.getAvatarUrl());
+        holder.tvUsername.setText(model.getNickName());
+        holder.tvTime.setText(model.getTimeLabel());
+        holder.tvContent.setText(model.getPreviewText());
+        loadPostImage(holder.ivPostImage, holder.cvImage, model);
+        holder.tvCommentCount.setText(model.getCommentCountLabel());
+        holder.tvLikeCount.setText(model.getLikeCountLabel());
         // 修改：显示浏览量而不是分享
-        holder.tvViewCount.setText(String.format("%s",
-                formatViewCount(post.getViewCount() != null ? post.getViewCount() : 0)));
+        holder.tvViewCount.setText(model.getViewCountLabel());
 
         // 根据页面类型设置更多按钮图标
-        setupMoreButton(holder, post, position);
+        setupMoreButton(holder, post);
 
         // 设置点击监听器
-        setupClickListeners(holder, post, position);
+        setupClickListeners(holder, post);
         // 设置置顶和热门标识
-        setPostFlags(holder, post);
+        setPostFlags(holder, model);
+        // 点赞状态（来自批量查询的缓存）
+        updateLikeIcon(holder.ivLike, interactionStatusManager.getLikeStatus(post.getPostId()));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull PostViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        Post post = getItem(position);
+        if (PostWindow.isPlaceholder(post)) {
+            bindPlaceholder(holder);
+            return;
+        }
+        for (Object payload : payloads) {
+            if (payload == PAYLOAD_COUNTS) {
+                PostDisplayModel model = displayModelFor(post);
+                holder.tvCommentCount.setText(model.getCommentCountLabel());
+                holder.tvLikeCount.setText(model.getLikeCountLabel());
+                holder.tvViewCount.setText(model.getViewCountLabel());
+                // 计数变化的帖子对象是新数据，点击回调要拿到新对象
+                setupMoreButton(holder, post);
+                setupClickListeners(holder, post);
+            }
+        }
+        updateLikeIcon(holder.ivLike, interactionStatusManager.getLikeStatus(post.getPostId()));
+    }
+
+    /**
+     * 窗口外的占位行：正在从暂存恢复，只显示空白骨架，不响应点击
+     */
+    private void bindPlaceholder(PostViewHolder holder) {
+        Glide.with(context).clear(holder.ivAvatar);
+        Glide.with(context).clear(holder.ivPostImage);
+        holder.ivAvatar.setImageResource(R.drawable.ic_default_avatar);
+        holder.cvImage.setVisibility(View.GONE);
+        holder.tvUsername.setText("");
+        holder.tvTime.setText("");
+        holder.tvContent.setText("");
+        holder.tvCommentCount.setText("");
+        holder.tvLikeCount.setText("");
+        holder.tvViewCount.setText("");
+        holder.itemView.setOnClickListener(null);
+        holder.ivAvatar.setOnClickListener(null);
+        holder.tvUsername.setOnClickListener(null);
+        holder.llComment.setOnClickListener(null);
+        holder.llLike.setOnClickListener(null);
+        holder.llShare.setOnClickListener(null);
+        holder.ivMore.setOnClickListener(null);
+    }
+
+    /**
+     * 放入后台线程预先构建好的展示模型，在数据加入列表前调用
+     */
+    public void putDisplayModels(List<PostDisplayModel> models) {
+        if (models == null) return;
+        for (PostDisplayModel model : models) {
+            displayModels.put(model.getPost().getPostId(), model);
+        }
+    }
+
+    /**
+     * 取帖子的展示模型；没有预先构建（或帖子对象已被替换）时在这里补建一次，
+     * 点赞、评论、浏览数在外部被修改过时只重算计数文字
+     */
+    private PostDisplayModel displayModelFor(Post post) {
+        PostDisplayModel model = displayModels.get(post.getPostId());
+        if (model == null || !model.isFor(post)) {
+            model = PostDisplayModel.from(post, System.currentTimeMillis());
+            displayModels.put(post.getPostId(), model);
+        } else if (model.countsChanged()) {
+            model = model.withCounts();
+            displayModels.put(post.getPostId(), model);
+        }
+        return model;
+    }
+
+    /**
+     * 批量加载一页帖子的互动状态，返回后只局部刷新点赞图标
+     * 在每页数据加入列表后调用
+     */
+    public void loadInteractionStatus(List<Post> posts) {
+        if (posts == null) return;
+        Set<Integer> pageIds = new HashSet<>();
+        for (Post post : posts) {
+            if (post.getPostId() != null) {
+                pageIds.add(post.getPostId());
+            }
+        }
+        interactionStatusManager.loadForPosts(posts, () -> notifyPageChanged(pageIds));
+    }
+
+    /**
+     * 只刷新本页帖子所在的行（一页在列表中是连续的，取首尾之间的范围）
+     */
+    private void notifyPageChanged(Set<Integer> pageIds) {
+        List<Post> current = differ.getCurrentList();
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < current.size(); i++) {
+            if (pageIds.contains(current.get(i).getPostId())) {
+                if (first < 0) first = i;
+                last = i;
+            }
+        }
+        if (first >= 0) {
+            notifyItemRangeChanged(first, last - first + 1, PAYLOAD_INTERACTION);
+        }
+    }
+
+    /**
+     * 点击时再取位置：差量更新后未重绑的行，绑定时记下的位置可能已经过期
+     */
+    private static int positionOf(PostViewHolder holder) {
+        return holder.getAdapterPosition();
     }
 
     // 新增：设置更多按钮
-    private void setupMoreButton(PostViewHolder holder, Post post, int position) {
+    private void setupMoreButton(PostViewHolder holder, Post post) {
         if (isUserPostList) {
             // 用户发布页面显示删除图标（X号）
             holder.ivMore.setImageResource(R.mipmap.ic_delete); // ✅ 图标换成X
             holder.ivMore.setOnClickListener(v -> {
-                if (onPostClickListener != null) {
+                int position = positionOf(holder);
+                if (onPostClickListener != null && position != RecyclerView.NO_POSITION) {
                     // ✅ 点击事件依旧走“更多逻辑”
                     onPostClickListener.onMoreClick(post, position);
                 }
@@ -119,7 +323,8 @@ public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder
             // 普通页面显示更多图标
             holder.ivMore.setImageResource(R.mipmap.ft); // 你原来的“更多”图标
             holder.ivMore.setOnClickListener(v -> {
-                if (onPostClickListener != null) {
+                int position = positionOf(holder);
+                if (onPostClickListener != null && position != RecyclerView.NO_POSITION) {
                     onPostClickListener.onMoreClick(post, position);
                 }
             });
@@ -135,43 +340,27 @@ public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder
         }
     }
 
-    /**
-     * 格式化浏览量显示
-     * @param viewCount 浏览量
-     * @return 格式化后的字符串
-     */
-    private String formatViewCount(int viewCount) {
-        if (viewCount < 1000) {
-            return String.valueOf(viewCount);
-        } else if (viewCount < 10000) {
-            return String.format("%.1fk", viewCount / 1000.0);
-        } else if (viewCount < 100000) {
-            return String.format("%.1fw", viewCount / 10000.0);
-        } else {
-            return String.format("%.0fw", viewCount / 10000.0);
-        }
-    }
-
-    private void loadPostImage(ImageView imageView, CardView cardView, String photoUrl) {
-        if (photoUrl != null && !photoUrl.isEmpty()) {
+    private void loadPostImage(ImageView imageView, CardView cardView, PostDisplayModel model) {
+        if (model.hasPhoto()) {
             cardView.setVisibility(View.VISIBLE);
-            // 使用工具类加载图片
-            ImageUtils.loadPostImage(context, imageView, photoUrl);
+            ImageUtils.loadResolvedPostImage(context, imageView, model.getPhotoUrl());
         } else {
             cardView.setVisibility(View.GONE);
         }
     }
 
-    private void setupClickListeners(PostViewHolder holder, Post post, int position) {
+    private void setupClickListeners(PostViewHolder holder, Post post) {
         // 帖子内容点击
         holder.itemView.setOnClickListener(v -> {
-            if (onPostClickListener != null) {
+            int position = positionOf(holder);
+            if (onPostClickListener != null && position != RecyclerView.NO_POSITION) {
                 onPostClickListener.onPostClick(post, position);
             }
         });
         // 用户头像和昵称点击
         View.OnClickListener userClickListener = v -> {
-            if (onPostClickListener != null) {
+            int position = positionOf(holder);
+            if (onPostClickListener != null && position != RecyclerView.NO_POSITION) {
                 onPostClickListener.onUserClick(post, position);
             }
         };
@@ -180,19 +369,22 @@ public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder
 
         // 评论按钮点击
         holder.llComment.setOnClickListener(v -> {
-            if (onPostClickListener != null) {
+            int position = positionOf(holder);
+            if (onPostClickListener != null && position != RecyclerView.NO_POSITION) {
                 onPostClickListener.onCommentClick(post, position);
             }
         });
         // 点赞按钮点击
         holder.llLike.setOnClickListener(v -> {
-            if (onPostLikeListener != null) {
+            int position = positionOf(holder);
+            if (onPostLikeListener != null && position != RecyclerView.NO_POSITION) {
                 onPostLikeListener.onLikeClick(post, position);
             }
         });
         // 修改：浏览按钮点击（原来的分享按钮）
         holder.llShare.setOnClickListener(v -> {
-            if (onPostClickListener != null) {
+            int position = positionOf(holder);
+            if (onPostClickListener != null && position != RecyclerView.NO_POSITION) {
                 onPostClickListener.onViewClick(post, position);
             }
         });
@@ -200,91 +392,67 @@ public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder
         // 更多按钮的点击事件在 setupMoreButton 中已经设置
     }
 
-    private void setPostFlags(PostViewHolder holder, Post post) {
-        // 设置置顶标识
-        if ("1".equals(post.getTopFlag())) {
-            holder.tvUsername.setTextColor(Color.parseColor("#FF6B35"));
-            holder.tvUsername.setTypeface(null, Typeface.BOLD);
-        }
+    private void setPostFlags(PostViewHolder holder, PostDisplayModel model) {
+        // 设置置顶标识；非置顶时也要重设颜色，避免复用的 ViewHolder 保留置顶样式
+        holder.tvUsername.setTextColor(model.getUsernameColor());
 
         // 设置热门标识
-        if ("1".equals(post.getHotFlag())) {
+        if (model.isHot()) {
             // 可以在这里添加热门标识的显示逻辑
         }
     }
 
-    private String formatTime(Date createTime) {
-        if (createTime == null) {
-            return "未知时间";
-        }
-
-        long currentTime = System.currentTimeMillis();
-        long postTime = createTime.getTime();
-        long diff = currentTime - postTime;
-
-        // 小于1分钟
-        if (diff < 60 * 1000) {
-            return "刚刚";
-        }
-        // 小于1小时
-        else if (diff < 60 * 60 * 1000) {
-            int minutes = (int) (diff / (60 * 1000));
-            return minutes + "分钟前";
-        }
-        // 小于24小时
-        else if (diff < 24 * 60 * 60 * 1000) {
-            int hours = (int) (diff / (60 * 60 * 1000));
-            return hours + "小时前";
-        }
-        // 小于7天
-        else if (diff < 7 * 24 * 60 * 60 * 1000) {
-            int days = (int) (diff / (24 * 60 * 60 * 1000));
-            return days + "天前";
-        }
-        // 超过7天显示具体日期
-        else {
-            return dateFormat.format(createTime);
-        }
-    }
-
     @Override
     public int getItemCount() {
-        return postList != null ? postList.size() : 0;
+        return differ.getCurrentList().size();
     }
 
     // 更新点赞状态
     public void updateLikeStatus(int position, boolean isLiked, int likeCount) {
-        if (position >= 0 && position < postList.size()) {
-            Post post = postList.get(position);
+        if (position >= 0 && position < getItemCount()) {
+            Post post = getItem(position);
             post.setLikeCount(likeCount);
-            notifyItemChanged(position);
+            interactionStatusManager.setLiked(post.getPostId(), isLiked);
+            notifyItemChanged(position, PAYLOAD_COUNTS);
         }
     }
 
     // 更新评论数量
     public void updateCommentCount(int position, int commentCount) {
-        if (position >= 0 && position < postList.size()) {
-            Post post = postList.get(position);
+        if (position >= 0 && position < getItemCount()) {
+            Post post = getItem(position);
             post.setCommentCount(commentCount);
-            notifyItemChanged(position);
+            notifyItemChanged(position, PAYLOAD_COUNTS);
         }
     }
 
     // 新增：更新浏览量
     public void updateViewCount(int position, int viewCount) {
-        if (position >= 0 && position < postList.size()) {
-            Post post = postList.get(position);
+        if (position >= 0 && position < getItemCount()) {
+            Post post = getItem(position);
             post.setViewCount(viewCount);
-            notifyItemChanged(position);
+            notifyItemChanged(position, PAYLOAD_COUNTS);
+        }
+    }
+
+    /**
+     * 帖子在其他页面被修改（计数、点赞状态），只刷新这一行的计数和点赞图标
+     * 位置来自数据仓库，差量更新尚未提交时可能与当前快照不一致，此时忽略
+     */
+    public void notifyPostChanged(int position, Integer postId) {
+        if (position >= 0 && position < getItemCount()
+                && Objects.equals(getItem(position).getPostId(), postId)) {
+            notifyItemChanged(position, PAYLOAD_COUNTS);
         }
     }
 
     // 移除指定位置的帖子
     public void removePost(int position) {
-        if (position >= 0 && position < postList.size()) {
-            postList.remove(position);
-            notifyItemRemoved(position);
-            notifyItemRangeChanged(position, postList.size());
+        if (position >= 0 && position < getItemCount()) {
+            List<Post> remaining = new ArrayList<>(differ.getCurrentList());
+            Post removed = remaining.remove(position);
+            displayModels.remove(removed.getPostId());
+            submitList(remaining);
         }
     }
 
@@ -0,0 +1,210 @@
+package com.app.gameform.adapter;
+
+import com.app.gameform.domain.Post;
+import com.app.gameform.utils.HtmlPreviewScanner;
+import com.app.gameform.utils.ImageUtils;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * 帖子列表项的展示模型
+ * 预览文本、时间、计数文字、置顶样式和图片地址在数据到达时一次算好（可在后台线程），
+ * PostAdapter 绑定时只做字段赋值；创建后不可修改，计数变化时用 withCounts 生成新对象
+ */
+public final class PostDisplayModel {
+
+    // 置顶帖子用户名颜色 #FF6B35，普通帖子 #333333（与 item_post 布局一致）
+    static final int COLOR_PINNED = 0xFFFF6B35;
+    static final int COLOR_NORMAL = 0xFF333333;
+
+    private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT =
+            ThreadLocal.withInitial(() -> new SimpleDateFormat("MM-dd HH:mm", Locale.getDefault()));
+
+    private final Post post;
+    // 构建时的计数，用来发现帖子对象在外部被修改
+    private final Integer commentCount;
+    private final Integer likeCount;
+    private final Integer viewCount;
+    private final String nickName;
+    private final String timeLabel;
+    private final String previewText;
+    private final String avatarUrl;
+    private final String photoUrl;
+    private final String commentCountLabel;
+    private final String likeCountLabel;
+    private final String viewCountLabel;
+    private final boolean pinned;
+    private final boolean hot;
+    private final int usernameColor;
+
+    private PostDisplayModel(Post post, String timeLabel, String previewText, String avatarUrl, String photoUrl) {
+        this.post = post;
+        this.commentCount = post.getCommentCount();
+        this.likeCount = post.getLikeCount();
+        this.viewCount = post.getViewCount();
+        this.nickName = post.getNickName() != null ? post.getNickName() : "未知用户";
+        this.timeLabel = timeLabel;
+        this.previewText = previewText;
+        this.avatarUrl = avatarUrl;
+        this.photoUrl = photoUrl;
+        this.commentCountLabel = String.valueOf(commentCount != null ? commentCount : 0);
+        this.likeCountLabel = String.valueOf(likeCount != null ? likeCount : 0);
+        this.viewCountLabel = formatViewCount(viewCount != null ? viewCount : 0);
+        this.pinned = "1".equals(post.getTopFlag());
+        this.hot = "1".equals(post.getHotFlag());
+        this.usernameColor = pinned ? COLOR_PINNED : COLOR_NORMAL;
+    }
+
+    /**
+     * 构建展示模型，宜在后台线程调用
+     * 预览文本只扫描到列表需要的字数，后面还有内容时以省略号结尾
+     */
+    public static PostDisplayModel from(Post post, long nowMillis) {
+        HtmlPreviewScanner.Result preview = HtmlPreviewScanner.preview(post.getPostContent());
+        String previewText = preview.isTruncated() ? preview.getText() + "…" : preview.getText();
+        return new PostDisplayModel(post,
+                formatTime(post.getCreateTime(), nowMillis),
+                previewText,
+                ImageUtils.resolveImageUrl(post.getAvatar()),
+                ImageUtils.resolveImageUrl(post.getPhoto()));
+    }
+
+    /**
+     * 为一页帖子批量构建展示模型
+     */
+    public static List<PostDisplayModel> fromAll(List<Post> posts) {
+        long now = System.currentTimeMillis();
+        List<PostDisplayModel> models = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            models.add(from(post, now));
+        }
+        return models;
+    }
+
+    /**
+     * 点赞、评论、浏览数变化后重新生成计数文字，复用已解析的预览文本和图片地址
+     */
+    public PostDisplayModel withCounts() {
+        return new PostDisplayModel(post, timeLabel, previewText, avatarUrl, photoUrl);
+    }
+
+    /**
+     * 帖子的点赞、评论、浏览数在构建之后是否被修改过
+     */
+    public boolean countsChanged() {
+        return !Objects.equals(commentCount, post.getCommentCount())
+                || !Objects.equals(likeCount, post.getLikeCount())
+                || !Objects.equals(viewCount, post.getViewCount());
+    }
+
+    /**
+     * 帖子对象被替换（刷新后同一ID的新数据）时模型需要重建
+     */
+    public boolean isFor(Post other) {
+        return post == other;
+    }
+
+    public Post getPost() {
+        return post;
+    }
+
+    public String getNickName() {
+        return nickName;
+    }
+
+    public String getTimeLabel() {
+        return timeLabel;
+    }
+
+    public String getPreviewText() {
+        return previewText;
+    }
+
+    public String getAvatarUrl() {
+        return avatarUrl;
+    }
+
+    public String getPhotoUrl() {
+        return photoUrl;
+    }
+
+    public boolean hasPhoto() {
+        return photoUrl != null;
+    }
+
+    public String getCommentCountLabel() {
+        return commentCountLabel;
+    }
+
+    public String getLikeCountLabel() {
+        return likeCountLabel;
+    }
+
+    public String getViewCountLabel() {
+        return viewCountLabel;
+    }
+
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    public boolean isHot() {
+        return hot;
+    }
+
+    public int getUsernameColor() {
+        return usernameColor;
+    }
+
+    /**
+     * 格式化浏览量显示
+     */
+    static String formatViewCount(int viewCount) {
+        if (viewCount < 1000) {
+            return String.valueOf(viewCount);
+        } else if (viewCount < 10000) {
+            return String.format(Locale.US, "%.1fk", viewCount / 1000.0);
+        } else if (viewCount < 100000) {
+            return String.format(Locale.US, "%.1fw", viewCount / 10000.0);
+        } else {
+            return String.format(Locale.US, "%.0fw", viewCount / 10000.0);
+        }
+    }
+
+    /**
+     * 相对时间，以构建时刻为准；列表刷新时随新模型一起更新
+     */
+    static String formatTime(Date createTime, long nowMillis) {
+        if (createTime == null) {
+            return "未知时间";
+        }
+
+        long diff = nowMillis - createTime.getTime();
+
+        // 小于1分钟
+        if (diff < 60 * 1000) {
+            return "刚刚";
+        }
+        // 小于1小时
+        else if (diff < 60 * 60 * 1000) {
+            return (diff / (60 * 1000)) + "分钟前";
+        }
+        // 小于24小时
+        else if (diff < 24 * 60 * 60 * 1000) {
+            return (diff / (60 * 60 * 1000)) + "小时前";
+        }
+        // 小于7天
+        else if (diff < 7 * 24 * 60 * 60 * 1000) {
+            return (diff / (24 * 60 * 60 * 1000)) + "天前";
+        }
+        // 超过7天显示具体日期
+        else {
+            return DATE_FORMAT.get().format(createTime);
+        }
+    }
+}
@@ -10,6 +10,8 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.app.gameform.R;
@@ -20,6 +22,7 @@ import com.app.gameform.utils.TimeUtils;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -27,11 +30,16 @@ import java.util.Set;
  */
 public class PostFavoriteAdapter extends RecyclerView.Adapter<PostFavoriteAdapter.ViewHolder> {
 
+    // 局部刷新：只更新编辑模式和选中状态
+    private static final Object PAYLOAD_SELECTION = new Object();
+
     private Context context;
-    private List<PostFavorite> favoriteList;
+    // 当前显示的收藏快照，新列表通过 submitList 在后台比较后更新
+    private final AsyncListDiffer<PostFavorite> differ;
     private OnItemClickListener listener;
     private boolean isEditMode = false;
-    private Set<Integer> selectedPositions = new HashSet<>();
+    // 按帖子ID记录选中项，列表差量更新后位置变化不影响选中状态
+    private Set<Integer> selectedPostIds = new HashSet<>();
 
     public interface OnItemClickListener {
         void onItemClick(PostFavorite favorite);
@@ -40,8 +48,43 @@ public class PostFavoriteAdapter extends RecyclerView.Adapter<PostFavoriteAdapte
 
     public PostFavoriteAdapter(Context context, List<PostFavorite> favoriteList, OnItemClickListener listener) {
         this.context = context;
-        this.favoriteList = favoriteList;
         this.listener = listener;
+        this.differ = ListDiffer.create(this, DIFF_CALLBACK);
+        setHasStableIds(true);
+        ListDiffer.submit(differ, favoriteList, null);
+    }
+
+    private static final DiffUtil.ItemCallback<PostFavorite> DIFF_CALLBACK = new DiffUtil.ItemCallback<PostFavorite>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull PostFavorite oldItem, @NonNull PostFavorite newItem) {
+            return Objects.equals(oldItem.getPostId(), newItem.getPostId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull PostFavorite oldItem, @NonNull PostFavorite newItem) {
+            return Objects.equals(oldItem.getPostTitle(), newItem.getPostTitle())
+                    && Objects.equals(oldItem.getPostAuthorName(), newItem.getPostAuthorName())
+                    && Objects.equals(oldItem.getCreateTime(), newItem.getCreateTime())
+                    && Objects.equals(oldItem.getSectionName(), newItem.getSectionName())
+                    && Objects.equals(oldItem.getPhoto(), newItem.getPhoto())
+                    && Objects.equals(oldItem.getPostContent(), newItem.getPostContent());
+        }
+    };
+
+    /**
+     * 提交新的收藏列表，只重绑变化的行
+     */
+    public void submitList(List<PostFavorite> favorites) {
+        ListDiffer.submit(differ, favorites, null);
+    }
+
+    private PostFavorite getItem(int position) {
+        return differ.getCurrentList().get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return ListDiffer.idOf(getItem(position).getPostId());
     }
 
     @NonNull
@@ -53,7 +96,7 @@ public class PostFavoriteAdapter extends RecyclerView.Adapter<PostFavoriteAdapte
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        PostFavorite favorite = favoriteList.get(position);
+        PostFavorite favorite = getItem(position);
 
         // 标题
         if (!TextUtils.isEmpty(favorite.getPostTitle())) {
@@ -93,23 +136,7 @@ public class PostFavoriteAdapter extends RecyclerView.Adapter<PostFavoriteAdapte
         }
 
         // 编辑模式
-        if (isEditMode) {
-            holder.cbSelect.setVisibility(View.VISIBLE);
-            holder.cbSelect.setOnCheckedChangeListener(null);
-            holder.cbSelect.setChecked(selectedPositions.contains(position));
-            holder.cbSelect.setOnCheckedChangeListener((buttonView, isChecked) -> {
-                if (isChecked) {
-                    selectedPositions.add(position);
-                } else {
-                    selectedPositions.remove(position);
-                }
-                if (listener != null) {
-                    listener.onCheckChanged(position, isChecked);
-                }
-            });
-        } else {
-            holder.cbSelect.setVisibility(View.GONE);
-        }
+        bindSelection(holder, favorite);
 
         // 点击事件
         holder.itemView.setOnClickListener(v -> {
@@ -125,9 +152,38 @@ public class PostFavoriteAdapter extends RecyclerView.Adapter<PostFavoriteAdapte
         });
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_SELECTION)) {
+            bindSelection(holder, getItem(position));
+            return;
+        }
+        super.onBindViewHolder(holder, position, payloads);
+    }
+
+    private void bindSelection(ViewHolder holder, PostFavorite favorite) {
+        if (isEditMode) {
+            holder.cbSelect.setVisibility(View.VISIBLE);
+            holder.cbSelect.setOnCheckedChangeListener(null);
+            holder.cbSelect.setChecked(selectedPostIds.contains(favorite.getPostId()));
+            holder.cbSelect.setOnCheckedChangeListener((buttonView, isChecked) -> {
+                if (isChecked) {
+                    selectedPostIds.add(favorite.getPostId());
+                } else {
+                    selectedPostIds.remove(favorite.getPostId());
+                }
+                if (listener != null) {
+                    listener.onCheckChanged(holder.getAdapterPosition(), isChecked);
+                }
+            });
+        } else {
+            holder.cbSelect.setVisibility(View.GONE);
+        }
+    }
+
     @Override
     public int getItemCount() {
-        return favoriteList.size();
+        return differ.getCurrentList().size();
     }
 
     /**
@@ -136,22 +192,22 @@ public class PostFavoriteAdapter extends RecyclerView.Adapter<PostFavoriteAdapte
     public void setEditMode(boolean editMode) {
         this.isEditMode = editMode;
         if (!editMode) {
-            selectedPositions.clear();
+            selectedPostIds.clear();
         }
-        notifyDataSetChanged();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
     }
 
     /**
      * 全选/取消全选
      */
     public void selectAll(boolean selectAll) {
-        selectedPositions.clear();
+        selectedPostIds.clear();
         if (selectAll) {
-            for (int i = 0; i < favoriteList.size(); i++) {
-                selectedPositions.add(i);
+            for (PostFavorite favorite : differ.getCurrentList()) {
+                selectedPostIds.add(favorite.getPostId());
             }
         }
-        notifyDataSetChanged();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
         if (listener != null) {
             listener.onCheckChanged(-1, selectAll);
         }
@@ -161,25 +217,26 @@ public class PostFavoriteAdapter extends RecyclerView.Adapter<PostFavoriteAdapte
      * 清除选中状态
      */
     public void clearSelection() {
-        selectedPositions.clear();
-        notifyDataSetChanged();
+        selectedPostIds.clear();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
     }
 
     /**
      * 获取选中数量
      */
     public int getSelectedCount() {
-        return selectedPositions.size();
+        return getSelectedPostIds().size();
     }
 
     /**
      * 获取选中的帖子ID列表
      */
     public List<Integer> getSelectedPostIds() {
+        // 只返回当前列表里仍然存在的收藏，刷新后已消失的选中项不计入
         List<Integer> postIds = new ArrayList<>();
-        for (int position : selectedPositions) {
-            if (position < favoriteList.size()) {
-                postIds.add(favoriteList.get(position).getPostId());
+        for (PostFavorite favorite : differ.getCurrentList()) {
+            if (selectedPostIds.contains(favorite.getPostId())) {
+                postIds.add(favorite.getPostId());
             }
         }
         return postIds;
@@ -189,7 +246,7 @@ public class PostFavoriteAdapter extends RecyclerView.Adapter<PostFavoriteAdapte
      * 清理资源
      */
     public void cleanup() {
-        selectedPositions.clear();
+        selectedPostIds.clear();
     }
 
     static class ViewHolder extends RecyclerView.ViewHolder {
@@ -5,14 +5,18 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.app.gameform.R;
 import com.app.gameform.domain.Section;
 
 import java.util.List;
+import java.util.Objects;
 
 public class SectionAdapter extends RecyclerView.Adapter<SectionAdapter.SectionViewHolder> {
-    private List<Section> sectionList;
+    // 当前显示的版块快照，新列表通过 submitList 在后台比较后更新
+    private final AsyncListDiffer<Section> differ;
     private OnItemClickListener onItemClickListener;
 
     public interface OnItemClickListener {
@@ -20,7 +24,34 @@ public class SectionAdapter extends RecyclerView.Adapter<SectionAdapter.SectionV
     }
 
     public SectionAdapter(List<Section> sectionList) {
-        this.sectionList = sectionList;
+        this.differ = ListDiffer.create(this, DIFF_CALLBACK);
+        setHasStableIds(true);
+        ListDiffer.submit(differ, sectionList, null);
+    }
+
+    private static final DiffUtil.ItemCallback<Section> DIFF_CALLBACK = new DiffUtil.ItemCallback<Section>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Section oldItem, @NonNull Section newItem) {
+            return Objects.equals(oldItem.getSectionId(), newItem.getSectionId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Section oldItem, @NonNull Section newItem) {
+            return Objects.equals(oldItem.getSectionName(), newItem.getSectionName())
+                    && Objects.equals(oldItem.getSectionDescription(), newItem.getSectionDescription());
+        }
+    };
+
+    /**
+     * 提交新的版块列表（加载、筛选、搜索后调用），只重绑变化的行
+     */
+    public void submitList(List<Section> items) {
+        ListDiffer.submit(differ, items, null);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return ListDiffer.idOf(differ.getCurrentList().get(position).getSectionId());
     }
 
     public void setOnItemClickListener(OnItemClickListener listener) {
@@ -36,13 +67,13 @@ public class SectionAdapter extends RecyclerView.Adapter<SectionAdapter.SectionV
 
     @Override
     public void onBindViewHolder(@NonNull SectionViewHolder holder, int position) {
-        Section section = sectionList.get(position);
+        Section section = differ.getCurrentList().get(position);
         holder.bind(section);
     }
 
     @Override
     public int getItemCount() {
-        return sectionList.size();
+        return differ.getCurrentList().size();
     }
 
     class SectionViewHolder extends RecyclerView.ViewHolder {
@@ -60,7 +91,7 @@ public class SectionAdapter extends RecyclerView.Adapter<SectionAdapter.SectionV
                 if (onItemClickListener != null) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
-                        onItemClickListener.onItemClick(sectionList.get(position));
+                        onItemClickListener.onItemClick(differ.getCurrentList().get(position));
                     }
                 }
             });
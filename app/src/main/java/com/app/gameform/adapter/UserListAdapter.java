@@ -10,6 +10,8 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.app.gameform.Activity.UserListActivity;
@@ -19,13 +21,15 @@ import com.app.gameform.domain.UserFollow;
 import com.app.gameform.utils.ImageUtils;
 
 import java.util.List;
+import java.util.Objects;
 
 import de.hdodenhof.circleimageview.CircleImageView;
 
 public class UserListAdapter extends RecyclerView.Adapter<UserListAdapter.ViewHolder> {
 
     private Context context;
-    private List<UserFollow> userList;
+    // 当前显示的用户快照，新列表通过 submitList 在后台比较后更新
+    private final AsyncListDiffer<UserFollow> differ;
     private int listType;
     private OnActionClickListener listener;
 
@@ -36,8 +40,37 @@ public class UserListAdapter extends RecyclerView.Adapter<UserListAdapter.ViewHo
 
     public UserListAdapter(Context context, List<UserFollow> userList, int listType) {
         this.context = context;
-        this.userList = userList;
         this.listType = listType;
+        this.differ = ListDiffer.create(this, DIFF_CALLBACK);
+        setHasStableIds(true);
+        ListDiffer.submit(differ, userList, null);
+    }
+
+    private static final DiffUtil.ItemCallback<UserFollow> DIFF_CALLBACK = new DiffUtil.ItemCallback<UserFollow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull UserFollow oldItem, @NonNull UserFollow newItem) {
+            return Objects.equals(oldItem.getFollowId(), newItem.getFollowId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull UserFollow oldItem, @NonNull UserFollow newItem) {
+            return Objects.equals(oldItem.getFollowingNickName(), newItem.getFollowingNickName())
+                    && Objects.equals(oldItem.getFollowingAvatar(), newItem.getFollowingAvatar())
+                    && Objects.equals(oldItem.getFollowerNickName(), newItem.getFollowerNickName())
+                    && Objects.equals(oldItem.getFollowerAvatar(), newItem.getFollowerAvatar());
+        }
+    };
+
+    /**
+     * 提交新的用户列表（刷新、取消关注后调用），只重绑变化的行
+     */
+    public void submitList(List<UserFollow> users) {
+        ListDiffer.submit(differ, users, null);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return ListDiffer.idOf(differ.getCurrentList().get(position).getFollowId());
     }
 
     public void setOnActionClickListener(OnActionClickListener listener) {
@@ -64,12 +97,12 @@ public class UserListAdapter extends RecyclerView.Adapter<UserListAdapter.ViewHo
 
     @Override
     public int getItemCount() {
-        return userList.size();
+        return differ.getCurrentList().size();
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        UserFollow user = userList.get(position);
+        UserFollow user = differ.getCurrentList().get(position);
 
         // 根据列表类型显示不同的用户信息
         if (listType == UserListActivity.TYPE_FOLLOWING) {
@@ -82,8 +115,9 @@ public class UserListAdapter extends RecyclerView.Adapter<UserListAdapter.ViewHo
             holder.btnActionCard.setCardBackgroundColor(0xFFE0E0E0); // 灰色背景
             holder.btnAction.setTextColor(0xFF666666); // 灰色文字
             holder.btnAction.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onUnfollowClick(user, position);
+                int current = holder.getAdapterPosition();
+                if (listener != null && current != RecyclerView.NO_POSITION) {
+                    listener.onUnfollowClick(user, current);
                 }
             });
 
@@ -102,8 +136,9 @@ public class UserListAdapter extends RecyclerView.Adapter<UserListAdapter.ViewHo
             holder.btnActionCard.setCardBackgroundColor(0xFF007AFF); // 蓝色背景
             holder.btnAction.setTextColor(0xFFFFFFFF); // 白色文字
             holder.btnAction.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onFollowClick(user, position);
+                int current = holder.getAdapterPosition();
+                if (listener != null && current != RecyclerView.NO_POSITION) {
+                    listener.onFollowClick(user, current);
                 }
             });
 
@@ -0,0 +1,49 @@
+package com.app.gameform.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 批量互动状态
+ * 一页帖子的点赞、收藏状态，以及作者的关注状态
+ */
+public class InteractionStatus {
+    /** 帖子ID -> 是否已点赞 */
+    private Map<Integer, Boolean> liked;
+
+    /** 帖子ID -> 是否已收藏 */
+    private Map<Integer, Boolean> favorited;
+
+    /** 用户ID -> 是否已关注 */
+    private Map<Long, Boolean> followed;
+
+    public InteractionStatus() {
+        this.liked = new HashMap<>();
+        this.favorited = new HashMap<>();
+        this.followed = new HashMap<>();
+    }
+
+    public Map<Integer, Boolean> getLiked() {
+        return liked != null ? liked : (liked = new HashMap<>());
+    }
+
+    public void setLiked(Map<Integer, Boolean> liked) {
+        this.liked = liked;
+    }
+
+    public Map<Integer, Boolean> getFavorited() {
+        return favorited != null ? favorited : (favorited = new HashMap<>());
+    }
+
+    public void setFavorited(Map<Integer, Boolean> favorited) {
+        this.favorited = favorited;
+    }
+
+    public Map<Long, Boolean> getFollowed() {
+        return followed != null ? followed : (followed = new HashMap<>());
+    }
+
+    public void setFollowed(Map<Long, Boolean> followed) {
+        this.followed = followed;
+    }
+}
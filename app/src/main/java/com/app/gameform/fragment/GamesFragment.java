@@ -21,7 +21,6 @@ import com.android.volley.RequestQueue;
 import com.android.volley.Response;
 import com.android.volley.VolleyError;
 import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
 import com.app.gameform.Activity.GameDetailActivity;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
@@ -30,14 +29,14 @@ import com.app.gameform.adapter.GameAdapter;
 import com.app.gameform.domain.Game;
 import com.app.gameform.domain.GameType;
 import com.app.gameform.network.ApiConstants;
+import com.app.gameform.network.ApiDateParser;
+import com.app.gameform.network.HttpClientProvider;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 
 public class GamesFragment extends Fragment {
     private static final String TAG = "GamesFragment";
@@ -58,8 +57,8 @@ public class GamesFragment extends Fragment {
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_games, container, false);
 
-        // 初始化RequestQueue
-        requestQueue = Volley.newRequestQueue(requireContext());
+        // 使用全局共享的RequestQueue
+        requestQueue = HttpClientProvider.getInstance().getRequestQueue(requireContext());
 
         initViews(view);
         setupRecyclerView();
@@ -167,6 +166,7 @@ public class GamesFragment extends Fragment {
                     }
                 });
 
+        request.setTag(TAG);
         requestQueue.add(request);
     }
 
@@ -251,7 +251,7 @@ public class GamesFragment extends Fragment {
                                 // 初始显示所有游戏
                                 filteredGameList.clear();
                                 filteredGameList.addAll(gameList);
-                                gameAdapter.notifyDataSetChanged();
+                                gameAdapter.submitList(filteredGameList);
                             } else {
                                 String msg = response.optString("msg", "加载游戏列表失败");
                                 showError(msg);
@@ -270,6 +270,7 @@ public class GamesFragment extends Fragment {
                     }
                 });
 
+        request.setTag(TAG);
         requestQueue.add(request);
     }
 
@@ -291,7 +292,7 @@ public class GamesFragment extends Fragment {
 
                                 filteredGameList.clear();
                                 filteredGameList.addAll(typeGames);
-                                gameAdapter.notifyDataSetChanged();
+                                gameAdapter.submitList(filteredGameList);
                             } else {
                                 String msg = response.optString("msg", "加载游戏列表失败");
                                 showError(msg);
@@ -310,6 +311,7 @@ public class GamesFragment extends Fragment {
                     }
                 });
 
+        request.setTag(TAG);
         requestQueue.add(request);
     }
 
@@ -321,7 +323,7 @@ public class GamesFragment extends Fragment {
             // 显示所有游戏
             filteredGameList.clear();
             filteredGameList.addAll(gameList);
-            gameAdapter.notifyDataSetChanged();
+            gameAdapter.submitList(filteredGameList);
         } else {
             // 根据类型从服务器重新获取数据
             loadGamesByType(selectedGameTypeId);
@@ -333,7 +335,6 @@ public class GamesFragment extends Fragment {
      */
     private List<GameType> parseGameTypes(JSONArray dataArray) {
         List<GameType> gameTypes = new ArrayList<>();
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ", Locale.getDefault());
 
         try {
             for (int i = 0; i < dataArray.length(); i++) {
@@ -347,13 +348,11 @@ public class GamesFragment extends Fragment {
                 // 解析创建时间
                 String createTimeStr = gameTypeObj.optString("createTime");
                 if (!createTimeStr.isEmpty()) {
-                    try {
-                        // 去掉时区里的冒号，例如 +08:00 → +0800
-                        String fixedTimeStr = createTimeStr.replaceAll(":(?=[0-9]{2}$)", "");
-                        Date createTime = dateFormat.parse(fixedTimeStr);
+                    Date createTime = ApiDateParser.parse(createTimeStr);
+                    if (createTime != null) {
                         gameType.setCreateTime(createTime);
-                    } catch (Exception e) {
-                        Log.w(TAG, "解析创建时间失败: " + createTimeStr, e);
+                    } else {
+                        Log.w(TAG, "解析创建时间失败: " + createTimeStr);
                     }
                 }
 
@@ -372,7 +371,6 @@ public class GamesFragment extends Fragment {
      */
     private List<Game> parseGames(JSONArray dataArray) {
         List<Game> games = new ArrayList<>();
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ", Locale.getDefault());
 
         try {
             for (int i = 0; i < dataArray.length(); i++) {
@@ -391,13 +389,11 @@ public class GamesFragment extends Fragment {
                 // 解析创建时间
                 String createTimeStr = gameObj.optString("createTime");
                 if (!createTimeStr.isEmpty()) {
-                    try {
-                        // 去掉时区里的冒号  (把 +08:00 → +0800)
-                        String fixedTimeStr = createTimeStr.replaceAll(":(?=[0-9]{2}$)", "");
-                        Date createTime = dateFormat.parse(fixedTimeStr);
+                    Date createTime = ApiDateParser.parse(createTimeStr);
+                    if (createTime != null) {
                         game.setCreateTime(createTime);
-                    } catch (Exception e) {
-                        Log.w(TAG, "解析创建时间失败: " + createTimeStr, e);
+                    } else {
+                        Log.w(TAG, "解析创建时间失败: " + createTimeStr);
                     }
                 }
 
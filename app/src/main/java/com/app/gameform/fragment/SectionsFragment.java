@@ -21,20 +21,19 @@ import com.android.volley.RequestQueue;
 import com.android.volley.Response;
 import com.android.volley.VolleyError;
 import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
 import com.app.gameform.Activity.SectionDetailActivity;
 import com.app.gameform.R;
 import com.app.gameform.adapter.SectionAdapter;
 import com.app.gameform.domain.Section;
 import com.app.gameform.network.ApiConstants;
+import com.app.gameform.network.ApiDateParser;
+import com.app.gameform.network.HttpClientProvider;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 
 public class SectionsFragment extends Fragment {
     private static final String TAG = "SectionsFragment";
@@ -54,8 +53,8 @@ public class SectionsFragment extends Fragment {
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_sections, container, false);
 
-        // 初始化RequestQueue
-        requestQueue = Volley.newRequestQueue(requireContext());
+        // 使用全局共享的RequestQueue
+        requestQueue = HttpClientProvider.getInstance().getRequestQueue(requireContext());
 
         initViews(view);
         setupRecyclerView();
@@ -119,7 +118,7 @@ public class SectionsFragment extends Fragment {
             // 如果搜索关键词为空，显示所有版块
             filteredSectionList.clear();
             filteredSectionList.addAll(sectionList);
-            sectionAdapter.notifyDataSetChanged();
+            sectionAdapter.submitList(filteredSectionList);
         } else {
             // 执行搜索
             searchSections(currentSearchKeyword);
@@ -146,7 +145,7 @@ public class SectionsFragment extends Fragment {
                                 if (currentSearchKeyword.isEmpty()) {
                                     filteredSectionList.clear();
                                     filteredSectionList.addAll(sectionList);
-                                    sectionAdapter.notifyDataSetChanged();
+                                    sectionAdapter.submitList(filteredSectionList);
                                 }
                             } else {
                                 String msg = response.optString("msg", "加载版块列表失败");
@@ -166,6 +165,7 @@ public class SectionsFragment extends Fragment {
                     }
                 });
 
+        request.setTag(TAG);
         requestQueue.add(request);
     }
 
@@ -187,7 +187,7 @@ public class SectionsFragment extends Fragment {
 
                                 filteredSectionList.clear();
                                 filteredSectionList.addAll(searchResults);
-                                sectionAdapter.notifyDataSetChanged();
+                                sectionAdapter.submitList(filteredSectionList);
                             } else {
                                 String msg = response.optString("msg", "搜索失败");
                                 showError(msg);
@@ -207,6 +207,7 @@ public class SectionsFragment extends Fragment {
                     }
                 });
 
+        request.setTag(TAG);
         requestQueue.add(request);
     }
 
@@ -224,7 +225,7 @@ public class SectionsFragment extends Fragment {
             }
         }
 
-        sectionAdapter.notifyDataSetChanged();
+        sectionAdapter.submitList(filteredSectionList);
     }
 
     /**
@@ -232,8 +233,6 @@ public class SectionsFragment extends Fragment {
      */
     private List<Section> parseSections(JSONArray dataArray) {
         List<Section> sections = new ArrayList<>();
-        // 注意：pattern 要包含 T 和毫秒、时区
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ", Locale.getDefault());
 
         try {
             for (int i = 0; i < dataArray.length(); i++) {
@@ -251,13 +250,11 @@ public class SectionsFragment extends Fragment {
                 // 解析创建时间
                 String createTimeStr = sectionObj.optString("createTime");
                 if (!createTimeStr.isEmpty()) {
-                    try {
-                        // 去掉时区里的冒号，例如 +08:00 → +0800
-                        String fixedTimeStr = createTimeStr.replaceAll(":(?=[0-9]{2}$)", "");
-                        Date createTime = dateFormat.parse(fixedTimeStr);
+                    Date createTime = ApiDateParser.parse(createTimeStr);
+                    if (createTime != null) {
                         section.setCreateTime(createTime);
-                    } catch (Exception e) {
-                        Log.w(TAG, "解析创建时间失败: " + createTimeStr, e);
+                    } else {
+                        Log.w(TAG, "解析创建时间失败: " + createTimeStr);
                     }
                 }
 
@@ -289,7 +286,7 @@ public class SectionsFragment extends Fragment {
 
                                 filteredSectionList.clear();
                                 filteredSectionList.addAll(gameSections);
-                                sectionAdapter.notifyDataSetChanged();
+                                sectionAdapter.submitList(filteredSectionList);
                             } else {
                                 String msg = response.optString("msg", "加载版块列表失败");
                                 showError(msg);
@@ -308,6 +305,7 @@ public class SectionsFragment extends Fragment {
                     }
                 });
 
+        request.setTag(TAG);
         requestQueue.add(request);
     }
 
@@ -346,6 +344,7 @@ public class SectionsFragment extends Fragment {
                     }
                 });
 
+        request.setTag(TAG);
         requestQueue.add(request);
     }
 
@@ -366,7 +365,7 @@ public class SectionsFragment extends Fragment {
         currentSearchKeyword = "";
         filteredSectionList.clear();
         filteredSectionList.addAll(sectionList);
-        sectionAdapter.notifyDataSetChanged();
+        sectionAdapter.submitList(filteredSectionList);
     }
 
     @Override
@@ -7,14 +7,16 @@ import android.util.Log;
 import com.app.gameform.domain.Comment;
 import com.app.gameform.network.ApiCallback;
 import com.app.gameform.network.ApiConstants;
+import com.app.gameform.network.GsonProvider;
+import com.app.gameform.network.HttpClientProvider;
+import com.app.gameform.network.RequestScheduler;
+import com.app.gameform.network.JsonStreamDecoder;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
 import okhttp3.Callback;
@@ -48,15 +50,9 @@ public class CommentManager {
         this.context = context;
         this.sharedPrefManager = SharedPrefManager.getInstance(context);
 
-        this.client = new OkHttpClient.Builder()
-                .connectTimeout(15, TimeUnit.SECONDS)
-                .readTimeout(15, TimeUnit.SECONDS)
-                .writeTimeout(15, TimeUnit.SECONDS)
-                .build();
+        this.client = HttpClientProvider.getInstance().getClient(15);
 
-        this.gson = new GsonBuilder()
-                .setDateFormat("yyyy-MM-dd HH:mm:ss")
-                .create();
+        this.gson = GsonProvider.getGson();
     }
 
     /**
@@ -67,7 +63,7 @@ public class CommentManager {
         String url = ApiConstants.GET_POST_COMMENTS + postId;
         Request request = createGetRequest(url, true);
 
-        client.newCall(request).enqueue(new Callback() {
+        RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.VISIBLE, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "getPostComments failed: " + e.getMessage());
@@ -77,12 +73,11 @@ public class CommentManager {
             @Override
             public void onResponse(Call call, Response response) throws IOException {
                 try {
-                    String responseBody = response.body().string();
-                    Log.d(TAG, "getPostComments response: " + responseBody);
-
                     if (response.isSuccessful()) {
+                        // 评论树可能很大，直接从响应流解码，不再生成完整字符串
                         Type type = new TypeToken<ApiResponse<List<Comment>>>(){}.getType();
-                        ApiResponse<List<Comment>> apiResponse = gson.fromJson(responseBody, type);
+                        ApiResponse<List<Comment>> apiResponse =
+                                JsonStreamDecoder.decode(gson, response, type);
 
                         if (apiResponse != null && apiResponse.isSuccess()) {
                             callback.onSuccess(apiResponse.getData());
@@ -138,7 +133,7 @@ public class CommentManager {
                 .post(body)
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.INTERACTION, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "createComment failed: " + e.getMessage(), e);
@@ -195,7 +190,7 @@ public class CommentManager {
                 .delete()
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.INTERACTION, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "deleteComment failed: " + e.getMessage());
@@ -252,7 +247,7 @@ public class CommentManager {
                 .post(RequestBody.create(new byte[0]))
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.INTERACTION, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "likeComment failed: " + e.getMessage());
@@ -299,7 +294,7 @@ public class CommentManager {
                 .delete()
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.INTERACTION, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "unlikeComment failed: " + e.getMessage());
@@ -5,6 +5,7 @@ import android.content.SharedPreferences;
 import android.util.Log;
 
 import com.app.gameform.domain.Draft;
+import com.app.gameform.network.GsonProvider;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
@@ -28,7 +29,7 @@ public class DraftManager {
 
     private DraftManager(Context context) {
         preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        gson = new Gson();
+        gson = GsonProvider.getGson();
     }
 
     public static synchronized DraftManager getInstance(Context context) {
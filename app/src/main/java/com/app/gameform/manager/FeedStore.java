@@ -0,0 +1,367 @@
+package com.app.gameform.manager;
+
+import com.app.gameform.domain.Post;
+import com.app.gameform.utils.PostWindow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 首页信息流数据仓库
+ * 帖子按ID只存一份，各标签页只保存有序列表，读取时以索引中的那一份为准：
+ * 去重、追加、按ID更新都是 O(1)，详情页里的点赞、评论、浏览数变化对所有持有该帖子的标签页立即可见。
+ * 帖子总数超过上限时，按最近访问顺序淘汰其他标签页。
+ * 配合 PostWindow 使用时，标签页中窗口外的帖子只保留ID占位，不计入索引和上限
+ */
+public class FeedStore {
+
+    // 默认最多缓存的帖子数（所有标签页去重后合计）
+    public static final int DEFAULT_MAX_POSTS = 400;
+
+    private static volatile FeedStore instance;
+
+    /**
+     * 帖子计数变化的监听，在调用 updateCounts 的线程（主线程）回调
+     */
+    public interface Listener {
+        void onPostChanged(Post post);
+    }
+
+    /**
+     * 一个标签页的帖子顺序（完整帖子或窗口外的占位）
+     */
+    private static final class Tab {
+        final List<Post> items = new ArrayList<>();
+        // 帖子ID -> 在 items 中的位置，用于去重和定位
+        final Map<Integer, Integer> positions = new HashMap<>();
+        // 每次整体替换后递增，加载更多的结果据此判断是否基于旧列表
+        long generation;
+    }
+
+    // 帖子ID -> 帖子（只含完整帖子，占位不入索引）
+    private final Map<Integer, Post> posts = new HashMap<>();
+    // 帖子ID -> 持有完整帖子的标签页数量，归零时从索引中移除
+    private final Map<Integer, Integer> refCounts = new HashMap<>();
+    // 按访问顺序排列，淘汰时从最久未访问的标签页开始
+    private final LinkedHashMap<String, Tab> tabs = new LinkedHashMap<>(8, 0.75f, true);
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private int maxPosts = DEFAULT_MAX_POSTS;
+    // 全局递增，标签页被淘汰后重建也不会和旧的代数相同
+    private long lastGeneration;
+
+    private FeedStore() {
+    }
+
+    public static FeedStore getInstance() {
+        if (instance == null) {
+            synchronized (FeedStore.class) {
+                if (instance == null) {
+                    instance = new FeedStore();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 设置缓存上限（帖子数），立即按新上限淘汰
+     */
+    public synchronized void setMaxPosts(int maxPosts) {
+        this.maxPosts = Math.max(1, maxPosts);
+        trimToLimit(null);
+    }
+
+    public synchronized int getMaxPosts() {
+        return maxPosts;
+    }
+
+    public void addListener(Listener listener) {
+        if (listener != null && !listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // ==================== 写入 ====================
+
+    /**
+     * 刷新：整体替换标签页内容（页内重复的帖子只保留第一条）
+     * @return 替换后的代数，加载更多时传回 append 用于判断列表是否已被刷新
+     */
+    public synchronized long replace(String tab, List<Post> page) {
+        Tab feed = tabs.get(tab);
+        if (feed == null) {
+            feed = new Tab();
+            tabs.put(tab, feed);
+        } else {
+            releaseAll(feed);
+            feed.items.clear();
+            feed.positions.clear();
+        }
+        feed.generation = ++lastGeneration;
+        appendNew(feed, page, null);
+        trimToLimit(tab);
+        return feed.generation;
+    }
+
+    /**
+     * 加载更多：把标签页里还没有的帖子追加到末尾
+     * @param expectedGeneration 发起请求时的代数，不一致说明期间被刷新过
+     * @return 实际追加的帖子；标签页已被刷新或淘汰时返回 null，这一页应丢弃
+     */
+    public synchronized List<Post> append(String tab, List<Post> page, long expectedGeneration) {
+        Tab feed = tabs.get(tab);
+        if (feed == null || feed.generation != expectedGeneration) {
+            return null;
+        }
+        List<Post> added = new ArrayList<>();
+        appendNew(feed, page, added);
+        trimToLimit(tab);
+        return added;
+    }
+
+    private void appendNew(Tab feed, List<Post> page, List<Post> added) {
+        if (page == null) return;
+        for (Post post : page) {
+            Integer id = post != null ? post.getPostId() : null;
+            if (id == null || feed.positions.containsKey(id)) {
+                continue;
+            }
+            feed.positions.put(id, feed.items.size());
+            feed.items.add(post);
+            // 同一帖子以最新下发的数据为准，其他标签页通过ID读到的也是这一份
+            posts.put(id, post);
+            refCounts.merge(id, 1, Integer::sum);
+            if (added != null) {
+                added.add(post);
+            }
+        }
+    }
+
+    /**
+     * 更新帖子计数，参数为 null 的字段保持不变
+     * 直接修改索引中的帖子对象，并通知监听者；帖子不在缓存中时返回 false
+     */
+    public boolean updateCounts(Integer postId, Integer likeCount, Integer commentCount, Integer viewCount) {
+        Post post;
+        synchronized (this) {
+            post = postId != null ? posts.get(postId) : null;
+            if (post == null) {
+                return false;
+            }
+            boolean changed = false;
+            if (likeCount != null && !likeCount.equals(post.getLikeCount())) {
+                post.setLikeCount(likeCount);
+                changed = true;
+            }
+            if (commentCount != null && !commentCount.equals(post.getCommentCount())) {
+                post.setCommentCount(commentCount);
+                changed = true;
+            }
+            if (viewCount != null && !viewCount.equals(post.getViewCount())) {
+                post.setViewCount(viewCount);
+                changed = true;
+            }
+            if (!changed) {
+                return false;
+            }
+        }
+        dispatchChanged(post);
+        return true;
+    }
+
+    /**
+     * 帖子数据没变但显示状态变了（如点赞状态确认），通知监听者重绑
+     */
+    public void notifyChanged(Integer postId) {
+        Post post = getPost(postId);
+        if (post != null) {
+            dispatchChanged(post);
+        }
+    }
+
+    private void dispatchChanged(Post post) {
+        for (Listener listener : listeners) {
+            listener.onPostChanged(post);
+        }
+    }
+
+    /**
+     * 用最新的帖子数据同步计数（如详情页加载到的帖子）
+     */
+    public boolean updateCounts(Post source) {
+        if (source == null) return false;
+        return updateCounts(source.getPostId(), source.getLikeCount(), source.getCommentCount(), source.getViewCount());
+    }
+
+    public synchronized void clearTab(String tab) {
+        Tab feed = tabs.remove(tab);
+        if (feed != null) {
+            releaseAll(feed);
+        }
+    }
+
+    public synchronized void clear() {
+        tabs.clear();
+        posts.clear();
+        refCounts.clear();
+    }
+
+    // ==================== 读取 ====================
+
+    /**
+     * 标签页当前的帖子列表（新列表，调用方可以自由修改）；没有缓存时返回空列表
+     */
+    public synchronized List<Post> getPosts(String tab) {
+        Tab feed = tabs.get(tab);
+        if (feed == null) {
+            return new ArrayList<>();
+        }
+        List<Post> result = new ArrayList<>(feed.items.size());
+        for (Post item : feed.items) {
+            result.add(resolve(item));
+        }
+        return result;
+    }
+
+    public synchronized boolean hasTab(String tab) {
+        Tab feed = tabs.get(tab);
+        return feed != null && !feed.items.isEmpty();
+    }
+
+    /**
+     * 当前代数，发起加载更多前读取；标签页不存在时为 -1
+     */
+    public synchronized long getGeneration(String tab) {
+        Tab feed = tabs.get(tab);
+        return feed != null ? feed.generation : -1;
+    }
+
+    /**
+     * 帖子在标签页中的位置，不存在时返回 -1
+     */
+    public synchronized int indexOf(String tab, Integer postId) {
+        Tab feed = tabs.get(tab);
+        if (feed == null || postId == null) {
+            return -1;
+        }
+        Integer position = feed.positions.get(postId);
+        return position != null ? position : -1;
+    }
+
+    public synchronized Post getPost(Integer postId) {
+        return postId != null ? posts.get(postId) : null;
+    }
+
+    /**
+     * 缓存的完整帖子总数（去重后，不含占位）
+     */
+    public synchronized int size() {
+        return posts.size();
+    }
+
+    public synchronized List<String> getTabs() {
+        return Collections.unmodifiableList(new ArrayList<>(tabs.keySet()));
+    }
+
+    // ==================== 窗口 ====================
+
+    /**
+     * 标签页的帖子列表交给 PostWindow 管理：窗口外的帖子换成占位时从索引中移除，恢复时重新加入
+     * 标签页不存在（未加载或已被淘汰）时视为空列表
+     */
+    public PostWindow.Host windowHost(String tab) {
+        return new PostWindow.Host() {
+            @Override
+            public int size() {
+                synchronized (FeedStore.this) {
+                    Tab feed = tabs.get(tab);
+                    return feed != null ? feed.items.size() : 0;
+                }
+            }
+
+            @Override
+            public Post get(int position) {
+                synchronized (FeedStore.this) {
+                    Tab feed = tabs.get(tab);
+                    return feed != null && position < feed.items.size() ? resolve(feed.items.get(position)) : null;
+                }
+            }
+
+            @Override
+            public void set(int position, Post post) {
+                synchronized (FeedStore.this) {
+                    Tab feed = tabs.get(tab);
+                    if (feed == null || position >= feed.items.size()) return;
+                    Post old = feed.items.get(position);
+                    if (old == null || !old.getPostId().equals(post.getPostId())) return;
+                    if (!PostWindow.isPlaceholder(old)) {
+                        release(old.getPostId());
+                    }
+                    if (!PostWindow.isPlaceholder(post)) {
+                        // 其他标签页还持有这条帖子时沿用索引中的那一份，计数修改才能同步
+                        posts.putIfAbsent(post.getPostId(), post);
+                        refCounts.merge(post.getPostId(), 1, Integer::sum);
+                    }
+                    feed.items.set(position, post);
+                }
+            }
+        };
+    }
+
+    // ==================== 内存上限 ====================
+
+    /**
+     * 完整帖子以索引中的那一份为准（同一帖子在多个标签页中共享）
+     */
+    private Post resolve(Post item) {
+        if (PostWindow.isPlaceholder(item)) {
+            return item;
+        }
+        Post indexed = posts.get(item.getPostId());
+        return indexed != null ? indexed : item;
+    }
+
+    private void releaseAll(Tab feed) {
+        for (Post post : feed.items) {
+            if (!PostWindow.isPlaceholder(post)) {
+                release(post.getPostId());
+            }
+        }
+    }
+
+    private void release(Integer id) {
+        Integer count = refCounts.get(id);
+        if (count == null || count <= 1) {
+            refCounts.remove(id);
+            posts.remove(id);
+        } else {
+            refCounts.put(id, count - 1);
+        }
+    }
+
+    /**
+     * 超过上限时从最久未访问的标签页开始整页淘汰，正在写入的标签页保留
+     */
+    private void trimToLimit(String keepTab) {
+        Iterator<Map.Entry<String, Tab>> iterator = tabs.entrySet().iterator();
+        while (posts.size() > maxPosts && iterator.hasNext()) {
+            Map.Entry<String, Tab> entry = iterator.next();
+            if (entry.getKey().equals(keepTab)) {
+                continue;
+            }
+            releaseAll(entry.getValue());
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.app.gameform.manager;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.app.gameform.domain.Post;
+import com.app.gameform.network.ApiCallback;
+import com.app.gameform.utils.DecodePipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 本地优先的帖子列表加载
+ * 第一页先从 PostStore 读出显示，同时向服务器请求；服务器结果在后台线程按页写入数据库后再回调。
+ * 加载更多时网络失败，用本地保存的同一页代替，离线时也能继续往下翻。
+ * 在主线程调用，回调也在主线程
+ */
+public class FeedSync {
+    private static final String TAG = "FeedSync";
+
+    /**
+     * 从服务器获取一页，回调可以在任意线程
+     */
+    public interface Fetcher {
+        void fetch(int page, ApiCallback<List<Post>> callback);
+    }
+
+    public interface Listener {
+        /**
+         * 一页数据；第一页可能先后回调两次：先是本地数据，再是服务器数据
+         * @param fromNetwork false 表示来自本地数据库
+         */
+        void onPage(List<Post> posts, boolean fromNetwork);
+
+        /**
+         * 服务器请求失败且本地没有这一页
+         */
+        void onError(String error);
+    }
+
+    private final PostStore store;
+    private final String feed;
+    private final int pageSize;
+    private final Fetcher fetcher;
+
+    /**
+     * @param feed 列表标识，如 "section:12:latest"、"user:5"
+     */
+    public FeedSync(Context context, String feed, int pageSize, Fetcher fetcher) {
+        this.store = PostStore.getInstance(context);
+        this.feed = feed;
+        this.pageSize = pageSize;
+        this.fetcher = fetcher;
+    }
+
+    public void loadPage(int page, Listener listener) {
+        // 服务器结果先到时不再回调本地数据
+        boolean[] synced = {false};
+        if (page == 1) {
+            DecodePipeline.submit(() -> store.readPage(feed, 1, pageSize), new DecodePipeline.Delivery<List<Post>>() {
+                @Override
+                public void onReady(List<Post> posts) {
+                    if (!synced[0] && !posts.isEmpty()) {
+                        listener.onPage(posts, false);
+                    }
+                }
+
+                @Override
+                public void onFailed(Exception e) {
+                    Log.w(TAG, "读取本地列表失败: " + feed);
+                }
+            });
+        }
+
+        fetcher.fetch(page, new ApiCallback<List<Post>>() {
+            @Override
+            public void onSuccess(List<Post> data) {
+                List<Post> posts = data != null ? data : new ArrayList<>();
+                DecodePipeline.submit(() -> {
+                    try {
+                        store.savePage(feed, page, pageSize, posts);
+                    } catch (Exception e) {
+                        // 写入失败不影响显示
+                        Log.w(TAG, "写入本地列表失败: " + feed + ", " + e.getMessage());
+                    }
+                    return posts;
+                }, new DecodePipeline.Delivery<List<Post>>() {
+                    @Override
+                    public void onReady(List<Post> result) {
+                        synced[0] = true;
+                        listener.onPage(result, true);
+                    }
+
+                    @Override
+                    public void onFailed(Exception e) {
+                        listener.onError(e.getMessage());
+                    }
+                });
+            }
+
+            @Override
+            public void onError(String error) {
+                // 第一页的本地数据已经单独回调过
+                DecodePipeline.submit(
+                        () -> page == 1 ? Collections.<Post>emptyList() : store.readPage(feed, page, pageSize),
+                        new DecodePipeline.Delivery<List<Post>>() {
+                            @Override
+                            public void onReady(List<Post> local) {
+                                if (local.isEmpty()) {
+                                    listener.onError(error);
+                                } else {
+                                    listener.onPage(local, false);
+                                }
+                            }
+
+                            @Override
+                            public void onFailed(Exception e) {
+                                listener.onError(error);
+                            }
+                        });
+            }
+        });
+    }
+}
@@ -0,0 +1,187 @@
+package com.app.gameform.manager;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.app.gameform.domain.InteractionStatus;
+import com.app.gameform.domain.Post;
+import com.app.gameform.network.ApiCallback;
+import com.app.gameform.network.InteractionStatusSource;
+import com.app.gameform.network.RemoteInteractionStatusSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 互动状态管理器
+ * 每加载一页帖子，就把本页的帖子ID和作者ID合并成一次批量查询，
+ * 结果缓存在内存里，列表和详情页渲染时直接读取，不再逐个请求点赞/收藏/关注状态
+ */
+public class InteractionStatusManager implements SharedPrefManager.TokenChangeListener {
+
+    private static final String TAG = "InteractionStatusManager";
+
+    private static InteractionStatusManager instance;
+
+    private final Context context;
+    private final SharedPrefManager sharedPrefManager;
+    private final Handler mainHandler;
+    private volatile InteractionStatusSource source;
+
+    private final Map<Integer, Boolean> likedPosts = new ConcurrentHashMap<>();
+    private final Map<Integer, Boolean> favoritedPosts = new ConcurrentHashMap<>();
+    private final Map<Long, Boolean> followedUsers = new ConcurrentHashMap<>();
+
+    // 缓存所属的用户，切换账号后清空
+    private volatile long ownerUserId;
+
+    private InteractionStatusManager(Context context) {
+        this.context = context;
+        this.sharedPrefManager = SharedPrefManager.getInstance(context);
+        this.mainHandler = new Handler(Looper.getMainLooper());
+        this.source = new RemoteInteractionStatusSource();
+        this.ownerUserId = sharedPrefManager.getUserId();
+        sharedPrefManager.addTokenChangeListener(this);
+    }
+
+    public static synchronized InteractionStatusManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new InteractionStatusManager(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * 替换数据源，测试时可传入 LocalInteractionStatusSource
+     */
+    public void setSource(InteractionStatusSource source) {
+        this.source = source;
+        clear();
+    }
+
+    /**
+     * 批量加载一页帖子的互动状态
+     * 已缓存的帖子和作者不会重复查询；有新结果时在主线程回调 onLoaded
+     */
+    public void loadForPosts(List<Post> posts, Runnable onLoaded) {
+        loadForPosts(posts, onLoaded, null);
+    }
+
+    /**
+     * 同上，批量查询失败（包括服务器不支持批量接口）时在主线程回调 onFailed
+     */
+    public void loadForPosts(List<Post> posts, Runnable onLoaded, Runnable onFailed) {
+        if (posts == null || posts.isEmpty() || !sharedPrefManager.isLoggedIn()) {
+            return;
+        }
+        long currentUserId = sharedPrefManager.getUserId();
+        if (currentUserId != ownerUserId) {
+            clear();
+            ownerUserId = currentUserId;
+        }
+
+        Set<Integer> postIds = new LinkedHashSet<>();
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (Post post : posts) {
+            Integer postId = post.getPostId();
+            if (postId != null && (!likedPosts.containsKey(postId) || !favoritedPosts.containsKey(postId))) {
+                postIds.add(postId);
+            }
+            Long userId = post.getUserId();
+            if (userId != null && userId != currentUserId && !followedUsers.containsKey(userId)) {
+                userIds.add(userId);
+            }
+        }
+        if (postIds.isEmpty() && userIds.isEmpty()) {
+            return;
+        }
+
+        source.fetch(context, new ArrayList<>(postIds), new ArrayList<>(userIds),
+                new ApiCallback<InteractionStatus>() {
+                    @Override
+                    public void onSuccess(InteractionStatus status) {
+                        // 请求期间切换了账号，丢弃结果
+                        if (sharedPrefManager.getUserId() != currentUserId) {
+                            return;
+                        }
+                        putAll(status);
+                        if (onLoaded != null) {
+                            mainHandler.post(onLoaded);
+                        }
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        Log.w(TAG, "批量查询互动状态失败: " + error);
+                        if (onFailed != null) {
+                            mainHandler.post(onFailed);
+                        }
+                    }
+                });
+    }
+
+    private void putAll(InteractionStatus status) {
+        if (status == null) return;
+        putNonNull(likedPosts, status.getLiked());
+        putNonNull(favoritedPosts, status.getFavorited());
+        putNonNull(followedUsers, status.getFollowed());
+    }
+
+    private static <K> void putNonNull(Map<K, Boolean> target, Map<K, Boolean> source) {
+        for (Map.Entry<K, Boolean> entry : source.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                target.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    // ==================== 读取状态，未知时返回 null ====================
+
+    public Boolean getLikeStatus(Integer postId) {
+        return postId != null ? likedPosts.get(postId) : null;
+    }
+
+    public Boolean getFavoriteStatus(Integer postId) {
+        return postId != null ? favoritedPosts.get(postId) : null;
+    }
+
+    public Boolean getFollowStatus(Long userId) {
+        return userId != null ? followedUsers.get(userId) : null;
+    }
+
+    // ==================== 用户操作后同步状态 ====================
+
+    public void setLiked(Integer postId, boolean liked) {
+        if (postId != null) likedPosts.put(postId, liked);
+    }
+
+    public void setFavorited(Integer postId, boolean favorited) {
+        if (postId != null) favoritedPosts.put(postId, favorited);
+    }
+
+    public void setFollowed(Long userId, boolean followed) {
+        if (userId != null) followedUsers.put(userId, followed);
+    }
+
+    public void clear() {
+        likedPosts.clear();
+        favoritedPosts.clear();
+        followedUsers.clear();
+    }
+
+    @Override
+    public void onTokenChanged(String newToken) {
+        // token 刷新不影响状态，账号切换在 loadForPosts 中按用户ID判断
+    }
+
+    @Override
+    public void onUserLoggedOut() {
+        clear();
+    }
+}
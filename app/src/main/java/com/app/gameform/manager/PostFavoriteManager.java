@@ -7,14 +7,15 @@ import android.util.Log;
 import com.app.gameform.domain.PostFavorite;
 import com.app.gameform.network.ApiCallback;
 import com.app.gameform.network.ApiConstants;
+import com.app.gameform.network.GsonProvider;
+import com.app.gameform.network.HttpClientProvider;
+import com.app.gameform.network.RequestScheduler;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
 import okhttp3.Callback;
@@ -40,15 +41,9 @@ public class PostFavoriteManager {
         this.context = context;
         this.sharedPrefManager = SharedPrefManager.getInstance(context);
 
-        this.client = new OkHttpClient.Builder()
-                .connectTimeout(10, TimeUnit.SECONDS)
-                .readTimeout(10, TimeUnit.SECONDS)
-                .writeTimeout(10, TimeUnit.SECONDS)
-                .build();
+        this.client = HttpClientProvider.getInstance().getClient();
 
-        this.gson = new GsonBuilder()
-                .setDateFormat("yyyy-MM-dd HH:mm:ss")
-                .create();
+        this.gson = GsonProvider.getGson();
     }
 
     /**
@@ -68,7 +63,7 @@ public class PostFavoriteManager {
                 .post(RequestBody.create(new byte[0]))
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.INTERACTION, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "addFavorite failed: " + e.getMessage());
@@ -124,7 +119,7 @@ public class PostFavoriteManager {
                 .delete()
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.INTERACTION, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "removeFavorite failed: " + e.getMessage());
@@ -180,7 +175,7 @@ public class PostFavoriteManager {
                 .get()
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.INTERACTION, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "checkFavoriteStatus failed: " + e.getMessage());
@@ -229,7 +224,7 @@ public class PostFavoriteManager {
                 .get()
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.INTERACTION, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "getFavoriteCount failed: " + e.getMessage());
@@ -285,7 +280,7 @@ public class PostFavoriteManager {
                 .get()
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.INTERACTION, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "getMyFavorites failed: " + e.getMessage());
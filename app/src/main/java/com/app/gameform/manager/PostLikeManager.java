@@ -18,74 +18,29 @@ public class PostLikeManager {
 
     private final Context context;
     private final Handler mainHandler;
+    private final InteractionStatusManager interactionStatusManager;
 
     public PostLikeManager(Context context) {
         this.context = context;
         this.mainHandler = new Handler(Looper.getMainLooper());
+        this.interactionStatusManager = InteractionStatusManager.getInstance(context);
     }
 
     public void handleLikeClick(Post post, int position, LikeStatusCallback callback) {
+        // 批量查询已经拿到点赞状态时直接切换，省去一次检查请求
+        Boolean knownStatus = interactionStatusManager.getLikeStatus(post.getPostId());
+        if (knownStatus != null) {
+            toggleLike(post, knownStatus, callback);
+            return;
+        }
+
         ApiService.getInstance().checkPostLikeStatus(
                 context,
                 post.getPostId(),
                 new ApiCallback<Boolean>() {
                     @Override
                     public void onSuccess(Boolean hasLiked) {
-                        if (hasLiked != null && hasLiked) {
-                            ApiService.getInstance().unlikePost(
-                                    context,
-                                    post.getPostId(),
-                                    new ApiCallback<Boolean>() {
-                                        @Override
-                                        public void onSuccess(Boolean result) {
-                                            mainHandler.post(() -> {
-                                                if (result) {
-                                                    int newCount = Math.max(0, post.getLikeCount() - 1);
-                                                    callback.onUpdate(false, newCount);
-                                                    Toast.makeText(context, "取消点赞成功", Toast.LENGTH_SHORT).show();
-                                                } else {
-                                                    callback.onFail("取消点赞失败");
-                                                    Toast.makeText(context, "取消点赞失败", Toast.LENGTH_SHORT).show();
-                                                }
-                                            });
-                                        }
-
-                                        @Override
-                                        public void onError(String error) {
-                                            mainHandler.post(() -> {
-                                                Toast.makeText(context, "取消点赞失败: " + error, Toast.LENGTH_SHORT).show();
-                                            });
-                                            callback.onFail("取消点赞失败: " + error);
-                                        }
-                                    });
-                        } else {
-                            ApiService.getInstance().likePost(
-                                    context,
-                                    post.getPostId(),
-                                    new ApiCallback<Boolean>() {
-                                        @Override
-                                        public void onSuccess(Boolean result) {
-                                            mainHandler.post(() -> {
-                                                if (result) {
-                                                    int newCount = post.getLikeCount() + 1;
-                                                    callback.onUpdate(true, newCount);
-                                                    Toast.makeText(context, "点赞成功", Toast.LENGTH_SHORT).show();
-                                                } else {
-                                                    callback.onFail("点赞失败");
-                                                    Toast.makeText(context, "点赞失败", Toast.LENGTH_SHORT).show();
-                                                }
-                                            });
-                                        }
-
-                                        @Override
-                                        public void onError(String error) {
-                                            mainHandler.post(() -> {
-                                                Toast.makeText(context, "点赞失败: " + error, Toast.LENGTH_SHORT).show();
-                                            });
-                                            callback.onFail("点赞失败: " + error);
-                                        }
-                                    });
-                        }
+                        toggleLike(post, hasLiked != null && hasLiked, callback);
                     }
 
                     @Override
@@ -97,5 +52,64 @@ public class PostLikeManager {
                     }
                 });
     }
-}
 
+    private void toggleLike(Post post, boolean hasLiked, LikeStatusCallback callback) {
+        if (hasLiked) {
+            ApiService.getInstance().unlikePost(
+                    context,
+                    post.getPostId(),
+                    new ApiCallback<Boolean>() {
+                        @Override
+                        public void onSuccess(Boolean result) {
+                            mainHandler.post(() -> {
+                                if (result) {
+                                    int newCount = Math.max(0, post.getLikeCount() - 1);
+                                    interactionStatusManager.setLiked(post.getPostId(), false);
+                                    callback.onUpdate(false, newCount);
+                                    Toast.makeText(context, "取消点赞成功", Toast.LENGTH_SHORT).show();
+                                } else {
+                                    callback.onFail("取消点赞失败");
+                                    Toast.makeText(context, "取消点赞失败", Toast.LENGTH_SHORT).show();
+                                }
+                            });
+                        }
+
+                        @Override
+                        public void onError(String error) {
+                            mainHandler.post(() -> {
+                                Toast.makeText(context, "取消点赞失败: " + error, Toast.LENGTH_SHORT).show();
+                            });
+                            callback.onFail("取消点赞失败: " + error);
+                        }
+                    });
+        } else {
+            ApiService.getInstance().likePost(
+                    context,
+                    post.getPostId(),
+                    new ApiCallback<Boolean>() {
+                        @Override
+                        public void onSuccess(Boolean result) {
+                            mainHandler.post(() -> {
+                                if (result) {
+                                    int newCount = post.getLikeCount() + 1;
+                                    interactionStatusManager.setLiked(post.getPostId(), true);
+                                    callback.onUpdate(true, newCount);
+                                    Toast.makeText(context, "点赞成功", Toast.LENGTH_SHORT).show();
+                                } else {
+                                    callback.onFail("点赞失败");
+                                    Toast.makeText(context, "点赞失败", Toast.LENGTH_SHORT).show();
+                                }
+                            });
+                        }
+
+                        @Override
+                        public void onError(String error) {
+                            mainHandler.post(() -> {
+                                Toast.makeText(context, "点赞失败: " + error, Toast.LENGTH_SHORT).show();
+                            });
+                            callback.onFail("点赞失败: " + error);
+                        }
+                    });
+        }
+    }
+}
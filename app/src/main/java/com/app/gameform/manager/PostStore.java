@@ -0,0 +1,167 @@
+package com.app.gameform.manager;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import com.app.gameform.domain.Post;
+import com.app.gameform.network.GsonProvider;
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 帖子本地数据库
+ * posts 表按 postId 保存帖子（JSON），feed_posts 表记录每个列表（板块、个人主页、我的帖子等）
+ * 里各位置对应的帖子，同一条帖子在多个列表中只存一份。
+ * 每页写入在一个事务里完成：先更新帖子，再替换这一页的位置。所有方法都在后台线程调用
+ */
+public class PostStore extends SQLiteOpenHelper {
+    private static final String TAG = "PostStore";
+    private static final String DB_NAME = "post_store.db";
+    private static final int DB_VERSION = 1;
+
+    // 每个列表最多保存的帖子数，超出的位置不写入
+    public static final int MAX_FEED_POSTS = 200;
+
+    private static final String TABLE_POSTS = "posts";
+    private static final String TABLE_FEED_POSTS = "feed_posts";
+
+    private static PostStore instance;
+    private final Gson gson = GsonProvider.getGson();
+
+    private PostStore(Context context) {
+        super(context, DB_NAME, null, DB_VERSION);
+    }
+
+    public static synchronized PostStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new PostStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        // 读列表和写入同步结果可以同时进行
+        db.enableWriteAheadLogging();
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_POSTS + " ("
+                + "post_id INTEGER PRIMARY KEY, "
+                + "json TEXT NOT NULL, "
+                + "updated_at INTEGER NOT NULL)");
+        db.execSQL("CREATE TABLE " + TABLE_FEED_POSTS + " ("
+                + "feed TEXT NOT NULL, "
+                + "position INTEGER NOT NULL, "
+                + "post_id INTEGER NOT NULL, "
+                + "PRIMARY KEY (feed, position))");
+        db.execSQL("CREATE INDEX idx_feed_posts_post ON " + TABLE_FEED_POSTS + " (post_id)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // 只是缓存，升级时直接重建
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_POSTS);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_FEED_POSTS);
+        onCreate(db);
+    }
+
+    // ==================== 读取 ====================
+
+    /**
+     * 读取列表中的一页
+     * @param page 从 1 开始
+     * @return 按位置排序的帖子，没有时返回空列表
+     */
+    public List<Post> readPage(String feed, int page, int pageSize) {
+        int offset = Math.max(0, page - 1) * pageSize;
+        List<Post> posts = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT p.json FROM " + TABLE_FEED_POSTS + " f JOIN " + TABLE_POSTS + " p"
+                        + " ON f.post_id = p.post_id WHERE f.feed = ? AND f.position >= ? AND f.position < ?"
+                        + " ORDER BY f.position",
+                new String[]{feed, String.valueOf(offset), String.valueOf(offset + pageSize)})) {
+            while (cursor.moveToNext()) {
+                Post post = decode(cursor.getString(0));
+                if (post != null) {
+                    posts.add(post);
+                }
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "读取本地列表失败: " + feed + ", " + e.getMessage());
+        }
+        return posts;
+    }
+
+    // ==================== 写入 ====================
+
+    /**
+     * 写入从服务器同步到的一页：更新帖子并替换这一页的位置。
+     * 第一页代表列表的最新状态，写入时清掉这个列表原有的全部位置，并删除不再属于任何列表的帖子
+     */
+    public void savePage(String feed, int page, int pageSize, List<Post> posts) {
+        int offset = Math.max(0, page - 1) * pageSize;
+        if (offset >= MAX_FEED_POSTS) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            upsert(db, posts, now);
+            if (page <= 1) {
+                db.delete(TABLE_FEED_POSTS, "feed = ?", new String[]{feed});
+            } else {
+                db.delete(TABLE_FEED_POSTS, "feed = ? AND position >= ? AND position < ?",
+                        new String[]{feed, String.valueOf(offset), String.valueOf(offset + pageSize)});
+            }
+            SQLiteStatement insert = db.compileStatement("INSERT OR REPLACE INTO " + TABLE_FEED_POSTS
+                    + " (feed, position, post_id) VALUES (?, ?, ?)");
+            int position = offset;
+            for (Post post : posts) {
+                if (position >= MAX_FEED_POSTS) break;
+                if (post == null || post.getPostId() == null) continue;
+                insert.bindString(1, feed);
+                insert.bindLong(2, position++);
+                insert.bindLong(3, post.getPostId());
+                insert.executeInsert();
+            }
+            if (page <= 1) {
+                db.execSQL("DELETE FROM " + TABLE_POSTS + " WHERE post_id NOT IN"
+                        + " (SELECT post_id FROM " + TABLE_FEED_POSTS + ")");
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private void upsert(SQLiteDatabase db, List<Post> posts, long now) {
+        SQLiteStatement statement = db.compileStatement("INSERT OR REPLACE INTO " + TABLE_POSTS
+                + " (post_id, json, updated_at) VALUES (?, ?, ?)");
+        for (Post post : posts) {
+            if (post == null || post.getPostId() == null) continue;
+            statement.bindLong(1, post.getPostId());
+            statement.bindString(2, gson.toJson(post));
+            statement.bindLong(3, now);
+            statement.executeInsert();
+        }
+    }
+
+    private Post decode(String json) {
+        try {
+            return gson.fromJson(json, Post.class);
+        } catch (Exception e) {
+            Log.w(TAG, "本地帖子解析失败: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.app.gameform.manager;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.app.gameform.domain.Post;
+import com.app.gameform.network.GsonProvider;
+import com.app.gameform.utils.DecodePipeline;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 推荐页的本地缓存
+ * 每个用户一个文件，保存最近几页推荐帖子；冷启动时先显示缓存，再在后台刷新。
+ * 超过有效期的缓存不再显示；只保留当前用户的缓存，退出登录时全部删除。
+ * 读写都在后台线程，同一时刻只有一个线程读写文件
+ */
+public class RecommendationCache implements SharedPrefManager.TokenChangeListener {
+    private static final String TAG = "RecommendationCache";
+    private static final String DIR_NAME = "recommend_cache";
+    private static final String PREFIX = "user_";
+    private static final String SUFFIX = ".json";
+
+    // 缓存的页数
+    public static final int MAX_PAGES = 3;
+    // 有效期：推荐内容半天后基本已过时
+    private static final long TTL_MS = 12 * 60 * 60 * 1000L;
+
+    private static RecommendationCache instance;
+    private final File dir;
+    private final Gson gson;
+
+    /**
+     * 文件内容
+     */
+    private static final class Snapshot {
+        long savedAt;
+        List<Post> posts;
+
+        Snapshot() {
+        }
+
+        Snapshot(long savedAt, List<Post> posts) {
+            this.savedAt = savedAt;
+            this.posts = posts;
+        }
+    }
+
+    private RecommendationCache(Context context) {
+        dir = new File(context.getFilesDir(), DIR_NAME);
+        gson = GsonProvider.getGson();
+        SharedPrefManager.getInstance(context).addTokenChangeListener(this);
+    }
+
+    public static synchronized RecommendationCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new RecommendationCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * 读取用户的推荐缓存
+     * @param userId 未登录时为 0
+     * @return 缓存的帖子；没有缓存或已过期时返回 null
+     */
+    public synchronized List<Post> load(long userId) {
+        File file = fileOf(userId);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (JsonReader reader = new JsonReader(new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)))) {
+            Snapshot snapshot = gson.fromJson(reader, Snapshot.class);
+            if (snapshot == null || snapshot.posts == null || isExpired(snapshot.savedAt)) {
+                file.delete();
+                return null;
+            }
+            return snapshot.posts;
+        } catch (Exception e) {
+            Log.w(TAG, "读取推荐缓存失败: " + e.getMessage());
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * 保存用户的推荐帖子，超过 maxPosts 的部分不保存；顺便删除其他用户的缓存
+     * 几页先后返回时可能在不同线程同时保存，整个写入和改名过程加锁，避免共用的临时文件写乱
+     */
+    public synchronized void save(long userId, List<Post> posts, int maxPosts) {
+        if (posts == null || posts.isEmpty()) {
+            return;
+        }
+        List<Post> kept = new ArrayList<>(posts.subList(0, Math.min(maxPosts, posts.size())));
+        File target = fileOf(userId);
+        File temp = new File(dir, target.getName() + ".tmp");
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("无法创建缓存目录: " + dir);
+            }
+            try (JsonWriter writer = new JsonWriter(new BufferedWriter(
+                    new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)))) {
+                gson.toJson(new Snapshot(System.currentTimeMillis(), kept), Snapshot.class, writer);
+            }
+            if (!temp.renameTo(target)) {
+                throw new IOException("缓存文件写入失败: " + target);
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "保存推荐缓存失败: " + e.getMessage());
+            temp.delete();
+        }
+        removeOthers(target);
+    }
+
+    /**
+     * 删除所有用户的推荐缓存
+     */
+    public synchronized void clear() {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    /**
+     * 切换账号后上一个用户的缓存不再保留
+     */
+    private void removeOthers(File keep) {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            if (!file.equals(keep)) {
+                file.delete();
+            }
+        }
+    }
+
+    @Override
+    public void onTokenChanged(String newToken) {
+        // token 刷新不影响缓存，切换账号在下次保存时清理
+    }
+
+    @Override
+    public void onUserLoggedOut() {
+        // 登出可能在主线程通知，删除文件放到后台
+        DecodePipeline.backgroundExecutor().execute(this::clear);
+    }
+
+    private static boolean isExpired(long savedAt) {
+        long age = System.currentTimeMillis() - savedAt;
+        return age < 0 || age > TTL_MS;
+    }
+
+    private File fileOf(long userId) {
+        return new File(dir, PREFIX + userId + SUFFIX);
+    }
+}
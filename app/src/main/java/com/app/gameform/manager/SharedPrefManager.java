@@ -5,6 +5,8 @@ import android.content.SharedPreferences;
 import android.util.Log;
 
 import com.app.gameform.network.ApiConstants;
+import com.app.gameform.network.HttpClientProvider;
+import com.app.gameform.network.TokenAuthenticator;
 
 import org.json.JSONObject;
 
@@ -12,8 +14,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import okhttp3.Call;
-import okhttp3.Callback;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -32,12 +32,28 @@ public class SharedPrefManager {
     private static final String KEY_USER_ID = "user_id";
     private static final String KEY_USERNAME = "username";
 
+    // 刷新 Token 接口路径
+    public static final String REFRESH_TOKEN_PATH = "/user/profile/refreshToken";
+
+    // AccessToken 的内存副本，避免每个请求都去读 SharedPreferences；
+    // null 表示还没从 SharedPreferences 读过。Token 和“已读取”放在同一个对象里一次发布，
+    // 读线程不会看到“已读取”却拿到旧 Token
+    private volatile CachedToken cachedToken;
+
+    private static final class CachedToken {
+        final String token;
+
+        CachedToken(String token) {
+            this.token = token;
+        }
+    }
+
     // ⭐ 新增：Token 变更监听器列表
     private List<TokenChangeListener> tokenChangeListeners = new ArrayList<>();
 
     private SharedPrefManager(Context context) {
         sharedPreferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        httpClient = new OkHttpClient();
+        httpClient = HttpClientProvider.getInstance().getClient();
     }
 
     public static synchronized SharedPrefManager getInstance(Context context) {
@@ -56,6 +72,7 @@ public class SharedPrefManager {
         SharedPreferences.Editor editor = sharedPreferences.edit();
         editor.putString(KEY_TOKEN, token);
         editor.apply();
+        cachedToken = new CachedToken(token);
 
         // ⭐ 通知监听器 token 已更新
         notifyTokenChanged(token);
@@ -65,7 +82,17 @@ public class SharedPrefManager {
      * 获取 token
      */
     public String getToken() {
-        return sharedPreferences.getString(KEY_TOKEN, null);
+        CachedToken cached = cachedToken;
+        if (cached == null) {
+            synchronized (this) {
+                cached = cachedToken;
+                if (cached == null) {
+                    cached = new CachedToken(sharedPreferences.getString(KEY_TOKEN, null));
+                    cachedToken = cached;
+                }
+            }
+        }
+        return cached.token;
     }
 
     /**
@@ -136,6 +163,7 @@ public class SharedPrefManager {
         editor.remove(KEY_USER_ID);
         editor.remove(KEY_USERNAME);
         editor.apply();
+        cachedToken = new CachedToken(null);
 
         // ⭐ 通知监听器用户已登出
         notifyUserLoggedOut();
@@ -166,15 +194,42 @@ public class SharedPrefManager {
         }
 
         Log.d(TAG, "开始自动刷新 Token...");
-        refreshAccessToken(refreshToken, callback);
+        refreshAccessToken(callback);
     }
 
     /**
      * 使用 RefreshToken 刷新 AccessToken
+     * 与请求 401 触发的刷新走同一个 TokenAuthenticator，同一时刻只会有一次刷新
      */
-    private void refreshAccessToken(String refreshToken, final TokenRefreshCallback callback) {
+    private void refreshAccessToken(final TokenRefreshCallback callback) {
+        final String staleToken = getToken();
+        httpClient.dispatcher().executorService().execute(() -> {
+            TokenAuthenticator authenticator = HttpClientProvider.getInstance().getTokenAuthenticator();
+            String newAccessToken = authenticator.refresh(staleToken);
+            if (callback == null) {
+                return;
+            }
+            if (newAccessToken != null) {
+                callback.onRefreshSuccess(newAccessToken, getRefreshToken());
+            } else {
+                callback.onRefreshFailed(authenticator.getLastRefreshError());
+            }
+        });
+    }
+
+    /**
+     * 同步执行一次 Token 刷新，成功时保存新 Token
+     * 只由 TokenAuthenticator 在持锁状态下调用，需在后台线程执行
+     * @return 成功返回 null，失败返回错误信息
+     */
+    public String executeTokenRefresh(OkHttpClient client) {
+        String refreshToken = getRefreshToken();
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            return "RefreshToken 不存在";
+        }
+
         // 构建请求 URL
-        String url = ApiConstants.BASE_URL + "/user/profile/refreshToken";
+        String url = ApiConstants.BASE_URL + REFRESH_TOKEN_PATH;
 
         // 构建请求
         Request request = new Request.Builder()
@@ -183,66 +238,46 @@ public class SharedPrefManager {
                 .post(RequestBody.create(MediaType.parse("application/json"), "{}"))
                 .build();
 
-        // 异步请求
-        httpClient.newCall(request).enqueue(new Callback() {
-            @Override
-            public void onFailure(Call call, IOException e) {
-                Log.e(TAG, "刷新 Token 失败: " + e.getMessage());
-                if (callback != null) {
-                    callback.onRefreshFailed(e.getMessage());
+        try (Response response = (client != null ? client : httpClient).newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                Log.e(TAG, "刷新 Token 失败，HTTP 状态码: " + response.code());
+                // Token 过期或无效，清除用户数据
+                if (response.code() == 401 || response.code() == 403) {
+                    clearUserData();
                 }
+                return "HTTP " + response.code();
             }
 
-            @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                if (!response.isSuccessful()) {
-                    Log.e(TAG, "刷新 Token 失败，HTTP 状态码: " + response.code());
-                    if (callback != null) {
-                        callback.onRefreshFailed("HTTP " + response.code());
-                    }
-                    // Token 过期或无效，清除用户数据
-                    if (response.code() == 401 || response.code() == 403) {
-                        clearUserData();
-                    }
-                    return;
-                }
-
-                try {
-                    String responseBody = response.body().string();
-                    JSONObject jsonResponse = new JSONObject(responseBody);
-
-                    // 检查响应状态
-                    int code = jsonResponse.optInt("code", -1);
-                    if (code == 200) {
-                        JSONObject data = jsonResponse.getJSONObject("data");
-                        String newAccessToken = data.getString("accessToken");
-                        String newRefreshToken = data.getString("refreshToken");
-
-                        // 保存新的 Token（会自动触发监听器）
-                        saveToken(newAccessToken);
-                        saveRefreshToken(newRefreshToken);
-
-                        Log.d(TAG, "Token 刷新成功");
-                        if (callback != null) {
-                            callback.onRefreshSuccess(newAccessToken, newRefreshToken);
-                        }
-                    } else {
-                        String message = jsonResponse.optString("msg", "刷新失败");
-                        Log.e(TAG, "刷新 Token 失败: " + message);
-                        if (callback != null) {
-                            callback.onRefreshFailed(message);
-                        }
-                        // Token 无效，清除用户数据
-                        clearUserData();
-                    }
-                } catch (Exception e) {
-                    Log.e(TAG, "解析响应失败: " + e.getMessage());
-                    if (callback != null) {
-                        callback.onRefreshFailed("解析响应失败");
-                    }
-                }
+            String responseBody = response.body().string();
+            JSONObject jsonResponse = new JSONObject(responseBody);
+
+            // 检查响应状态
+            int code = jsonResponse.optInt("code", -1);
+            if (code == 200) {
+                JSONObject data = jsonResponse.getJSONObject("data");
+                String newAccessToken = data.getString("accessToken");
+                String newRefreshToken = data.getString("refreshToken");
+
+                // 保存新的 Token（会自动触发监听器）
+                saveToken(newAccessToken);
+                saveRefreshToken(newRefreshToken);
+
+                Log.d(TAG, "Token 刷新成功");
+                return null;
+            } else {
+                String message = jsonResponse.optString("msg", "刷新失败");
+                Log.e(TAG, "刷新 Token 失败: " + message);
+                // Token 无效，清除用户数据
+                clearUserData();
+                return message;
             }
-        });
+        } catch (IOException e) {
+            Log.e(TAG, "刷新 Token 失败: " + e.getMessage());
+            return e.getMessage();
+        } catch (Exception e) {
+            Log.e(TAG, "解析响应失败: " + e.getMessage());
+            return "解析响应失败";
+        }
     }
 
     // ==================== ⭐ 新增：Token 监听器机制 ====================
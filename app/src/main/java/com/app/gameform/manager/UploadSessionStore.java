@@ -0,0 +1,90 @@
+package com.app.gameform.manager;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.app.gameform.network.ChunkedUploader;
+import com.app.gameform.network.GsonProvider;
+import com.google.gson.Gson;
+
+import java.util.Map;
+
+/**
+ * 分块上传会话的本地保存
+ * 按内容摘要保存会话（uploadId、文件名、已确认的偏移量），进程重启后再上传同一张图片时可以续传。
+ * 服务器上的会话也会过期，超过 SESSION_TTL_MS 的本地记录直接丢弃
+ */
+public class UploadSessionStore implements ChunkedUploader.SessionStore {
+    private static final String TAG = "UploadSessionStore";
+    private static final String PREFS_NAME = "upload_sessions";
+
+    private static final long SESSION_TTL_MS = 24 * 60 * 60 * 1000L;
+
+    private static UploadSessionStore instance;
+    private final SharedPreferences prefs;
+    private final Gson gson = GsonProvider.getGson();
+
+    private UploadSessionStore(Context context) {
+        prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        removeExpired();
+    }
+
+    public static synchronized UploadSessionStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new UploadSessionStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @Override
+    public synchronized ChunkedUploader.Session load(String key) {
+        String json = prefs.getString(key, null);
+        if (json == null) {
+            return null;
+        }
+        ChunkedUploader.Session session = decode(json);
+        if (session == null || isExpired(session)) {
+            prefs.edit().remove(key).apply();
+            return null;
+        }
+        return session;
+    }
+
+    @Override
+    public synchronized void save(String key, ChunkedUploader.Session session) {
+        // 每块确认后都会保存，apply 异步写盘，不阻塞上传线程
+        prefs.edit().putString(key, gson.toJson(session)).apply();
+    }
+
+    @Override
+    public synchronized void remove(String key) {
+        prefs.edit().remove(key).apply();
+    }
+
+    private void removeExpired() {
+        SharedPreferences.Editor editor = prefs.edit();
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            Object value = entry.getValue();
+            ChunkedUploader.Session session = value instanceof String ? decode((String) value) : null;
+            if (session == null || isExpired(session)) {
+                editor.remove(entry.getKey());
+            }
+        }
+        editor.apply();
+    }
+
+    private ChunkedUploader.Session decode(String json) {
+        try {
+            return gson.fromJson(json, ChunkedUploader.Session.class);
+        } catch (Exception e) {
+            Log.w(TAG, "上传会话解析失败: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isExpired(ChunkedUploader.Session session) {
+        long age = System.currentTimeMillis() - session.createdAt;
+        return age < 0 || age > SESSION_TTL_MS;
+    }
+}
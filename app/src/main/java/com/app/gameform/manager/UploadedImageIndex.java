@@ -0,0 +1,153 @@
+package com.app.gameform.manager;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.app.gameform.network.GsonProvider;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 已上传图片的索引：内容摘要 -> 服务器上的图片路径
+ * 同一张图片（截图在多个草稿、多次编辑中反复使用）再次上传时直接使用已有路径，不再处理和传输。
+ * 最多保存 MAX_ENTRIES 条，超出时淘汰最久未使用的；整体保存在 SharedPreferences 中，进程重启后仍有效。
+ * 只在增删时写入，命中改变的使用顺序随下一次写入一起保存
+ */
+public class UploadedImageIndex {
+    private static final String TAG = "UploadedImageIndex";
+    private static final String PREFS_NAME = "uploaded_images";
+    private static final String KEY_ENTRIES = "entries";
+
+    private static final int MAX_ENTRIES = 500;
+
+    private static UploadedImageIndex instance;
+    private final Storage storage;
+    private final Gson gson = GsonProvider.getGson();
+
+    // 按访问顺序排列，最久未使用的在最前
+    private final LinkedHashMap<String, String> entries;
+
+    /**
+     * 持久化的读写，测试时替换
+     */
+    interface Storage {
+        String read();
+
+        void write(String json);
+
+        void clear();
+    }
+
+    private static final class PrefsStorage implements Storage {
+        private final SharedPreferences prefs;
+
+        PrefsStorage(Context context) {
+            prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        }
+
+        @Override
+        public String read() {
+            return prefs.getString(KEY_ENTRIES, null);
+        }
+
+        @Override
+        public void write(String json) {
+            // apply 异步写盘，不阻塞上传线程
+            prefs.edit().putString(KEY_ENTRIES, json).apply();
+        }
+
+        @Override
+        public void clear() {
+            prefs.edit().remove(KEY_ENTRIES).apply();
+        }
+    }
+
+    /**
+     * 持久化格式，按 LRU 顺序保存，读回时恢复访问顺序
+     */
+    private static class Entry {
+        String hash;
+        String url;
+
+        Entry(String hash, String url) {
+            this.hash = hash;
+            this.url = url;
+        }
+    }
+
+    private UploadedImageIndex(Context context) {
+        this(new PrefsStorage(context), MAX_ENTRIES);
+    }
+
+    UploadedImageIndex(Storage storage, int maxEntries) {
+        this.storage = storage;
+        this.entries = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        load();
+    }
+
+    public static synchronized UploadedImageIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new UploadedImageIndex(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * @param hash 图片原始内容的摘要
+     * @return 已上传的图片路径，没有时返回 null；命中会更新使用顺序
+     */
+    public synchronized String get(String hash) {
+        return entries.get(hash);
+    }
+
+    public synchronized void put(String hash, String url) {
+        entries.put(hash, url);
+        persist();
+    }
+
+    public synchronized void remove(String hash) {
+        if (entries.remove(hash) != null) {
+            persist();
+        }
+    }
+
+    private void load() {
+        String json = storage.read();
+        if (json == null) {
+            return;
+        }
+        try {
+            List<Entry> saved = gson.fromJson(json, new TypeToken<List<Entry>>() {}.getType());
+            if (saved == null) {
+                return;
+            }
+            for (Entry entry : saved) {
+                if (entry != null && entry.hash != null && entry.url != null) {
+                    entries.put(entry.hash, entry.url);
+                }
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "上传索引解析失败，重新建立: " + e.getMessage());
+            storage.clear();
+        }
+    }
+
+    private void persist() {
+        List<Entry> saved = new ArrayList<>(entries.size());
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            saved.add(new Entry(entry.getKey(), entry.getValue()));
+        }
+        storage.write(gson.toJson(saved));
+    }
+}
@@ -19,6 +19,10 @@ public class ApiConstants {
     public static final String GET_ALL_GAMES = BASE_URL + "/user/game/list";
     public static final String GET_ALL_SECTIONS = BASE_URL + "/user/section/all";
     public static final String UPLOAD_POST_IMAGE = BASE_URL + "/user/upload/save-post-image";
+    // multipart 上传帖子图片，字段 file（图片）和 fileName
+    public static final String UPLOAD_POST_IMAGE_FILE = BASE_URL + "/user/upload/post-image";
+    // 分块续传会话：POST 创建，GET /{uploadId} 查询偏移量，PUT /{uploadId}?offset= 上传一块
+    public static final String UPLOAD_SESSION = BASE_URL + "/user/upload/session";
 
     // 游戏详情
     public static final String GET_GAME_DETAIL = BASE_URL + "/user/game/";
@@ -182,6 +186,9 @@ public class ApiConstants {
 
     public static final String CHECK_COMMENT_LIKE_STATUS = BASE_URL + "/user/comment/like/check/";
 
+    // 批量查询互动状态（点赞、收藏、关注）
+    public static final String BATCH_INTERACTION_STATUS = BASE_URL + "/user/interaction/status/batch";
+
     // ================== 工具方法 ==================
 
     /**
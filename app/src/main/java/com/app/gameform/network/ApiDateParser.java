@@ -0,0 +1,186 @@
+package com.app.gameform.network;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * 服务器时间戳解析
+ * 手写逐字符解析，不用正则也不依赖 SimpleDateFormat，无共享可变状态，可在 OkHttp 回调线程并发调用。
+ * 支持的格式：
+ *   yyyy-MM-dd HH:mm:ss
+ *   yyyy-MM-dd'T'HH:mm:ss[.SSS][Z | +08:00 | +0800]
+ *   yyyy-MM-dd
+ * 不带时区的按本地时区处理，与原来 SimpleDateFormat 的行为一致
+ */
+public final class ApiDateParser {
+
+    // 与原来各处创建 SimpleDateFormat 时一样，在初始化时取一次默认时区
+    private static final TimeZone LOCAL_ZONE = TimeZone.getDefault();
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private ApiDateParser() {
+    }
+
+    /**
+     * 解析时间字符串
+     * @return 解析失败或为空时返回 null
+     */
+    public static Date parse(String text) {
+        long millis = parseMillis(text);
+        return millis == Long.MIN_VALUE ? null : new Date(millis);
+    }
+
+    /**
+     * 解析为毫秒时间戳
+     * @return 解析失败返回 Long.MIN_VALUE
+     */
+    public static long parseMillis(String text) {
+        if (text == null) {
+            return Long.MIN_VALUE;
+        }
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+
+        // 日期部分 yyyy-MM-dd
+        if (end - start < 10
+                || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(text, start, 4);
+        int month = digits(text, start + 5, 2);
+        int day = digits(text, start + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return Long.MIN_VALUE;
+        }
+
+        int pos = start + 10;
+        int hour = 0, minute = 0, second = 0, millis = 0;
+        if (pos < end) {
+            // 时间部分 HH:mm:ss，分隔符可以是空格或 T
+            char sep = text.charAt(pos);
+            if ((sep != ' ' && sep != 'T') || end - pos < 9
+                    || text.charAt(pos + 3) != ':' || text.charAt(pos + 6) != ':') {
+                return Long.MIN_VALUE;
+            }
+            hour = digits(text, pos + 1, 2);
+            minute = digits(text, pos + 4, 2);
+            second = digits(text, pos + 7, 2);
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                return Long.MIN_VALUE;
+            }
+            pos += 9;
+
+            // 毫秒部分，多于 3 位的只取前 3 位
+            if (pos < end && text.charAt(pos) == '.') {
+                pos++;
+                int fractionStart = pos;
+                while (pos < end && isDigit(text.charAt(pos))) {
+                    if (pos - fractionStart < 3) {
+                        millis = millis * 10 + (text.charAt(pos) - '0');
+                    }
+                    pos++;
+                }
+                int fractionDigits = pos - fractionStart;
+                if (fractionDigits == 0) {
+                    return Long.MIN_VALUE;
+                }
+                for (int i = fractionDigits; i < 3; i++) {
+                    millis *= 10;
+                }
+            }
+        }
+
+        long local = daysSinceEpoch(year, month, day) * MILLIS_PER_DAY
+                + ((hour * 60L + minute) * 60L + second) * 1000L + millis;
+
+        if (pos == end) {
+            return local - localOffset(local);
+        }
+
+        // 时区部分：Z、+08:00、+0800、+08
+        char sign = text.charAt(pos);
+        if (sign == 'Z' && pos + 1 == end) {
+            return local;
+        }
+        if (sign != '+' && sign != '-') {
+            return Long.MIN_VALUE;
+        }
+        int remaining = end - pos - 1;
+        int offsetHour = digits(text, pos + 1, 2);
+        int offsetMinute;
+        if (remaining == 2) {
+            offsetMinute = 0;
+        } else if (remaining == 4) {
+            offsetMinute = digits(text, pos + 3, 2);
+        } else if (remaining == 5 && text.charAt(pos + 3) == ':') {
+            offsetMinute = digits(text, pos + 4, 2);
+        } else {
+            return Long.MIN_VALUE;
+        }
+        if (offsetHour < 0 || offsetHour > 18 || offsetMinute < 0 || offsetMinute > 59) {
+            return Long.MIN_VALUE;
+        }
+        long offset = (offsetHour * 60L + offsetMinute) * 60_000L;
+        return sign == '+' ? local - offset : local + offset;
+    }
+
+    /**
+     * 本地时间对应的时区偏移，夏令时切换附近再校正一次
+     */
+    private static long localOffset(long localMillis) {
+        int offset = LOCAL_ZONE.getOffset(localMillis - LOCAL_ZONE.getRawOffset());
+        return LOCAL_ZONE.getOffset(localMillis - offset);
+    }
+
+    /**
+     * 读取固定位数的数字，包含非数字字符时返回 -1
+     */
+    private static int digits(String text, int from, int count) {
+        if (from + count > text.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * 公历日期距 1970-01-01 的天数
+     */
+    private static long daysSinceEpoch(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+}
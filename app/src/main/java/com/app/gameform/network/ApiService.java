@@ -6,23 +6,14 @@ import android.util.Log;
 
 import com.app.gameform.domain.Post;
 import com.app.gameform.manager.SharedPrefManager;
+import com.app.gameform.network.RequestScheduler.Priority;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
 import okhttp3.Callback;
@@ -39,62 +30,18 @@ public class ApiService {
     private static ApiService instance;
     private OkHttpClient client;
     private Gson gson;
+    // 相同 GET 请求合并
+    private final RequestCoalescer coalescer = RequestCoalescer.getInstance();
+    // 帖子列表结果的类型，用于请求合并的 key
+    private static final Type POST_LIST_TYPE = new TypeToken<List<Post>>(){}.getType();
+    // 按优先级调度：可见内容优先于交互、预取和后台请求
+    private final RequestScheduler scheduler = RequestScheduler.getInstance();
 
-    // 在 ApiService.java 的构造函数中，修改日期格式数组
     private ApiService() {
-        client = new OkHttpClient.Builder()
-                .connectTimeout(10, TimeUnit.SECONDS)
-                .readTimeout(10, TimeUnit.SECONDS)
-                .writeTimeout(10, TimeUnit.SECONDS)
-                .build();
-
-        // 配置Gson以支持多种日期格式
-        gson = new GsonBuilder()
-                .registerTypeAdapter(Date.class, new JsonDeserializer<Date>() {
-                    private final SimpleDateFormat[] dateFormats = {
-                            // 添加服务器实际使用的格式（放在前面，优先匹配）
-                            new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()),
-                            new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault()),
-                            new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS", Locale.getDefault()),
-                            new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ", Locale.getDefault()),
-                            new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault())
-                    };
-
-                    @Override
-                    public Date deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
-                            throws JsonParseException {
-                        if (json == null || json.isJsonNull()) {
-                            return null;
-                        }
+        client = HttpClientProvider.getInstance().getClient();
 
-                        String dateStr = json.getAsString();
-                        if (dateStr == null || dateStr.trim().isEmpty()) {
-                            return null;
-                        }
-
-                        // 清理日期字符串
-                        dateStr = dateStr.trim();
-
-                        // 处理时区格式，将 +08:00 转换为 +0800
-                        if (dateStr.matches(".*[+-]\\d{2}:\\d{2}$")) {
-                            dateStr = dateStr.replaceAll("([+-]\\d{2}):(\\d{2})$", "$1$2");
-                        }
-
-                        // 尝试不同的日期格式
-                        for (SimpleDateFormat format : dateFormats) {
-                            try {
-                                return format.parse(dateStr);
-                            } catch (ParseException e) {
-                                // 继续尝试下一个格式
-                            }
-                        }
-
-                        // 如果所有格式都失败，记录错误并返回 null
-                        Log.w("ApiService", "无法解析日期格式: " + dateStr);
-                        return null;
-                    }
-                })
-                .create();
+        // 共享的 Gson 配置：多种日期格式 + 实体类的手写 TypeAdapter
+        gson = GsonProvider.getGson();
     }
 
     public static ApiService getInstance() {
@@ -116,10 +63,15 @@ public class ApiService {
                 .url(url)
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        String key = RequestCoalescer.keyOf(request, String.class);
+        if (!coalescer.join(key, request.tag(), callback)) {
+            return;
+        }
+
+        scheduler.enqueue(client.newCall(request), Priority.VISIBLE, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                callback.onError(e.getMessage());
+                coalescer.fail(key, callback, e.getMessage());
             }
 
             @Override
@@ -127,12 +79,12 @@ public class ApiService {
                 try {
                     if (response.isSuccessful()) {
                         String json = response.body().string();
-                        callback.onSuccess(json);
+                        coalescer.complete(key, callback, json);
                     } else {
-                        callback.onError("请求失败: " + response.code());
+                        coalescer.fail(key, callback, "请求失败: " + response.code());
                     }
                 } catch (Exception e) {
-                    callback.onError("解析响应失败: " + e.getMessage());
+                    coalescer.fail(key, callback, "解析响应失败: " + e.getMessage());
                 } finally {
                     response.close();
                 }
@@ -144,6 +96,21 @@ public class ApiService {
      * 需要认证的GET请求方法
      */
     public void getRequestWithAuth(Context context, String url, ApiCallback<String> callback) {
+        getRequestWithAuth(context, url, Priority.VISIBLE, callback);
+    }
+
+    /**
+     * 需要认证的GET请求方法，指定调度优先级
+     */
+    public void getRequestWithAuth(Context context, String url, Priority priority, ApiCallback<String> callback) {
+        getRequestWithAuth(context, url, priority, null, callback);
+    }
+
+    /**
+     * 需要认证的GET请求方法，带 tag 以便通过 HttpClientProvider.cancelByTag 取消
+     */
+    public void getRequestWithAuth(Context context, String url, Priority priority, Object tag,
+                                   ApiCallback<String> callback) {
         String token = SharedPrefManager.getInstance(context).getToken();
         if (TextUtils.isEmpty(token)) {
             callback.onError("token为空，无法执行请求，请重新登录");
@@ -153,12 +120,18 @@ public class ApiService {
         Request request = new Request.Builder()
                 .url(url)
                 .addHeader("Authorization", token.startsWith("Bearer ") ? token : "Bearer " + token)
+                .tag(tag)
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        String key = RequestCoalescer.keyOf(request, String.class);
+        if (!coalescer.join(key, request.tag(), callback)) {
+            return;
+        }
+
+        scheduler.enqueue(client.newCall(request), priority, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                callback.onError(e.getMessage());
+                coalescer.fail(key, callback, e.getMessage());
             }
 
             @Override
@@ -166,12 +139,12 @@ public class ApiService {
                 try {
                     if (response.isSuccessful()) {
                         String json = response.body().string();
-                        callback.onSuccess(json);
+                        coalescer.complete(key, callback, json);
                     } else {
-                        callback.onError("请求失败: " + response.code());
+                        coalescer.fail(key, callback, "请求失败: " + response.code());
                     }
                 } catch (Exception e) {
-                    callback.onError("解析响应失败: " + e.getMessage());
+                    coalescer.fail(key, callback, "解析响应失败: " + e.getMessage());
                 } finally {
                     response.close();
                 }
@@ -195,7 +168,7 @@ public class ApiService {
                 .delete()
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        scheduler.enqueue(client.newCall(request), Priority.INTERACTION, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 callback.onError(e.getMessage());
@@ -237,7 +210,7 @@ public class ApiService {
                 .post(body)
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        scheduler.enqueue(client.newCall(request), Priority.INTERACTION, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 callback.onError(e.getMessage());
@@ -265,37 +238,92 @@ public class ApiService {
      * 获取帖子列表
      */
     public void getPosts(String url, ApiCallback<List<Post>> callback) {
+        getPosts(url, null, callback);
+    }
+
+    /**
+     * 获取帖子列表，带 tag 以便取消
+     */
+    public void getPosts(String url, Object tag, ApiCallback<List<Post>> callback) {
         // 这里的url应该是完整的相对路径，不需要再拼接BASE_URL
         Request request = new Request.Builder()
                 .url(url)
+                .tag(tag)
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        String key = RequestCoalescer.keyOf(request, POST_LIST_TYPE);
+        if (!coalescer.join(key, request.tag(), callback)) {
+            return;
+        }
+
+        scheduler.enqueue(client.newCall(request), Priority.VISIBLE, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                callback.onError(e.getMessage());
+                coalescer.fail(key, callback, e.getMessage());
             }
 
             @Override
             public void onResponse(Call call, Response response) throws IOException {
                 try {
                     if (response.isSuccessful()) {
-                        String json = response.body().string();
-
-                        // 使用正确的类型来解析帖子列表
+                        // 使用正确的类型来解析帖子列表，直接从响应流解码
                         Type listType = new TypeToken<ApiResponse<List<Post>>>(){}.getType();
-                        ApiResponse<List<Post>> apiResponse = gson.fromJson(json, listType);
+                        ApiResponse<List<Post>> apiResponse =
+                                JsonStreamDecoder.decode(gson, response, listType);
 
                         if (apiResponse.isSuccess()) {
-                            callback.onSuccess(apiResponse.getData());
+                            coalescer.complete(key, callback, apiResponse.getData());
                         } else {
-                            callback.onError(apiResponse.getMsg());
+                            coalescer.fail(key, callback, apiResponse.getMsg());
                         }
                     } else {
-                        callback.onError("请求失败: " + response.code());
+                        coalescer.fail(key, callback, "请求失败: " + response.code());
                     }
                 } catch (Exception e) {
-                    callback.onError("解析响应失败: " + e.getMessage());
+                    coalescer.fail(key, callback, "解析响应失败: " + e.getMessage());
+                } finally {
+                    response.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * 获取单个帖子（列表里被换出的帖子本地暂存丢失时按ID补回）
+     */
+    public void getPostDetail(Integer postId, Priority priority, ApiCallback<Post> callback) {
+        Request request = new Request.Builder()
+                .url(ApiConstants.GET_POST_DETAIL + postId)
+                .build();
+
+        String key = RequestCoalescer.keyOf(request, Post.class);
+        if (!coalescer.join(key, request.tag(), callback)) {
+            return;
+        }
+
+        scheduler.enqueue(client.newCall(request), priority, new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                coalescer.fail(key, callback, e.getMessage());
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try {
+                    if (response.isSuccessful()) {
+                        Type type = new TypeToken<ApiResponse<Post>>(){}.getType();
+                        ApiResponse<Post> apiResponse = JsonStreamDecoder.decode(gson, response, type);
+
+                        if (apiResponse.isSuccess() && apiResponse.getData() != null) {
+                            coalescer.complete(key, callback, apiResponse.getData());
+                        } else {
+                            coalescer.fail(key, callback, apiResponse.getMsg());
+                        }
+                    } else {
+                        coalescer.fail(key, callback, "请求失败: " + response.code());
+                    }
+                } catch (Exception e) {
+                    coalescer.fail(key, callback, "解析响应失败: " + e.getMessage());
                 } finally {
                     response.close();
                 }
@@ -327,7 +355,7 @@ public class ApiService {
                 .post(body)
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        scheduler.enqueue(client.newCall(request), Priority.INTERACTION, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 callback.onError(e.getMessage());
@@ -370,7 +398,7 @@ public class ApiService {
                 .delete() // 取消点赞是 DELETE 请求
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        scheduler.enqueue(client.newCall(request), Priority.INTERACTION, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 callback.onError(e.getMessage());
@@ -414,10 +442,15 @@ public class ApiService {
                 .get()  // 查询点赞状态是 GET 请求
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        String key = RequestCoalescer.keyOf(request, Boolean.class);
+        if (!coalescer.join(key, request.tag(), callback)) {
+            return;
+        }
+
+        scheduler.enqueue(client.newCall(request), Priority.INTERACTION, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                callback.onError(e.getMessage());
+                coalescer.fail(key, callback, e.getMessage());
             }
 
             @Override
@@ -428,12 +461,13 @@ public class ApiService {
                         Type type = new TypeToken<ApiResponse<Boolean>>() {}.getType();
                         ApiResponse<Boolean> apiResponse = gson.fromJson(json, type);
                         // 返回 true 表示已点赞，false 表示未点赞
-                        callback.onSuccess(apiResponse.isSuccess() && apiResponse.getData() != null && apiResponse.getData());
+                        coalescer.complete(key, callback,
+                                apiResponse.isSuccess() && apiResponse.getData() != null && apiResponse.getData());
                     } else {
-                        callback.onError("请求失败: " + response.code());
+                        coalescer.fail(key, callback, "请求失败: " + response.code());
                     }
                 } catch (Exception e) {
-                    callback.onError("解析响应失败: " + e.getMessage());
+                    coalescer.fail(key, callback, "解析响应失败: " + e.getMessage());
                 } finally {
                     response.close();
                 }
@@ -472,31 +506,35 @@ public class ApiService {
                 .addHeader("Authorization", token.startsWith("Bearer ") ? token : "Bearer " + token)
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
+        String key = RequestCoalescer.keyOf(request, POST_LIST_TYPE);
+        if (!coalescer.join(key, request.tag(), callback)) {
+            return;
+        }
+
+        scheduler.enqueue(client.newCall(request), Priority.VISIBLE, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                callback.onError(e.getMessage());
+                coalescer.fail(key, callback, e.getMessage());
             }
 
             @Override
             public void onResponse(Call call, Response response) throws IOException {
                 try {
                     if (response.isSuccessful()) {
-                        String json = response.body().string();
-
                         Type listType = new TypeToken<ApiResponse<List<Post>>>(){}.getType();
-                        ApiResponse<List<Post>> apiResponse = gson.fromJson(json, listType);
+                        ApiResponse<List<Post>> apiResponse =
+                                JsonStreamDecoder.decode(gson, response, listType);
 
                         if (apiResponse.isSuccess()) {
-                            callback.onSuccess(apiResponse.getData());
+                            coalescer.complete(key, callback, apiResponse.getData());
                         } else {
-                            callback.onError(apiResponse.getMsg());
+                            coalescer.fail(key, callback, apiResponse.getMsg());
                         }
                     } else {
-                        callback.onError("请求失败: " + response.code());
+                        coalescer.fail(key, callback, "请求失败: " + response.code());
                     }
                 } catch (Exception e) {
-                    callback.onError("解析响应失败: " + e.getMessage());
+                    coalescer.fail(key, callback, "解析响应失败: " + e.getMessage());
                 } finally {
                     response.close();
                 }
@@ -585,9 +623,17 @@ public class ApiService {
      * 获取个性化推荐帖子
      */
     public void getPersonalizedRecommendations(Context context, int limit, ApiCallback<List<Post>> callback) {
+        getPersonalizedRecommendations(context, limit, null, callback);
+    }
+
+    /**
+     * 获取个性化推荐帖子，带 tag 以便取消
+     */
+    public void getPersonalizedRecommendations(Context context, int limit, Object tag,
+                                               ApiCallback<List<Post>> callback) {
         String url = ApiConstants.buildPersonalizedRecommendationsUrl(limit);
 
-        getRequestWithAuth(context, url, new ApiCallback<String>() {
+        getRequestWithAuth(context, url, Priority.VISIBLE, tag, new ApiCallback<String>() {
             @Override
             public void onSuccess(String response) {
                 try {
@@ -653,9 +699,17 @@ public class ApiService {
      * 获取混合推荐帖子
      */
     public void getHybridRecommendations(Context context, int limit, int page, ApiCallback<List<Post>> callback) {
+        getHybridRecommendations(context, limit, page, null, callback);
+    }
+
+    /**
+     * 获取混合推荐帖子，带 tag 以便取消
+     */
+    public void getHybridRecommendations(Context context, int limit, int page, Object tag,
+                                         ApiCallback<List<Post>> callback) {
         String url = ApiConstants.buildHybridRecommendationsUrl(limit, page);
 
-        getRequestWithAuth(context, url, new ApiCallback<String>() {
+        getRequestWithAuth(context, url, Priority.VISIBLE, tag, new ApiCallback<String>() {
             @Override
             public void onSuccess(String response) {
                 try {
@@ -724,7 +778,7 @@ public class ApiService {
     public void checkCommentLikeStatus(Context context, int commentId, ApiCallback<Boolean> callback) {
         String url = ApiConstants.CHECK_COMMENT_LIKE_STATUS + commentId;
 
-        getRequestWithAuth(context, url, new ApiCallback<String>() {
+        getRequestWithAuth(context, url, Priority.INTERACTION, new ApiCallback<String>() {
             @Override
             public void onSuccess(String response) {
                 try {
@@ -828,7 +882,7 @@ public class ApiService {
     public void checkFollowStatus(Context context, Long userId, ApiCallback<Boolean> callback) {
         String url = ApiConstants.CHECK_FOLLOW_STATUS + userId;
 
-        getRequestWithAuth(context, url, new ApiCallback<String>() {
+        getRequestWithAuth(context, url, Priority.INTERACTION, new ApiCallback<String>() {
             @Override
             public void onSuccess(String response) {
                 try {
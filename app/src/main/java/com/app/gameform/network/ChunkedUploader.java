@@ -0,0 +1,437 @@
+package com.app.gameform.network;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * 分块断点续传
+ * 先在服务器创建上传会话，再按块 PUT，服务器返回已确认的偏移量；会话保存在本地，
+ * 失败或进程重启后再次上传同一内容时，从服务器确认的偏移量继续，而不是从头开始。
+ * 块大小按实测吞吐调整：每块大约传 TARGET_CHUNK_MS，弱网下一次失败损失的字节少，快网下请求数少。
+ * 同步执行，在后台线程调用
+ *
+ * 接口约定（sessionUrl 为 ApiConstants.UPLOAD_SESSION）：
+ * POST sessionUrl               {"fileName","size","mimeType"} -> data.uploadId, data.offset
+ * GET  sessionUrl/{uploadId}    -> data.offset
+ * PUT  sessionUrl/{uploadId}?offset=N  块内容 -> data.offset；偏移量不一致时返回 409 和当前偏移量
+ * 偏移量到达 size 时服务器合并文件
+ */
+public class ChunkedUploader {
+
+    static final int MIN_CHUNK = 64 * 1024;
+    static final int MAX_CHUNK = 2 * 1024 * 1024;
+    static final int INITIAL_CHUNK = 256 * 1024;
+    // 每块的目标传输时间
+    static final long TARGET_CHUNK_MS = 2000;
+    // 连续失败（中间没有任何进展）的最多次数
+    private static final int MAX_FAILURES = 5;
+    private static final long DEFAULT_BACKOFF_MS = 500;
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    private static final MediaType OCTET_STREAM = MediaType.parse("application/octet-stream");
+
+    /**
+     * 本地保存的上传会话
+     */
+    public static class Session {
+        public String uploadId;
+        public String fileName;
+        public long size;
+        public long offset;
+        public long createdAt;
+    }
+
+    /**
+     * 会话的持久化，key 为内容摘要
+     */
+    public interface SessionStore {
+        Session load(String key);
+
+        void save(String key, Session session);
+
+        void remove(String key);
+    }
+
+    /**
+     * 服务器没有分块上传接口
+     */
+    public static class UnsupportedException extends IOException {
+        UnsupportedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 服务器返回的错误
+     */
+    public static class ServerException extends IOException {
+        public final int code;
+
+        ServerException(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+
+        /**
+         * 服务器暂时不可用或偏移量不一致，重新查询偏移量后可以继续
+         */
+        public boolean isRetryable() {
+            return code >= 500 || code == 408 || code == 409 || code == 429;
+        }
+    }
+
+    private final OkHttpClient client;
+    private final String sessionUrl;
+    private final SessionStore store;
+    private final Object tag;
+    private final String token;
+    private final long backoffMs;
+
+    private volatile boolean canceled;
+    private volatile Call currentCall;
+
+    // 统计：实际发出的块字节数（包括失败的块）
+    private long bytesSent;
+    private int chunkSize = INITIAL_CHUNK;
+
+    /**
+     * @param tag 请求的 tag，可以按 tag 取消
+     * @param token Authorization 请求头，可以为 null
+     */
+    public ChunkedUploader(OkHttpClient client, String sessionUrl, SessionStore store, Object tag, String token) {
+        this(client, sessionUrl, store, tag, token, DEFAULT_BACKOFF_MS);
+    }
+
+    ChunkedUploader(OkHttpClient client, String sessionUrl, SessionStore store, Object tag, String token,
+                    long backoffMs) {
+        this.client = client;
+        this.sessionUrl = sessionUrl;
+        this.store = store;
+        this.tag = tag;
+        this.token = token;
+        this.backoffMs = backoffMs;
+    }
+
+    /**
+     * 上传内容，已有同一内容的会话时从服务器确认的偏移量继续
+     * @param key 内容标识，一般用 contentKey 计算
+     * @param fileName 新建会话时使用的文件名
+     * @return 服务器保存的文件名；续传时为原会话的文件名
+     */
+    public String upload(String key, String fileName, String mimeType, long size,
+                         StreamingUploadBody.Opener opener,
+                         StreamingUploadBody.ProgressListener listener) throws IOException {
+        Session session = resume(key, size);
+        if (session == null) {
+            session = create(fileName, mimeType, size);
+            store.save(key, session);
+        }
+
+        long offset = session.offset;
+        int failures = 0;
+        while (offset < size) {
+            checkCanceled();
+            int length = (int) Math.min(chunkSize, size - offset);
+            long start = System.nanoTime();
+            long acked;
+            try {
+                acked = putChunk(session, offset, length, opener, listener);
+            } catch (IOException e) {
+                checkCanceled();
+                if (e instanceof ServerException && !((ServerException) e).isRetryable()) {
+                    throw e;
+                }
+                if (++failures > MAX_FAILURES) {
+                    throw e;
+                }
+                // 链路不稳定时缩小块，减少下一次失败的损失
+                chunkSize = Math.max(MIN_CHUNK, chunkSize / 2);
+                sleep(backoffMs << Math.min(failures - 1, 4));
+                try {
+                    long confirmed = queryOffset(session);
+                    if (confirmed > offset) {
+                        // 失败的块有一部分已被服务器接收，算作有进展
+                        failures = 0;
+                    }
+                    offset = confirmed;
+                } catch (IOException queryError) {
+                    checkCanceled();
+                    if (queryError instanceof ServerException && ((ServerException) queryError).code == 404) {
+                        // 服务器上的会话已失效，下次从头开始
+                        store.remove(key);
+                        throw queryError;
+                    }
+                    // 查询失败时按本地记录的偏移量继续，下一块失败会再计数
+                }
+                saveProgress(key, session, offset, listener);
+                continue;
+            }
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            chunkSize = nextChunkSize(chunkSize, acked - offset, elapsedMs);
+            failures = acked > offset ? 0 : failures + 1;
+            if (failures > MAX_FAILURES) {
+                throw new IOException("上传没有进展");
+            }
+            offset = acked;
+            saveProgress(key, session, offset, listener);
+        }
+        store.remove(key);
+        return session.fileName;
+    }
+
+    private void saveProgress(String key, Session session, long offset,
+                              StreamingUploadBody.ProgressListener listener) {
+        session.offset = offset;
+        store.save(key, session);
+        if (listener != null) {
+            listener.onProgress(offset, session.size);
+        }
+    }
+
+    /**
+     * 取消正在进行的上传，upload 以 IOException 结束；会话保留，之后可以继续
+     */
+    public void cancel() {
+        canceled = true;
+        Call call = currentCall;
+        if (call != null) {
+            call.cancel();
+        }
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * 按最近一块的吞吐计算下一块的大小：目标是每块约 TARGET_CHUNK_MS，
+     * 每次最多翻倍，按 MIN_CHUNK 对齐并限制在 [MIN_CHUNK, MAX_CHUNK]
+     */
+    static int nextChunkSize(int current, long bytes, long elapsedMs) {
+        if (bytes <= 0) {
+            return Math.max(MIN_CHUNK, current / 2);
+        }
+        long target = bytes * TARGET_CHUNK_MS / Math.max(1, elapsedMs);
+        target = Math.min(target, (long) current * 2);
+        target = target / MIN_CHUNK * MIN_CHUNK;
+        return (int) Math.max(MIN_CHUNK, Math.min(MAX_CHUNK, target));
+    }
+
+    /**
+     * 内容的 SHA-256，作为会话的 key：同一张图片无论从哪里重新上传都能找到原会话
+     */
+    public static String contentKey(StreamingUploadBody.Opener opener) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        try (InputStream in = opener.open()) {
+            if (in == null) {
+                throw new IOException("无法打开上传内容");
+            }
+            byte[] buffer = new byte[StreamingUploadBody.BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    // ==================== 请求 ====================
+
+    private Session resume(String key, long size) throws IOException {
+        Session saved = store.load(key);
+        if (saved == null || saved.uploadId == null || saved.size != size) {
+            return null;
+        }
+        try {
+            saved.offset = queryOffset(saved);
+            return saved;
+        } catch (ServerException e) {
+            // 会话过期、被删除或无权访问（404、410、403 等），都无法继续，重新开始
+            if (e.code >= 400 && e.code < 500 && !e.isRetryable()) {
+                store.remove(key);
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private Session create(String fileName, String mimeType, long size) throws IOException {
+        JsonObject body = new JsonObject();
+        body.addProperty("fileName", fileName);
+        body.addProperty("size", size);
+        body.addProperty("mimeType", mimeType);
+        Request request = newRequest(sessionUrl)
+                .post(RequestBody.create(body.toString(), JSON))
+                .build();
+        JsonObject data;
+        try {
+            data = execute(request);
+        } catch (ServerException e) {
+            if (e.code == 404 || e.code == 405) {
+                throw new UnsupportedException("服务器不支持分块上传");
+            }
+            throw e;
+        }
+        Session session = new Session();
+        session.uploadId = data.get("uploadId").getAsString();
+        session.fileName = data.has("fileName") ? data.get("fileName").getAsString() : fileName;
+        session.size = size;
+        session.offset = data.has("offset") ? data.get("offset").getAsLong() : 0;
+        session.createdAt = System.currentTimeMillis();
+        return session;
+    }
+
+    private long queryOffset(Session session) throws IOException {
+        Request request = newRequest(sessionUrl + "/" + session.uploadId).get().build();
+        return execute(request).get("offset").getAsLong();
+    }
+
+    private long putChunk(Session session, long offset, int length, StreamingUploadBody.Opener opener,
+                          StreamingUploadBody.ProgressListener listener) throws IOException {
+        StreamingUploadBody body = new StreamingUploadBody(OCTET_STREAM, length, length,
+                () -> slice(opener, offset, length),
+                listener == null ? null : (written, total) -> listener.onProgress(offset + written, session.size));
+        Request request = newRequest(sessionUrl + "/" + session.uploadId + "?offset=" + offset)
+                .put(body)
+                .build();
+        bytesSent += length;
+        JsonObject data;
+        try {
+            data = execute(request);
+        } catch (ServerException e) {
+            if (e.code == 409) {
+                // 偏移量不一致（上一块服务器已收到一部分），按服务器的偏移量继续
+                return queryOffset(session);
+            }
+            throw e;
+        }
+        return data.get("offset").getAsLong();
+    }
+
+    private Request.Builder newRequest(String url) {
+        Request.Builder builder = new Request.Builder().url(url).tag(tag);
+        if (token != null) {
+            builder.addHeader("Authorization", token);
+        }
+        return builder;
+    }
+
+    /**
+     * 执行请求，返回 data 对象；HTTP 状态或 code 不是 200 时抛出 ServerException
+     */
+    private JsonObject execute(Request request) throws IOException {
+        checkCanceled();
+        Call call = client.newCall(request);
+        currentCall = call;
+        try (Response response = call.execute()) {
+            String text = response.body() != null ? response.body().string() : "";
+            if (!response.isSuccessful()) {
+                throw new ServerException(response.code(), "服务器错误(" + response.code() + ")");
+            }
+            JsonObject json;
+            try {
+                json = JsonParser.parseString(text).getAsJsonObject();
+            } catch (RuntimeException e) {
+                throw new IOException("响应解析失败", e);
+            }
+            int code = json.has("code") ? json.get("code").getAsInt() : 200;
+            if (code != 200) {
+                JsonElement msg = json.has("msg") ? json.get("msg") : json.get("message");
+                throw new ServerException(code, msg != null && !msg.isJsonNull() ? msg.getAsString() : "上传失败");
+            }
+            JsonElement data = json.get("data");
+            if (data == null || !data.isJsonObject()) {
+                throw new IOException("响应缺少 data");
+            }
+            return data.getAsJsonObject();
+        } finally {
+            currentCall = null;
+        }
+    }
+
+    private void checkCanceled() throws IOException {
+        if (canceled) {
+            throw new IOException("上传已取消");
+        }
+    }
+
+    private void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("上传已取消");
+        }
+    }
+
+    /**
+     * 从 offset 开始、长度为 length 的一段内容
+     */
+    private static InputStream slice(StreamingUploadBody.Opener opener, long offset, int length) throws IOException {
+        InputStream in = opener.open();
+        if (in == null) {
+            throw new IOException("无法打开上传内容");
+        }
+        long remaining = offset;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                if (in.read() == -1) {
+                    in.close();
+                    throw new IOException("上传内容比预期短");
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+        return new LimitedInputStream(in, length);
+    }
+
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int b = super.read();
+            if (b != -1) remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) return -1;
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) remaining -= n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package com.app.gameform.network;
+
+import com.app.gameform.domain.Comment;
+import com.app.gameform.domain.Game;
+import com.app.gameform.domain.Post;
+import com.app.gameform.domain.Section;
+import com.app.gameform.domain.User;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 热点实体的手写 TypeAdapter
+ * 代替 Gson 的反射绑定：不需要在首次使用时反射扫描字段，也不会为每个字段分配 BoundField，
+ * 解析 Post（21 个字段）和带 children 的 Comment 时明显更快。
+ * 字段名与实体类保持一致；未知字段直接跳过，null 字段写出时省略（与反射版行为一致）
+ */
+public class DomainTypeAdapters implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType == Post.class) {
+            return (TypeAdapter<T>) new PostAdapter(gson.getAdapter(Date.class)).nullSafe();
+        }
+        if (rawType == Comment.class) {
+            return (TypeAdapter<T>) new CommentAdapter(gson.getAdapter(Date.class)).nullSafe();
+        }
+        if (rawType == User.class) {
+            return (TypeAdapter<T>) new UserAdapter(gson.getAdapter(Date.class)).nullSafe();
+        }
+        if (rawType == Game.class) {
+            return (TypeAdapter<T>) new GameAdapter(gson.getAdapter(Date.class)).nullSafe();
+        }
+        if (rawType == Section.class) {
+            return (TypeAdapter<T>) new SectionAdapter(gson.getAdapter(Date.class)).nullSafe();
+        }
+        return null;
+    }
+
+    // ==================== Post ====================
+
+    static class PostAdapter extends TypeAdapter<Post> {
+        private final TypeAdapter<Date> dateAdapter;
+
+        PostAdapter(TypeAdapter<Date> dateAdapter) {
+            this.dateAdapter = dateAdapter;
+        }
+
+        @Override
+        public Post read(JsonReader in) throws IOException {
+            Post post = new Post();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "postId": post.setPostId(readInteger(in)); break;
+                    case "postTitle": post.setPostTitle(readString(in)); break;
+                    case "postContent": post.setPostContent(readString(in)); break;
+                    case "userId": post.setUserId(readLong(in)); break;
+                    case "sectionId": post.setSectionId(readInteger(in)); break;
+                    case "likeCount": post.setLikeCount(readInteger(in)); break;
+                    case "commentCount": post.setCommentCount(readInteger(in)); break;
+                    case "viewCount": post.setViewCount(readInteger(in)); break;
+                    case "topFlag": post.setTopFlag(readString(in)); break;
+                    case "hotFlag": post.setHotFlag(readString(in)); break;
+                    case "status": post.setStatus(readString(in)); break;
+                    case "delFlag": post.setDelFlag(readString(in)); break;
+                    case "createBy": post.setCreateBy(readString(in)); break;
+                    case "createTime": post.setCreateTime(dateAdapter.read(in)); break;
+                    case "updateBy": post.setUpdateBy(readString(in)); break;
+                    case "updateTime": post.setUpdateTime(dateAdapter.read(in)); break;
+                    case "remark": post.setRemark(readString(in)); break;
+                    case "sectionName": post.setSectionName(readString(in)); break;
+                    case "nickName": post.setNickName(readString(in)); break;
+                    case "avatar": post.setAvatar(readString(in)); break;
+                    case "photo": post.setPhoto(readString(in)); break;
+                    default: in.skipValue(); break;
+                }
+            }
+            in.endObject();
+            return post;
+        }
+
+        @Override
+        public void write(JsonWriter out, Post post) throws IOException {
+            out.beginObject();
+            writeField(out, "postId", post.getPostId());
+            writeField(out, "postTitle", post.getPostTitle());
+            writeField(out, "postContent", post.getPostContent());
+            writeField(out, "userId", post.getUserId());
+            writeField(out, "sectionId", post.getSectionId());
+            writeField(out, "likeCount", post.getLikeCount());
+            writeField(out, "commentCount", post.getCommentCount());
+            writeField(out, "viewCount", post.getViewCount());
+            writeField(out, "topFlag", post.getTopFlag());
+            writeField(out, "hotFlag", post.getHotFlag());
+            writeField(out, "status", post.getStatus());
+            writeField(out, "delFlag", post.getDelFlag());
+            writeField(out, "createBy", post.getCreateBy());
+            writeDate(out, dateAdapter, "createTime", post.getCreateTime());
+            writeField(out, "updateBy", post.getUpdateBy());
+            writeDate(out, dateAdapter, "updateTime", post.getUpdateTime());
+            writeField(out, "remark", post.getRemark());
+            writeField(out, "sectionName", post.getSectionName());
+            writeField(out, "nickName", post.getNickName());
+            writeField(out, "avatar", post.getAvatar());
+            writeField(out, "photo", post.getPhoto());
+            out.endObject();
+        }
+    }
+
+    // ==================== Comment ====================
+
+    static class CommentAdapter extends TypeAdapter<Comment> {
+        private final TypeAdapter<Date> dateAdapter;
+
+        CommentAdapter(TypeAdapter<Date> dateAdapter) {
+            this.dateAdapter = dateAdapter;
+        }
+
+        @Override
+        public Comment read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Comment comment = new Comment();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "commentId": comment.setCommentId(readInteger(in)); break;
+                    case "commentContent": comment.setCommentContent(readString(in)); break;
+                    case "postId": comment.setPostId(readInteger(in)); break;
+                    case "gameId": comment.setGameId(readInteger(in)); break;
+                    case "userId": comment.setUserId(readLong(in)); break;
+                    case "parentId": comment.setParentId(readInteger(in)); break;
+                    case "likeCount": comment.setLikeCount(readInteger(in)); break;
+                    case "status": comment.setStatus(readString(in)); break;
+                    case "delFlag": comment.setDelFlag(readString(in)); break;
+                    case "createBy": comment.setCreateBy(readString(in)); break;
+                    case "createTime": comment.setCreateTime(dateAdapter.read(in)); break;
+                    case "updateBy": comment.setUpdateBy(readString(in)); break;
+                    case "updateTime": comment.setUpdateTime(dateAdapter.read(in)); break;
+                    case "remark": comment.setRemark(readString(in)); break;
+                    case "nickName": comment.setNickName(readString(in)); break;
+                    case "userAvatar": comment.setUserAvatar(readString(in)); break;
+                    case "postTitle": comment.setPostTitle(readString(in)); break;
+                    case "gameName": comment.setGameName(readString(in)); break;
+                    case "parentContent": comment.setParentContent(readString(in)); break;
+                    case "parentUserName": comment.setParentUserName(readString(in)); break;
+                    case "parentNickName": comment.setParentNickName(readString(in)); break;
+                    case "children": comment.setChildren(readChildren(in)); break;
+                    case "childrenCount": comment.setChildrenCount(readInteger(in)); break;
+                    case "hasLiked": comment.setHasLiked(readBoolean(in)); break;
+                    case "totalComments": comment.setTotalComments(readInteger(in)); break;
+                    case "totalLikes": comment.setTotalLikes(readInteger(in)); break;
+                    default: in.skipValue(); break;
+                }
+            }
+            in.endObject();
+            return comment;
+        }
+
+        private List<Comment> readChildren(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            List<Comment> children = new ArrayList<>();
+            in.beginArray();
+            while (in.hasNext()) {
+                children.add(read(in));
+            }
+            in.endArray();
+            return children;
+        }
+
+        @Override
+        public void write(JsonWriter out, Comment comment) throws IOException {
+            if (comment == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            writeField(out, "commentId", comment.getCommentId());
+            writeField(out, "commentContent", comment.getCommentContent());
+            writeField(out, "postId", comment.getPostId());
+            writeField(out, "gameId", comment.getGameId());
+            writeField(out, "userId", comment.getUserId());
+            writeField(out, "parentId", comment.getParentId());
+            writeField(out, "likeCount", comment.getLikeCount());
+            writeField(out, "status", comment.getStatus());
+            writeField(out, "delFlag", comment.getDelFlag());
+            writeField(out, "createBy", comment.getCreateBy());
+            writeDate(out, dateAdapter, "createTime", comment.getCreateTime());
+            writeField(out, "updateBy", comment.getUpdateBy());
+            writeDate(out, dateAdapter, "updateTime", comment.getUpdateTime());
+            writeField(out, "remark", comment.getRemark());
+            writeField(out, "nickName", comment.getNickName());
+            writeField(out, "userAvatar", comment.getUserAvatar());
+            writeField(out, "postTitle", comment.getPostTitle());
+            writeField(out, "gameName", comment.getGameName());
+            writeField(out, "parentContent", comment.getParentContent());
+            writeField(out, "parentUserName", comment.getParentUserName());
+            writeField(out, "parentNickName", comment.getParentNickName());
+            if (comment.getChildren() != null) {
+                out.name("children").beginArray();
+                for (Comment child : comment.getChildren()) {
+                    write(out, child);
+                }
+                out.endArray();
+            }
+            writeField(out, "childrenCount", comment.getChildrenCount());
+            writeField(out, "hasLiked", comment.getHasLiked());
+            writeField(out, "totalComments", comment.getTotalComments());
+            writeField(out, "totalLikes", comment.getTotalLikes());
+            out.endObject();
+        }
+    }
+
+    // ==================== User ====================
+
+    static class UserAdapter extends TypeAdapter<User> {
+        private final TypeAdapter<Date> dateAdapter;
+
+        UserAdapter(TypeAdapter<Date> dateAdapter) {
+            this.dateAdapter = dateAdapter;
+        }
+
+        @Override
+        public User read(JsonReader in) throws IOException {
+            User user = new User();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "userId": user.setUserId(readLong(in)); break;
+                    case "userName": user.setUserName(readString(in)); break;
+                    case "nickName": user.setNickName(readString(in)); break;
+                    case "userType": user.setUserType(readString(in)); break;
+                    case "email": user.setEmail(readString(in)); break;
+                    case "phonenumber": user.setPhonenumber(readString(in)); break;
+                    case "sex": user.setSex(readString(in)); break;
+                    case "avatar": user.setAvatar(readString(in)); break;
+                    case "password": user.setPassword(readString(in)); break;
+                    case "status": user.setStatus(readString(in)); break;
+                    case "delFlag": user.setDelFlag(readString(in)); break;
+                    case "loginIp": user.setLoginIp(readString(in)); break;
+                    case "loginDate": user.setLoginDate(dateAdapter.read(in)); break;
+                    case "createBy": user.setCreateBy(readString(in)); break;
+                    case "createTime": user.setCreateTime(dateAdapter.read(in)); break;
+                    case "updateBy": user.setUpdateBy(readString(in)); break;
+                    case "updateTime": user.setUpdateTime(dateAdapter.read(in)); break;
+                    case "remark": user.setRemark(readString(in)); break;
+                    default: in.skipValue(); break;
+                }
+            }
+            in.endObject();
+            return user;
+        }
+
+        @Override
+        public void write(JsonWriter out, User user) throws IOException {
+            out.beginObject();
+            writeField(out, "userId", user.getUserId());
+            writeField(out, "userName", user.getUserName());
+            writeField(out, "nickName", user.getNickName());
+            writeField(out, "userType", user.getUserType());
+            writeField(out, "email", user.getEmail());
+            writeField(out, "phonenumber", user.getPhonenumber());
+            writeField(out, "sex", user.getSex());
+            writeField(out, "avatar", user.getAvatar());
+            writeField(out, "password", user.getPassword());
+            writeField(out, "status", user.getStatus());
+            writeField(out, "delFlag", user.getDelFlag());
+            writeField(out, "loginIp", user.getLoginIp());
+            writeDate(out, dateAdapter, "loginDate", user.getLoginDate());
+            writeField(out, "createBy", user.getCreateBy());
+            writeDate(out, dateAdapter, "createTime", user.getCreateTime());
+            writeField(out, "updateBy", user.getUpdateBy());
+            writeDate(out, dateAdapter, "updateTime", user.getUpdateTime());
+            writeField(out, "remark", user.getRemark());
+            out.endObject();
+        }
+    }
+
+    // ==================== Game ====================
+
+    static class GameAdapter extends TypeAdapter<Game> {
+        private final TypeAdapter<Date> dateAdapter;
+
+        GameAdapter(TypeAdapter<Date> dateAdapter) {
+            this.dateAdapter = dateAdapter;
+        }
+
+        @Override
+        public Game read(JsonReader in) throws IOException {
+            Game game = new Game();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "gameId": game.setGameId(readInteger(in)); break;
+                    case "gameName": game.setGameName(readString(in)); break;
+                    case "gameDescription": game.setGameDescription(readString(in)); break;
+                    case "gameTypeId": game.setGameTypeId(readInteger(in)); break;
+                    case "gameTypeName": game.setGameTypeName(readString(in)); break;
+                    case "gameIcon": game.setGameIcon(readString(in)); break;
+                    case "gameImages": game.setGameImages(readString(in)); break;
+                    case "createTime": game.setCreateTime(dateAdapter.read(in)); break;
+                    case "remark": game.setRemark(readString(in)); break;
+                    default: in.skipValue(); break;
+                }
+            }
+            in.endObject();
+            return game;
+        }
+
+        @Override
+        public void write(JsonWriter out, Game game) throws IOException {
+            out.beginObject();
+            writeField(out, "gameId", game.getGameId());
+            writeField(out, "gameName", game.getGameName());
+            writeField(out, "gameDescription", game.getGameDescription());
+            writeField(out, "gameTypeId", game.getGameTypeId());
+            writeField(out, "gameTypeName", game.getGameTypeName());
+            writeField(out, "gameIcon", game.getGameIcon());
+            writeField(out, "gameImages", game.getGameImages());
+            writeDate(out, dateAdapter, "createTime", game.getCreateTime());
+            writeField(out, "remark", game.getRemark());
+            out.endObject();
+        }
+    }
+
+    // ==================== Section ====================
+
+    static class SectionAdapter extends TypeAdapter<Section> {
+        private final TypeAdapter<Date> dateAdapter;
+
+        SectionAdapter(TypeAdapter<Date> dateAdapter) {
+            this.dateAdapter = dateAdapter;
+        }
+
+        @Override
+        public Section read(JsonReader in) throws IOException {
+            Section section = new Section();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "sectionId": section.setSectionId(readInteger(in)); break;
+                    case "sectionName": section.setSectionName(readString(in)); break;
+                    case "sectionDescription": section.setSectionDescription(readString(in)); break;
+                    case "gameId": section.setGameId(readInteger(in)); break;
+                    case "gameName": section.setGameName(readString(in)); break;
+                    case "orderNum": section.setOrderNum(readInteger(in)); break;
+                    case "createTime": section.setCreateTime(dateAdapter.read(in)); break;
+                    case "remark": section.setRemark(readString(in)); break;
+                    default: in.skipValue(); break;
+                }
+            }
+            in.endObject();
+            return section;
+        }
+
+        @Override
+        public void write(JsonWriter out, Section section) throws IOException {
+            out.beginObject();
+            writeField(out, "sectionId", section.getSectionId());
+            writeField(out, "sectionName", section.getSectionName());
+            writeField(out, "sectionDescription", section.getSectionDescription());
+            writeField(out, "gameId", section.getGameId());
+            writeField(out, "gameName", section.getGameName());
+            writeField(out, "orderNum", section.getOrderNum());
+            writeDate(out, dateAdapter, "createTime", section.getCreateTime());
+            writeField(out, "remark", section.getRemark());
+            out.endObject();
+        }
+    }
+
+    // ==================== 读写工具方法 ====================
+
+    private static String readString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    private static Integer readInteger(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextInt();
+    }
+
+    private static Long readLong(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextLong();
+    }
+
+    private static Boolean readBoolean(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    private static void writeField(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+
+    private static void writeField(JsonWriter out, String name, Number value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+
+    private static void writeField(JsonWriter out, String name, Boolean value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+
+    private static void writeDate(JsonWriter out, TypeAdapter<Date> dateAdapter, String name, Date value)
+            throws IOException {
+        if (value != null) {
+            out.name(name);
+            dateAdapter.write(out, value);
+        }
+    }
+}
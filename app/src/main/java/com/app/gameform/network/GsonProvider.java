@@ -0,0 +1,105 @@
+package com.app.gameform.network;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * 全局共享的 Gson 配置
+ * 统一日期格式，并注册热点实体的手写 TypeAdapter，
+ * ApiService / UserApiService / 各 Manager 都使用这一个实例
+ */
+public final class GsonProvider {
+
+    private static volatile Gson gson;
+
+    private GsonProvider() {
+    }
+
+    public static Gson getGson() {
+        if (gson == null) {
+            synchronized (GsonProvider.class) {
+                if (gson == null) {
+                    gson = new GsonBuilder()
+                            .registerTypeAdapter(Date.class, new ApiDateAdapter())
+                            .registerTypeAdapterFactory(new DomainTypeAdapters())
+                            .create();
+                }
+            }
+        }
+        return gson;
+    }
+
+    /**
+     * 日期适配器
+     * 服务器格式交给 ApiDateParser 解析，无锁，可在多个回调线程并发使用；
+     * 只有旧版草稿中 Gson 默认格式保存的日期才会走到 DateFormat 兜底
+     */
+    static class ApiDateAdapter extends TypeAdapter<Date> {
+
+        private final SimpleDateFormat outputFormat =
+                new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
+
+        // Gson 默认格式（旧版本地草稿），DateFormat 非线程安全，使用时加锁
+        private final DateFormat[] legacyFormats = {
+                DateFormat.getDateTimeInstance(DateFormat.DEFAULT, DateFormat.DEFAULT, Locale.US),
+                DateFormat.getDateTimeInstance(DateFormat.DEFAULT, DateFormat.DEFAULT)
+        };
+
+        @Override
+        public void write(JsonWriter out, Date value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            String text;
+            synchronized (outputFormat) {
+                text = outputFormat.format(value);
+            }
+            out.value(text);
+        }
+
+        @Override
+        public Date read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            String dateStr = in.nextString();
+            if (dateStr == null || dateStr.trim().isEmpty()) {
+                return null;
+            }
+
+            Date date = ApiDateParser.parse(dateStr);
+            if (date != null) {
+                return date;
+            }
+            return parseLegacy(dateStr.trim());
+        }
+
+        private Date parseLegacy(String dateStr) {
+            synchronized (legacyFormats) {
+                for (DateFormat format : legacyFormats) {
+                    try {
+                        return format.parse(dateStr);
+                    } catch (ParseException e) {
+                        // 继续尝试下一个格式
+                    }
+                }
+            }
+            // 如果所有格式都失败，返回 null
+            return null;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.app.gameform.network;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 对冲请求：按优先顺序排列的几个数据源，先发最好的一个，
+ * 超过对冲延迟还没结果或者失败时再发下一个，不必等前一个超时。
+ * 在延迟预算内优先采用排在前面的结果：排在前面的都已失败时立即采用，
+ * 否则等到预算用完再取已有的最好结果；选定后取消其余还在进行的请求
+ * （合并请求上还有其他等待者时只摘掉自己的回调，不取消网络请求）。
+ * 只在主线程使用，回调也在主线程
+ */
+public class HedgedFetcher<T> {
+
+    private static final String TAG = "HedgedFetcher";
+
+    // 不按时间对冲，只在失败时发下一个
+    public static final long NO_HEDGE = -1;
+    // 不设预算，一直等排在前面的请求返回或失败（备选结果不能替代首选时使用，如分页加载更多）
+    public static final long NO_BUDGET = -1;
+
+    // 对冲延迟的取值范围
+    private static final long MIN_HEDGE_MS = 800;
+    private static final long MAX_HEDGE_MS = 2500;
+
+    /**
+     * 数据源：用给定的 tag 发起请求，取消时按 tag 取消
+     */
+    public interface Source<T> {
+        void start(Object tag, ApiCallback<T> callback);
+    }
+
+    /**
+     * 主线程调度，测试时替换为手动推进的时钟
+     */
+    interface Scheduler {
+        void post(Runnable task);
+
+        void postDelayed(Runnable task, long delayMs);
+
+        void remove(Runnable task);
+    }
+
+    /**
+     * 取消一个数据源的请求
+     */
+    interface Canceller {
+        void cancel(Object tag);
+    }
+
+    private static final class MainThreadScheduler implements Scheduler {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void post(Runnable task) {
+            handler.post(task);
+        }
+
+        @Override
+        public void postDelayed(Runnable task, long delayMs) {
+            handler.postDelayed(task, delayMs);
+        }
+
+        @Override
+        public void remove(Runnable task) {
+            handler.removeCallbacks(task);
+        }
+    }
+
+    /**
+     * 先从合并的请求中摘掉，没有其他等待者时才取消网络请求
+     */
+    private static void cancelRequest(Object tag) {
+        if (RequestCoalescer.getInstance().release(tag)) {
+            HttpClientProvider.getInstance().cancelByTag(tag);
+        }
+    }
+
+    public interface Listener<T> {
+        /**
+         * @param source 采用的数据源序号，0 为首选
+         */
+        void onResult(T result, int source);
+
+        /**
+         * 所有数据源都失败，error 为最后一个的错误
+         */
+        void onError(String error);
+    }
+
+    /**
+     * 对冲延迟取首选接口的 P90：九成请求在这之前已经返回，只有长尾才会多发一个请求
+     * @param endpoint ApiConstants 中的常量名
+     * @param defaultMs 还没有统计数据时使用
+     */
+    public static long hedgeDelayFor(String endpoint, long defaultMs) {
+        NetworkMetrics.EndpointMetrics metrics = NetworkMetrics.getInstance().getEndpoint(endpoint);
+        if (metrics == null || metrics.getTotal().getCount() == 0) {
+            return defaultMs;
+        }
+        long p90 = metrics.getTotal().getPercentile(90) / 1000;
+        return Math.max(MIN_HEDGE_MS, Math.min(MAX_HEDGE_MS, p90));
+    }
+
+    private final Scheduler scheduler;
+    private final Canceller canceller;
+    private final long hedgeDelayMs;
+    private final long budgetMs;
+    private final List<Source<T>> sources = new ArrayList<>();
+
+    private Object[] tags;
+    private boolean[] finished;
+    private boolean[] failed;
+    private Object[] results;
+    private int launched;
+    private boolean budgetExpired;
+    private boolean done;
+    private Listener<T> listener;
+
+    private final Runnable hedgeTask = this::launchNext;
+    private final Runnable budgetTask = this::onBudgetExpired;
+
+    /**
+     * @param hedgeDelayMs 上一个请求多久没结果就发下一个，NO_HEDGE 表示只在失败时发
+     * @param budgetMs 等待更好结果的最长时间，从发起算起；NO_BUDGET 表示只在失败时降级
+     */
+    public HedgedFetcher(long hedgeDelayMs, long budgetMs) {
+        this(hedgeDelayMs, budgetMs, new MainThreadScheduler(), HedgedFetcher::cancelRequest);
+    }
+
+    HedgedFetcher(long hedgeDelayMs, long budgetMs, Scheduler scheduler, Canceller canceller) {
+        this.hedgeDelayMs = hedgeDelayMs;
+        this.budgetMs = budgetMs;
+        this.scheduler = scheduler;
+        this.canceller = canceller;
+    }
+
+    /**
+     * 按优先顺序添加数据源
+     */
+    public HedgedFetcher<T> add(Source<T> source) {
+        sources.add(source);
+        return this;
+    }
+
+    public void start(Listener<T> listener) {
+        if (this.listener != null) {
+            throw new IllegalStateException("HedgedFetcher 只能启动一次");
+        }
+        int count = sources.size();
+        if (count == 0) {
+            throw new IllegalStateException("没有数据源");
+        }
+        this.listener = listener;
+        tags = new Object[count];
+        finished = new boolean[count];
+        failed = new boolean[count];
+        results = new Object[count];
+        if (budgetMs > 0) {
+            scheduler.postDelayed(budgetTask, budgetMs);
+        }
+        launchNext();
+    }
+
+    /**
+     * 放弃本次请求（页面销毁、重新加载），不再回调
+     */
+    public void cancel() {
+        if (done) return;
+        done = true;
+        scheduler.remove(hedgeTask);
+        scheduler.remove(budgetTask);
+        cancelExcept(-1);
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    private void launchNext() {
+        scheduler.remove(hedgeTask);
+        if (done || launched >= sources.size()) {
+            return;
+        }
+        int index = launched++;
+        Object tag = new Object();
+        tags[index] = tag;
+        sources.get(index).start(tag, new ApiCallback<T>() {
+            @Override
+            public void onSuccess(T data) {
+                scheduler.post(() -> onSourceSuccess(index, data));
+            }
+
+            @Override
+            public void onError(String error) {
+                scheduler.post(() -> onSourceError(index, error));
+            }
+        });
+        if (hedgeDelayMs > 0 && launched < sources.size()) {
+            scheduler.postDelayed(hedgeTask, hedgeDelayMs);
+        }
+    }
+
+    private void onSourceSuccess(int index, T data) {
+        if (done || finished[index]) return;
+        finished[index] = true;
+        results[index] = data;
+        deliverIfSettled();
+    }
+
+    private void onSourceError(int index, String error) {
+        if (done || finished[index]) return;
+        finished[index] = true;
+        failed[index] = true;
+        Log.w(TAG, "数据源 " + index + " 失败: " + error);
+
+        // 最新发出的请求失败，不等对冲延迟，直接发下一个
+        if (index == launched - 1 && launched < sources.size()) {
+            launchNext();
+        } else if (allFailed()) {
+            finish();
+            listener.onError(error);
+            return;
+        }
+        deliverIfSettled();
+    }
+
+    private void onBudgetExpired() {
+        if (done) return;
+        budgetExpired = true;
+        if (!deliverIfSettled()) {
+            // 预算用完还没有任何结果：剩下的数据源全部发出，谁先返回用谁
+            while (launched < sources.size()) {
+                launchNext();
+            }
+        }
+    }
+
+    /**
+     * 排在前面的都已失败时采用最好的结果；预算用完后采用已有的最好结果
+     */
+    private boolean deliverIfSettled() {
+        for (int i = 0; i < launched; i++) {
+            if (finished[i] && !failed[i]) {
+                deliver(i);
+                return true;
+            }
+            if (!finished[i] && !budgetExpired) {
+                // 更好的数据源还在进行中，预算内继续等
+                return false;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(int index) {
+        finish();
+        cancelExcept(index);
+        listener.onResult((T) results[index], index);
+    }
+
+    private void finish() {
+        done = true;
+        scheduler.remove(hedgeTask);
+        scheduler.remove(budgetTask);
+    }
+
+    private void cancelExcept(int winner) {
+        for (int i = 0; i < launched; i++) {
+            if (i != winner && !finished[i]) {
+                canceller.cancel(tags[i]);
+            }
+        }
+    }
+
+    private boolean allFailed() {
+        if (launched < sources.size()) {
+            return false;
+        }
+        for (boolean f : failed) {
+            if (!f) return false;
+        }
+        return true;
+    }
+}
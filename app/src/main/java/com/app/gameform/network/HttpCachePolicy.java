@@ -0,0 +1,219 @@
+package com.app.gameform.network;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Okio;
+
+/**
+ * 按接口配置的 HTTP 缓存策略
+ * 服务端没有返回可用的缓存头（Spring Security 默认 no-store），
+ * 这里按接口路径改写响应的 Cache-Control，让 OkHttp 磁盘缓存生效，
+ * 过期后由 OkHttp 自动携带 ETag / Last-Modified 做条件请求
+ */
+public final class HttpCachePolicy {
+
+    private static final long MINUTE = 60;
+    private static final long HOUR = 60 * MINUTE;
+
+    private static final List<Rule> RULES = new ArrayList<>();
+
+    static {
+        // 目录类接口：变化很少，缓存数小时，过期后一天内可先返回旧数据再后台刷新
+        addRule("/user/gameType/all", 6 * HOUR, 24 * HOUR);
+        addRule("/user/section/all", 6 * HOUR, 24 * HOUR);
+        addRule("/user/game/list", 2 * HOUR, 24 * HOUR);
+        addRule("/user/section/list", 2 * HOUR, 24 * HOUR);
+        addRule("/user/game/hot", 1 * HOUR, 24 * HOUR);
+        addRule("/user/section/hot", 1 * HOUR, 24 * HOUR);
+        addRule("/user/game/\\d+", 2 * HOUR, 24 * HOUR);
+        addRule("/user/section/\\d+", 2 * HOUR, 24 * HOUR);
+        addRule("/user/section/game/\\d+", 2 * HOUR, 24 * HOUR);
+        addRule("/user/section/gameId/\\d+", 6 * HOUR, 24 * HOUR);
+        addRule("/user/announcements/list", 10 * MINUTE, HOUR);
+
+        // 帖子详情与信息流：只缓存几十秒，用于快速返回/切换Tab时的重复请求
+        addRule("/user/post/\\d+", 30, 0);
+        addRule("/user/post/list", 15, 0);
+        addRule("/user/post/hot", 15, 0);
+        addRule("/user/post/top", 15, 0);
+        addRule("/user/post/section/\\d+", 15, 0);
+        addRule("/user/post/user/\\d+", 15, 0);
+    }
+
+    // 是否启用"先返回旧数据，后台重新验证"
+    private static volatile boolean staleWhileRevalidateEnabled = true;
+
+    private HttpCachePolicy() {
+    }
+
+    private static void addRule(String pathRegex, long maxAgeSeconds, long staleSeconds) {
+        RULES.add(new Rule(Pattern.compile(pathRegex), maxAgeSeconds, staleSeconds));
+    }
+
+    /**
+     * 查找请求对应的缓存规则，没有匹配返回 null
+     */
+    static Rule match(HttpUrl url) {
+        String path = url.encodedPath();
+        for (Rule rule : RULES) {
+            if (rule.pattern.matcher(path).matches()) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    public static void setStaleWhileRevalidateEnabled(boolean enabled) {
+        staleWhileRevalidateEnabled = enabled;
+    }
+
+    public static boolean isStaleWhileRevalidateEnabled() {
+        return staleWhileRevalidateEnabled;
+    }
+
+    /**
+     * 缓存规则
+     */
+    static class Rule {
+        final Pattern pattern;
+        final long maxAgeSeconds;
+        final long staleSeconds;
+
+        Rule(Pattern pattern, long maxAgeSeconds, long staleSeconds) {
+            this.pattern = pattern;
+            this.maxAgeSeconds = maxAgeSeconds;
+            this.staleSeconds = staleSeconds;
+        }
+    }
+
+    /**
+     * 网络拦截器：按规则改写可缓存接口的响应头
+     * 304 也需要改写，否则合并后的缓存头会被服务端的 no-store 覆盖
+     */
+    static class CacheControlInterceptor implements Interceptor {
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+
+            if (!"GET".equals(request.method())) {
+                return response;
+            }
+            if (response.code() != 200 && response.code() != 304) {
+                return response;
+            }
+            Rule rule = match(request.url());
+            if (rule == null) {
+                return response;
+            }
+
+            Response.Builder builder = response.newBuilder()
+                    .removeHeader("Pragma")
+                    .removeHeader("Expires")
+                    .header("Cache-Control", "private, max-age=" + rule.maxAgeSeconds);
+            // 带 token 的请求按 token 区分缓存，避免切换账号后读到别人的数据
+            if (request.header("Authorization") != null) {
+                builder.header("Vary", "Authorization");
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * 应用拦截器：stale-while-revalidate
+     * 缓存过期但仍在容忍期内时直接返回旧数据，同时在后台发起条件请求刷新缓存
+     */
+    static class StaleWhileRevalidateInterceptor implements Interceptor {
+
+        private static final CacheControl REVALIDATE = new CacheControl.Builder()
+                .maxAge(0, TimeUnit.SECONDS)
+                .build();
+
+        private final HttpClientProvider provider;
+        private final Set<String> revalidating = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        StaleWhileRevalidateInterceptor(HttpClientProvider provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            if (!staleWhileRevalidateEnabled
+                    || !"GET".equals(request.method())
+                    || request.header("Cache-Control") != null) {
+                return chain.proceed(request);
+            }
+            Rule rule = match(request.url());
+            if (rule == null || rule.staleSeconds <= 0) {
+                return chain.proceed(request);
+            }
+
+            Request cacheOnly = request.newBuilder()
+                    .cacheControl(new CacheControl.Builder()
+                            .onlyIfCached()
+                            .maxStale((int) rule.staleSeconds, TimeUnit.SECONDS)
+                            .build())
+                    .build();
+            Response cached = chain.proceed(cacheOnly);
+            if (cached.code() == 504) {
+                // 没有可用缓存，正常走网络
+                cached.close();
+                return chain.proceed(request);
+            }
+
+            if (isStale(cached)) {
+                revalidateInBackground(request);
+            }
+            return cached;
+        }
+
+        private boolean isStale(Response response) {
+            String warning = response.header("Warning");
+            return warning != null && warning.startsWith("110");
+        }
+
+        private void revalidateInBackground(Request request) {
+            String key = request.url().toString() + "|" + request.header("Authorization");
+            if (!revalidating.add(key)) {
+                return;
+            }
+            Request revalidate = request.newBuilder().cacheControl(REVALIDATE).build();
+            RequestScheduler.getInstance().enqueue(provider.getClient().newCall(revalidate),
+                    RequestScheduler.Priority.PREFETCH, new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    revalidating.remove(key);
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    // 读完响应体才会写入缓存
+                    try {
+                        if (response.body() != null) {
+                            response.body().source().readAll(Okio.blackhole());
+                        }
+                    } catch (IOException ignored) {
+                    } finally {
+                        response.close();
+                        revalidating.remove(key);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.app.gameform.network;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.NoCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Authenticator;
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * 全局共享的 HTTP 传输层
+ * 所有 Service / Manager / Activity / Fragment 都通过这里获取 OkHttpClient，
+ * 共用同一个连接池和 Dispatcher，保证到 BASE_URL 的 keep-alive 连接能被复用
+ */
+public class HttpClientProvider {
+
+    private static final String TAG = "HttpClientProvider";
+
+    // 默认超时（秒），与原 ApiService 保持一致
+    public static final int DEFAULT_TIMEOUT_SECONDS = 10;
+
+    // 连接池：最多保留的空闲连接数与保活时长
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    // 磁盘缓存目录与容量
+    private static final String CACHE_DIR_NAME = "http_cache";
+    private static final long CACHE_SIZE = 20L * 1024 * 1024; // 20MB
+
+    // Dispatcher 默认并发限制
+    private static final int DEFAULT_MAX_REQUESTS = 64;
+    private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 8;
+
+    private static volatile HttpClientProvider instance;
+    private static Context appContext;
+
+    private final Cache cache;
+    private final ConnectionPool connectionPool;
+    private final Dispatcher dispatcher;
+    private final TokenAuthenticator tokenAuthenticator;
+    private final OkHttpClient baseClient;
+    private final Map<Integer, OkHttpClient> timeoutClients = new ConcurrentHashMap<>();
+    private volatile RequestQueue requestQueue;
+
+    // 连接复用统计
+    private final AtomicLong callCount = new AtomicLong();
+    private final AtomicLong newConnectionCount = new AtomicLong();
+    private final AtomicLong acquiredConnectionCount = new AtomicLong();
+    private final AtomicLong failedConnectionCount = new AtomicLong();
+
+    private HttpClientProvider() {
+        connectionPool = new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES);
+
+        dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(DEFAULT_MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(DEFAULT_MAX_REQUESTS_PER_HOST);
+
+        // 未调用 init 时没有 Context，退化为无缓存
+        cache = appContext != null
+                ? new Cache(new File(appContext.getCacheDir(), CACHE_DIR_NAME), CACHE_SIZE)
+                : null;
+
+        tokenAuthenticator = new TokenAuthenticator(appContext);
+
+        baseClient = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
+                .cache(cache)
+                .authenticator(tokenAuthenticator)
+                .addInterceptor(new HttpCachePolicy.StaleWhileRevalidateInterceptor(this))
+                .addNetworkInterceptor(new HttpCachePolicy.CacheControlInterceptor())
+                .eventListenerFactory(call -> new ConnectionStatsListener())
+                .connectTimeout(DEFAULT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(DEFAULT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .writeTimeout(DEFAULT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .build();
+        timeoutClients.put(DEFAULT_TIMEOUT_SECONDS, baseClient);
+        tokenAuthenticator.setRefreshClient(baseClient.newBuilder()
+                .authenticator(Authenticator.NONE)
+                .build());
+    }
+
+    /**
+     * 在 Application.onCreate 中调用，必须早于第一次 getInstance
+     */
+    public static void init(Context context) {
+        appContext = context.getApplicationContext();
+    }
+
+    public static HttpClientProvider getInstance() {
+        if (instance == null) {
+            synchronized (HttpClientProvider.class) {
+                if (instance == null) {
+                    instance = new HttpClientProvider();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 获取默认超时的共享客户端
+     */
+    public OkHttpClient getClient() {
+        return baseClient;
+    }
+
+    /**
+     * 获取指定超时的客户端
+     * 通过 newBuilder 派生，仍然共享连接池、Dispatcher 和统计监听器
+     */
+    public OkHttpClient getClient(int timeoutSeconds) {
+        OkHttpClient client = timeoutClients.get(timeoutSeconds);
+        if (client == null) {
+            client = baseClient.newBuilder()
+                    .connectTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                    .readTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                    .writeTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                    .build();
+            OkHttpClient existing = timeoutClients.putIfAbsent(timeoutSeconds, client);
+            if (existing != null) {
+                client = existing;
+            }
+        }
+        return client;
+    }
+
+    /**
+     * 获取传输层的 Token 认证器，启动时的主动刷新也通过它，与 401 触发的刷新共用一把锁
+     */
+    public TokenAuthenticator getTokenAuthenticator() {
+        return tokenAuthenticator;
+    }
+
+    /**
+     * 获取共享的 Volley 请求队列，底层走同一个 OkHttpClient
+     */
+    public RequestQueue getRequestQueue(Context context) {
+        if (requestQueue == null) {
+            synchronized (this) {
+                if (requestQueue == null) {
+                    // 缓存统一交给 OkHttp，Volley 不再维护自己的磁盘缓存
+                    requestQueue = new RequestQueue(new NoCache(),
+                            new BasicNetwork(new OkHttpStack(baseClient)));
+                    requestQueue.start();
+                }
+            }
+        }
+        return requestQueue;
+    }
+
+    // ==================== Dispatcher 调优 ====================
+
+    /**
+     * 设置单个主机的最大并发请求数
+     */
+    public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+    }
+
+    /**
+     * 设置全局最大并发请求数
+     */
+    public void setMaxRequests(int maxRequests) {
+        dispatcher.setMaxRequests(maxRequests);
+    }
+
+    /**
+     * 取消指定 tag 的请求（共享 Dispatcher 不能再直接 cancelAll）
+     */
+    public void cancelByTag(Object tag) {
+        if (tag == null) return;
+        // 还在优先级队列里排队、没有交给 Dispatcher 的请求
+        RequestScheduler.getInstance().cancelByTag(tag);
+        for (Call call : dispatcher.queuedCalls()) {
+            if (tag.equals(call.request().tag())) {
+                call.cancel();
+            }
+        }
+        for (Call call : dispatcher.runningCalls()) {
+            if (tag.equals(call.request().tag())) {
+                call.cancel();
+            }
+        }
+    }
+
+    // ==================== 连接复用统计 ====================
+
+    public long getCallCount() {
+        return callCount.get();
+    }
+
+    public long getNewConnectionCount() {
+        return newConnectionCount.get();
+    }
+
+    /**
+     * 复用已有连接的次数 = 获取连接次数 - 新建连接次数
+     */
+    public long getReusedConnectionCount() {
+        return Math.max(0, acquiredConnectionCount.get() - newConnectionCount.get());
+    }
+
+    public long getFailedConnectionCount() {
+        return failedConnectionCount.get();
+    }
+
+    /**
+     * 连接复用率（0~1）
+     */
+    public float getConnectionReuseRatio() {
+        long acquired = acquiredConnectionCount.get();
+        return acquired == 0 ? 0f : (float) getReusedConnectionCount() / acquired;
+    }
+
+    public int getIdleConnectionCount() {
+        return connectionPool.idleConnectionCount();
+    }
+
+    public int getPooledConnectionCount() {
+        return connectionPool.connectionCount();
+    }
+
+    // ==================== 磁盘缓存 ====================
+
+    /**
+     * 缓存命中次数（包括条件请求返回 304 的情况）
+     */
+    public int getCacheHitCount() {
+        return cache != null ? cache.hitCount() : 0;
+    }
+
+    public int getCacheNetworkCount() {
+        return cache != null ? cache.networkCount() : 0;
+    }
+
+    public int getCacheRequestCount() {
+        return cache != null ? cache.requestCount() : 0;
+    }
+
+    public void logStats() {
+        Log.d(TAG, "请求数: " + getCallCount()
+                + ", 新建连接: " + getNewConnectionCount()
+                + ", 复用连接: " + getReusedConnectionCount()
+                + ", 复用率: " + getConnectionReuseRatio()
+                + ", 连接池: " + getPooledConnectionCount() + "(空闲 " + getIdleConnectionCount() + ")"
+                + ", 缓存命中: " + getCacheHitCount() + "/" + getCacheRequestCount()
+                + ", 合并请求: " + RequestCoalescer.getInstance().getCollapsedCount()
+                + ", 流式解码: " + JsonStreamDecoder.getDecodeCount()
+                + "(省去分配 " + JsonStreamDecoder.getAvoidedAllocationBytes() + " 字节)"
+                + ", Token 刷新: " + tokenAuthenticator.getRefreshCount()
+                + "(重放 " + tokenAuthenticator.getReplayCount() + ")");
+        RequestScheduler.getInstance().logStats();
+        NetworkMetrics.getInstance().logStats();
+    }
+
+    /**
+     * 统计连接建立与复用情况的监听器
+     * 每个 Call 一个实例，同时由 CallTimer 记录该调用的分阶段耗时
+     */
+    private class ConnectionStatsListener extends NetworkMetrics.CallTimer {
+        @Override
+        public void callStart(Call call) {
+            super.callStart(call);
+            callCount.incrementAndGet();
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            super.connectEnd(call, inetSocketAddress, proxy, protocol);
+            newConnectionCount.incrementAndGet();
+        }
+
+        @Override
+        public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                                  Protocol protocol, IOException ioe) {
+            super.connectFailed(call, inetSocketAddress, proxy, protocol, ioe);
+            failedConnectionCount.incrementAndGet();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            super.connectionAcquired(call, connection);
+            acquiredConnectionCount.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.app.gameform.network;
+
+import android.content.Context;
+
+import com.app.gameform.domain.InteractionStatus;
+
+import java.util.List;
+
+/**
+ * 互动状态数据源
+ * 一次查询一页帖子的点赞/收藏状态和作者的关注状态
+ */
+public interface InteractionStatusSource {
+
+    /**
+     * @param postIds 需要查询点赞、收藏状态的帖子ID，可以为空列表
+     * @param userIds 需要查询关注状态的用户ID，可以为空列表
+     */
+    void fetch(Context context, List<Integer> postIds, List<Long> userIds,
+               ApiCallback<InteractionStatus> callback);
+}
@@ -0,0 +1,144 @@
+package com.app.gameform.network;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * 流式 JSON 解码
+ * 直接从响应体的 source 边读边解析，不再先 response.body().string() 生成完整字符串，
+ * 大列表（信息流、评论树）的峰值内存约减半
+ */
+public final class JsonStreamDecoder {
+
+    private static final ByteString UTF8_BOM = ByteString.decodeHex("efbbbf");
+
+    // 统计：解码次数、流式读取的字节数/字符数
+    private static final AtomicLong decodeCount = new AtomicLong();
+    private static final AtomicLong streamedBytes = new AtomicLong();
+    private static final AtomicLong streamedChars = new AtomicLong();
+
+    private JsonStreamDecoder() {
+    }
+
+    /**
+     * 从响应体流式解码为指定类型
+     * 调用方仍负责关闭 Response
+     */
+    public static <T> T decode(Gson gson, ResponseBody body, Type type) throws IOException {
+        CountingSource counting = new CountingSource(body.source());
+        BufferedSource source = Okio.buffer(counting);
+        if (source.rangeEquals(0, UTF8_BOM)) {
+            source.skip(UTF8_BOM.size());
+        }
+
+        CountingReader reader = new CountingReader(
+                new InputStreamReader(source.inputStream(), charsetOf(body)));
+        try {
+            JsonReader jsonReader = gson.newJsonReader(reader);
+            return gson.fromJson(jsonReader, type);
+        } finally {
+            decodeCount.incrementAndGet();
+            streamedBytes.addAndGet(counting.bytesRead);
+            streamedChars.addAndGet(reader.charsRead);
+        }
+    }
+
+    /**
+     * 从响应流式解码，并把解码耗时记到该请求所属接口的统计里
+     * 调用方仍负责关闭 Response
+     */
+    public static <T> T decode(Gson gson, Response response, Type type) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return decode(gson, response.body(), type);
+        } finally {
+            NetworkMetrics.getInstance().recordDecode(response.request(), System.nanoTime() - start);
+        }
+    }
+
+    private static Charset charsetOf(ResponseBody body) {
+        MediaType contentType = body.contentType();
+        Charset charset = contentType != null ? contentType.charset(StandardCharsets.UTF_8) : null;
+        return charset != null ? charset : StandardCharsets.UTF_8;
+    }
+
+    public static long getDecodeCount() {
+        return decodeCount.get();
+    }
+
+    public static long getStreamedBytes() {
+        return streamedBytes.get();
+    }
+
+    /**
+     * string() 路径需要额外一次性分配的内存：完整的 byte[] 加上 UTF-16 的 String
+     * 流式解码只需要固定大小的缓冲区，这部分就是省下来的分配量
+     */
+    public static long getAvoidedAllocationBytes() {
+        return streamedBytes.get() + streamedChars.get() * 2;
+    }
+
+    /**
+     * 统计读取字节数的 Source
+     */
+    private static class CountingSource extends ForwardingSource {
+        long bytesRead;
+
+        CountingSource(Source delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, byteCount);
+            if (read > 0) {
+                bytesRead += read;
+            }
+            return read;
+        }
+    }
+
+    /**
+     * 统计读取字符数的 Reader
+     */
+    private static class CountingReader extends Reader {
+        private final Reader delegate;
+        long charsRead;
+
+        CountingReader(Reader delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            int read = delegate.read(cbuf, off, len);
+            if (read > 0) {
+                charsRead += read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
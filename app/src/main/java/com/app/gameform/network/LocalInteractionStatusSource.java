@@ -0,0 +1,59 @@
+package com.app.gameform.network;
+
+import android.content.Context;
+
+import com.app.gameform.domain.InteractionStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 本地互动状态数据源
+ * 状态保存在内存里，同步回调，供测试和离线调试时替换远程数据源
+ */
+public class LocalInteractionStatusSource implements InteractionStatusSource {
+
+    private final Map<Integer, Boolean> liked = new ConcurrentHashMap<>();
+    private final Map<Integer, Boolean> favorited = new ConcurrentHashMap<>();
+    private final Map<Long, Boolean> followed = new ConcurrentHashMap<>();
+
+    // 统计：查询次数，用于验证一页只发一次请求
+    private int fetchCount;
+
+    public LocalInteractionStatusSource setLiked(int postId, boolean value) {
+        liked.put(postId, value);
+        return this;
+    }
+
+    public LocalInteractionStatusSource setFavorited(int postId, boolean value) {
+        favorited.put(postId, value);
+        return this;
+    }
+
+    public LocalInteractionStatusSource setFollowed(long userId, boolean value) {
+        followed.put(userId, value);
+        return this;
+    }
+
+    public synchronized int getFetchCount() {
+        return fetchCount;
+    }
+
+    @Override
+    public void fetch(Context context, List<Integer> postIds, List<Long> userIds,
+                      ApiCallback<InteractionStatus> callback) {
+        synchronized (this) {
+            fetchCount++;
+        }
+        InteractionStatus status = new InteractionStatus();
+        for (Integer postId : postIds) {
+            status.getLiked().put(postId, Boolean.TRUE.equals(liked.get(postId)));
+            status.getFavorited().put(postId, Boolean.TRUE.equals(favorited.get(postId)));
+        }
+        for (Long userId : userIds) {
+            status.getFollowed().put(userId, Boolean.TRUE.equals(followed.get(userId)));
+        }
+        callback.onSuccess(status);
+    }
+}
@@ -0,0 +1,490 @@
+package com.app.gameform.network;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 按接口统计的网络耗时与流量
+ * 共享客户端的每个请求都会记录 DNS / 建连 / TLS / 首字节 / 响应体耗时、响应大小、解码耗时和结果，
+ * 按逻辑接口（ApiConstants 中的常量名，如 GET_HOT_POSTS）聚合到无锁直方图里，
+ * 可以在应用内查询，也可以导出到文件，用来发现线上的长尾延迟
+ */
+public class NetworkMetrics {
+
+    private static final String TAG = "NetworkMetrics";
+    private static final String DUMP_FILE_NAME = "network_metrics.txt";
+
+    private static volatile NetworkMetrics instance;
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final List<EndpointPattern> patterns;
+
+    private NetworkMetrics() {
+        patterns = loadPatterns();
+    }
+
+    public static NetworkMetrics getInstance() {
+        if (instance == null) {
+            synchronized (NetworkMetrics.class) {
+                if (instance == null) {
+                    instance = new NetworkMetrics();
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ==================== 接口归类 ====================
+
+    /**
+     * 从 ApiConstants 读取所有接口地址
+     * 同一路径对应多个常量时（如 /user/post/ 既是详情也是浏览量），按请求方法选名字
+     */
+    private static List<EndpointPattern> loadPatterns() {
+        List<EndpointPattern> result = new ArrayList<>();
+        for (Field field : ApiConstants.class.getFields()) {
+            int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) || field.getType() != String.class
+                    || "BASE_URL".equals(field.getName())) {
+                continue;
+            }
+            try {
+                HttpUrl url = HttpUrl.parse((String) field.get(null));
+                if (url != null) {
+                    result.add(new EndpointPattern(field.getName(), url.encodedPath()));
+                }
+            } catch (IllegalAccessException ignored) {
+            }
+        }
+        // 先按路径长度降序，最长前缀优先
+        Collections.sort(result, (a, b) -> b.path.length() - a.path.length());
+        return result;
+    }
+
+    /**
+     * 请求对应的逻辑接口名
+     * 先精确匹配，再匹配以 / 结尾的最长前缀（后面跟的是ID）；都匹配不上时用方法加路径，数字段替换为 {id}
+     */
+    public String endpointOf(Request request) {
+        String method = request.method();
+        String path = request.url().encodedPath();
+
+        EndpointPattern match = null;
+        for (EndpointPattern pattern : patterns) {
+            if (pattern.path.equals(path)) {
+                match = better(match, pattern, method);
+            }
+        }
+        if (match == null) {
+            for (EndpointPattern pattern : patterns) {
+                if (match != null && pattern.path.length() < match.path.length()) {
+                    break;
+                }
+                if (pattern.path.endsWith("/") && path.startsWith(pattern.path)) {
+                    match = better(match, pattern, method);
+                }
+            }
+        }
+        if (match != null) {
+            return match.name;
+        }
+        return method + " " + path.replaceAll("/\\d+", "/{id}");
+    }
+
+    private static EndpointPattern better(EndpointPattern current, EndpointPattern candidate, String method) {
+        if (current == null) {
+            return candidate;
+        }
+        boolean currentVerb = matchesVerb(current.name, method);
+        boolean candidateVerb = matchesVerb(candidate.name, method);
+        if (currentVerb != candidateVerb) {
+            return candidateVerb ? candidate : current;
+        }
+        // 同等条件下取名字较短、字典序靠前的，保证结果稳定
+        int byLength = candidate.name.length() - current.name.length();
+        if (byLength != 0) {
+            return byLength < 0 ? candidate : current;
+        }
+        return candidate.name.compareTo(current.name) < 0 ? candidate : current;
+    }
+
+    private static boolean matchesVerb(String name, String method) {
+        switch (method) {
+            case "GET":
+                return name.startsWith("GET_") || name.startsWith("SEARCH_");
+            case "POST":
+                return name.startsWith("CREATE_") || name.startsWith("UPLOAD_");
+            case "PUT":
+                return name.startsWith("UPDATE_") || name.startsWith("INCREMENT_");
+            case "DELETE":
+                return name.startsWith("DELETE_");
+            default:
+                return false;
+        }
+    }
+
+    // ==================== 记录 ====================
+
+    EndpointMetrics metricsFor(Request request) {
+        String name = endpointOf(request);
+        EndpointMetrics metrics = endpoints.get(name);
+        if (metrics == null) {
+            metrics = new EndpointMetrics(name);
+            EndpointMetrics existing = endpoints.putIfAbsent(name, metrics);
+            if (existing != null) {
+                metrics = existing;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * 记录解码耗时，由 JsonStreamDecoder 调用
+     */
+    void recordDecode(Request request, long nanos) {
+        metricsFor(request).decode.record(nanos / 1000);
+    }
+
+    // ==================== 查询 ====================
+
+    public EndpointMetrics getEndpoint(String name) {
+        return endpoints.get(name);
+    }
+
+    /**
+     * 所有接口的统计，按总耗时 P99 降序
+     */
+    public List<EndpointMetrics> getEndpoints() {
+        List<EndpointMetrics> result = new ArrayList<>(endpoints.values());
+        Collections.sort(result, (a, b) -> Long.compare(
+                b.total.getPercentile(99), a.total.getPercentile(99)));
+        return result;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    // ==================== 导出 ====================
+
+    public void dump(Writer writer) {
+        PrintWriter out = new PrintWriter(writer);
+        out.println("# 网络接口统计 " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault())
+                .format(new Date()));
+        out.println("# 耗时单位 ms（P50/P95/P99/最大），大小单位 KB");
+        for (EndpointMetrics metrics : getEndpoints()) {
+            out.println(metrics.describe());
+        }
+        out.flush();
+    }
+
+    /**
+     * 导出到应用私有目录，返回文件
+     */
+    public File dumpToFile(Context context) throws IOException {
+        File file = new File(context.getFilesDir(), DUMP_FILE_NAME);
+        try (Writer writer = new FileWriter(file)) {
+            dump(writer);
+        }
+        return file;
+    }
+
+    public void logStats() {
+        for (EndpointMetrics metrics : getEndpoints()) {
+            Log.d(TAG, metrics.describe());
+        }
+    }
+
+    /**
+     * 单个接口的统计，耗时单位为微秒
+     */
+    public static class EndpointMetrics {
+        private final String name;
+
+        final AtomicHistogram dns = new AtomicHistogram();
+        final AtomicHistogram connect = new AtomicHistogram();
+        final AtomicHistogram tls = new AtomicHistogram();
+        final AtomicHistogram ttfb = new AtomicHistogram();
+        final AtomicHistogram body = new AtomicHistogram();
+        final AtomicHistogram decode = new AtomicHistogram();
+        final AtomicHistogram total = new AtomicHistogram();
+        final AtomicHistogram responseBytes = new AtomicHistogram();
+
+        final AtomicLong successCount = new AtomicLong();
+        final AtomicLong httpErrorCount = new AtomicLong();
+        final AtomicLong failureCount = new AtomicLong();
+        final AtomicLong canceledCount = new AtomicLong();
+        final AtomicLong cacheHitCount = new AtomicLong();
+
+        EndpointMetrics(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public AtomicHistogram getDns() {
+            return dns;
+        }
+
+        public AtomicHistogram getConnect() {
+            return connect;
+        }
+
+        public AtomicHistogram getTls() {
+            return tls;
+        }
+
+        /** 发出请求头到收到响应头 */
+        public AtomicHistogram getTtfb() {
+            return ttfb;
+        }
+
+        /** 读取响应体；流式解码时包含边读边解析的时间 */
+        public AtomicHistogram getBody() {
+            return body;
+        }
+
+        public AtomicHistogram getDecode() {
+            return decode;
+        }
+
+        /** 整个调用，从开始到响应体关闭 */
+        public AtomicHistogram getTotal() {
+            return total;
+        }
+
+        public AtomicHistogram getResponseBytes() {
+            return responseBytes;
+        }
+
+        public long getSuccessCount() {
+            return successCount.get();
+        }
+
+        public long getHttpErrorCount() {
+            return httpErrorCount.get();
+        }
+
+        public long getFailureCount() {
+            return failureCount.get();
+        }
+
+        public long getCanceledCount() {
+            return canceledCount.get();
+        }
+
+        public long getCacheHitCount() {
+            return cacheHitCount.get();
+        }
+
+        public String describe() {
+            return name
+                    + " 成功 " + successCount.get()
+                    + " HTTP错误 " + httpErrorCount.get()
+                    + " 失败 " + failureCount.get()
+                    + " 取消 " + canceledCount.get()
+                    + " 缓存 " + cacheHitCount.get()
+                    + " | 总计 " + millis(total)
+                    + " | DNS " + millis(dns)
+                    + " | 建连 " + millis(connect)
+                    + " | TLS " + millis(tls)
+                    + " | 首字节 " + millis(ttfb)
+                    + " | 响应体 " + millis(body)
+                    + " | 解码 " + millis(decode)
+                    + " | 大小 " + kilobytes(responseBytes);
+        }
+
+        private static String millis(AtomicHistogram h) {
+            if (h.getCount() == 0) {
+                return "-";
+            }
+            return String.format(Locale.US, "%.1f/%.1f/%.1f/%.1f",
+                    h.getPercentile(50) / 1000.0, h.getPercentile(95) / 1000.0,
+                    h.getPercentile(99) / 1000.0, h.getMax() / 1000.0);
+        }
+
+        private static String kilobytes(AtomicHistogram h) {
+            if (h.getCount() == 0) {
+                return "-";
+            }
+            return String.format(Locale.US, "%.1f/%.1f/%.1f",
+                    h.getPercentile(50) / 1024.0, h.getPercentile(99) / 1024.0, h.getMax() / 1024.0);
+        }
+    }
+
+    private static class EndpointPattern {
+        final String name;
+        final String path;
+
+        EndpointPattern(String name, String path) {
+            this.name = name;
+            this.path = path;
+        }
+    }
+
+    /**
+     * 单个调用的计时监听器，每个 Call 一个实例，时间点都存在实例字段里
+     * 结束时一次性写入对应接口的直方图
+     */
+    public static class CallTimer extends EventListener {
+        private final NetworkMetrics metrics = NetworkMetrics.getInstance();
+
+        private long callStart;
+        private long dnsStart;
+        private long connectStart;
+        private long tlsStart;
+        private long requestStart;
+        private long bodyStart;
+        private int responseCode;
+
+        private long dnsNanos = -1;
+        private long connectNanos = -1;
+        private long tlsNanos = -1;
+        private long ttfbNanos = -1;
+        private long bodyNanos = -1;
+        private long bytes = -1;
+        private boolean cacheHit;
+
+        @Override
+        public void callStart(Call call) {
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            dnsNanos = System.nanoTime() - dnsStart;
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            tlsStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            tlsNanos = System.nanoTime() - tlsStart;
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            connectNanos = System.nanoTime() - connectStart;
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            requestStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            if (requestStart != 0) {
+                ttfbNanos = System.nanoTime() - requestStart;
+            }
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            responseCode = response.code();
+        }
+
+        @Override
+        public void responseBodyStart(Call call) {
+            bodyStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            bodyNanos = System.nanoTime() - bodyStart;
+            bytes = byteCount;
+        }
+
+        @Override
+        public void cacheHit(Call call, Response response) {
+            cacheHit = true;
+            responseCode = response.code();
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            EndpointMetrics endpoint = finish(call);
+            if (cacheHit) {
+                endpoint.cacheHitCount.incrementAndGet();
+            }
+            if (cacheHit || (responseCode >= 200 && responseCode < 300) || responseCode == 304) {
+                endpoint.successCount.incrementAndGet();
+            } else {
+                endpoint.httpErrorCount.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            EndpointMetrics endpoint = finish(call);
+            if (call.isCanceled()) {
+                endpoint.canceledCount.incrementAndGet();
+            } else {
+                endpoint.failureCount.incrementAndGet();
+            }
+        }
+
+        private EndpointMetrics finish(Call call) {
+            EndpointMetrics endpoint = metrics.metricsFor(call.request());
+            endpoint.total.record((System.nanoTime() - callStart) / 1000);
+            recordIfSet(endpoint.dns, dnsNanos);
+            recordIfSet(endpoint.connect, connectNanos);
+            recordIfSet(endpoint.tls, tlsNanos);
+            recordIfSet(endpoint.ttfb, ttfbNanos);
+            recordIfSet(endpoint.body, bodyNanos);
+            if (bytes >= 0) {
+                endpoint.responseBytes.record(bytes);
+            }
+            return endpoint;
+        }
+
+        private static void recordIfSet(AtomicHistogram histogram, long nanos) {
+            if (nanos >= 0) {
+                histogram.record(nanos / 1000);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.app.gameform.network;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Header;
+import com.android.volley.Request;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Volley 的 OkHttp 传输实现
+ * 让 Volley 请求也走共享的连接池和 Dispatcher
+ */
+class OkHttpStack extends BaseHttpStack {
+
+    private final OkHttpClient client;
+
+    OkHttpStack(OkHttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public HttpResponse executeRequest(Request<?> request, Map<String, String> additionalHeaders)
+            throws IOException, AuthFailureError {
+        int timeoutMs = request.getTimeoutMs();
+        OkHttpClient callClient = client.newBuilder()
+                .connectTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .writeTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .build();
+
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder()
+                .url(request.getUrl())
+                .tag(request.getTag());
+
+        Map<String, String> headers = new HashMap<>(request.getHeaders());
+        headers.putAll(additionalHeaders);
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            builder.addHeader(entry.getKey(), entry.getValue());
+        }
+
+        setMethodAndBody(builder, request);
+
+        Response response = callClient.newCall(builder.build()).execute();
+
+        List<Header> responseHeaders = new ArrayList<>();
+        Headers okHeaders = response.headers();
+        for (int i = 0; i < okHeaders.size(); i++) {
+            responseHeaders.add(new Header(okHeaders.name(i), okHeaders.value(i)));
+        }
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            response.close();
+            return new HttpResponse(response.code(), responseHeaders);
+        }
+        // 由 Volley 的 BasicNetwork 读取并关闭输入流
+        return new HttpResponse(response.code(), responseHeaders,
+                (int) body.contentLength(), body.byteStream());
+    }
+
+    private static void setMethodAndBody(okhttp3.Request.Builder builder, Request<?> request)
+            throws AuthFailureError {
+        switch (request.getMethod()) {
+            case Request.Method.DEPRECATED_GET_OR_POST:
+                byte[] postBody = request.getBody();
+                if (postBody != null) {
+                    builder.post(RequestBody.create(postBody,
+                            MediaType.parse(request.getBodyContentType())));
+                } else {
+                    builder.get();
+                }
+                break;
+            case Request.Method.GET:
+                builder.get();
+                break;
+            case Request.Method.DELETE:
+                builder.delete(createBody(request));
+                break;
+            case Request.Method.POST:
+                builder.post(createBody(request));
+                break;
+            case Request.Method.PUT:
+                builder.put(createBody(request));
+                break;
+            case Request.Method.HEAD:
+                builder.head();
+                break;
+            case Request.Method.OPTIONS:
+                builder.method("OPTIONS", null);
+                break;
+            case Request.Method.TRACE:
+                builder.method("TRACE", null);
+                break;
+            case Request.Method.PATCH:
+                builder.patch(createBody(request));
+                break;
+            default:
+                throw new IllegalStateException("Unknown method type.");
+        }
+    }
+
+    private static RequestBody createBody(Request<?> request) throws AuthFailureError {
+        byte[] body = request.getBody();
+        if (body == null) {
+            body = new byte[0];
+        }
+        return RequestBody.create(body, MediaType.parse(request.getBodyContentType()));
+    }
+}
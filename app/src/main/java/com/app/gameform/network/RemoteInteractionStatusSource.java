@@ -0,0 +1,106 @@
+package com.app.gameform.network;
+
+import android.content.Context;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.app.gameform.domain.InteractionStatus;
+import com.app.gameform.manager.SharedPrefManager;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * 远程互动状态数据源
+ * 一页的帖子ID和作者ID通过批量接口一次查询；
+ * 服务端还没有批量接口（404/405）时本进程内不再查询，状态保持未知，
+ * 不退回逐个查询（每页 2N+M 个请求，比不查还慢）
+ */
+public class RemoteInteractionStatusSource implements InteractionStatusSource {
+
+    private static final String TAG = "InteractionStatus";
+    private static final String BATCH_UNSUPPORTED = "服务器不支持批量查询互动状态";
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private final OkHttpClient client;
+    private final Gson gson;
+
+    // 批量接口不可用时记住，本进程内不再每页试探一次
+    private static volatile boolean batchUnsupported;
+
+    public RemoteInteractionStatusSource() {
+        this.client = HttpClientProvider.getInstance().getClient();
+        this.gson = GsonProvider.getGson();
+    }
+
+    @Override
+    public void fetch(Context context, List<Integer> postIds, List<Long> userIds,
+                      ApiCallback<InteractionStatus> callback) {
+        String token = SharedPrefManager.getInstance(context).getToken();
+        if (TextUtils.isEmpty(token)) {
+            callback.onError("请先登录");
+            return;
+        }
+        if (batchUnsupported) {
+            callback.onError(BATCH_UNSUPPORTED);
+            return;
+        }
+
+        JsonObject body = new JsonObject();
+        body.add("postIds", gson.toJsonTree(postIds));
+        body.add("userIds", gson.toJsonTree(userIds));
+
+        Request request = new Request.Builder()
+                .url(ApiConstants.BATCH_INTERACTION_STATUS)
+                .addHeader("Authorization", token.startsWith("Bearer ") ? token : "Bearer " + token)
+                .post(RequestBody.create(body.toString(), JSON))
+                .build();
+
+        RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.INTERACTION, new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                callback.onError("查询互动状态失败: " + e.getMessage());
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try {
+                    if (response.code() == 404 || response.code() == 405) {
+                        Log.w(TAG, "批量状态接口不可用，不再查询互动状态");
+                        batchUnsupported = true;
+                        callback.onError(BATCH_UNSUPPORTED);
+                        return;
+                    }
+                    if (!response.isSuccessful()) {
+                        callback.onError("查询互动状态失败: " + response.code());
+                        return;
+                    }
+                    Type type = new TypeToken<ApiService.ApiResponse<InteractionStatus>>() {}.getType();
+                    ApiService.ApiResponse<InteractionStatus> apiResponse =
+                            JsonStreamDecoder.decode(gson, response, type);
+                    if (apiResponse != null && apiResponse.isSuccess() && apiResponse.getData() != null) {
+                        callback.onSuccess(apiResponse.getData());
+                    } else {
+                        callback.onError(apiResponse != null ? apiResponse.getMsg() : "查询互动状态失败");
+                    }
+                } catch (Exception e) {
+                    callback.onError("解析响应失败: " + e.getMessage());
+                } finally {
+                    response.close();
+                }
+            }
+        });
+    }
+}
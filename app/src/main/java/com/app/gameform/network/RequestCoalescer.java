@@ -0,0 +1,191 @@
+package com.app.gameform.network;
+
+import android.util.Log;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Request;
+
+/**
+ * 相同请求合并器（single-flight）
+ * 同一时刻 method + URL + token + 结果类型完全相同的 GET 请求只发一次，
+ * 其余调用者挂在同一个请求上，共享同一份解析结果
+ */
+public class RequestCoalescer {
+
+    private static final String TAG = "RequestCoalescer";
+
+    private static volatile RequestCoalescer instance;
+
+    private final Map<String, Flight> inFlight = new HashMap<>();
+
+    /**
+     * 进行中的一个请求：网络请求带发起者的 tag，等待者各自带调用时的 tag
+     */
+    private static final class Flight {
+        final Object callTag;
+        final List<ApiCallback<?>> waiters = new ArrayList<>();
+        final List<Object> waiterTags = new ArrayList<>();
+
+        Flight(Object callTag) {
+            this.callTag = callTag;
+        }
+
+        void add(Object tag, ApiCallback<?> callback) {
+            waiters.add(callback);
+            waiterTags.add(tag);
+        }
+    }
+
+    // 统计：真正发出的请求数、被合并掉的请求数
+    private final AtomicLong issuedCount = new AtomicLong();
+    private final AtomicLong collapsedCount = new AtomicLong();
+
+    private RequestCoalescer() {
+    }
+
+    public static RequestCoalescer getInstance() {
+        if (instance == null) {
+            synchronized (RequestCoalescer.class) {
+                if (instance == null) {
+                    instance = new RequestCoalescer();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 生成合并用的 key，只有 GET 请求参与合并，其余返回 null
+     * 同一 URL 可能被解析成不同类型（原始字符串、帖子列表、单个帖子等），
+     * 结果类型也计入 key，只有解析方式相同的调用者才共享结果
+     * @param resultType 分发给回调的结果类型
+     */
+    public static String keyOf(Request request, Type resultType) {
+        if (!"GET".equals(request.method())) {
+            return null;
+        }
+        String auth = request.header("Authorization");
+        // Type.getTypeName 需要 API 26，toString 对 Class 和泛型类型同样能区分
+        return request.method() + " " + request.url() + " " + (auth != null ? auth : "")
+                + " " + resultType;
+    }
+
+    /**
+     * 加入请求
+     * @return true 表示当前调用者是第一个，需要真正发起网络请求；
+     *         false 表示已有相同请求在进行中，结果会通过 callback 回调
+     */
+    public synchronized <R> boolean join(String key, Object tag, ApiCallback<R> callback) {
+        if (key == null) {
+            issuedCount.incrementAndGet();
+            return true;
+        }
+        Flight flight = inFlight.get(key);
+        if (flight == null) {
+            flight = new Flight(tag);
+            flight.add(tag, callback);
+            inFlight.put(key, flight);
+            issuedCount.incrementAndGet();
+            return true;
+        }
+        flight.add(tag, callback);
+        collapsedCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * 调用方放弃带 tag 的请求：从合并的请求中摘掉它的回调，之后不再回调
+     * 网络请求带的是发起者的 tag，发起者放弃时如果还有其他等待者，请求要继续进行
+     * @return true 表示可以按 tag 取消网络请求；false 表示这个 tag 的请求还有其他等待者，不能取消
+     */
+    public synchronized boolean release(Object tag) {
+        if (tag == null) {
+            return true;
+        }
+        boolean cancelable = true;
+        for (Flight flight : inFlight.values()) {
+            for (int i = flight.waiterTags.size() - 1; i >= 0; i--) {
+                if (tag.equals(flight.waiterTags.get(i))) {
+                    flight.waiterTags.remove(i);
+                    flight.waiters.remove(i);
+                }
+            }
+            if (tag.equals(flight.callTag) && !flight.waiters.isEmpty()) {
+                cancelable = false;
+            }
+        }
+        return cancelable;
+    }
+
+    /**
+     * 请求成功，把结果分发给所有等待者
+     * key 为 null（不参与合并）时只回调发起者本身
+     */
+    @SuppressWarnings("unchecked")
+    public <R> void complete(String key, ApiCallback<R> leader, R result) {
+        List<ApiCallback<?>> waiters = take(key, leader);
+        for (int i = 0; i < waiters.size(); i++) {
+            ApiCallback<R> callback = (ApiCallback<R>) waiters.get(i);
+            // 列表结果给其他等待者各自一份浅拷贝，避免调用方修改列表互相影响
+            R value = i == 0 ? result : copyIfList(result);
+            try {
+                callback.onSuccess(value);
+            } catch (Exception e) {
+                Log.e(TAG, "分发请求结果失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 请求失败，把错误分发给所有等待者
+     */
+    public <R> void fail(String key, ApiCallback<R> leader, String error) {
+        List<ApiCallback<?>> waiters = take(key, leader);
+        for (ApiCallback<?> callback : waiters) {
+            try {
+                callback.onError(error);
+            } catch (Exception e) {
+                Log.e(TAG, "分发请求错误失败: " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized List<ApiCallback<?>> take(String key, ApiCallback<?> leader) {
+        Flight flight = key != null ? inFlight.remove(key) : null;
+        if (flight != null) {
+            return flight.waiters;
+        }
+        List<ApiCallback<?>> waiters = new ArrayList<>(1);
+        waiters.add(leader);
+        return waiters;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R copyIfList(R result) {
+        if (result instanceof List) {
+            return (R) new ArrayList<>((List<?>) result);
+        }
+        return result;
+    }
+
+    public long getIssuedCount() {
+        return issuedCount.get();
+    }
+
+    /**
+     * 被合并、节省下来的请求次数
+     */
+    public long getCollapsedCount() {
+        return collapsedCount.get();
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight.size();
+    }
+}
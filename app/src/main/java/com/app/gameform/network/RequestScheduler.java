@@ -0,0 +1,264 @@
+package com.app.gameform.network;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+
+/**
+ * 按优先级调度的请求队列，放在 OkHttp Dispatcher 前面
+ * 请求按类别排队：可见内容 > 交互操作 > 预取 > 后台（统计、上传），
+ * 每个类别有自己的并发上限；空出位置时总是先放行高优先级的排队请求，
+ * 低优先级请求只能使用预留给前台之外的位置，所以上传和预取再多也不会占满到服务器的连接
+ */
+public class RequestScheduler {
+
+    private static final String TAG = "RequestScheduler";
+
+    /**
+     * 请求优先级，数值越小越优先
+     */
+    public enum Priority {
+        /** 填充当前屏幕的内容：信息流、详情、评论 */
+        VISIBLE(6),
+        /** 用户操作：点赞、收藏、关注、状态查询 */
+        INTERACTION(4),
+        /** 预取：下一页、缓存后台刷新 */
+        PREFETCH(2),
+        /** 后台：浏览量统计、图片上传 */
+        BACKGROUND(2);
+
+        final int defaultLimit;
+
+        Priority(int defaultLimit) {
+            this.defaultLimit = defaultLimit;
+        }
+    }
+
+    // 与 Dispatcher 的 maxRequestsPerHost 一致，超出的部分在这里按优先级排队，而不是在 Dispatcher 里按先后排队
+    private static final int MAX_RUNNING = 8;
+    // 预留给可见内容和交互请求的位置，预取和后台请求不能占用
+    private static final int RESERVED_FOR_FOREGROUND = 2;
+
+    private static volatile RequestScheduler instance;
+
+    private final Priority[] priorities = Priority.values();
+    private final List<ArrayDeque<Task>> queues = new ArrayList<>();
+    private final int[] running = new int[priorities.length];
+    private final int[] limits = new int[priorities.length];
+    private int totalRunning;
+
+    // 统计：各类别的排队总时长、放行次数，以及插队放行的次数
+    private final AtomicLong[] waitMillis = new AtomicLong[priorities.length];
+    private final AtomicLong[] startedCount = new AtomicLong[priorities.length];
+    private final AtomicLong overtakeCount = new AtomicLong();
+
+    private RequestScheduler() {
+        for (Priority priority : priorities) {
+            queues.add(new ArrayDeque<>());
+            limits[priority.ordinal()] = priority.defaultLimit;
+            waitMillis[priority.ordinal()] = new AtomicLong();
+            startedCount[priority.ordinal()] = new AtomicLong();
+        }
+    }
+
+    public static RequestScheduler getInstance() {
+        if (instance == null) {
+            synchronized (RequestScheduler.class) {
+                if (instance == null) {
+                    instance = new RequestScheduler();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 按请求上的 Priority 标签调度，没有标签时按可见内容处理
+     */
+    public void enqueue(Call call, Callback callback) {
+        Priority priority = call.request().tag(Priority.class);
+        enqueue(call, priority != null ? priority : Priority.VISIBLE, callback);
+    }
+
+    /**
+     * 按指定优先级调度
+     */
+    public void enqueue(Call call, Priority priority, Callback callback) {
+        synchronized (this) {
+            queues.get(priority.ordinal()).add(new Task(call, priority, callback));
+        }
+        promote();
+    }
+
+    /**
+     * 调整某一类请求的并发上限
+     */
+    public void setLimit(Priority priority, int limit) {
+        synchronized (this) {
+            limits[priority.ordinal()] = Math.max(1, limit);
+        }
+        promote();
+    }
+
+    /**
+     * 取消还在排队的指定 tag 的请求，已经交给 OkHttp 的请求由 Dispatcher 取消
+     */
+    public void cancelByTag(Object tag) {
+        if (tag == null) return;
+        List<Task> canceled = new ArrayList<>();
+        synchronized (this) {
+            for (ArrayDeque<Task> queue : queues) {
+                Iterator<Task> iterator = queue.iterator();
+                while (iterator.hasNext()) {
+                    Task task = iterator.next();
+                    if (tag.equals(task.call.request().tag())) {
+                        iterator.remove();
+                        canceled.add(task);
+                    }
+                }
+            }
+        }
+        for (Task task : canceled) {
+            task.call.cancel();
+            task.callback.onFailure(task.call, new IOException("Canceled"));
+        }
+    }
+
+    /**
+     * 放行当前可以开始的请求
+     * 从高优先级往低依次检查；某一类达到上限时不阻塞后面的类别
+     */
+    private void promote() {
+        List<Task> ready = new ArrayList<>();
+        synchronized (this) {
+            for (Priority priority : priorities) {
+                ArrayDeque<Task> queue = queues.get(priority.ordinal());
+                while (!queue.isEmpty() && canStart(priority)) {
+                    Task task = queue.poll();
+                    running[priority.ordinal()]++;
+                    totalRunning++;
+                    if (hasLowerQueued(priority)) {
+                        overtakeCount.incrementAndGet();
+                    }
+                    ready.add(task);
+                }
+            }
+        }
+        for (Task task : ready) {
+            task.start();
+        }
+    }
+
+    private boolean canStart(Priority priority) {
+        if (running[priority.ordinal()] >= limits[priority.ordinal()]) {
+            return false;
+        }
+        int capacity = priority.ordinal() <= Priority.INTERACTION.ordinal()
+                ? MAX_RUNNING
+                : MAX_RUNNING - RESERVED_FOR_FOREGROUND;
+        return totalRunning < capacity;
+    }
+
+    private boolean hasLowerQueued(Priority priority) {
+        for (int i = priority.ordinal() + 1; i < priorities.length; i++) {
+            if (!queues.get(i).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void finished(Priority priority) {
+        synchronized (this) {
+            running[priority.ordinal()]--;
+            totalRunning--;
+        }
+        promote();
+    }
+
+    // ==================== 统计 ====================
+
+    public synchronized int getQueuedCount(Priority priority) {
+        return queues.get(priority.ordinal()).size();
+    }
+
+    public synchronized int getRunningCount(Priority priority) {
+        return running[priority.ordinal()];
+    }
+
+    /**
+     * 该类请求的平均排队时间（毫秒）
+     */
+    public long getAverageWaitMillis(Priority priority) {
+        long started = startedCount[priority.ordinal()].get();
+        return started == 0 ? 0 : waitMillis[priority.ordinal()].get() / started;
+    }
+
+    /**
+     * 高优先级请求越过排队中的低优先级请求被先放行的次数
+     */
+    public long getOvertakeCount() {
+        return overtakeCount.get();
+    }
+
+    public void logStats() {
+        StringBuilder sb = new StringBuilder("请求调度: ");
+        for (Priority priority : priorities) {
+            sb.append(priority.name())
+                    .append(" 运行 ").append(getRunningCount(priority))
+                    .append(" 排队 ").append(getQueuedCount(priority))
+                    .append(" 平均等待 ").append(getAverageWaitMillis(priority)).append("ms; ");
+        }
+        sb.append("插队 ").append(getOvertakeCount());
+        Log.d(TAG, sb.toString());
+    }
+
+    /**
+     * 排队中的请求
+     */
+    private class Task implements Callback {
+        final Call call;
+        final Priority priority;
+        final Callback callback;
+        final long enqueuedAt = System.currentTimeMillis();
+
+        Task(Call call, Priority priority, Callback callback) {
+            this.call = call;
+            this.priority = priority;
+            this.callback = callback;
+        }
+
+        void start() {
+            waitMillis[priority.ordinal()].addAndGet(System.currentTimeMillis() - enqueuedAt);
+            startedCount[priority.ordinal()].incrementAndGet();
+            call.enqueue(this);
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            try {
+                callback.onFailure(call, e);
+            } finally {
+                finished(priority);
+            }
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) throws IOException {
+            try {
+                callback.onResponse(call, response);
+            } finally {
+                finished(priority);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.app.gameform.network;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * 边读边写的上传请求体
+ * 每次写入时重新打开输入流，用一个固定大小的缓冲区直接拷贝到连接上，
+ * 内存占用与文件大小无关；OkHttp 重试时会再写一遍，所以输入必须可以重复打开。
+ * 写入过程中检查取消标记和大小上限，并按进度步长回调
+ */
+public class StreamingUploadBody extends RequestBody {
+
+    // 拷贝缓冲区，与 Okio 的 Segment 大小对齐
+    static final int BUFFER_SIZE = 8 * 1024;
+    // 进度回调的最小间隔（字节），避免每个缓冲区都回调
+    private static final long PROGRESS_STEP = 64 * 1024;
+
+    /**
+     * 打开要上传的内容，每次写入调用一次，返回的流由请求体关闭
+     */
+    public interface Opener {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * 上传进度，在网络线程回调
+     * @param total 未知时为 -1
+     */
+    public interface ProgressListener {
+        void onProgress(long bytesWritten, long total);
+    }
+
+    private final MediaType mediaType;
+    private final long contentLength;
+    private final long maxBytes;
+    private final Opener opener;
+    private final ProgressListener listener;
+    private volatile boolean canceled;
+
+    /**
+     * @param contentLength 内容长度，未知时传 -1（按分块传输）
+     * @param maxBytes 超过后中止上传，不限制时传 -1
+     * @param listener 可以为 null
+     */
+    public StreamingUploadBody(MediaType mediaType, long contentLength, long maxBytes,
+                               Opener opener, ProgressListener listener) {
+        this.mediaType = mediaType;
+        this.contentLength = contentLength;
+        this.maxBytes = maxBytes;
+        this.opener = opener;
+        this.listener = listener;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    /**
+     * 让正在进行或之后的写入以 IOException 结束
+     */
+    public void cancel() {
+        canceled = true;
+    }
+
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        InputStream in = opener.open();
+        if (in == null) {
+            throw new IOException("无法打开上传内容");
+        }
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long written = 0;
+            long nextReport = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (canceled) {
+                    throw new IOException("上传已取消");
+                }
+                written += read;
+                if (maxBytes >= 0 && written > maxBytes) {
+                    throw new IOException("文件超过大小限制");
+                }
+                sink.write(buffer, 0, read);
+                if (listener != null && written >= nextReport) {
+                    listener.onProgress(written, contentLength);
+                    nextReport = written + PROGRESS_STEP;
+                }
+            }
+            if (contentLength >= 0 && written != contentLength) {
+                throw new IOException("上传内容长度不一致: " + written + "/" + contentLength);
+            }
+            if (listener != null) {
+                listener.onProgress(written, contentLength);
+            }
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.app.gameform.network;
+
+import android.content.Context;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.app.gameform.manager.SharedPrefManager;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Authenticator;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * 传输层统一的 Token 认证器
+ * 带 Bearer 头的请求收到 401 时，在这里刷新一次 AccessToken 并用新 Token 重放请求。
+ * 多个请求同时 401 时只有第一个真正去刷新，其余请求在锁上等待，
+ * 刷新完成后发现 Token 已经变了，直接带着新 Token 重放（single-flight）。
+ * 刷新请求在单独的线程上执行，不占用共享 Dispatcher 的线程
+ */
+public class TokenAuthenticator implements Authenticator {
+
+    private static final String TAG = "TokenAuthenticator";
+    private static final String BEARER = "Bearer ";
+    // 等待刷新结果的上限，长于刷新客户端连接、写入、读取超时之和
+    private static final long REFRESH_WAIT_SECONDS = 40;
+
+    private final Object refreshLock = new Object();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "token-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Context context;
+    private volatile OkHttpClient refreshClient;
+    private volatile String lastRefreshError;
+
+    // 统计：实际刷新次数、重放的请求数
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong replayCount = new AtomicLong();
+
+    TokenAuthenticator(Context context) {
+        this.context = context;
+    }
+
+    /**
+     * 刷新请求使用的客户端，不挂认证器，避免刷新接口自身 401 时递归
+     */
+    void setRefreshClient(OkHttpClient refreshClient) {
+        this.refreshClient = refreshClient;
+    }
+
+    @Override
+    public Request authenticate(Route route, Response response) throws IOException {
+        Request request = response.request();
+        String header = request.header("Authorization");
+        if (context == null || header == null || !header.startsWith(BEARER)) {
+            return null;
+        }
+        if (request.url().encodedPath().endsWith(SharedPrefManager.REFRESH_TOKEN_PATH)) {
+            return null;
+        }
+        // 用新 Token 重放后仍然 401，说明不是 Token 过期的问题，不再重试
+        if (response.priorResponse() != null) {
+            return null;
+        }
+
+        String failedToken = header.substring(BEARER.length());
+        String newToken = refresh(failedToken);
+        if (TextUtils.isEmpty(newToken)) {
+            return null;
+        }
+        replayCount.incrementAndGet();
+        return request.newBuilder()
+                .header("Authorization", BEARER + newToken)
+                .build();
+    }
+
+    /**
+     * 刷新 AccessToken（同步，需在后台线程调用）
+     * @param staleToken 调用方手里已经失效的 Token
+     * @return 当前可用的 Token；刷新失败返回 null
+     */
+    public String refresh(String staleToken) {
+        if (context == null) {
+            return null;
+        }
+        SharedPrefManager sharedPrefManager = SharedPrefManager.getInstance(context);
+        synchronized (refreshLock) {
+            String current = stripBearer(sharedPrefManager.getToken());
+            // 在锁上等待期间已经被其他请求刷新过，直接使用新 Token
+            if (!TextUtils.isEmpty(current) && !current.equals(stripBearer(staleToken))) {
+                return current;
+            }
+
+            refreshCount.incrementAndGet();
+            String error = executeRefresh(sharedPrefManager);
+            lastRefreshError = error;
+            if (error != null) {
+                Log.w(TAG, "刷新 Token 失败: " + error);
+                return null;
+            }
+            return stripBearer(sharedPrefManager.getToken());
+        }
+    }
+
+    /**
+     * 在刷新线程上执行刷新请求，当前线程只等待结果
+     * @return 成功返回 null，失败返回错误信息
+     */
+    private String executeRefresh(SharedPrefManager sharedPrefManager) {
+        OkHttpClient client = refreshClient;
+        Future<String> future = refreshExecutor.submit(() -> sharedPrefManager.executeTokenRefresh(client));
+        try {
+            return future.get(REFRESH_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return "刷新被中断";
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return "刷新超时";
+        } catch (ExecutionException e) {
+            return "刷新失败: " + e.getCause();
+        }
+    }
+
+    private static String stripBearer(String token) {
+        return token != null && token.startsWith(BEARER) ? token.substring(BEARER.length()) : token;
+    }
+
+    public String getLastRefreshError() {
+        return lastRefreshError;
+    }
+
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    public long getReplayCount() {
+        return replayCount.get();
+    }
+}
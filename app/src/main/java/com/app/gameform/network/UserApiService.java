@@ -8,13 +8,11 @@ import com.app.gameform.Run.ApiResponse;
 import com.app.gameform.domain.User;
 import com.app.gameform.domain.UserFollow;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
 import okhttp3.Callback;
@@ -29,6 +27,8 @@ public class UserApiService {
     private static UserApiService instance;
     private OkHttpClient client;
     private Gson gson;
+    // 相同 GET 请求合并
+    private final RequestCoalescer coalescer = RequestCoalescer.getInstance();
 
     private static final String TAG = "UserApiService";
 
@@ -36,15 +36,9 @@ public class UserApiService {
     private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
 
     private UserApiService() {
-        client = new OkHttpClient.Builder()
-                .connectTimeout(10, TimeUnit.SECONDS)
-                .readTimeout(10, TimeUnit.SECONDS)
-                .writeTimeout(10, TimeUnit.SECONDS)
-                .build();
-
-        gson = new GsonBuilder()
-                .setDateFormat("yyyy-MM-dd HH:mm:ss")
-                .create();
+        client = HttpClientProvider.getInstance().getClient();
+
+        gson = GsonProvider.getGson();
     }
 
     public static UserApiService getInstance() {
@@ -72,7 +66,8 @@ public class UserApiService {
         }
 
         Request.Builder builder = new Request.Builder()
-                .url(url);
+                .url(url)
+                .tag(TAG);
 
         if (token != null && !token.isEmpty()) {
             builder.addHeader("Authorization", "Bearer " + token);
@@ -101,35 +96,58 @@ public class UserApiService {
 
         Request request = builder.build();
 
-        client.newCall(request).enqueue(new Callback() {
+        // 解析后的 ApiResponse 在合并的调用者之间共享，各自按自己的回调处理
+        ApiCallback<ApiResponse<T>> handler = new ApiCallback<ApiResponse<T>>() {
+            @Override
+            public void onSuccess(ApiResponse<T> apiResponse) {
+                if (apiResponse.isSuccess()) {
+                    // 兼容原有某些接口空数据返回默认提示文字
+                    T data = apiResponse.getData();
+                    if (data == null &&
+                            (callback instanceof ApiCallbackStringDefault)) {
+                        @SuppressWarnings("unchecked")
+                        T defaultMsg = (T) ((ApiCallbackStringDefault) callback).getDefaultSuccessMessage();
+                        callback.onSuccess(defaultMsg);
+                    } else {
+                        callback.onSuccess(data);
+                    }
+                } else {
+                    callback.onError(apiResponse.getMessage());
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        };
+
+        String key = RequestCoalescer.keyOf(request, apiResponseType);
+        if (!coalescer.join(key, request.tag(), handler)) {
+            return;
+        }
+
+        RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.VISIBLE, new Callback() {
             @Override public void onFailure(Call call, IOException e) {
-                callback.onError("网络连接失败: " + e.getMessage());
+                coalescer.fail(key, handler, "网络连接失败: " + e.getMessage());
             }
 
             @Override public void onResponse(Call call, Response response) throws IOException {
+                ApiResponse<T> apiResponse = null;
                 try {
-                    String responseBody = response.body().string();
-                    ApiResponse<T> apiResponse = gson.fromJson(responseBody, apiResponseType);
-
-                    if (apiResponse.isSuccess()) {
-                        // 兼容原有某些接口空数据返回默认提示文字
-                        T data = apiResponse.getData();
-                        if (data == null &&
-                                (callback instanceof ApiCallbackStringDefault)) {
-                            @SuppressWarnings("unchecked")
-                            T defaultMsg = (T) ((ApiCallbackStringDefault) callback).getDefaultSuccessMessage();
-                            callback.onSuccess(defaultMsg);
-                        } else {
-                            callback.onSuccess(data);
-                        }
-                    } else {
-                        callback.onError(apiResponse.getMessage());
-                    }
+                    apiResponse = JsonStreamDecoder.decode(gson, response, apiResponseType);
                 } catch (Exception e) {
                     //Log.e(TAG, logTag + "解析响应失败", e);
                 } finally {
                     response.close();
                 }
+
+                if (apiResponse != null) {
+                    coalescer.complete(key, handler, apiResponse);
+                } else {
+                    // 解析失败也要结束合并，否则后续相同请求会一直挂起
+                    coalescer.fail(key, handler, "解析响应失败");
+                }
             }
         });
     }
@@ -388,7 +406,8 @@ public class UserApiService {
     }
 
     public void cancelAllRequests() {
-        client.dispatcher().cancelAll();
+        // 共享 Dispatcher，只取消本服务发出的请求
+        HttpClientProvider.getInstance().cancelByTag(TAG);
     }
 
     /**
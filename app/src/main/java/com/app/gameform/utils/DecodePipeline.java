@@ -0,0 +1,131 @@
+package com.app.gameform.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import com.app.gameform.network.AtomicHistogram;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 先解码、再投递的后台流水线
+ * JSON 解析、去重、列表拼接等计算放在后台计算线程池里完成，
+ * 主线程只收到可以直接绑定的结果，避免大页数据在低端机上造成掉帧
+ */
+public final class DecodePipeline {
+
+    private static final String TAG = "DecodePipeline";
+
+    private static final int POOL_SIZE =
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+    private static final ExecutorService COMPUTE = Executors.newFixedThreadPool(POOL_SIZE, new ThreadFactory() {
+        private final AtomicInteger index = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(() -> {
+                // 低于 UI 线程的优先级，不和渲染抢 CPU
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                r.run();
+            }, "decode-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    // 统计：后台计算耗时、主线程投递耗时（微秒）
+    private static final AtomicHistogram computeMicros = new AtomicHistogram();
+    private static final AtomicHistogram deliverMicros = new AtomicHistogram();
+
+    // 供 DiffUtil 等自带投递逻辑的组件使用，耗时同样计入后台计算统计
+    private static final Executor BACKGROUND = command -> COMPUTE.execute(() -> {
+        long start = System.nanoTime();
+        try {
+            command.run();
+        } finally {
+            computeMicros.record((System.nanoTime() - start) / 1000);
+        }
+    });
+
+    private DecodePipeline() {
+    }
+
+    /**
+     * 后台执行的计算步骤
+     */
+    public interface Stage<T> {
+        T run() throws Exception;
+    }
+
+    /**
+     * 主线程接收结果
+     */
+    public interface Delivery<T> {
+        void onReady(T result);
+
+        void onFailed(Exception e);
+    }
+
+    /**
+     * 在计算线程池执行 stage，结果投递到主线程
+     */
+    public static <T> void submit(Stage<T> stage, Delivery<T> delivery) {
+        COMPUTE.execute(() -> {
+            long start = System.nanoTime();
+            T result;
+            try {
+                result = stage.run();
+            } catch (Exception e) {
+                Log.e(TAG, "后台解码失败: " + e.getMessage());
+                MAIN_HANDLER.post(() -> delivery.onFailed(e));
+                return;
+            } finally {
+                computeMicros.record((System.nanoTime() - start) / 1000);
+            }
+            MAIN_HANDLER.post(() -> {
+                long deliverStart = System.nanoTime();
+                try {
+                    delivery.onReady(result);
+                } finally {
+                    deliverMicros.record((System.nanoTime() - deliverStart) / 1000);
+                }
+            });
+        });
+    }
+
+    /**
+     * 计算线程池，结果由调用方自行投递回主线程（如 AsyncListDiffer）
+     */
+    public static Executor backgroundExecutor() {
+        return BACKGROUND;
+    }
+
+    /**
+     * 后台计算耗时，这部分原来直接占用主线程
+     */
+    public static AtomicHistogram getComputeMicros() {
+        return computeMicros;
+    }
+
+    /**
+     * 主线程上绑定结果的耗时
+     */
+    public static AtomicHistogram getDeliverMicros() {
+        return deliverMicros;
+    }
+
+    public static void logStats() {
+        Log.d(TAG, "后台计算 P50/P99: " + computeMicros.getPercentile(50) + "/" + computeMicros.getPercentile(99) + "us"
+                + ", 主线程投递 P50/P99: " + deliverMicros.getPercentile(50) + "/" + deliverMicros.getPercentile(99) + "us"
+                + ", 次数: " + computeMicros.getCount());
+    }
+}
@@ -1,5 +1,7 @@
 package com.app.gameform.utils;
 
+import android.os.SystemClock;
+
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -7,13 +9,17 @@ import androidx.recyclerview.widget.StaggeredGridLayoutManager;
 
 /**
  * 无限滚动监听器
- * 用于RecyclerView实现分页加载更多功能
+ * 用于RecyclerView实现分页加载更多功能；
+ * 提前量由 PrefetchPolicy 按滚动速度和加载耗时调整，visibleThreshold 是静止时的最小提前量
  */
-public abstract class EndlessRecyclerViewScrollListener extends RecyclerView.OnScrollListener {
+public abstract class EndlessRecyclerViewScrollListener extends PrefetchScrollListener {
 
-    // 触发加载更多的剩余项目数阈值
+    // 触发加载更多的剩余项目数阈值（最小提前量）
     private int visibleThreshold = 5;
 
+    // 自适应预取策略，未设置时按 visibleThreshold 创建
+    private PrefetchPolicy prefetchPolicy;
+
     // 当前页码
     private int currentPage = 0;
 
@@ -79,39 +85,25 @@ public abstract class EndlessRecyclerViewScrollListener extends RecyclerView.OnS
     }
 
     /**
-     * 滚动状态改变时调用
+     * 设置预取策略（每页条数已知时由调用方创建，可同时设置网络类型）
      */
+    public void setPrefetchPolicy(PrefetchPolicy prefetchPolicy) {
+        this.prefetchPolicy = prefetchPolicy;
+    }
+
     @Override
-    public void onScrollStateChanged(RecyclerView view, int scrollState) {
-        super.onScrollStateChanged(view, scrollState);
+    public PrefetchPolicy getPolicy() {
+        if (prefetchPolicy == null) {
+            prefetchPolicy = new PrefetchPolicy(visibleThreshold, visibleThreshold);
+        }
+        return prefetchPolicy;
     }
 
     /**
-     * 滚动时调用 - 主要逻辑处理
+     * 更新加载状态：总数变少说明数据被重置，总数变多说明上一页已经到达
      */
     @Override
-    public void onScrolled(RecyclerView view, int dx, int dy) {
-        super.onScrolled(view, dx, dy);
-
-        // 只在向下滚动时处理
-        if (dy <= 0) return;
-
-        int lastVisibleItemPosition = 0;
-        int totalItemCount = layoutManager.getItemCount();
-
-        // 根据不同的布局管理器获取最后可见项目位置
-        if (layoutManager instanceof StaggeredGridLayoutManager) {
-            int[] lastVisibleItemPositions = ((StaggeredGridLayoutManager) layoutManager)
-                    .findLastVisibleItemPositions(null);
-            lastVisibleItemPosition = getLastVisibleItem(lastVisibleItemPositions);
-        } else if (layoutManager instanceof GridLayoutManager) {
-            lastVisibleItemPosition = ((GridLayoutManager) layoutManager)
-                    .findLastVisibleItemPosition();
-        } else if (layoutManager instanceof LinearLayoutManager) {
-            lastVisibleItemPosition = ((LinearLayoutManager) layoutManager)
-                    .findLastVisibleItemPosition();
-        }
-
+    protected boolean canLoadMore(int totalItemCount) {
         // 如果总数小于之前记录的总数，说明数据被重置了（如下拉刷新）
         if (totalItemCount < previousTotalItemCount) {
             this.currentPage = this.startingPageIndex;
@@ -125,15 +117,24 @@ public abstract class EndlessRecyclerViewScrollListener extends RecyclerView.OnS
         if (loading && (totalItemCount > previousTotalItemCount)) {
             loading = false;
             previousTotalItemCount = totalItemCount;
+            getPolicy().onLoadFinished(SystemClock.uptimeMillis(), true);
         }
+        return !loading && hasMoreData();
+    }
 
-        // 检查是否需要加载更多数据
-        // 条件：未在加载中 且 (最后可见项目位置 + 阈值) >= 总项目数
-        if (!loading && (lastVisibleItemPosition + visibleThreshold) >= totalItemCount) {
-            currentPage++;
-            onLoadMore(currentPage, totalItemCount, view);
-            loading = true;
-        }
+    /**
+     * 是否还有更多数据，没有时不再触发加载和空闲预取；默认总是有
+     */
+    protected boolean hasMoreData() {
+        return true;
+    }
+
+    @Override
+    protected void loadMore(RecyclerView view, int totalItemCount) {
+        currentPage++;
+        getPolicy().onLoadStarted(SystemClock.uptimeMillis());
+        onLoadMore(currentPage, totalItemCount, view);
+        loading = true;
     }
 
     /**
@@ -180,13 +181,15 @@ public abstract class EndlessRecyclerViewScrollListener extends RecyclerView.OnS
      */
     public void setVisibleThreshold(int visibleThreshold) {
         this.visibleThreshold = visibleThreshold;
+        this.prefetchPolicy = null;
     }
 
     /**
-     * 是否正在加载
+     * 是否正在加载；没有更多数据时最后一次触发不会有数据到达，不算在加载
      */
+    @Override
     public boolean isLoading() {
-        return loading;
+        return loading && hasMoreData();
     }
 
     /**
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.database.Cursor;
 import android.net.Uri;
 import android.provider.MediaStore;
+import android.provider.OpenableColumns;
 
 public class FileUtils {
     public static String getPath(Context context, Uri uri) {
@@ -16,4 +17,18 @@ public class FileUtils {
         cursor.close();
         return path;
     }
+
+    /**
+     * 查询文件大小（字节），查不到时返回 -1
+     */
+    public static long getSize(Context context, Uri uri) {
+        try (Cursor cursor = context.getContentResolver().query(
+                uri, new String[]{OpenableColumns.SIZE}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) {
+                return cursor.getLong(0);
+            }
+        } catch (Exception ignored) {
+        }
+        return -1;
+    }
 }
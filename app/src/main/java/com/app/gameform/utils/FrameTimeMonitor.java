@@ -0,0 +1,109 @@
+package com.app.gameform.utils;
+
+import android.util.Log;
+import android.view.Choreographer;
+
+import com.app.gameform.BuildConfig;
+import com.app.gameform.network.AtomicHistogram;
+
+/**
+ * 帧耗时监测
+ * 用 Choreographer 记录相邻两帧的间隔，超过 1.5 个刷新周期记为卡顿帧，
+ * 页面可见期间开启，离开时输出帧间隔分布，用来对比主线程解码前后的掉帧情况。
+ * 每一帧都要回调，只在 debug 包中工作，release 包里 start/stop 什么都不做
+ */
+public class FrameTimeMonitor implements Choreographer.FrameCallback {
+
+    private static final String TAG = "FrameTimeMonitor";
+
+    private static final boolean ENABLED = BuildConfig.DEBUG;
+
+    // 按 60Hz 计算的刷新周期（纳秒）
+    private static final long FRAME_INTERVAL_NANOS = 16_666_667L;
+    private static final long JANK_THRESHOLD_NANOS = FRAME_INTERVAL_NANOS * 3 / 2;
+
+    private final String name;
+    private final AtomicHistogram frameMicros = new AtomicHistogram();
+    private long lastFrameNanos;
+    private long jankFrames;
+    private long droppedFrames;
+    private boolean running;
+
+    public FrameTimeMonitor(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 开始监测，需在主线程调用
+     */
+    public void start() {
+        if (!ENABLED || running) return;
+        running = true;
+        lastFrameNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * 停止监测并输出本次统计，需在主线程调用
+     */
+    public void stop() {
+        if (!running) return;
+        running = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+        logStats();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) return;
+        if (lastFrameNanos != 0) {
+            long interval = frameTimeNanos - lastFrameNanos;
+            frameMicros.record(interval / 1000);
+            if (interval > JANK_THRESHOLD_NANOS) {
+                jankFrames++;
+                droppedFrames += interval / FRAME_INTERVAL_NANOS - 1;
+            }
+        }
+        lastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    public AtomicHistogram getFrameMicros() {
+        return frameMicros;
+    }
+
+    public long getJankFrames() {
+        return jankFrames;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * 卡顿帧占比（0~1）
+     */
+    public float getJankRatio() {
+        long frames = frameMicros.getCount();
+        return frames == 0 ? 0f : (float) jankFrames / frames;
+    }
+
+    public void reset() {
+        frameMicros.reset();
+        jankFrames = 0;
+        droppedFrames = 0;
+        lastFrameNanos = 0;
+    }
+
+    public void logStats() {
+        Log.d(TAG, name + " 帧数: " + frameMicros.getCount()
+                + ", 卡顿帧: " + jankFrames + "(" + Math.round(getJankRatio() * 1000) / 10f + "%)"
+                + ", 丢帧: " + droppedFrames
+                + ", 帧间隔 P50/P95/P99/最大: "
+                + frameMicros.getPercentile(50) / 1000 + "/"
+                + frameMicros.getPercentile(95) / 1000 + "/"
+                + frameMicros.getPercentile(99) / 1000 + "/"
+                + frameMicros.getMax() / 1000 + "ms");
+        DecodePipeline.logStats();
+    }
+}
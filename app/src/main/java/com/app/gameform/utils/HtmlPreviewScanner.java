@@ -0,0 +1,331 @@
+package com.app.gameform.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 单遍 HTML 预览扫描器
+ * 一次遍历完成去标签、实体解码和空白合并，得到指定字数后立即停止，
+ * 同时记录第一张 img 的 src；不构建 Spanned，也不做多轮 replace / 正则
+ */
+public final class HtmlPreviewScanner {
+
+    // 列表预览默认字数，列表项最多显示几行，超出部分不需要解析
+    public static final int DEFAULT_PREVIEW_CHARS = 200;
+
+    private HtmlPreviewScanner() {
+    }
+
+    /**
+     * 扫描结果
+     */
+    public static final class Result {
+        private final String text;
+        private final String firstImageSrc;
+        private final boolean truncated;
+
+        Result(String text, String firstImageSrc, boolean truncated) {
+            this.text = text;
+            this.firstImageSrc = firstImageSrc;
+            this.truncated = truncated;
+        }
+
+        /** 纯文本，段落之间用一个换行分隔 */
+        public String getText() {
+            return text;
+        }
+
+        /** 第一张图片的 src，没有图片时为 null */
+        public String getFirstImageSrc() {
+            return firstImageSrc;
+        }
+
+        /** 是否因为达到字数上限而提前停止 */
+        public boolean isTruncated() {
+            return truncated;
+        }
+    }
+
+    private static final Result EMPTY = new Result("", null, false);
+
+    // 常见的命名实体，与 Html.fromHtml 的解码结果一致；空格类实体按空白处理
+    private static final Map<String, Character> NAMED_ENTITIES = new HashMap<>();
+
+    static {
+        String[] names = {
+                "lt", "gt", "amp", "quot", "apos", "nbsp", "ensp", "emsp", "thinsp",
+                "hellip", "mdash", "ndash", "lsquo", "rsquo", "sbquo", "ldquo", "rdquo", "bdquo",
+                "laquo", "raquo", "lsaquo", "rsaquo", "middot", "bull", "prime", "Prime",
+                "copy", "reg", "trade", "deg", "plusmn", "times", "divide", "micro", "sect", "para",
+                "cent", "pound", "yen", "euro", "larr", "rarr", "uarr", "darr", "harr", "hearts",
+                "iexcl", "iquest", "frac12", "frac14", "frac34", "sup2", "sup3",
+        };
+        char[] values = {
+                '<', '>', '&', '"', '\'', ' ', ' ', ' ', ' ',
+                '\u2026', '\u2014', '\u2013', '\u2018', '\u2019', '\u201A', '\u201C', '\u201D', '\u201E',
+                '\u00AB', '\u00BB', '\u2039', '\u203A', '\u00B7', '\u2022', '\u2032', '\u2033',
+                '\u00A9', '\u00AE', '\u2122', '\u00B0', '\u00B1', '\u00D7', '\u00F7', '\u00B5', '\u00A7', '\u00B6',
+                '\u00A2', '\u00A3', '\u00A5', '\u20AC', '\u2190', '\u2192', '\u2191', '\u2193', '\u2194', '\u2665',
+                '\u00A1', '\u00BF', '\u00BD', '\u00BC', '\u00BE', '\u00B2', '\u00B3',
+        };
+        for (int i = 0; i < names.length; i++) {
+            NAMED_ENTITIES.put(names[i], values[i]);
+        }
+    }
+
+    /**
+     * 列表预览：默认字数上限
+     */
+    public static Result preview(String html) {
+        return scan(html, DEFAULT_PREVIEW_CHARS);
+    }
+
+    /**
+     * 完整转换为纯文本（评论等需要全文的场景）
+     */
+    public static String toPlainText(String html) {
+        return scan(html, Integer.MAX_VALUE).getText();
+    }
+
+    /**
+     * 扫描 HTML
+     * @param maxChars 最多输出的可见字符数
+     */
+    public static Result scan(String html, int maxChars) {
+        if (html == null || html.isEmpty() || maxChars <= 0) {
+            return EMPTY;
+        }
+        int length = html.length();
+        StringBuilder out = new StringBuilder(Math.min(length, maxChars));
+        String imageSrc = null;
+        // 待输出的分隔符：0 无，1 空格，2 换行；在下一个可见字符前才写入，天然去掉首尾空白
+        int pendingBreak = 0;
+        boolean truncated = false;
+
+        int i = 0;
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c == '<') {
+                int tagEnd = html.indexOf('>', i + 1);
+                if (tagEnd < 0) {
+                    // 没有闭合的 '<' 按普通文本处理
+                    tagEnd = -1;
+                } else if (html.startsWith("<!--", i)) {
+                    int commentEnd = html.indexOf("-->", i + 4);
+                    i = commentEnd < 0 ? length : commentEnd + 3;
+                    continue;
+                } else {
+                    int nameStart = i + 1;
+                    boolean closing = nameStart < tagEnd && html.charAt(nameStart) == '/';
+                    if (closing) nameStart++;
+                    int nameEnd = nameStart;
+                    while (nameEnd < tagEnd && isNameChar(html.charAt(nameEnd))) nameEnd++;
+
+                    if (!closing && imageSrc == null && isTag(html, nameStart, nameEnd, "img")) {
+                        imageSrc = attribute(html, nameEnd, tagEnd, "src");
+                    }
+                    if (!closing && (isTag(html, nameStart, nameEnd, "script")
+                            || isTag(html, nameStart, nameEnd, "style"))) {
+                        // 跳过脚本和样式的内容
+                        int close = indexOfIgnoreCase(html, "</" + html.substring(nameStart, nameEnd), tagEnd + 1);
+                        int closeEnd = close < 0 ? -1 : html.indexOf('>', close);
+                        i = closeEnd < 0 ? length : closeEnd + 1;
+                        continue;
+                    }
+                    if (isBlockTag(html, nameStart, nameEnd)) {
+                        pendingBreak = 2;
+                    }
+                    i = tagEnd + 1;
+                    continue;
+                }
+            }
+
+            // 可见字符：实体解码
+            int consumed = 1;
+            if (c == '&') {
+                int semicolon = html.indexOf(';', i + 1);
+                if (semicolon > i + 1 && semicolon - i <= 10) {
+                    int decoded = decodeEntity(html, i + 1, semicolon);
+                    if (decoded >= 0) {
+                        c = (char) decoded;
+                        consumed = semicolon - i + 1;
+                    }
+                }
+            }
+            i += consumed;
+
+            if (isWhitespace(c)) {
+                if (pendingBreak == 0) pendingBreak = 1;
+                continue;
+            }
+            if (out.length() > 0 && pendingBreak != 0) {
+                out.append(pendingBreak == 2 ? '\n' : ' ');
+            }
+            pendingBreak = 0;
+            out.append(c);
+
+            if (out.length() >= maxChars) {
+                truncated = hasVisibleText(html, i);
+                break;
+            }
+        }
+
+        // 提前停止时图片可能还在后面，只查找 <img，不再解析文本
+        if (truncated && imageSrc == null) {
+            imageSrc = findImageSrc(html, i);
+        }
+        return new Result(out.toString(), imageSrc, truncated);
+    }
+
+    // ==================== 标签 ====================
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isTag(String html, int start, int end, String name) {
+        return end - start == name.length() && html.regionMatches(true, start, name, 0, name.length());
+    }
+
+    /**
+     * 产生换行的标签，对应 Html.fromHtml 的段落和换行
+     */
+    private static boolean isBlockTag(String html, int start, int end) {
+        int length = end - start;
+        if (length == 0 || length > 10) return false;
+        char first = Character.toLowerCase(html.charAt(start));
+        switch (first) {
+            case 'p':
+                return length == 1;
+            case 'b':
+                return isTag(html, start, end, "br") || isTag(html, start, end, "blockquote");
+            case 'd':
+                return isTag(html, start, end, "div");
+            case 'l':
+                return isTag(html, start, end, "li");
+            case 'u':
+            case 'o':
+                return length == 2 && Character.toLowerCase(html.charAt(start + 1)) == 'l';
+            case 't':
+                return isTag(html, start, end, "tr");
+            case 'h':
+                return length == 2 && html.charAt(start + 1) >= '1' && html.charAt(start + 1) <= '6';
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 读取属性值，支持双引号、单引号和不带引号的写法
+     */
+    private static String attribute(String html, int from, int tagEnd, String name) {
+        int i = from;
+        while (i < tagEnd) {
+            while (i < tagEnd && (isWhitespace(html.charAt(i)) || html.charAt(i) == '/')) i++;
+            int nameStart = i;
+            while (i < tagEnd && html.charAt(i) != '=' && !isWhitespace(html.charAt(i)) && html.charAt(i) != '>') i++;
+            int nameEnd = i;
+            while (i < tagEnd && isWhitespace(html.charAt(i))) i++;
+            if (i >= tagEnd || html.charAt(i) != '=') {
+                if (nameEnd == nameStart) i++;
+                continue;
+            }
+            i++;
+            while (i < tagEnd && isWhitespace(html.charAt(i))) i++;
+            int valueStart;
+            int valueEnd;
+            if (i < tagEnd && (html.charAt(i) == '"' || html.charAt(i) == '\'')) {
+                char quote = html.charAt(i);
+                valueStart = i + 1;
+                valueEnd = html.indexOf(quote, valueStart);
+                if (valueEnd < 0 || valueEnd > tagEnd) valueEnd = tagEnd;
+                i = valueEnd + 1;
+            } else {
+                valueStart = i;
+                while (i < tagEnd && !isWhitespace(html.charAt(i))) i++;
+                valueEnd = i;
+            }
+            if (isTag(html, nameStart, nameEnd, name)) {
+                String value = html.substring(valueStart, valueEnd).trim();
+                return value.isEmpty() ? null : value;
+            }
+        }
+        return null;
+    }
+
+    private static String findImageSrc(String html, int from) {
+        int i = from;
+        while ((i = indexOfIgnoreCase(html, "<img", i)) >= 0) {
+            int tagEnd = html.indexOf('>', i);
+            if (tagEnd < 0) return null;
+            String src = attribute(html, i + 4, tagEnd, "src");
+            if (src != null) return src;
+            i = tagEnd + 1;
+        }
+        return null;
+    }
+
+    private static int indexOfIgnoreCase(String html, String target, int from) {
+        int last = html.length() - target.length();
+        char first = Character.toLowerCase(target.charAt(0));
+        for (int i = Math.max(0, from); i <= last; i++) {
+            if (Character.toLowerCase(html.charAt(i)) == first
+                    && html.regionMatches(true, i, target, 0, target.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 截断位置之后是否还有可见文字（只看是否存在非空白、非标签字符）
+     */
+    private static boolean hasVisibleText(String html, int from) {
+        int length = html.length();
+        int i = from;
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c == '<') {
+                int tagEnd = html.indexOf('>', i);
+                if (tagEnd < 0) return true;
+                i = tagEnd + 1;
+            } else if (isWhitespace(c)) {
+                i++;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ==================== 实体 ====================
+
+    /**
+     * 解码 &name; 或 &#123; / &#x7B;，不认识的实体返回 -1，按原文输出
+     */
+    private static int decodeEntity(String html, int start, int end) {
+        if (html.charAt(start) == '#') {
+            int radix = 10;
+            int i = start + 1;
+            if (i < end && (html.charAt(i) == 'x' || html.charAt(i) == 'X')) {
+                radix = 16;
+                i++;
+            }
+            if (i >= end) return -1;
+            int value = 0;
+            for (; i < end; i++) {
+                int digit = Character.digit(html.charAt(i), radix);
+                if (digit < 0) return -1;
+                value = value * radix + digit;
+                if (value > 0xFFFF) return -1;
+            }
+            return value;
+        }
+        Character named = NAMED_ENTITIES.get(html.substring(start, end));
+        return named != null ? named : -1;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f' || c == '\u00A0';
+    }
+}
@@ -0,0 +1,327 @@
+package com.app.gameform.utils;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Process;
+import android.util.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 上传前的图片预处理
+ * 先只读尺寸，按 2 的幂次降采样解码，再缩放到最长边不超过 maxDimension，
+ * 按 EXIF 方向摆正后重新编码为 WebP/JPEG。重新编码的文件不带 EXIF（拍摄位置、设备信息等）。
+ * 在独立的后台线程池处理，同时处理的张数受限，避免多张大图同时解码占满内存
+ */
+public class ImagePreprocessor {
+
+    private static final String TAG = "ImagePreprocessor";
+
+    // 最长边：帖子图片按手机屏幕宽度显示，1600 足够放大查看
+    public static final int DEFAULT_MAX_DIMENSION = 1600;
+    public static final int DEFAULT_QUALITY = 80;
+
+    private static final String DIR_NAME = "upload_prepared";
+    // 上传失败或进程被杀时残留的文件，超过这个时间清理
+    private static final long STALE_MS = 60 * 60 * 1000L;
+
+    // 每张解码后的位图可能有十几 MB，最多同时处理两张
+    private static final int POOL_SIZE = 2;
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(POOL_SIZE, r -> {
+        Thread thread = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            r.run();
+        }, "image-prepare");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public enum Format {
+        /** 体积最小，保留透明度 */
+        WEBP("image/webp", "webp"),
+        /** 兼容性最好，透明部分填充白色 */
+        JPEG("image/jpeg", "jpg");
+
+        final String mimeType;
+        final String extension;
+
+        Format(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+    }
+
+    /**
+     * 处理结果，文件在上传结束后由调用方删除
+     */
+    public static class Result {
+        public final File file;
+        public final String mimeType;
+        public final String extension;
+        public final int width;
+        public final int height;
+        // 原图字节数，未知时为 -1
+        public final long originalBytes;
+
+        Result(File file, Format format, int width, int height, long originalBytes) {
+            this.file = file;
+            this.mimeType = format.mimeType;
+            this.extension = format.extension;
+            this.width = width;
+            this.height = height;
+            this.originalBytes = originalBytes;
+        }
+
+        public void delete() {
+            if (file.exists() && !file.delete()) {
+                Log.w(TAG, "临时文件删除失败: " + file);
+            }
+        }
+    }
+
+    /**
+     * 回调在处理线程
+     */
+    public interface Callback {
+        /**
+         * @param result 不需要处理的图片（GIF 动图）为 null，直接上传原图
+         */
+        void onPrepared(Result result);
+
+        void onFailed(Exception e);
+    }
+
+    private final Context context;
+    private final File dir;
+    private final int maxDimension;
+    private final Format format;
+    private final int quality;
+
+    public ImagePreprocessor(Context context) {
+        this(context, DEFAULT_MAX_DIMENSION, Format.WEBP, DEFAULT_QUALITY);
+    }
+
+    /**
+     * @param maxDimension 输出图片的最长边
+     * @param quality 编码质量 0-100
+     */
+    public ImagePreprocessor(Context context, int maxDimension, Format format, int quality) {
+        this.context = context.getApplicationContext();
+        this.dir = new File(this.context.getCacheDir(), DIR_NAME);
+        this.maxDimension = maxDimension;
+        this.format = format;
+        this.quality = quality;
+        EXECUTOR.execute(this::removeStale);
+    }
+
+    /**
+     * 在后台处理图片
+     */
+    public void prepare(Uri uri, Callback callback) {
+        EXECUTOR.execute(() -> {
+            Result result;
+            try {
+                result = prepareNow(uri);
+            } catch (Exception | OutOfMemoryError e) {
+                Log.w(TAG, "图片预处理失败: " + e.getMessage());
+                callback.onFailed(e instanceof Exception ? (Exception) e : new IOException("内存不足", e));
+                return;
+            }
+            callback.onPrepared(result);
+        });
+    }
+
+    /**
+     * 同步处理，不能在主线程调用
+     * @return GIF 动图返回 null
+     */
+    public Result prepareNow(Uri uri) throws IOException {
+        ContentResolver resolver = context.getContentResolver();
+        if ("image/gif".equalsIgnoreCase(resolver.getType(uri))) {
+            return null;
+        }
+
+        // 只读尺寸
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(resolver, uri)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("无法解析图片");
+        }
+
+        // 降采样解码：解出来的尺寸仍不小于目标尺寸，之后再精确缩放
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSizeFor(bounds.outWidth, bounds.outHeight, maxDimension);
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        Bitmap decoded;
+        try (InputStream in = open(resolver, uri)) {
+            decoded = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (decoded == null) {
+            throw new IOException("图片解码失败");
+        }
+
+        Matrix matrix = new Matrix();
+        float scale = scaleFor(decoded.getWidth(), decoded.getHeight(), maxDimension);
+        matrix.setScale(scale, scale);
+        applyOrientation(matrix, readOrientation(resolver, uri));
+
+        Bitmap output = matrix.isIdentity() ? decoded : Bitmap.createBitmap(
+                decoded, 0, 0, decoded.getWidth(), decoded.getHeight(), matrix, true);
+        if (output != decoded) {
+            decoded.recycle();
+        }
+        if (format == Format.JPEG && output.hasAlpha()) {
+            output = flattenOnWhite(output);
+        }
+
+        try {
+            File file = write(output);
+            long originalBytes = FileUtils.getSize(context, uri);
+            Log.d(TAG, String.format("预处理完成: %dx%d -> %dx%d, %d -> %d 字节",
+                    bounds.outWidth, bounds.outHeight, output.getWidth(), output.getHeight(),
+                    originalBytes, file.length()));
+            return new Result(file, format, output.getWidth(), output.getHeight(), originalBytes);
+        } finally {
+            output.recycle();
+        }
+    }
+
+    // ==================== 尺寸计算 ====================
+
+    /**
+     * 最大的 2 的幂次采样率，使解码后的最长边仍不小于 maxDimension
+     */
+    static int sampleSizeFor(int width, int height, int maxDimension) {
+        int longEdge = Math.max(width, height);
+        int sample = 1;
+        while (longEdge / (sample * 2) >= maxDimension) {
+            sample *= 2;
+        }
+        return sample;
+    }
+
+    /**
+     * 缩放到最长边为 maxDimension 的比例，不放大
+     */
+    static float scaleFor(int width, int height, int maxDimension) {
+        int longEdge = Math.max(width, height);
+        return longEdge <= maxDimension ? 1f : (float) maxDimension / longEdge;
+    }
+
+    // ==================== 方向 ====================
+
+    private static int readOrientation(ContentResolver resolver, Uri uri) {
+        try (InputStream in = open(resolver, uri)) {
+            return new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        } catch (Exception e) {
+            // 没有 EXIF 的格式（PNG 等）按正常方向处理
+            return ExifInterface.ORIENTATION_NORMAL;
+        }
+    }
+
+    private static void applyOrientation(Matrix matrix, int orientation) {
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.postRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.postRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.postRotate(270);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.postScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.postRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.postRotate(-90);
+                matrix.postScale(-1, 1);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // ==================== 编码 ====================
+
+    private static Bitmap flattenOnWhite(Bitmap source) {
+        Bitmap opaque = Bitmap.createBitmap(source.getWidth(), source.getHeight(), Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(opaque);
+        canvas.drawColor(Color.WHITE);
+        canvas.drawBitmap(source, 0, 0, null);
+        source.recycle();
+        return opaque;
+    }
+
+    @SuppressWarnings("deprecation")
+    private Bitmap.CompressFormat compressFormat() {
+        if (format == Format.JPEG) {
+            return Bitmap.CompressFormat.JPEG;
+        }
+        // API 30 以前 WEBP 在质量小于 100 时就是有损编码
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? Bitmap.CompressFormat.WEBP_LOSSY
+                : Bitmap.CompressFormat.WEBP;
+    }
+
+    private File write(Bitmap bitmap) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("无法创建临时目录: " + dir);
+        }
+        File file = new File(dir, "prepared_" + System.nanoTime() + "." + format.extension);
+        boolean ok;
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            ok = bitmap.compress(compressFormat(), quality, out);
+        }
+        if (!ok) {
+            file.delete();
+            throw new IOException("图片编码失败");
+        }
+        return file;
+    }
+
+    private static InputStream open(ContentResolver resolver, Uri uri) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) {
+            throw new IOException("无法打开图片文件");
+        }
+        return in;
+    }
+
+    private void removeStale() {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        long now = System.currentTimeMillis();
+        for (File file : files) {
+            if (now - file.lastModified() > STALE_MS) {
+                file.delete();
+            }
+        }
+    }
+}
@@ -3,25 +3,38 @@ package com.app.gameform.utils;
 import android.content.Context;
 import android.net.Uri;
 import android.util.Base64;
+import android.util.Base64OutputStream;
 import android.util.Log;
 
+import com.app.gameform.manager.UploadSessionStore;
+import com.app.gameform.manager.UploadedImageIndex;
 import com.app.gameform.network.ApiConstants;
+import com.app.gameform.network.ChunkedUploader;
+import com.app.gameform.network.HttpClientProvider;
+import com.app.gameform.network.RequestScheduler;
+import com.app.gameform.network.StreamingUploadBody;
 
 import org.json.JSONObject;
 
-import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import okhttp3.Call;
 import okhttp3.Callback;
 import okhttp3.MediaType;
+import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okio.BufferedSink;
+import okio.Okio;
 
 /**
  * 图片上传工具类
@@ -31,49 +44,256 @@ public class ImageUploadHelper {
     private static final String TAG = "ImageUploadHelper";
     private static final int MAX_IMAGE_SIZE = 5 * 1024 * 1024; // 5MB
 
+    // 超过这个大小分块续传；小图一个请求就能传完，分块只会多几次往返
+    private static final long CHUNKED_THRESHOLD = 512 * 1024;
+    // 分块上传是同步请求，在这个线程池里执行，与 RequestScheduler 的后台并发上限一致
+    private static final ExecutorService CHUNKED_EXECUTOR = Executors.newFixedThreadPool(2);
+    // 上传前计算内容摘要，与分块上传分开，避免排在长时间的上传后面
+    private static final ExecutorService HASH_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    // 服务器不支持 multipart 接口时记下来，之后直接用 Base64 接口
+    private static volatile boolean multipartUnsupported;
+    // 服务器不支持分块上传时记下来，之后直接整体上传
+    private static volatile boolean chunkedUnsupported;
+
     private Context context;
     private OkHttpClient client;
+    private ImagePreprocessor preprocessor;
+    private UploadedImageIndex uploadedIndex;
+    private final List<UploadTask> activeTasks = new ArrayList<>();
 
     public ImageUploadHelper(Context context) {
         this.context = context;
-        this.client = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .build();
+        this.client = HttpClientProvider.getInstance().getClient(30);
+        this.preprocessor = new ImagePreprocessor(context);
+        this.uploadedIndex = UploadedImageIndex.getInstance(context);
     }
 
     /**
      * 上传图片
+     * 先流式计算原图内容的摘要，之前上传过同一内容时直接回调已有路径，不再处理和传输；
+     * 否则先经 ImagePreprocessor 缩小、去掉 EXIF 并重新编码，处理失败时上传原图；
+     * 图片从文件或 ContentResolver 直接流式写入请求，不在内存里整体读出或转成 Base64
      * @param imageUri 图片URI
      * @param token 认证token
-     * @param callback 回调接口
+     * @param callback 回调接口，在后台线程回调；取消后不再回调
+     * @return 上传任务，可以取消
+     */
+    public UploadTask uploadImage(Uri imageUri, String token, ImageUploadCallback callback) {
+        UploadTask task = new UploadTask();
+        synchronized (activeTasks) {
+            activeTasks.add(task);
+        }
+        if (uploadedIndex == null) {
+            prepareAndUpload(task, imageUri, token, callback);
+        } else {
+            HASH_EXECUTOR.execute(() -> uploadUnlessKnown(task, imageUri, token, callback));
+        }
+        return task;
+    }
+
+    /**
+     * 查已上传索引，命中时直接使用已有路径，否则上传并在成功后记入索引
+     */
+    private void uploadUnlessKnown(UploadTask task, Uri imageUri, String token, ImageUploadCallback callback) {
+        if (task.canceled) {
+            finish(task);
+            return;
+        }
+        String hash;
+        try {
+            hash = ChunkedUploader.contentKey(() -> context.getContentResolver().openInputStream(imageUri));
+        } catch (IOException | SecurityException e) {
+            Log.w(TAG, "计算图片摘要失败，直接上传: " + e.getMessage());
+            prepareAndUpload(task, imageUri, token, callback);
+            return;
+        }
+
+        String knownUrl = uploadedIndex.get(hash);
+        if (knownUrl != null) {
+            Log.d(TAG, "图片已上传过，直接使用: " + knownUrl);
+            finish(task);
+            if (!task.canceled) {
+                callback.onSuccess(knownUrl);
+            }
+            return;
+        }
+
+        UploadedImageIndex index = uploadedIndex;
+        prepareAndUpload(task, imageUri, token, new ImageUploadCallback() {
+            @Override
+            public void onSuccess(String imageUrl) {
+                index.put(hash, imageUrl);
+                callback.onSuccess(imageUrl);
+            }
+
+            @Override
+            public void onFailure(String error) {
+                callback.onFailure(error);
+            }
+
+            @Override
+            public void onRetryableFailure(String error) {
+                callback.onRetryableFailure(error);
+            }
+
+            @Override
+            public void onProgress(long bytesWritten, long totalBytes) {
+                callback.onProgress(bytesWritten, totalBytes);
+            }
+        });
+    }
+
+    private void prepareAndUpload(UploadTask task, Uri imageUri, String token, ImageUploadCallback callback) {
+        if (preprocessor == null) {
+            uploadOriginal(task, imageUri, token, callback);
+            return;
+        }
+        preprocessor.prepare(imageUri, new ImagePreprocessor.Callback() {
+            @Override
+            public void onPrepared(ImagePreprocessor.Result result) {
+                if (result == null) {
+                    uploadOriginal(task, imageUri, token, callback);
+                    return;
+                }
+                synchronized (activeTasks) {
+                    task.cleanup = result::delete;
+                }
+                if (task.canceled) {
+                    finish(task);
+                    return;
+                }
+                upload(task, () -> new FileInputStream(result.file), result.file.length(),
+                        result.mimeType, result.extension, token, callback);
+            }
+
+            @Override
+            public void onFailed(Exception e) {
+                uploadOriginal(task, imageUri, token, callback);
+            }
+        });
+    }
+
+    /**
+     * 设置上传前的预处理，传 null 时上传原图
+     */
+    public void setPreprocessor(ImagePreprocessor preprocessor) {
+        this.preprocessor = preprocessor;
+    }
+
+    /**
+     * 设置已上传图片的索引，传 null 时每次都重新上传
+     */
+    public void setUploadedIndex(UploadedImageIndex uploadedIndex) {
+        this.uploadedIndex = uploadedIndex;
+    }
+
+    /**
+     * 不经处理上传原图，受 MAX_IMAGE_SIZE 限制
      */
-    public void uploadImage(Uri imageUri, String token, ImageUploadCallback callback) {
+    private void uploadOriginal(UploadTask task, Uri imageUri, String token, ImageUploadCallback callback) {
+        if (task.canceled) {
+            finish(task);
+            return;
+        }
         try {
             // 获取文件扩展名
             String fileExtension = getFileExtension(imageUri);
             if (fileExtension == null) {
+                finish(task);
                 callback.onFailure("不支持的图片格式");
                 return;
             }
 
-            // 将 URI 转换为 Base64
-            String base64Image = convertUriToBase64(imageUri);
-            if (base64Image == null) {
-                callback.onFailure("图片处理失败");
+            long size = FileUtils.getSize(context, imageUri);
+            if (size > MAX_IMAGE_SIZE) {
+                finish(task);
+                callback.onFailure("图片不能超过5MB");
                 return;
             }
 
-            // 上传图片到服务器
-            uploadImageToServer(base64Image, fileExtension, token, callback);
+            String mimeType = context.getContentResolver().getType(imageUri);
+            if (mimeType == null) mimeType = "image/jpeg";
+
+            upload(task, () -> context.getContentResolver().openInputStream(imageUri), size,
+                    mimeType, fileExtension, token, callback);
 
         } catch (Exception e) {
             Log.e(TAG, "图片上传错误: " + e.getMessage());
+            finish(task);
             callback.onFailure("图片处理失败: " + e.getMessage());
         }
     }
 
+    private void upload(UploadTask task, StreamingUploadBody.Opener opener, long size, String mimeType,
+                        String fileExtension, String token, ImageUploadCallback callback) {
+        // 生成文件名（与网页版保持一致的格式）
+        String fileName = String.format("post_%d_%s.%s",
+                System.currentTimeMillis(),
+                generateRandomString(),
+                fileExtension);
+        Log.d(TAG, "生成的文件名: " + fileName);
+
+        if (size >= CHUNKED_THRESHOLD && !chunkedUnsupported) {
+            CHUNKED_EXECUTOR.execute(() -> uploadChunked(task, opener, size, mimeType, fileName, token, callback));
+        } else {
+            uploadWhole(task, opener, size, mimeType, fileName, token, callback);
+        }
+    }
+
+    /**
+     * 一个请求上传整张图片，失败后重新上传要从头开始
+     */
+    private void uploadWhole(UploadTask task, StreamingUploadBody.Opener opener, long size, String mimeType,
+                             String fileName, String token, ImageUploadCallback callback) {
+        StreamingUploadBody body = new StreamingUploadBody(
+                MediaType.parse(mimeType), size, MAX_IMAGE_SIZE, opener, callback::onProgress);
+        task.body = body;
+
+        if (multipartUnsupported) {
+            uploadAsBase64Json(task, body, mimeType, fileName, token, callback);
+        } else {
+            uploadAsMultipart(task, body, mimeType, fileName, token, callback);
+        }
+    }
+
+    /**
+     * 分块断点续传：会话按内容摘要保存，失败后由上传队列重试或下次再上传同一张图片时，
+     * 从服务器确认的偏移量继续。在 CHUNKED_EXECUTOR 中执行
+     */
+    private void uploadChunked(UploadTask task, StreamingUploadBody.Opener opener, long size, String mimeType,
+                               String fileName, String token, ImageUploadCallback callback) {
+        if (task.canceled) {
+            return;
+        }
+        ChunkedUploader uploader = new ChunkedUploader(client, ApiConstants.UPLOAD_SESSION,
+                UploadSessionStore.getInstance(context), task.tag, token);
+        task.chunked = uploader;
+        try {
+            String key = ChunkedUploader.contentKey(opener);
+            String storedName = uploader.upload(key, fileName, mimeType, size, opener, callback::onProgress);
+            if (task.canceled) return;
+            finish(task);
+            String imageUrl = "images/user/post/" + storedName;
+            Log.d(TAG, "分块上传成功，图片路径: " + imageUrl + "，发送 " + uploader.getBytesSent() + " 字节");
+            callback.onSuccess(imageUrl);
+        } catch (ChunkedUploader.UnsupportedException e) {
+            Log.w(TAG, "服务器不支持分块上传，改用整体上传");
+            chunkedUnsupported = true;
+            task.chunked = null;
+            uploadWhole(task, opener, size, mimeType, fileName, token, callback);
+        } catch (IOException e) {
+            if (task.canceled) return;
+            Log.e(TAG, "分块上传失败: " + e.getMessage());
+            finish(task);
+            if (e instanceof ChunkedUploader.ServerException && !((ChunkedUploader.ServerException) e).isRetryable()) {
+                callback.onFailure(e.getMessage());
+            } else {
+                callback.onRetryableFailure(e.getMessage());
+            }
+        }
+    }
+
     /**
      * 获取文件扩展名
      */
@@ -119,51 +339,6 @@ public class ImageUploadHelper {
         }
     }
 
-    /**
-     * 将 URI 转换为 Base64 字符串
-     */
-    private String convertUriToBase64(Uri imageUri) {
-        try {
-            // 从 URI 获取输入流
-            InputStream inputStream = context.getContentResolver().openInputStream(imageUri);
-            if (inputStream == null) {
-                Log.e(TAG, "无法打开图片文件");
-                return null;
-            }
-
-            // 读取图片数据
-            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-            byte[] buffer = new byte[1024];
-            int bytesRead;
-
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                byteArrayOutputStream.write(buffer, 0, bytesRead);
-            }
-
-            inputStream.close();
-            byte[] imageBytes = byteArrayOutputStream.toByteArray();
-            byteArrayOutputStream.close();
-
-            // 检查文件大小（限制为5MB）
-            if (imageBytes.length > MAX_IMAGE_SIZE) {
-                return null;
-            }
-
-            // 转换为 Base64
-            String base64String = Base64.encodeToString(imageBytes, Base64.NO_WRAP);
-
-            // 添加数据URL前缀（根据图片类型）
-            String mimeType = context.getContentResolver().getType(imageUri);
-            if (mimeType == null) mimeType = "image/jpeg";
-
-            return "data:" + mimeType + ";base64," + base64String;
-
-        } catch (IOException e) {
-            Log.e(TAG, "图片转换失败: " + e.getMessage());
-            return null;
-        }
-    }
-
     /**
      * 生成随机字符串
      */
@@ -180,51 +355,90 @@ public class ImageUploadHelper {
     }
 
     /**
-     * 上传图片到服务器
+     * multipart 上传：图片作为文件字段原样发送
      */
-    private void uploadImageToServer(String base64Image, String fileExtension, String token, ImageUploadCallback callback) {
-        try {
-            // 生成文件名（与网页版保持一致的格式）
-            String fileName = String.format("post_%d_%s.%s",
-                    System.currentTimeMillis(),
-                    generateRandomString(),
-                    fileExtension);
-
-            Log.d(TAG, "生成的文件名: " + fileName);
-
-            // 构建请求体
-            JSONObject jsonBody = new JSONObject();
-            jsonBody.put("fileName", fileName);
-            jsonBody.put("base64Data", base64Image);
-
-            RequestBody requestBody = RequestBody.create(
-                    jsonBody.toString(),
-                    MediaType.parse("application/json; charset=utf-8")
-            );
-
-            // 构建请求
-            Request request = new Request.Builder()
-                    .url(ApiConstants.UPLOAD_POST_IMAGE)
-                    .addHeader("Authorization", token)
-                    .addHeader("Content-Type", "application/json")
-                    .post(requestBody)
-                    .build();
-
-            Log.d(TAG, "开始上传，URL: " + ApiConstants.UPLOAD_POST_IMAGE);
-            Log.d(TAG, "Token: " + token.substring(0, Math.min(token.length(), 50)) + "...");
-
-            // 执行请求
-            client.newCall(request).enqueue(new Callback() {
-                @Override
-                public void onFailure(Call call, IOException e) {
-                    Log.e(TAG, "请求失败: " + e.getMessage());
-                    callback.onFailure(e.getMessage());
-                }
+    private void uploadAsMultipart(UploadTask task, StreamingUploadBody body, String mimeType,
+                                   String fileName, String token, ImageUploadCallback callback) {
+        RequestBody requestBody = new MultipartBody.Builder()
+                .setType(MultipartBody.FORM)
+                .addFormDataPart("fileName", fileName)
+                .addFormDataPart("file", fileName, body)
+                .build();
 
-                @Override
-                public void onResponse(Call call, Response response) throws IOException {
-                    String respStr = response.body().string();
-                    Log.d(TAG, "状态码: " + response.code() + ", 响应: " + respStr);
+        Request request = new Request.Builder()
+                .url(ApiConstants.UPLOAD_POST_IMAGE_FILE)
+                .tag(task.tag)
+                .addHeader("Authorization", token)
+                .post(requestBody)
+                .build();
+
+        Log.d(TAG, "开始上传，URL: " + ApiConstants.UPLOAD_POST_IMAGE_FILE);
+        enqueue(task, request, fileName, callback, response -> {
+            int code = response.code();
+            if (code == 404 || code == 405 || code == 415) {
+                // 服务器还没有 multipart 接口，改用 Base64 接口，以后的上传也直接走 Base64
+                Log.w(TAG, "multipart 上传不可用(" + code + ")，改用 Base64 上传");
+                multipartUnsupported = true;
+                uploadAsBase64Json(task, body, mimeType, fileName, token, callback);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * 兼容旧接口的 JSON + Base64 上传，请求体同样边读边编码边写
+     */
+    private void uploadAsBase64Json(UploadTask task, StreamingUploadBody body, String mimeType,
+                                    String fileName, String token, ImageUploadCallback callback) {
+        Request request = new Request.Builder()
+                .url(ApiConstants.UPLOAD_POST_IMAGE)
+                .tag(task.tag)
+                .addHeader("Authorization", token)
+                .post(new Base64JsonBody(body, fileName, mimeType))
+                .build();
+
+        Log.d(TAG, "开始上传，URL: " + ApiConstants.UPLOAD_POST_IMAGE);
+        enqueue(task, request, fileName, callback, null);
+    }
+
+    /**
+     * 处理响应前的拦截，返回 true 表示已经另行处理
+     */
+    private interface ResponseHandler {
+        boolean handle(Response response);
+    }
+
+    private void enqueue(UploadTask task, Request request, String fileName,
+                         ImageUploadCallback callback, ResponseHandler before) {
+        if (task.canceled) {
+            return;
+        }
+        RequestScheduler.getInstance().enqueue(client.newCall(request), RequestScheduler.Priority.BACKGROUND, new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (task.canceled) return;
+                Log.e(TAG, "请求失败: " + e.getMessage());
+                finish(task);
+                callback.onRetryableFailure(e.getMessage());
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try (Response r = response) {
+                    if (task.canceled) return;
+                    if (before != null && before.handle(r)) {
+                        return;
+                    }
+                    String respStr = r.body().string();
+                    Log.d(TAG, "状态码: " + r.code() + ", 响应: " + respStr);
+                    finish(task);
+
+                    int code = r.code();
+                    if (code >= 500 || code == 408 || code == 429) {
+                        callback.onRetryableFailure("服务器繁忙(" + code + ")");
+                        return;
+                    }
 
                     try {
                         JSONObject json = new JSONObject(respStr);
@@ -243,11 +457,96 @@ public class ImageUploadHelper {
                         callback.onFailure("响应解析失败");
                     }
                 }
-            });
+            }
+        });
+    }
 
-        } catch (Exception e) {
-            Log.e(TAG, "构建请求错误: " + e.getMessage());
-            callback.onFailure("请求构建失败: " + e.getMessage());
+    /**
+     * 上传结束（成功、失败或取消）：移出任务列表并删除预处理生成的临时文件
+     */
+    private void finish(UploadTask task) {
+        Runnable cleanup;
+        synchronized (activeTasks) {
+            activeTasks.remove(task);
+            cleanup = task.cleanup;
+            task.cleanup = null;
+        }
+        if (cleanup != null) {
+            cleanup.run();
+        }
+    }
+
+    /**
+     * {"fileName":"...","base64Data":"data:<mime>;base64,<图片>"}
+     * 图片部分经 Base64OutputStream 边编码边写出，长度可以事先算出
+     */
+    private static class Base64JsonBody extends RequestBody {
+        private final StreamingUploadBody image;
+        private final byte[] prefix;
+        private final byte[] suffix;
+
+        Base64JsonBody(StreamingUploadBody image, String fileName, String mimeType) {
+            this.image = image;
+            this.prefix = ("{\"fileName\":" + JSONObject.quote(fileName)
+                    + ",\"base64Data\":\"data:" + mimeType + ";base64,").getBytes(StandardCharsets.UTF_8);
+            this.suffix = "\"}".getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public MediaType contentType() {
+            return MediaType.parse("application/json; charset=utf-8");
+        }
+
+        @Override
+        public long contentLength() {
+            long size = image.contentLength();
+            if (size < 0) return -1;
+            return prefix.length + (size + 2) / 3 * 4 + suffix.length;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            sink.write(prefix);
+            Base64OutputStream encoder = new Base64OutputStream(
+                    sink.outputStream(), Base64.NO_WRAP | Base64.NO_CLOSE);
+            BufferedSink encoded = Okio.buffer(Okio.sink(encoder));
+            image.writeTo(encoded);
+            encoded.flush();
+            // 写出末尾不足三字节的部分和填充
+            encoder.close();
+            sink.write(suffix);
+        }
+    }
+
+    /**
+     * 一次图片上传，可以取消
+     */
+    public class UploadTask {
+        private final Object tag = new Object();
+        private volatile StreamingUploadBody body;
+        private volatile ChunkedUploader chunked;
+        private volatile Runnable cleanup;
+        private volatile boolean canceled;
+
+        /**
+         * 取消排队中或正在写入的上传，之后不再回调
+         */
+        public void cancel() {
+            canceled = true;
+            StreamingUploadBody current = body;
+            if (current != null) {
+                current.cancel();
+            }
+            ChunkedUploader uploader = chunked;
+            if (uploader != null) {
+                uploader.cancel();
+            }
+            HttpClientProvider.getInstance().cancelByTag(tag);
+            finish(this);
+        }
+
+        public boolean isCanceled() {
+            return canceled;
         }
     }
 
@@ -257,14 +556,33 @@ public class ImageUploadHelper {
     public interface ImageUploadCallback {
         void onSuccess(String imageUrl);
         void onFailure(String error);
+
+        /**
+         * 网络错误或服务器暂时不可用，稍后重试可能成功；默认按普通失败处理
+         */
+        default void onRetryableFailure(String error) {
+            onFailure(error);
+        }
+
+        /**
+         * 上传进度，在网络线程回调
+         * @param totalBytes 图片大小，未知时为 -1
+         */
+        default void onProgress(long bytesWritten, long totalBytes) {
+        }
     }
 
     /**
      * 销毁资源
      */
     public void destroy() {
-        if (client != null) {
-            client.dispatcher().executorService().shutdown();
+        // 共享 Dispatcher 不能关闭线程池，只取消本实例发出的上传
+        List<UploadTask> tasks;
+        synchronized (activeTasks) {
+            tasks = new ArrayList<>(activeTasks);
+        }
+        for (UploadTask task : tasks) {
+            task.cancel();
         }
     }
 }
\ No newline at end of file
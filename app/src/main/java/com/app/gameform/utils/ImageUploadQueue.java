@@ -0,0 +1,325 @@
+package com.app.gameform.utils;
+
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 多张图片的上传队列
+ * 一次可以加入多张图片，最多同时上传 maxParallel 张，其余排队；
+ * 每张图片单独重试（网络错误、服务器 5xx），重试间隔指数退避。
+ * 发帖只需等所有图片结束，总耗时取决于最慢的一张，而不是各张相加。
+ * 只在主线程使用，监听回调也在主线程
+ */
+public class ImageUploadQueue {
+
+    private static final String TAG = "ImageUploadQueue";
+
+    // 预处理线程池和分片上传线程池都是两个线程，再多只会在它们前面排队
+    public static final int DEFAULT_MAX_PARALLEL = 2;
+    // 每张图片最多尝试的次数
+    private static final int MAX_ATTEMPTS = 3;
+    // 第一次重试前的等待，之后每次翻倍
+    private static final long BASE_BACKOFF_MS = 1000;
+
+    public enum State {
+        QUEUED, UPLOADING, WAITING_RETRY, DONE, FAILED, CANCELED
+    }
+
+    /**
+     * 队列中的一张图片
+     */
+    public static class Item {
+        /** 编辑器中占位图的标识 */
+        public final String id;
+        public final Uri uri;
+        private final String token;
+        private State state = State.QUEUED;
+        private String imageUrl;
+        private int attempts;
+        private int percent = -1;
+        // 取消进行中的上传
+        private Runnable cancelUpload;
+        private Runnable retry;
+
+        Item(String id, Uri uri, String token) {
+            this.id = id;
+            this.uri = uri;
+            this.token = token;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * 上传成功后的图片路径
+         */
+        public String getImageUrl() {
+            return imageUrl;
+        }
+
+        boolean isFinished() {
+            return state == State.DONE || state == State.FAILED || state == State.CANCELED;
+        }
+    }
+
+    public interface Listener {
+        /**
+         * @param percent 0-100；图片大小未知时不回调
+         */
+        void onProgress(Item item, int percent);
+
+        void onUploaded(Item item, String imageUrl);
+
+        /**
+         * 重试次数用完或不可重试的错误
+         */
+        void onFailed(Item item, String error);
+    }
+
+    /**
+     * 发起一张图片的上传，测试时替换
+     */
+    interface Uploader {
+        /**
+         * @return 取消这次上传
+         */
+        Runnable upload(Uri uri, String token, ImageUploadHelper.ImageUploadCallback callback);
+    }
+
+    /**
+     * 主线程调度，测试时替换为手动推进的时钟
+     */
+    interface Scheduler {
+        void post(Runnable task);
+
+        void postDelayed(Runnable task, long delayMs);
+
+        void remove(Runnable task);
+    }
+
+    private static final class MainThreadScheduler implements Scheduler {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void post(Runnable task) {
+            handler.post(task);
+        }
+
+        @Override
+        public void postDelayed(Runnable task, long delayMs) {
+            handler.postDelayed(task, delayMs);
+        }
+
+        @Override
+        public void remove(Runnable task) {
+            handler.removeCallbacks(task);
+        }
+    }
+
+    private final Uploader uploader;
+    private final int maxParallel;
+    private final Listener listener;
+    private final Scheduler scheduler;
+
+    // 按加入顺序保存，包括已结束的
+    private final List<Item> items = new ArrayList<>();
+    private final ArrayDeque<Item> pending = new ArrayDeque<>();
+    private final List<Runnable> idleActions = new ArrayList<>();
+    private int running;
+    private int nextId;
+
+    public ImageUploadQueue(ImageUploadHelper helper, int maxParallel, Listener listener) {
+        this((uri, token, callback) -> helper.uploadImage(uri, token, callback)::cancel,
+                maxParallel, listener, new MainThreadScheduler());
+    }
+
+    ImageUploadQueue(Uploader uploader, int maxParallel, Listener listener, Scheduler scheduler) {
+        this.uploader = uploader;
+        this.maxParallel = Math.max(1, maxParallel);
+        this.listener = listener;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 加入一张图片，立即返回
+     */
+    public Item enqueue(Uri uri, String token) {
+        Item item = new Item("upload-" + (++nextId), uri, token);
+        items.add(item);
+        pending.add(item);
+        pump();
+        return item;
+    }
+
+    /**
+     * 取消一张还没结束的图片（预览里被删除的图片）
+     * @param id 加入时返回的 Item.id
+     * @return 确实取消了时为 true，已结束或不存在时为 false
+     */
+    public boolean cancel(String id) {
+        for (Item item : items) {
+            if (item.id.equals(id)) {
+                if (item.isFinished()) {
+                    return false;
+                }
+                cancel(item);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void cancelAll() {
+        for (Item item : items) {
+            if (!item.isFinished()) {
+                cancel(item);
+            }
+        }
+        idleActions.clear();
+    }
+
+    /**
+     * 没有排队、上传中或等待重试的图片
+     */
+    public boolean isIdle() {
+        for (Item item : items) {
+            if (!item.isFinished()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 所有图片结束后执行；已经空闲时立即执行
+     */
+    public void whenIdle(Runnable action) {
+        if (isIdle()) {
+            action.run();
+        } else {
+            idleActions.add(action);
+        }
+    }
+
+    /**
+     * 已上传图片的路径，按加入顺序
+     */
+    public List<String> getUploadedUrls() {
+        List<String> urls = new ArrayList<>();
+        for (Item item : items) {
+            if (item.state == State.DONE) {
+                urls.add(item.imageUrl);
+            }
+        }
+        return urls;
+    }
+
+    // ==================== 调度 ====================
+
+    private void pump() {
+        while (running < maxParallel && !pending.isEmpty()) {
+            start(pending.poll());
+        }
+    }
+
+    private void start(Item item) {
+        item.state = State.UPLOADING;
+        item.attempts++;
+        running++;
+        item.cancelUpload = uploader.upload(item.uri, item.token, new ImageUploadHelper.ImageUploadCallback() {
+            @Override
+            public void onSuccess(String imageUrl) {
+                scheduler.post(() -> onAttemptFinished(item, imageUrl, null, false));
+            }
+
+            @Override
+            public void onFailure(String error) {
+                scheduler.post(() -> onAttemptFinished(item, null, error, false));
+            }
+
+            @Override
+            public void onRetryableFailure(String error) {
+                scheduler.post(() -> onAttemptFinished(item, null, error, true));
+            }
+
+            @Override
+            public void onProgress(long bytesWritten, long totalBytes) {
+                if (totalBytes <= 0) return;
+                int percent = (int) (bytesWritten * 100 / totalBytes);
+                scheduler.post(() -> {
+                    if (item.state == State.UPLOADING && percent != item.percent) {
+                        item.percent = percent;
+                        listener.onProgress(item, percent);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onAttemptFinished(Item item, String imageUrl, String error, boolean retryable) {
+        if (item.state != State.UPLOADING) {
+            // 已取消
+            return;
+        }
+        running--;
+        item.cancelUpload = null;
+        if (imageUrl != null) {
+            item.state = State.DONE;
+            item.imageUrl = imageUrl;
+            listener.onUploaded(item, imageUrl);
+        } else if (retryable && item.attempts < MAX_ATTEMPTS) {
+            // 等待重试时不占并发位置，让排队的图片先传
+            long delay = BASE_BACKOFF_MS << (item.attempts - 1);
+            Log.w(TAG, item.id + " 第 " + item.attempts + " 次上传失败，" + delay + "ms 后重试: " + error);
+            item.state = State.WAITING_RETRY;
+            item.retry = () -> {
+                item.retry = null;
+                item.state = State.QUEUED;
+                pending.addFirst(item);
+                pump();
+            };
+            scheduler.postDelayed(item.retry, delay);
+        } else {
+            item.state = State.FAILED;
+            listener.onFailed(item, error);
+        }
+        pump();
+        runIdleActions();
+    }
+
+    private void cancel(Item item) {
+        if (item.state == State.UPLOADING) {
+            running--;
+        }
+        if (item.cancelUpload != null) {
+            item.cancelUpload.run();
+            item.cancelUpload = null;
+        }
+        if (item.retry != null) {
+            scheduler.remove(item.retry);
+            item.retry = null;
+        }
+        pending.remove(item);
+        item.state = State.CANCELED;
+        pump();
+        runIdleActions();
+    }
+
+    private void runIdleActions() {
+        if (idleActions.isEmpty() || !isIdle()) {
+            return;
+        }
+        List<Runnable> actions = new ArrayList<>(idleActions);
+        idleActions.clear();
+        for (Runnable action : actions) {
+            action.run();
+        }
+    }
+}
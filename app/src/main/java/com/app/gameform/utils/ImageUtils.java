@@ -128,15 +128,43 @@ public class ImageUtils {
         }
     }
 
+    /**
+     * 解析为可加载的完整图片URL，不是图片时返回 null
+     * 不输出日志，可以在后台线程为整页数据预先计算
+     */
+    public static String resolveImageUrl(String path) {
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        String fullUrl;
+        if (path.startsWith("http://") || path.startsWith("https://")) {
+            fullUrl = path;
+        } else {
+            String normalizedPath = normalizeFilePath(path);
+            if (normalizedPath == null) {
+                return null;
+            }
+            fullUrl = BASE_URL + normalizedPath;
+        }
+        return isImageFile(fullUrl) ? fullUrl : null;
+    }
+
     /**
      * 加载用户头像
      */
     public static void loadUserAvatar(Context context, CircleImageView imageView, String avatarUrl) {
-        String fullUrl = buildImageUrl(avatarUrl);
-
-        Log.d(TAG, "Loading avatar: " + fullUrl);
+        String fullUrl = resolveImageUrl(avatarUrl);
+        if (fullUrl == null) {
+            Log.w(TAG, "Invalid avatar URL: " + avatarUrl);
+        }
+        loadResolvedAvatar(context, imageView, fullUrl);
+    }
 
-        if (fullUrl != null && !fullUrl.isEmpty() && isImageFile(fullUrl)) {
+    /**
+     * 加载已解析好的头像URL，为 null 时显示默认头像
+     */
+    public static void loadResolvedAvatar(Context context, CircleImageView imageView, String fullUrl) {
+        if (fullUrl != null) {
             RequestOptions options = createRequestOptions(R.drawable.ic_default_avatar, R.drawable.ic_default_avatar)
                     .circleCrop();
 
@@ -150,14 +178,12 @@ public class ImageUtils {
 
                 @Override
                 public boolean onResourceReady(Drawable resource, Object model, Target<Drawable> target, DataSource dataSource, boolean isFirstResource) {
-                    Log.d(TAG, "Avatar loaded successfully: " + fullUrl);
                     return false;
                 }
             };
 
             loadImageWithGlide(context, imageView, fullUrl, options, listener);
         } else {
-            Log.w(TAG, "Invalid avatar URL: " + avatarUrl);
             imageView.setImageResource(R.drawable.ic_default_avatar);
         }
     }
@@ -166,11 +192,18 @@ public class ImageUtils {
      * 加载帖子图片
      */
     public static void loadPostImage(Context context, ImageView imageView, String photoUrl) {
-        String fullUrl = buildImageUrl(photoUrl);
-
-        Log.d(TAG, "Loading post image: " + fullUrl);
+        String fullUrl = resolveImageUrl(photoUrl);
+        if (fullUrl == null) {
+            Log.w(TAG, "Invalid post image URL: " + photoUrl);
+        }
+        loadResolvedPostImage(context, imageView, fullUrl);
+    }
 
-        if (fullUrl != null && !fullUrl.isEmpty() && isImageFile(fullUrl)) {
+    /**
+     * 加载已解析好的帖子图片URL，为 null 时显示占位色
+     */
+    public static void loadResolvedPostImage(Context context, ImageView imageView, String fullUrl) {
+        if (fullUrl != null) {
             RequestOptions options = createRequestOptions(R.color.light_gray, R.color.light_gray)
                     .centerCrop();
 
@@ -184,14 +217,12 @@ public class ImageUtils {
 
                 @Override
                 public boolean onResourceReady(Drawable resource, Object model, Target<Drawable> target, DataSource dataSource, boolean isFirstResource) {
-                    Log.d(TAG, "Post image loaded successfully: " + fullUrl);
                     return false;
                 }
             };
 
             loadImageWithGlide(context, imageView, fullUrl, options, listener);
         } else {
-            Log.w(TAG, "Invalid post image URL: " + photoUrl);
             imageView.setImageResource(R.color.light_gray);
         }
     }
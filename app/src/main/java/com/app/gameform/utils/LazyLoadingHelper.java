@@ -1,5 +1,7 @@
 package com.app.gameform.utils;
 
+import android.os.SystemClock;
+
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -53,9 +55,13 @@ public class LazyLoadingHelper {
         private boolean hasMoreData;
         private boolean isLoading;
         private final PaginationConfig config;
+        // 自适应预取：配置中的阈值对应静止时的最小提前量
+        private final PrefetchPolicy prefetchPolicy;
 
         public PaginationState(PaginationConfig config) {
             this.config = config;
+            this.prefetchPolicy = new PrefetchPolicy(config.getPageSize(),
+                    Math.max(1, config.getPageSize() - config.getLoadMoreThreshold()));
             reset();
         }
 
@@ -83,7 +89,20 @@ public class LazyLoadingHelper {
         public void setHasMoreData(boolean hasMoreData) { this.hasMoreData = hasMoreData; }
 
         public boolean isLoading() { return isLoading; }
-        public void setLoading(boolean loading) { isLoading = loading; }
+
+        /**
+         * 开始加载时记下时间，结束时把耗时计入预取策略
+         */
+        public void setLoading(boolean loading) {
+            if (loading && !isLoading) {
+                prefetchPolicy.onLoadStarted(SystemClock.uptimeMillis());
+            } else if (!loading && isLoading) {
+                prefetchPolicy.onLoadFinished(SystemClock.uptimeMillis(), true);
+            }
+            isLoading = loading;
+        }
+
+        public PrefetchPolicy getPrefetchPolicy() { return prefetchPolicy; }
 
         public PaginationConfig getConfig() { return config; }
     }
@@ -95,6 +114,13 @@ public class LazyLoadingHelper {
         void onLoadMore(int page);
     }
 
+    /**
+     * 提供当前的分页状态（多个标签页共用一个列表时随标签切换）
+     */
+    public interface StateProvider {
+        PaginationState getState();
+    }
+
     /**
      * 创建滚动监听器
      */
@@ -102,26 +128,38 @@ public class LazyLoadingHelper {
             LinearLayoutManager layoutManager,
             PaginationState state,
             OnLoadMoreListener listener) {
+        return createScrollListener(layoutManager, () -> state, listener);
+    }
+
+    /**
+     * 创建滚动监听器：提前量由分页状态中的 PrefetchPolicy 按滚动速度和加载耗时决定，
+     * 停止滚动后在空闲时预取下一页。页码和加载状态由 listener 的实现维护
+     */
+    public static RecyclerView.OnScrollListener createScrollListener(
+            LinearLayoutManager layoutManager,
+            StateProvider provider,
+            OnLoadMoreListener listener) {
+
+        return new PrefetchScrollListener() {
+            @Override
+            protected PrefetchPolicy getPolicy() {
+                return provider.getState().getPrefetchPolicy();
+            }
+
+            @Override
+            protected boolean canLoadMore(int totalItemCount) {
+                PaginationState state = provider.getState();
+                return !state.isLoading() && state.hasMoreData();
+            }
+
+            @Override
+            protected boolean isLoading() {
+                return provider.getState().isLoading();
+            }
 
-        return new RecyclerView.OnScrollListener() {
             @Override
-            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
-                super.onScrolled(recyclerView, dx, dy);
-
-                if (dy > 0 && !state.isLoading() && state.hasMoreData()) {
-                    int visibleItemCount = layoutManager.getChildCount();
-                    int totalItemCount = layoutManager.getItemCount();
-                    int firstVisibleItemPosition = layoutManager.findFirstVisibleItemPosition();
-
-                    int lastVisibleItem = firstVisibleItemPosition + visibleItemCount;
-                    int threshold = state.getConfig().getPageSize() - state.getConfig().getLoadMoreThreshold();
-
-                    if ((totalItemCount - lastVisibleItem) <= threshold) {
-                        state.nextPage();
-                        state.setLoading(true);
-                        listener.onLoadMore(state.getCurrentPage());
-                    }
-                }
+            protected void loadMore(RecyclerView view, int totalItemCount) {
+                listener.onLoadMore(provider.getState().getCurrentPage());
             }
         };
     }
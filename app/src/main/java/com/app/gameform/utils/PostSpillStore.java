@@ -0,0 +1,134 @@
+package com.app.gameform.utils;
+
+import android.content.Context;
+
+import com.app.gameform.domain.Post;
+import com.app.gameform.network.GsonProvider;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 窗口外帖子的本地暂存
+ * 每个列表一个子目录，每批（一页）帖子一个 JSON 文件，整批恢复后由 PostWindow 删除。
+ * 所有方法都在后台线程调用
+ */
+final class PostSpillStore {
+
+    private static final String ROOT_DIR = "post_window";
+    private static final String PREFIX = "batch_";
+    private static final String SUFFIX = ".json";
+    private static final Type LIST_TYPE = new TypeToken<List<Post>>() {}.getType();
+
+    // 进程被杀时上次的暂存文件来不及删除，本进程第一次写入前清掉
+    private static boolean staleCleared;
+
+    private final File root;
+    private final File dir;
+    private final Gson gson = GsonProvider.getGson();
+
+    PostSpillStore(Context context, String scope) {
+        this.root = new File(context.getApplicationContext().getCacheDir(), ROOT_DIR);
+        this.dir = new File(root, scope);
+    }
+
+    void save(int batch, List<Post> posts) throws IOException {
+        clearStale(root);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("无法创建暂存目录: " + dir);
+        }
+        File target = fileOf(batch);
+        File temp = new File(dir, target.getName() + ".tmp");
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)))) {
+            gson.toJson(posts, LIST_TYPE, writer);
+        }
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            throw new IOException("暂存文件写入失败: " + target);
+        }
+    }
+
+    /**
+     * @return 这一批帖子；文件不存在时返回 null
+     */
+    List<Post> load(int batch) throws IOException {
+        File file = fileOf(batch);
+        List<Post> posts;
+        try (JsonReader reader = new JsonReader(new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)))) {
+            posts = gson.fromJson(reader, LIST_TYPE);
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+        return posts;
+    }
+
+    void delete(int batch) {
+        fileOf(batch).delete();
+    }
+
+    /**
+     * 删除编号小于 limit 的批次（列表刷新后旧数据的暂存）
+     */
+    void clearBefore(int limit) {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            int batch = batchOf(file.getName());
+            if (batch >= 0 && batch < limit) {
+                file.delete();
+            }
+        }
+    }
+
+    void clear() {
+        deleteRecursively(dir);
+    }
+
+    private File fileOf(int batch) {
+        return new File(dir, PREFIX + batch + SUFFIX);
+    }
+
+    private static int batchOf(String name) {
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static synchronized void clearStale(File root) {
+        if (!staleCleared) {
+            staleCleared = true;
+            deleteRecursively(root);
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,410 @@
+package com.app.gameform.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.app.gameform.domain.Post;
+import com.app.gameform.network.ApiCallback;
+import com.app.gameform.network.ApiService;
+import com.app.gameform.network.RequestScheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 帖子长列表的窗口化分页
+ * 只保留可见区域前后 windowPages 页的完整帖子，更远的帖子换成只带ID的占位对象，原帖子按页写入本地暂存；
+ * 滑回窗口时从暂存读回，暂存丢失时再按ID重新请求。列表越滑越长，内存里的完整帖子数基本不变。
+ * 列表长度和位置不变，宿主按位置处理点击、点赞的逻辑不受影响；只在主线程使用
+ */
+public class PostWindow {
+
+    private static final String TAG = "PostWindow";
+
+    // 可见区域前后各保留的页数
+    public static final int DEFAULT_WINDOW_PAGES = 3;
+
+    private static final AtomicInteger SCOPES = new AtomicInteger();
+
+    /**
+     * 被窗口管理的帖子列表，按位置读写
+     */
+    public interface Host {
+        int size();
+
+        Post get(int position);
+
+        void set(int position, Post post);
+    }
+
+    /**
+     * 有帖子被换成占位或恢复，宿主需要重新提交列表
+     */
+    public interface Listener {
+        void onWindowChanged();
+    }
+
+    /**
+     * 占位帖子：只有ID，没有正文、图片和计数
+     */
+    public static final class Placeholder extends Post {
+        public Placeholder(Integer postId) {
+            setPostId(postId);
+        }
+    }
+
+    public static boolean isPlaceholder(Post post) {
+        return post instanceof Placeholder;
+    }
+
+    /**
+     * 直接管理一个 List（列表本身就是适配器的数据源时使用）
+     */
+    public static Host listHost(List<Post> posts) {
+        return new Host() {
+            @Override
+            public int size() {
+                return posts.size();
+            }
+
+            @Override
+            public Post get(int position) {
+                return posts.get(position);
+            }
+
+            @Override
+            public void set(int position, Post post) {
+                posts.set(position, post);
+            }
+        };
+    }
+
+    private final Host host;
+    private final Listener listener;
+    private final int pageSize;
+    private final PostSpillStore store;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private int windowPages = DEFAULT_WINDOW_PAGES;
+    // 帖子ID -> 暂存批次
+    private final Map<Integer, Integer> spilled = new HashMap<>();
+    // 暂存批次 -> 还未恢复的帖子数，归零时删除文件
+    private final Map<Integer, Integer> batchRemaining = new HashMap<>();
+    // 还在写入的批次，写完之前滑回直接从这里恢复
+    private final Map<Integer, List<Post>> pendingWrites = new HashMap<>();
+    // 正在恢复的帖子ID，避免重复读取或请求
+    private final Set<Integer> restoring = new HashSet<>();
+    private int nextBatch;
+    // 列表被整体替换后递增，旧列表的异步结果据此丢弃
+    private long generation;
+    private int firstPage = -1;
+    private int lastPage = -1;
+    private int keepStart;
+    private int keepEnd;
+    private boolean released;
+
+    /**
+     * @param name 列表名称，用作暂存目录前缀
+     * @param pageSize 每页帖子数，换出和恢复都以页为单位
+     */
+    public PostWindow(Context context, String name, int pageSize, Host host, Listener listener) {
+        this.store = new PostSpillStore(context, name + "-" + SCOPES.incrementAndGet());
+        this.pageSize = Math.max(1, pageSize);
+        this.host = host;
+        this.listener = listener;
+    }
+
+    public void setWindowPages(int windowPages) {
+        this.windowPages = Math.max(1, windowPages);
+        firstPage = -1;
+        lastPage = -1;
+    }
+
+    public int getWindowPages() {
+        return windowPages;
+    }
+
+    /**
+     * 滚动时调用：可见区域跨页后，换出窗口外的帖子、恢复窗口内的占位
+     */
+    public void onVisibleRange(int firstVisible, int lastVisible) {
+        int size = host.size();
+        if (released || firstVisible < 0 || lastVisible < firstVisible || size == 0) {
+            return;
+        }
+        int first = firstVisible / pageSize;
+        int last = lastVisible / pageSize;
+        if (first == firstPage && last == lastPage) {
+            return;
+        }
+        firstPage = first;
+        lastPage = last;
+        keepStart = Math.max(0, (first - windowPages) * pageSize);
+        keepEnd = Math.min(size, (last + windowPages + 1) * pageSize);
+
+        boolean changed = evict(0, keepStart);
+        changed |= evict(keepEnd, size);
+        restoreWindow();
+        if (changed) {
+            listener.onWindowChanged();
+        }
+    }
+
+    /**
+     * 列表被整体替换（刷新、切换条件）后调用，丢弃旧列表的暂存
+     */
+    public void reset() {
+        generation++;
+        spilled.clear();
+        batchRemaining.clear();
+        pendingWrites.clear();
+        restoring.clear();
+        firstPage = -1;
+        lastPage = -1;
+        int limit = nextBatch;
+        DecodePipeline.backgroundExecutor().execute(() -> store.clearBefore(limit));
+    }
+
+    /**
+     * 页面销毁时调用，删除全部暂存
+     */
+    public void release() {
+        released = true;
+        generation++;
+        spilled.clear();
+        batchRemaining.clear();
+        pendingWrites.clear();
+        restoring.clear();
+        DecodePipeline.backgroundExecutor().execute(store::clear);
+    }
+
+    // ==================== 换出 ====================
+
+    /**
+     * 把 [from, to) 中的完整帖子按页换成占位，每页写一个暂存批次
+     */
+    private boolean evict(int from, int to) {
+        boolean changed = false;
+        List<Post> batch = null;
+        int batchPage = -1;
+        for (int i = from; i < to; i++) {
+            Post post = host.get(i);
+            if (post == null || isPlaceholder(post) || post.getPostId() == null) {
+                continue;
+            }
+            int page = i / pageSize;
+            if (batch != null && page != batchPage) {
+                spill(batch);
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new ArrayList<>(pageSize);
+                batchPage = page;
+            }
+            batch.add(post);
+            host.set(i, new Placeholder(post.getPostId()));
+            changed = true;
+        }
+        if (batch != null) {
+            spill(batch);
+        }
+        return changed;
+    }
+
+    private void spill(List<Post> batch) {
+        int batchId = nextBatch++;
+        for (Post post : batch) {
+            spilled.put(post.getPostId(), batchId);
+        }
+        batchRemaining.put(batchId, batch.size());
+        pendingWrites.put(batchId, batch);
+        long expected = generation;
+        DecodePipeline.submit(() -> {
+            store.save(batchId, batch);
+            return batchId;
+        }, new DecodePipeline.Delivery<Integer>() {
+            @Override
+            public void onReady(Integer result) {
+                if (expected != generation) return;
+                pendingWrites.remove(batchId);
+                if (!batchRemaining.containsKey(batchId)) {
+                    // 写完之前已经从内存全部恢复
+                    DecodePipeline.backgroundExecutor().execute(() -> store.delete(batchId));
+                }
+            }
+
+            @Override
+            public void onFailed(Exception e) {
+                if (expected != generation) return;
+                // 写入失败：这一批只能按ID重新请求
+                Log.w(TAG, "暂存失败: " + e.getMessage());
+                pendingWrites.remove(batchId);
+                batchRemaining.remove(batchId);
+                for (Post post : batch) {
+                    spilled.remove(post.getPostId(), batchId);
+                }
+            }
+        });
+    }
+
+    // ==================== 恢复 ====================
+
+    private void restoreWindow() {
+        int end = Math.min(keepEnd, host.size());
+        Map<Integer, List<Integer>> byBatch = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (int i = keepStart; i < end; i++) {
+            Post post = host.get(i);
+            if (!isPlaceholder(post) || !restoring.add(post.getPostId())) {
+                continue;
+            }
+            Integer batchId = spilled.get(post.getPostId());
+            if (batchId == null) {
+                missing.add(post.getPostId());
+            } else {
+                List<Integer> ids = byBatch.get(batchId);
+                if (ids == null) {
+                    ids = new ArrayList<>();
+                    byBatch.put(batchId, ids);
+                }
+                ids.add(post.getPostId());
+            }
+        }
+        for (Map.Entry<Integer, List<Integer>> entry : byBatch.entrySet()) {
+            List<Post> pending = pendingWrites.get(entry.getKey());
+            if (pending != null) {
+                fill(entry.getKey(), pending, entry.getValue());
+            } else {
+                load(entry.getKey(), entry.getValue());
+            }
+        }
+        fetch(missing);
+    }
+
+    private void load(int batchId, List<Integer> wanted) {
+        long expected = generation;
+        DecodePipeline.submit(() -> store.load(batchId), new DecodePipeline.Delivery<List<Post>>() {
+            @Override
+            public void onReady(List<Post> posts) {
+                if (expected != generation) return;
+                fill(batchId, posts, wanted);
+            }
+
+            @Override
+            public void onFailed(Exception e) {
+                if (expected != generation) return;
+                Log.w(TAG, "读取暂存失败: " + e.getMessage());
+                fill(batchId, null, wanted);
+            }
+        });
+    }
+
+    /**
+     * 把读回的一批帖子放回当前窗口内的占位处；读回期间已滑出窗口的留在暂存里，
+     * 整批都恢复后删除暂存文件。wanted 中文件里没有的帖子再按ID请求
+     */
+    private void fill(int batchId, List<Post> posts, Collection<Integer> wanted) {
+        Map<Integer, Post> byId = new HashMap<>();
+        if (posts != null) {
+            for (Post post : posts) {
+                if (post != null && post.getPostId() != null) {
+                    byId.put(post.getPostId(), post);
+                }
+            }
+        }
+        for (Integer id : wanted) {
+            restoring.remove(id);
+        }
+        boolean changed = false;
+        int remaining = batchRemaining.containsKey(batchId) ? batchRemaining.get(batchId) : 0;
+        int end = Math.min(keepEnd, host.size());
+        for (int i = keepStart; i < end && !byId.isEmpty(); i++) {
+            Post current = host.get(i);
+            if (!isPlaceholder(current) || !spilled.remove(current.getPostId(), batchId)) {
+                continue;
+            }
+            Post restored = byId.remove(current.getPostId());
+            if (restored != null) {
+                host.set(i, restored);
+                remaining--;
+                changed = true;
+            } else {
+                spilled.put(current.getPostId(), batchId);
+            }
+        }
+
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : wanted) {
+            if (spilled.containsKey(id) && !byId.containsKey(id) && spilled.get(id) == batchId) {
+                // 文件里没有这条帖子（读取失败或内容不全）
+                spilled.remove(id);
+                remaining--;
+                restoring.add(id);
+                missing.add(id);
+            }
+        }
+        if (remaining <= 0) {
+            // 还在写入的批次由写入完成时删除
+            batchRemaining.remove(batchId);
+            if (!pendingWrites.containsKey(batchId)) {
+                DecodePipeline.backgroundExecutor().execute(() -> store.delete(batchId));
+            }
+        } else {
+            batchRemaining.put(batchId, remaining);
+        }
+        fetch(missing);
+        if (changed) {
+            listener.onWindowChanged();
+        }
+    }
+
+    /**
+     * 暂存里没有的帖子逐个按ID请求，失败的留在占位状态，下次跨页时重试
+     */
+    private void fetch(List<Integer> ids) {
+        long expected = generation;
+        for (Integer id : ids) {
+            ApiService.getInstance().getPostDetail(id, RequestScheduler.Priority.VISIBLE, new ApiCallback<Post>() {
+                @Override
+                public void onSuccess(Post post) {
+                    mainHandler.post(() -> {
+                        if (expected != generation) return;
+                        restoring.remove(id);
+                        post.setPostId(id);
+                        if (replacePlaceholder(post)) {
+                            listener.onWindowChanged();
+                        }
+                    });
+                }
+
+                @Override
+                public void onError(String error) {
+                    mainHandler.post(() -> {
+                        if (expected == generation) {
+                            restoring.remove(id);
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    private boolean replacePlaceholder(Post post) {
+        for (int i = 0, size = host.size(); i < size; i++) {
+            Post current = host.get(i);
+            if (isPlaceholder(current) && post.getPostId().equals(current.getPostId())) {
+                host.set(i, post);
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,227 @@
+package com.app.gameform.utils;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.NetworkCapabilities;
+
+import com.app.gameform.network.NetworkMetrics;
+
+/**
+ * 自适应预取策略
+ * 提前量 ≈ 实测滚动速度（条/秒）× 加载一页的耗时 × 余量：快速滑动时提前几页发起加载，
+ * 慢慢阅读时只在快到底时加载；停下后在空闲帧补足提前量（至少一页，刚快速滑过则按那次滑动的速度算），
+ * 下次滑动开始时不用等速度重新估计出来。
+ * 加载耗时优先用最近几页的实测值，没有时用 NetworkMetrics 中该接口的 P90，再没有按网络类型估计。
+ * 只在主线程使用，时间参数统一为 SystemClock.uptimeMillis()
+ */
+public class PrefetchPolicy {
+
+    /**
+     * 网络类型，附带没有实测数据时估计的单页耗时
+     */
+    public enum ConnectionType {
+        WIFI(300),
+        CELLULAR(700),
+        SLOW(1500),
+        UNKNOWN(800);
+
+        final long defaultLatencyMs;
+
+        ConnectionType(long defaultLatencyMs) {
+            this.defaultLatencyMs = defaultLatencyMs;
+        }
+    }
+
+    // 速度采样间隔：onScrolled 每帧回调一次，位置按整条跳变，攒够这段时间再算一次速度
+    private static final long SAMPLE_MS = 100;
+    // 两次回调间隔超过这个值视为重新开始滑动
+    private static final long GAP_MS = 300;
+    // 速度和耗时的指数平滑系数
+    private static final double VELOCITY_ALPHA = 0.5;
+    private static final double LATENCY_ALPHA = 0.4;
+    // 估计值之外多留的余量
+    private static final double SAFETY = 1.5;
+    // 最多提前的页数
+    private static final int MAX_PAGES_AHEAD = 4;
+    // 停下阅读时，空闲帧至少预取到剩余这么多页
+    private static final int IDLE_PREFETCH_PAGES = 1;
+
+    private final int pageSize;
+    private final int minThreshold;
+    private ConnectionType connectionType = ConnectionType.UNKNOWN;
+
+    // 向下滚动速度（条/秒），向上滚动和停止时为 0
+    private double velocity;
+    // 本次滑动的最高速度；停止后保留为上次滑动的速度，用于空闲预取
+    private double gesturePeak;
+    private double lastGestureVelocity;
+    private int samplePosition = -1;
+    private long sampleTime;
+    private long lastScrollTime;
+
+    // 实测单页耗时（毫秒），-1 表示还没有
+    private double latencyMs = -1;
+    // NetworkMetrics 中接口的 P90（毫秒），-1 表示没有
+    private long metricsLatencyMs = -1;
+    private long loadStartTime = -1;
+
+    /**
+     * @param pageSize 每页条数
+     * @param minThreshold 最小提前量：速度为 0 时剩余多少条开始加载
+     */
+    public PrefetchPolicy(int pageSize, int minThreshold) {
+        this.pageSize = Math.max(1, pageSize);
+        this.minThreshold = Math.max(1, minThreshold);
+    }
+
+    // ==================== 输入 ====================
+
+    public void setConnectionType(ConnectionType connectionType) {
+        this.connectionType = connectionType != null ? connectionType : ConnectionType.UNKNOWN;
+    }
+
+    public ConnectionType getConnectionType() {
+        return connectionType;
+    }
+
+    /**
+     * 用 NetworkMetrics 中已有的接口耗时作为初始估计，按顺序取第一个有数据的接口
+     * @param endpoints ApiConstants 中的常量名，如 "GET_HOT_POSTS"
+     */
+    public void seedFromMetrics(String... endpoints) {
+        for (String endpoint : endpoints) {
+            NetworkMetrics.EndpointMetrics metrics = NetworkMetrics.getInstance().getEndpoint(endpoint);
+            if (metrics != null && metrics.getTotal().getCount() > 0) {
+                metricsLatencyMs = metrics.getTotal().getPercentile(90) / 1000;
+                return;
+            }
+        }
+    }
+
+    /**
+     * 每次 onScrolled 时调用
+     */
+    public void onScrolled(int lastVisiblePosition, long now) {
+        if (samplePosition < 0 || now - lastScrollTime > GAP_MS) {
+            samplePosition = lastVisiblePosition;
+            sampleTime = now;
+        } else if (now - sampleTime >= SAMPLE_MS) {
+            double sample = Math.max(0, lastVisiblePosition - samplePosition) * 1000.0 / (now - sampleTime);
+            velocity = velocity == 0 ? sample : velocity + VELOCITY_ALPHA * (sample - velocity);
+            gesturePeak = Math.max(gesturePeak, velocity);
+            samplePosition = lastVisiblePosition;
+            sampleTime = now;
+        }
+        lastScrollTime = now;
+    }
+
+    /**
+     * 列表停止滚动
+     */
+    public void onScrollIdle() {
+        lastGestureVelocity = gesturePeak;
+        gesturePeak = 0;
+        velocity = 0;
+        samplePosition = -1;
+    }
+
+    public void onLoadStarted(long now) {
+        loadStartTime = now;
+    }
+
+    /**
+     * 一页加载完成（成功才计入耗时）
+     */
+    public void onLoadFinished(long now, boolean success) {
+        if (loadStartTime >= 0 && success) {
+            long sample = now - loadStartTime;
+            latencyMs = latencyMs < 0 ? sample : latencyMs + LATENCY_ALPHA * (sample - latencyMs);
+        }
+        loadStartTime = -1;
+    }
+
+    // ==================== 决策 ====================
+
+    /**
+     * 当前估计的单页耗时（毫秒）
+     */
+    public long getLatencyMs() {
+        if (latencyMs >= 0) {
+            return Math.round(latencyMs);
+        }
+        return metricsLatencyMs >= 0 ? metricsLatencyMs : connectionType.defaultLatencyMs;
+    }
+
+    public double getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * 剩余多少条时开始加载下一页
+     */
+    public int getThreshold() {
+        return clamp(minThreshold + leadFor(velocity));
+    }
+
+    /**
+     * 停止滚动后空闲预取到剩余多少条
+     */
+    public int getIdleThreshold() {
+        return clamp(minThreshold + Math.max(pageSize * IDLE_PREFETCH_PAGES, leadFor(lastGestureVelocity)));
+    }
+
+    private int leadFor(double itemsPerSecond) {
+        return (int) Math.ceil(itemsPerSecond * getLatencyMs() / 1000.0 * SAFETY);
+    }
+
+    private int clamp(int threshold) {
+        return Math.min(threshold, Math.max(minThreshold, pageSize * MAX_PAGES_AHEAD));
+    }
+
+    /**
+     * 滚动中是否该加载下一页
+     */
+    public boolean shouldLoadMore(int lastVisiblePosition, int totalItemCount) {
+        return totalItemCount > 0 && totalItemCount - 1 - lastVisiblePosition <= getThreshold();
+    }
+
+    /**
+     * 停止滚动后是否在空闲帧预取下一页：慢速网络上不预取，避免给只看几条的用户多拉数据
+     */
+    public boolean shouldPrefetchWhenIdle(int lastVisiblePosition, int totalItemCount) {
+        return connectionType != ConnectionType.SLOW && totalItemCount > 0
+                && totalItemCount - 1 - lastVisiblePosition <= getIdleThreshold();
+    }
+
+    // ==================== 网络类型 ====================
+
+    /**
+     * 当前网络类型；下行带宽低于 1Mbps 视为慢速网络
+     */
+    public static ConnectionType detect(Context context) {
+        try {
+            ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+            if (cm == null) {
+                return ConnectionType.UNKNOWN;
+            }
+            NetworkCapabilities capabilities = cm.getNetworkCapabilities(cm.getActiveNetwork());
+            if (capabilities == null) {
+                return ConnectionType.UNKNOWN;
+            }
+            int downKbps = capabilities.getLinkDownstreamBandwidthKbps();
+            if (downKbps > 0 && downKbps < 1000) {
+                return ConnectionType.SLOW;
+            }
+            if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)
+                    || capabilities.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET)) {
+                return ConnectionType.WIFI;
+            }
+            if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)) {
+                return ConnectionType.CELLULAR;
+            }
+            return ConnectionType.UNKNOWN;
+        } catch (Exception e) {
+            return ConnectionType.UNKNOWN;
+        }
+    }
+}
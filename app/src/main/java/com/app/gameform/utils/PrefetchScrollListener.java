@@ -0,0 +1,111 @@
+package com.app.gameform.utils;
+
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.StaggeredGridLayoutManager;
+
+/**
+ * 按 PrefetchPolicy 触发加载更多的滚动监听
+ * 滚动中按自适应提前量加载；停止滚动后在主线程空闲（没有待处理的帧和消息）时补足提前量，
+ * 每页加载完成后主线程再次空闲时继续检查，直到提前量补足、没有更多数据或重新开始滚动。
+ * 空闲检查停止后，布局变化（一页数据到达、下拉刷新完成）时重新登记
+ */
+public abstract class PrefetchScrollListener extends RecyclerView.OnScrollListener {
+
+    private boolean idleCheckPending;
+
+    protected abstract PrefetchPolicy getPolicy();
+
+    /**
+     * 当前是否可以加载：没有正在进行的加载且还有更多数据
+     */
+    protected abstract boolean canLoadMore(int totalItemCount);
+
+    /**
+     * 是否有正在进行的加载
+     */
+    protected abstract boolean isLoading();
+
+    protected abstract void loadMore(RecyclerView view, int totalItemCount);
+
+    @Override
+    public void onScrolled(RecyclerView view, int dx, int dy) {
+        super.onScrolled(view, dx, dy);
+        RecyclerView.LayoutManager layoutManager = view.getLayoutManager();
+        if (layoutManager == null) return;
+
+        int lastVisible = lastVisiblePosition(layoutManager);
+        int totalItemCount = layoutManager.getItemCount();
+        PrefetchPolicy policy = getPolicy();
+        policy.onScrolled(lastVisible, SystemClock.uptimeMillis());
+
+        // (0, 0) 是布局变化后的回调：数据到达后在空闲时重新检查提前量
+        if (dx == 0 && dy == 0 && view.getScrollState() == RecyclerView.SCROLL_STATE_IDLE) {
+            scheduleIdlePrefetch(view);
+            return;
+        }
+
+        // 只在向下滚动时处理
+        if (dy > 0 && canLoadMore(totalItemCount) && policy.shouldLoadMore(lastVisible, totalItemCount)) {
+            loadMore(view, totalItemCount);
+        }
+    }
+
+    @Override
+    public void onScrollStateChanged(RecyclerView view, int newState) {
+        super.onScrollStateChanged(view, newState);
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            getPolicy().onScrollIdle();
+            scheduleIdlePrefetch(view);
+        }
+    }
+
+    private void scheduleIdlePrefetch(RecyclerView view) {
+        if (idleCheckPending) return;
+        idleCheckPending = true;
+        Looper.myQueue().addIdleHandler(() -> {
+            RecyclerView.LayoutManager layoutManager = view.getLayoutManager();
+            if (layoutManager == null || !view.isAttachedToWindow()
+                    || view.getScrollState() != RecyclerView.SCROLL_STATE_IDLE) {
+                idleCheckPending = false;
+                return false;
+            }
+            int totalItemCount = layoutManager.getItemCount();
+            if (!getPolicy().shouldPrefetchWhenIdle(lastVisiblePosition(layoutManager), totalItemCount)) {
+                idleCheckPending = false;
+                return false;
+            }
+            if (canLoadMore(totalItemCount)) {
+                loadMore(view, totalItemCount);
+                // 保留到下次空闲：等这一页回来后再看是否还要继续
+                return true;
+            }
+            if (isLoading()) {
+                return true;
+            }
+            // 没有更多数据：不再每次空闲都检查，刷新后由布局变化重新登记
+            idleCheckPending = false;
+            return false;
+        });
+    }
+
+    /**
+     * 最后一个可见项的位置（GridLayoutManager 是 LinearLayoutManager 的子类）
+     */
+    static int lastVisiblePosition(RecyclerView.LayoutManager layoutManager) {
+        if (layoutManager instanceof StaggeredGridLayoutManager) {
+            int[] positions = ((StaggeredGridLayoutManager) layoutManager).findLastVisibleItemPositions(null);
+            int max = RecyclerView.NO_POSITION;
+            for (int position : positions) {
+                max = Math.max(max, position);
+            }
+            return max;
+        } else if (layoutManager instanceof LinearLayoutManager) {
+            return ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+        }
+        return RecyclerView.NO_POSITION;
+    }
+}
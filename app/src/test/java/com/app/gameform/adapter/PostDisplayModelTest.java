@@ -0,0 +1,117 @@
+package com.app.gameform.adapter;
+
+import com.app.gameform.domain.Post;
+import com.app.gameform.utils.HtmlPreviewScanner;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * 预先构建的 PostDisplayModel 与原来每次 onBind 现算的文本一致，计数变化能被发现
+ */
+public class PostDisplayModelTest {
+
+    private final long now = System.currentTimeMillis();
+
+    @Test
+    public void labelsMatchLegacyBindFormatting() {
+        SimpleDateFormat legacyFormat = new SimpleDateFormat("MM-dd HH:mm", Locale.getDefault());
+        for (Post post : buildPosts(200)) {
+            PostDisplayModel model = PostDisplayModel.from(post, now);
+            assertEquals(String.format("%d", post.getCommentCount()), model.getCommentCountLabel());
+            assertEquals(String.format("%d", post.getLikeCount()), model.getLikeCountLabel());
+            assertEquals(legacyViewCount(post.getViewCount()), model.getViewCountLabel());
+            assertEquals(legacyTime(post.getCreateTime(), legacyFormat), model.getTimeLabel());
+            assertEquals("1".equals(post.getTopFlag()), model.isPinned());
+        }
+    }
+
+    @Test
+    public void countsChangeIsDetected() {
+        Post post = buildPosts(1).get(0);
+        PostDisplayModel model = PostDisplayModel.from(post, now);
+        assertFalse(model.countsChanged());
+
+        post.setLikeCount(post.getLikeCount() + 1);
+        assertTrue(model.countsChanged());
+
+        PostDisplayModel updated = model.withCounts();
+        assertFalse(updated.countsChanged());
+        assertEquals(String.valueOf(post.getLikeCount()), updated.getLikeCountLabel());
+        assertSame(model.getPreviewText(), updated.getPreviewText());
+    }
+
+    @Test
+    public void truncatedPreviewEndsWithEllipsis() {
+        Post longPost = buildPosts(1).get(0);
+        longPost.setPostContent("<p>" + "长".repeat(HtmlPreviewScanner.DEFAULT_PREVIEW_CHARS + 1) + "</p>");
+        String preview = PostDisplayModel.from(longPost, now).getPreviewText();
+        assertEquals(HtmlPreviewScanner.DEFAULT_PREVIEW_CHARS + 1, preview.length());
+        assertTrue(preview.endsWith("…"));
+
+        Post shortPost = buildPosts(1).get(0);
+        shortPost.setPostContent("<p>短帖&hellip;</p>");
+        assertEquals("短帖…", PostDisplayModel.from(shortPost, now).getPreviewText());
+    }
+
+    // ==================== 旧的 onBind 计算 ====================
+
+    private static String legacyViewCount(int viewCount) {
+        if (viewCount < 1000) {
+            return String.valueOf(viewCount);
+        } else if (viewCount < 10000) {
+            return String.format("%.1fk", viewCount / 1000.0);
+        } else if (viewCount < 100000) {
+            return String.format("%.1fw", viewCount / 10000.0);
+        } else {
+            return String.format("%.0fw", viewCount / 10000.0);
+        }
+    }
+
+    private String legacyTime(Date createTime, SimpleDateFormat format) {
+        if (createTime == null) {
+            return "未知时间";
+        }
+        long diff = now - createTime.getTime();
+        if (diff < 60 * 1000) {
+            return "刚刚";
+        } else if (diff < 60 * 60 * 1000) {
+            return (int) (diff / (60 * 1000)) + "分钟前";
+        } else if (diff < 24 * 60 * 60 * 1000) {
+            return (int) (diff / (60 * 60 * 1000)) + "小时前";
+        } else if (diff < 7 * 24 * 60 * 60 * 1000) {
+            return (int) (diff / (24 * 60 * 60 * 1000)) + "天前";
+        } else {
+            return format.format(createTime);
+        }
+    }
+
+    // ==================== 测试数据 ====================
+
+    private List<Post> buildPosts(int count) {
+        List<Post> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Post post = new Post();
+            post.setPostId(i + 1);
+            post.setNickName("玩家" + i);
+            post.setPostContent("<p>第 " + i + " 条帖子，<b>攻略</b>分享&nbsp;&amp;心得</p>"
+                    + "<p><img src=\"/upload/post/" + i + ".jpg\"/></p>"
+                    + "<p>" + "这是一段比较长的正文内容，用来模拟真实的帖子长度。".repeat(i % 8 + 1) + "</p>");
+            post.setCommentCount(i % 50);
+            post.setLikeCount(i * 7 % 3000);
+            post.setViewCount(i * 137 % 250000);
+            post.setCreateTime(new Date(now - i * 37L * 60 * 1000));
+            post.setTopFlag(i % 25 == 0 ? "1" : "0");
+            post.setHotFlag(i % 10 == 0 ? "1" : "0");
+            posts.add(post);
+        }
+        return posts;
+    }
+}
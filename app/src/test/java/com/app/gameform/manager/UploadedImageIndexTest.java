@@ -0,0 +1,109 @@
+package com.app.gameform.manager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 已上传图片索引：命中、按最久未使用淘汰、重新读取后恢复内容和使用顺序
+ * 用内存中的存储代替 SharedPreferences，并记录写入次数
+ */
+public class UploadedImageIndexTest {
+
+    private static final int MAX_ENTRIES = 3;
+
+    private MemoryStorage storage;
+    private UploadedImageIndex index;
+
+    @Before
+    public void setUp() {
+        storage = new MemoryStorage();
+        index = new UploadedImageIndex(storage, MAX_ENTRIES);
+    }
+
+    @Test
+    public void hitReturnsUrlWithoutWriting() {
+        index.put("a", "/img/a.webp");
+        int writes = storage.writes;
+
+        assertEquals("/img/a.webp", index.get("a"));
+        assertEquals("/img/a.webp", index.get("a"));
+        assertNull(index.get("missing"));
+        assertEquals(writes, storage.writes);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        index.put("a", "/img/a.webp");
+        index.put("b", "/img/b.webp");
+        index.put("c", "/img/c.webp");
+        // 命中 a 后最久未使用的是 b
+        index.get("a");
+        index.put("d", "/img/d.webp");
+
+        assertNull(index.get("b"));
+        assertEquals("/img/a.webp", index.get("a"));
+        assertEquals("/img/c.webp", index.get("c"));
+        assertEquals("/img/d.webp", index.get("d"));
+    }
+
+    @Test
+    public void reloadKeepsEntriesAndOrder() {
+        index.put("a", "/img/a.webp");
+        index.put("b", "/img/b.webp");
+        index.put("c", "/img/c.webp");
+        // 命中不写入，使用顺序随下一次写入保存
+        index.get("a");
+        index.remove("c");
+
+        // 保存的顺序是 b、a：再放入两条时淘汰 b 而不是 a
+        UploadedImageIndex reloaded = new UploadedImageIndex(storage, MAX_ENTRIES);
+        reloaded.put("d", "/img/d.webp");
+        reloaded.put("e", "/img/e.webp");
+        assertNull(reloaded.get("b"));
+        assertNull(reloaded.get("c"));
+        assertEquals("/img/a.webp", reloaded.get("a"));
+        assertEquals("/img/d.webp", reloaded.get("d"));
+        assertEquals("/img/e.webp", reloaded.get("e"));
+    }
+
+    @Test
+    public void removeMissingDoesNotWrite() {
+        index.put("a", "/img/a.webp");
+        int writes = storage.writes;
+        index.remove("missing");
+        assertEquals(writes, storage.writes);
+    }
+
+    @Test
+    public void corruptDataStartsEmpty() {
+        storage.json = "{not json";
+        UploadedImageIndex reloaded = new UploadedImageIndex(storage, MAX_ENTRIES);
+        assertNull(reloaded.get("a"));
+        assertNull(storage.json);
+    }
+
+    // ==================== 辅助 ====================
+
+    private static final class MemoryStorage implements UploadedImageIndex.Storage {
+        String json;
+        int writes;
+
+        @Override
+        public String read() {
+            return json;
+        }
+
+        @Override
+        public void write(String json) {
+            this.json = json;
+            writes++;
+        }
+
+        @Override
+        public void clear() {
+            json = null;
+        }
+    }
+}
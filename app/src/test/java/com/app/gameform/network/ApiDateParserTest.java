@@ -0,0 +1,82 @@
+package com.app.gameform.network;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * ApiDateParser 对各种服务器时间格式的解析
+ * 以严格的 SimpleDateFormat 结果为对照
+ */
+public class ApiDateParserTest {
+
+    private static final int TIMESTAMP_COUNT = 5000;
+
+    @Test
+    public void parsesServerFormats() throws ParseException {
+        SimpleDateFormat plain = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
+        SimpleDateFormat dateOnly = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
+        SimpleDateFormat utc = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US);
+        utc.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        assertEquals(plain.parse("2025-05-24 10:15:30"), ApiDateParser.parse("2025-05-24 10:15:30"));
+        assertEquals(plain.parse("2025-05-24 10:15:30"), ApiDateParser.parse("2025-05-24T10:15:30"));
+        assertEquals(dateOnly.parse("2024-02-29"), ApiDateParser.parse("2024-02-29"));
+        assertEquals(utc.parse("2025-05-25 00:30:00.123"), ApiDateParser.parse("2025-05-25T08:30:00.123+08:00"));
+        assertEquals(utc.parse("2025-05-25 00:30:00.123"), ApiDateParser.parse("2025-05-25T08:30:00.123+0800"));
+        assertEquals(utc.parse("2025-05-25 08:30:00.000"), ApiDateParser.parse("2025-05-25T08:30:00Z"));
+        assertEquals(utc.parse("1969-12-31 23:59:59.500"), ApiDateParser.parse("1969-12-31T23:59:59.5Z"));
+        assertEquals(utc.parse("2025-01-01 05:00:00.000"), ApiDateParser.parse(" 2025-01-01T00:00:00-05:00 "));
+    }
+
+    @Test
+    public void rejectsMalformedInput() {
+        assertNull(ApiDateParser.parse(null));
+        assertNull(ApiDateParser.parse(""));
+        assertNull(ApiDateParser.parse("2025-13-01"));
+        assertNull(ApiDateParser.parse("2025-02-30 10:00:00"));
+        assertNull(ApiDateParser.parse("2025-05-24 25:00:00"));
+        assertNull(ApiDateParser.parse("2025-05-24T10:15:30."));
+        assertNull(ApiDateParser.parse("2025-05-24T10:15:30+8"));
+        assertNull(ApiDateParser.parse("Sat May 24 10:15:30 CST 2025"));
+    }
+
+    @Test
+    public void matchesStrictFormatsOnFeedTimestamps() throws ParseException {
+        // 原方案里 yyyy-MM-dd'T'HH:mm:ss 会先匹配 ISO 串的前缀，毫秒和时区被丢掉，
+        // 所以这里用严格的格式作为对照，而不是原方案本身
+        SimpleDateFormat plain = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
+        SimpleDateFormat iso = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX", Locale.US);
+        for (String timestamp : buildFeedTimestamps(TIMESTAMP_COUNT)) {
+            Date expected = timestamp.indexOf('T') > 0 ? iso.parse(timestamp) : plain.parse(timestamp);
+            assertEquals(timestamp, expected, ApiDateParser.parse(timestamp));
+        }
+    }
+
+    /**
+     * 信息流里常见的时间戳：createTime 为 yyyy-MM-dd HH:mm:ss，updateTime 为带毫秒和时区的 ISO
+     */
+    private static List<String> buildFeedTimestamps(int count) {
+        List<String> timestamps = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int day = i % 28 + 1;
+            int hour = i % 24;
+            int minute = i % 60;
+            if (i % 2 == 0) {
+                timestamps.add(String.format(Locale.US, "2025-05-%02d %02d:%02d:%02d", day, hour, minute, i % 60));
+            } else {
+                timestamps.add(String.format(Locale.US, "2025-05-%02dT%02d:%02d:00.%03d+08:00",
+                        day, hour, minute, i % 1000));
+            }
+        }
+        return timestamps;
+    }
+}
@@ -0,0 +1,390 @@
+package com.app.gameform.network;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.OkHttpClient;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
+
+import static org.junit.Assert.*;
+
+/**
+ * 分块断点续传
+ * 替身服务器实现会话接口，并在传输中途断开连接（已收到的部分照常保存），
+ * 检查续传后的内容完整、重启后从服务器确认的偏移量继续，并与整体重传比较实际发送的字节数。
+ * 替身服务器的随机断开使用固定种子，每次运行结果相同
+ */
+public class ChunkedUploaderTest {
+
+    private static final int SIZE = 3 * 1024 * 1024 + 12345;
+
+    private OkHttpClient client;
+    private StandInServer server;
+    private MemoryStore store;
+    private byte[] content;
+
+    @Before
+    public void setUp() throws IOException {
+        client = new OkHttpClient.Builder()
+                .readTimeout(10, TimeUnit.SECONDS)
+                .writeTimeout(10, TimeUnit.SECONDS)
+                .build();
+        server = new StandInServer();
+        store = new MemoryStore();
+        content = new byte[SIZE];
+        new Random(3).nextBytes(content);
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    @Test
+    public void uploadSurvivesMidTransferDisconnects() throws IOException {
+        // 每三个块断开一次，断开前只收到一半
+        server.dropEvery = 3;
+        ChunkedUploader uploader = newUploader();
+        long[] lastProgress = {-1};
+        String fileName = uploader.upload("k1", "post_1_a.jpg", "image/jpeg", SIZE, this::open,
+                (written, total) -> {
+                    assertEquals(SIZE, total);
+                    lastProgress[0] = written;
+                });
+
+        assertEquals("post_1_a.jpg", fileName);
+        assertArrayEquals(content, server.completedContent("post_1_a.jpg"));
+        assertEquals(SIZE, lastProgress[0]);
+        assertTrue("应发生过断开", server.drops.get() > 0);
+        // 完成后会话删除
+        assertNull(store.load("k1"));
+        // 每次断开最多损失一块，实际发送量不应超过文件大小的 1.5 倍
+        assertTrue("发送字节: " + uploader.getBytesSent(), uploader.getBytesSent() < SIZE * 3L / 2);
+    }
+
+    @Test
+    public void resumesPersistedSessionAfterRestart() throws IOException {
+        // 第一次：收到约 1MB 后服务器不可达
+        server.failAfterBytes = 1024 * 1024;
+        ChunkedUploader first = newUploader();
+        try {
+            first.upload("k2", "post_2_b.jpg", "image/jpeg", SIZE, this::open, null);
+            fail("服务器不可达时应失败");
+        } catch (IOException expected) {
+            // 期望的结果
+        }
+        ChunkedUploader.Session saved = store.load("k2");
+        assertNotNull("失败后会话应保留", saved);
+        long received = server.receivedBytes();
+        assertTrue(received > 0 && received < SIZE);
+
+        // 重启：新的实例用同一个持久化的会话继续，文件名保持原会话的
+        server.failAfterBytes = -1;
+        ChunkedUploader second = newUploader();
+        String fileName = second.upload("k2", "post_3_c.jpg", "image/jpeg", SIZE, this::open, null);
+
+        assertEquals("post_2_b.jpg", fileName);
+        assertArrayEquals(content, server.completedContent("post_2_b.jpg"));
+        assertEquals("第二次只发送剩余部分", SIZE - received, second.getBytesSent());
+        assertEquals(1, server.sessionsCreated.get());
+    }
+
+    @Test
+    public void unknownServerSessionStartsOver() throws IOException {
+        assertStaleSessionStartsOver(404);
+    }
+
+    @Test
+    public void forbiddenServerSessionStartsOver() throws IOException {
+        assertStaleSessionStartsOver(403);
+    }
+
+    private void assertStaleSessionStartsOver(int code) throws IOException {
+        server.unknownSessionCode = code;
+        ChunkedUploader.Session stale = new ChunkedUploader.Session();
+        stale.uploadId = "gone";
+        stale.fileName = "post_old.jpg";
+        stale.size = SIZE;
+        stale.offset = 1000;
+        store.save("k3", stale);
+
+        String fileName = newUploader().upload("k3", "post_4_d.jpg", "image/jpeg", SIZE, this::open, null);
+        assertEquals("post_4_d.jpg", fileName);
+        assertArrayEquals(content, server.completedContent("post_4_d.jpg"));
+        assertEquals(1, server.sessionsCreated.get());
+    }
+
+    @Test(expected = ChunkedUploader.UnsupportedException.class)
+    public void serverWithoutSessionEndpointIsReported() throws IOException {
+        server.sessionsSupported = false;
+        newUploader().upload("k4", "post_5_e.jpg", "image/jpeg", SIZE, this::open, null);
+    }
+
+    @Test
+    public void chunkSizeFollowsThroughput() {
+        int min = ChunkedUploader.MIN_CHUNK;
+        int max = ChunkedUploader.MAX_CHUNK;
+        // 快网：每次最多翻倍，直到上限
+        int size = ChunkedUploader.INITIAL_CHUNK;
+        for (int i = 0; i < 10; i++) {
+            size = ChunkedUploader.nextChunkSize(size, size, 50);
+        }
+        assertEquals(max, size);
+        // 慢网（约 20KB/s）：缩到下限
+        assertEquals(min, ChunkedUploader.nextChunkSize(ChunkedUploader.INITIAL_CHUNK, 256 * 1024, 12_000));
+        // 约 200KB/s：每块约 2 秒，按 64KB 对齐
+        int medium = ChunkedUploader.nextChunkSize(max, 400 * 1024, 2000);
+        assertEquals(0, medium % min);
+        assertTrue(medium >= 320 * 1024 && medium <= 448 * 1024);
+        // 没有进展：减半
+        assertEquals(128 * 1024, ChunkedUploader.nextChunkSize(256 * 1024, 0, 1000));
+    }
+
+    @Test
+    public void sendsLessThanWholeRetryOnFlakyLink() throws IOException {
+        // 同样的链路：每个请求传到 70% 左右时有 1/3 的概率断开
+        server.dropProbability = 1.0 / 3;
+        ChunkedUploader uploader = newUploader();
+        uploader.upload("k5", "post_6_f.jpg", "image/jpeg", SIZE, this::open, null);
+        assertArrayEquals(content, server.completedContent("post_6_f.jpg"));
+        long chunked = uploader.getBytesSent();
+
+        // 整体上传：每次失败都从 0 开始，每次尝试以概率 p 在 70% 处断开，
+        // 期望发送量 = SIZE × (1 + p / (1 - p) × 0.7)
+        double p = 1.0 / 3;
+        double wholeRatio = 1 + p / (1 - p) * 0.7;
+
+        assertTrue(server.drops.get() > 0);
+        assertTrue(chunked < SIZE * wholeRatio);
+    }
+
+    // ==================== 辅助 ====================
+
+    private ChunkedUploader newUploader() {
+        return new ChunkedUploader(client, server.url() + "/user/upload/session", store, new Object(), "token", 10);
+    }
+
+    private InputStream open() {
+        return new java.io.ByteArrayInputStream(content);
+    }
+
+    private static final class MemoryStore implements ChunkedUploader.SessionStore {
+        private final Map<String, ChunkedUploader.Session> sessions = new HashMap<>();
+
+        @Override
+        public synchronized ChunkedUploader.Session load(String key) {
+            ChunkedUploader.Session session = sessions.get(key);
+            if (session == null) return null;
+            // 模拟持久化：返回副本
+            ChunkedUploader.Session copy = new ChunkedUploader.Session();
+            copy.uploadId = session.uploadId;
+            copy.fileName = session.fileName;
+            copy.size = session.size;
+            copy.offset = session.offset;
+            copy.createdAt = session.createdAt;
+            return copy;
+        }
+
+        @Override
+        public synchronized void save(String key, ChunkedUploader.Session session) {
+            ChunkedUploader.Session copy = new ChunkedUploader.Session();
+            copy.uploadId = session.uploadId;
+            copy.fileName = session.fileName;
+            copy.size = session.size;
+            copy.offset = session.offset;
+            copy.createdAt = session.createdAt;
+            sessions.put(key, copy);
+        }
+
+        @Override
+        public synchronized void remove(String key) {
+            sessions.remove(key);
+        }
+    }
+
+    /**
+     * 替身服务器：内存中的上传会话，可以在块传输中途断开
+     */
+    private static final class StandInServer implements Runnable {
+        private final ServerSocket socket;
+        private final Map<String, ByteArrayOutputStream> sessions = new ConcurrentHashMap<>();
+        private final Map<String, String> names = new ConcurrentHashMap<>();
+        private final Map<String, Long> sizes = new ConcurrentHashMap<>();
+        private final Map<String, byte[]> completed = new ConcurrentHashMap<>();
+        final AtomicInteger drops = new AtomicInteger();
+        final AtomicInteger sessionsCreated = new AtomicInteger();
+        private final AtomicInteger puts = new AtomicInteger();
+
+        volatile boolean sessionsSupported = true;
+        // 每 N 个块断开一次，0 表示不断开
+        volatile int dropEvery;
+        volatile double dropProbability;
+        private final Random random = new Random(11);
+        // 会话不存在时返回的状态码
+        volatile int unknownSessionCode = 404;
+        // 累计收到这么多字节后断开所有块请求，-1 表示不限制
+        volatile long failAfterBytes = -1;
+
+        StandInServer() throws IOException {
+            socket = new ServerSocket(0, 16, InetAddress.getByName("127.0.0.1"));
+            Thread thread = new Thread(this, "stand-in-server");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + socket.getLocalPort();
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        long receivedBytes() {
+            long total = 0;
+            for (ByteArrayOutputStream data : sessions.values()) {
+                total += data.size();
+            }
+            return total;
+        }
+
+        byte[] completedContent(String fileName) {
+            return completed.get(fileName);
+        }
+
+        @Override
+        public void run() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket client = socket.accept();
+                    Thread worker = new Thread(() -> serve(client), "stand-in-connection");
+                    worker.setDaemon(true);
+                    worker.start();
+                } catch (IOException e) {
+                    // 服务器关闭
+                }
+            }
+        }
+
+        private void serve(Socket client) {
+            try (Socket s = client) {
+                BufferedSource source = Okio.buffer(Okio.source(s.getInputStream()));
+                BufferedSink sink = Okio.buffer(Okio.sink(s.getOutputStream()));
+                String requestLine;
+                while ((requestLine = source.readUtf8Line()) != null) {
+                    long length = 0;
+                    String line;
+                    while ((line = source.readUtf8LineStrict()).length() > 0) {
+                        if (line.toLowerCase(Locale.US).startsWith("content-length:")) {
+                            length = Long.parseLong(line.substring(15).trim());
+                        }
+                    }
+                    String[] parts = requestLine.split(" ");
+                    if (!handle(parts[0], parts[1], source, length, sink)) {
+                        return;
+                    }
+                    sink.flush();
+                }
+            } catch (IOException e) {
+                // 连接断开
+            }
+        }
+
+        /**
+         * @return false 表示断开连接
+         */
+        private boolean handle(String method, String path, BufferedSource source, long length,
+                               BufferedSink sink) throws IOException {
+            if (!sessionsSupported) {
+                source.skip(length);
+                respond(sink, 404, "{\"code\":404,\"msg\":\"not found\"}");
+                return true;
+            }
+            if (method.equals("POST")) {
+                String body = source.readUtf8(length);
+                String id = "s" + sessionsCreated.incrementAndGet();
+                String fileName = body.replaceAll(".*\"fileName\":\"([^\"]+)\".*", "$1");
+                long size = Long.parseLong(body.replaceAll(".*\"size\":(\\d+).*", "$1"));
+                sessions.put(id, new ByteArrayOutputStream());
+                names.put(id, fileName);
+                sizes.put(id, size);
+                respond(sink, 200, "{\"code\":200,\"data\":{\"uploadId\":\"" + id + "\",\"offset\":0}}");
+                return true;
+            }
+
+            String rest = path.substring(path.lastIndexOf('/') + 1);
+            String id = rest.contains("?") ? rest.substring(0, rest.indexOf('?')) : rest;
+            ByteArrayOutputStream data = sessions.get(id);
+            if (data == null) {
+                source.skip(length);
+                respond(sink, unknownSessionCode,
+                        "{\"code\":" + unknownSessionCode + ",\"msg\":\"no session\"}");
+                return true;
+            }
+            if (method.equals("GET")) {
+                respond(sink, 200, "{\"code\":200,\"data\":{\"offset\":" + data.size() + "}}");
+                return true;
+            }
+
+            long offset = Long.parseLong(rest.substring(rest.indexOf("offset=") + 7));
+            if (offset != data.size()) {
+                source.skip(length);
+                respond(sink, 409, "{\"code\":409,\"data\":{\"offset\":" + data.size() + "}}");
+                return true;
+            }
+
+            // 决定是否在这个块中途断开
+            long keep = length;
+            if (failAfterBytes >= 0) {
+                keep = Math.max(0, Math.min(length, failAfterBytes - receivedBytes()));
+            } else if (dropEvery > 0 && puts.incrementAndGet() % dropEvery == 0) {
+                keep = length / 2;
+            } else if (dropProbability > 0 && random.nextDouble() < dropProbability) {
+                keep = length * 7 / 10;
+            }
+            byte[] chunk = source.readByteArray(keep);
+            synchronized (data) {
+                data.write(chunk, 0, chunk.length);
+            }
+            if (keep < length) {
+                drops.incrementAndGet();
+                return false;
+            }
+            if (data.size() == sizes.get(id)) {
+                completed.put(names.get(id), data.toByteArray());
+            }
+            respond(sink, 200, "{\"code\":200,\"data\":{\"offset\":" + data.size() + "}}");
+            return true;
+        }
+
+        private static void respond(BufferedSink sink, int code, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            sink.writeUtf8("HTTP/1.1 " + code + " X\r\nContent-Type: application/json\r\nContent-Length: "
+                    + bytes.length + "\r\n\r\n");
+            sink.write(bytes);
+        }
+    }
+}
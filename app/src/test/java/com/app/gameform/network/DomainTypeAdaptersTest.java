@@ -0,0 +1,158 @@
+package com.app.gameform.network;
+
+import com.app.gameform.domain.Comment;
+import com.app.gameform.domain.Post;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 手写 TypeAdapter 与反射绑定的对比
+ * 校验信息流和评论树的解析结果、以及序列化输出与反射绑定一致
+ */
+public class DomainTypeAdaptersTest {
+
+    private static final Type POST_PAGE_TYPE = new TypeToken<Page<List<Post>>>(){}.getType();
+    private static final Type COMMENT_TREE_TYPE = new TypeToken<Page<List<Comment>>>(){}.getType();
+
+    private final Gson generated = GsonProvider.getGson();
+    private final Gson reflective = new GsonBuilder()
+            .registerTypeAdapter(Date.class, new GsonProvider.ApiDateAdapter())
+            .create();
+
+    @Test
+    public void generatedAdaptersMatchReflectiveBinding() {
+        String feed = buildFeedPayload(20);
+        Page<List<Post>> expected = reflective.fromJson(feed, POST_PAGE_TYPE);
+        Page<List<Post>> actual = generated.fromJson(feed, POST_PAGE_TYPE);
+
+        assertEquals(expected.getData().size(), actual.getData().size());
+        for (int i = 0; i < expected.getData().size(); i++) {
+            Post e = expected.getData().get(i);
+            Post a = actual.getData().get(i);
+            assertEquals(e.getPostId(), a.getPostId());
+            assertEquals(e.getPostTitle(), a.getPostTitle());
+            assertEquals(e.getPostContent(), a.getPostContent());
+            assertEquals(e.getUserId(), a.getUserId());
+            assertEquals(e.getLikeCount(), a.getLikeCount());
+            assertEquals(e.getCreateTime(), a.getCreateTime());
+            assertEquals(e.getPhoto(), a.getPhoto());
+            assertEquals(e.getNickName(), a.getNickName());
+        }
+
+        String comments = buildCommentPayload(15, 4);
+        Page<List<Comment>> expectedComments = reflective.fromJson(comments, COMMENT_TREE_TYPE);
+        Page<List<Comment>> actualComments = generated.fromJson(comments, COMMENT_TREE_TYPE);
+        assertEquals(expectedComments.getData().size(), actualComments.getData().size());
+        for (int i = 0; i < expectedComments.getData().size(); i++) {
+            Comment e = expectedComments.getData().get(i);
+            Comment a = actualComments.getData().get(i);
+            assertEquals(e.getCommentContent(), a.getCommentContent());
+            assertEquals(e.getHasLiked(), a.getHasLiked());
+            assertEquals(e.getChildren().size(), a.getChildren().size());
+            assertEquals(e.getChildren().get(0).getParentNickName(), a.getChildren().get(0).getParentNickName());
+        }
+    }
+
+    @Test
+    public void writeOmitsNullFieldsLikeReflectiveBinding() {
+        Comment comment = new Comment();
+        comment.setPostId(3);
+        comment.setCommentContent("@张三 说得对");
+        assertEquals(reflective.toJson(comment), generated.toJson(comment));
+    }
+
+    /**
+     * 与服务端统一响应结构一致的包装类
+     */
+    static class Page<T> {
+        int code;
+        String msg;
+        T data;
+
+        T getData() {
+            return data;
+        }
+    }
+
+    // ==================== 测试数据 ====================
+
+    static String buildFeedPayload(int count) {
+        StringBuilder sb = new StringBuilder("{\"code\":200,\"msg\":\"操作成功\",\"data\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"postId\":").append(1000 + i)
+                    .append(",\"postTitle\":\"版本更新后新角色的配队思路 #").append(i).append('"')
+                    .append(",\"postContent\":\"").append(longHtml(i)).append('"')
+                    .append(",\"userId\":").append(200 + i % 7)
+                    .append(",\"sectionId\":").append(i % 5 + 1)
+                    .append(",\"likeCount\":").append(i * 13)
+                    .append(",\"commentCount\":").append(i * 3)
+                    .append(",\"viewCount\":").append(i * 1021)
+                    .append(",\"topFlag\":\"").append(i == 0 ? 1 : 0).append('"')
+                    .append(",\"hotFlag\":\"").append(i % 3 == 0 ? 1 : 0).append('"')
+                    .append(",\"status\":\"0\",\"delFlag\":\"0\",\"createBy\":\"user").append(i).append('"')
+                    .append(",\"createTime\":\"2025-05-24 10:").append(10 + i % 50).append(":00\"")
+                    .append(",\"updateBy\":null,\"updateTime\":\"2025-05-25T08:30:00.000+08:00\"")
+                    .append(",\"remark\":null,\"sectionName\":\"攻略讨论\"")
+                    .append(",\"nickName\":\"玩家").append(i).append('"')
+                    .append(",\"avatar\":\"images/user/avatar/").append(i).append(".png\"")
+                    .append(",\"photo\":\"images/user/post/post_").append(i).append(".jpg\"")
+                    .append(",\"params\":{}}");
+        }
+        return sb.append("]}").toString();
+    }
+
+    static String buildCommentPayload(int roots, int childrenPerRoot) {
+        StringBuilder sb = new StringBuilder("{\"code\":200,\"msg\":\"操作成功\",\"data\":[");
+        for (int i = 0; i < roots; i++) {
+            if (i > 0) sb.append(',');
+            appendComment(sb, i, null);
+            sb.setLength(sb.length() - 1);
+            sb.append(",\"children\":[");
+            for (int j = 0; j < childrenPerRoot; j++) {
+                if (j > 0) sb.append(',');
+                appendComment(sb, i * 100 + j, i);
+            }
+            sb.append("],\"childrenCount\":").append(childrenPerRoot).append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static void appendComment(StringBuilder sb, int id, Integer parentId) {
+        sb.append("{\"commentId\":").append(id)
+                .append(",\"commentContent\":\"").append(parentId != null ? "@玩家" + parentId + " " : "")
+                .append("这套阵容在深渊里也很稳，第二间需要注意元素反应的顺序\"")
+                .append(",\"postId\":1000,\"userId\":").append(300 + id % 11)
+                .append(",\"parentId\":").append(parentId)
+                .append(",\"likeCount\":").append(id % 17)
+                .append(",\"status\":\"0\",\"delFlag\":\"0\"")
+                .append(",\"createTime\":\"2025-05-27 12:00:00\"")
+                .append(",\"nickName\":\"评论者").append(id).append('"')
+                .append(",\"userAvatar\":\"images/user/avatar/").append(id).append(".png\"")
+                .append(",\"parentNickName\":").append(parentId != null ? "\"玩家" + parentId + "\"" : "null")
+                .append(",\"hasLiked\":").append(id % 2 == 0)
+                .append('}');
+    }
+
+    private static String longHtml(int seed) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            sb.append("<p>第").append(i).append("段：配队时优先考虑充能与生存，")
+                    .append("副C的技能循环控制在二十秒以内。</p>");
+            if (i % 4 == seed % 4) {
+                sb.append("<img src=\\\"images/user/post/detail_").append(seed).append('_').append(i)
+                        .append(".jpg\\\">");
+            }
+        }
+        return sb.toString();
+    }
+}
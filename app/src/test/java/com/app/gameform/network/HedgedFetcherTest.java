@@ -0,0 +1,269 @@
+package com.app.gameform.network;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 对冲请求的调度
+ * 用手动推进的时钟代替主线程 Handler，数据源由测试决定何时成功或失败
+ */
+public class HedgedFetcherTest {
+
+    private static final long HEDGE_MS = 100;
+    private static final long BUDGET_MS = 500;
+
+    private FakeScheduler scheduler;
+    private List<Object> canceledTags;
+    private List<FakeSource> sources;
+    private RecordingListener listener;
+
+    @Before
+    public void setUp() {
+        scheduler = new FakeScheduler();
+        canceledTags = new ArrayList<>();
+        sources = new ArrayList<>();
+        listener = new RecordingListener();
+    }
+
+    @Test
+    public void fastPrimaryIsNotHedged() {
+        start(HEDGE_MS, BUDGET_MS, 3);
+        scheduler.advanceTo(50);
+        sources.get(0).succeed("primary");
+
+        assertEquals("primary", listener.result);
+        assertEquals(0, listener.source);
+        assertEquals(1, launchedCount());
+        scheduler.advanceTo(1000);
+        assertEquals(1, launchedCount());
+        assertEquals(1, listener.calls);
+    }
+
+    @Test
+    public void slowPrimaryIsHedgedButPreferredWithinBudget() {
+        start(HEDGE_MS, BUDGET_MS, 3);
+        scheduler.advanceTo(HEDGE_MS);
+        assertEquals(2, launchedCount());
+
+        // 备选先返回，首选还在进行且预算未用完，继续等首选
+        scheduler.advanceTo(150);
+        sources.get(1).succeed("personalized");
+        assertEquals(0, listener.calls);
+
+        scheduler.advanceTo(2 * HEDGE_MS);
+        assertEquals(3, launchedCount());
+
+        scheduler.advanceTo(300);
+        sources.get(0).succeed("primary");
+        assertEquals("primary", listener.result);
+        assertEquals(0, listener.source);
+        // 只取消还在进行的第三个
+        assertEquals(1, canceledTags.size());
+        assertSame(sources.get(2).tag, canceledTags.get(0));
+    }
+
+    @Test
+    public void budgetExpiryTakesBestAvailableResult() {
+        start(HEDGE_MS, BUDGET_MS, 3);
+        scheduler.advanceTo(150);
+        sources.get(1).succeed("personalized");
+        scheduler.advanceTo(BUDGET_MS - 1);
+        assertEquals(0, listener.calls);
+
+        scheduler.advanceTo(BUDGET_MS);
+        assertEquals("personalized", listener.result);
+        assertEquals(1, listener.source);
+        assertTrue(canceledTags.contains(sources.get(0).tag));
+        assertTrue(canceledTags.contains(sources.get(2).tag));
+    }
+
+    @Test
+    public void budgetExpiryWithoutResultLaunchesTheRest() {
+        start(HedgedFetcher.NO_HEDGE, BUDGET_MS, 3);
+        scheduler.advanceTo(BUDGET_MS);
+        assertEquals(3, launchedCount());
+        assertEquals(0, listener.calls);
+
+        sources.get(2).succeed("hot");
+        assertEquals("hot", listener.result);
+        assertEquals(2, listener.source);
+    }
+
+    @Test
+    public void loadMoreWithoutBudgetWaitsForPrimary() {
+        start(HedgedFetcher.NO_HEDGE, HedgedFetcher.NO_BUDGET, 3);
+        scheduler.advanceTo(10_000);
+        assertEquals(1, launchedCount());
+        assertEquals(0, listener.calls);
+
+        sources.get(0).succeed("page 2");
+        assertEquals("page 2", listener.result);
+        assertEquals(0, listener.source);
+    }
+
+    @Test
+    public void failureLaunchesNextAndAllFailedReportsLastError() {
+        start(HedgedFetcher.NO_HEDGE, HedgedFetcher.NO_BUDGET, 3);
+        sources.get(0).fail("hybrid 500");
+        assertEquals(2, launchedCount());
+        sources.get(1).fail("personalized 500");
+        assertEquals(3, launchedCount());
+        assertEquals(0, listener.calls);
+
+        sources.get(2).fail("hot 500");
+        assertEquals("hot 500", listener.error);
+        assertEquals(1, listener.calls);
+    }
+
+    @Test
+    public void failedPrimaryDeliversFinishedFallbackImmediately() {
+        start(HEDGE_MS, BUDGET_MS, 2);
+        scheduler.advanceTo(HEDGE_MS);
+        sources.get(1).succeed("personalized");
+        assertEquals(0, listener.calls);
+
+        // 排在前面的失败后不必等预算
+        sources.get(0).fail("hybrid 500");
+        assertEquals("personalized", listener.result);
+        assertEquals(1, listener.source);
+    }
+
+    @Test
+    public void cancelStopsCallbacksAndCancelsRunningSources() {
+        HedgedFetcher<String> fetcher = start(HEDGE_MS, BUDGET_MS, 3);
+        scheduler.advanceTo(HEDGE_MS);
+        fetcher.cancel();
+
+        assertTrue(fetcher.isDone());
+        assertEquals(2, canceledTags.size());
+        sources.get(0).succeed("late");
+        scheduler.advanceTo(10_000);
+        assertEquals(2, launchedCount());
+        assertEquals(0, listener.calls);
+    }
+
+    // ==================== 辅助 ====================
+
+    private HedgedFetcher<String> start(long hedgeDelayMs, long budgetMs, int sourceCount) {
+        HedgedFetcher<String> fetcher =
+                new HedgedFetcher<>(hedgeDelayMs, budgetMs, scheduler, canceledTags::add);
+        for (int i = 0; i < sourceCount; i++) {
+            FakeSource source = new FakeSource();
+            sources.add(source);
+            fetcher.add(source);
+        }
+        fetcher.start(listener);
+        return fetcher;
+    }
+
+    private int launchedCount() {
+        int count = 0;
+        for (FakeSource source : sources) {
+            if (source.callback != null) count++;
+        }
+        return count;
+    }
+
+    private final class FakeSource implements HedgedFetcher.Source<String> {
+        Object tag;
+        ApiCallback<String> callback;
+
+        @Override
+        public void start(Object tag, ApiCallback<String> callback) {
+            this.tag = tag;
+            this.callback = callback;
+        }
+
+        void succeed(String value) {
+            callback.onSuccess(value);
+            scheduler.runPending();
+        }
+
+        void fail(String error) {
+            callback.onError(error);
+            scheduler.runPending();
+        }
+    }
+
+    private static final class RecordingListener implements HedgedFetcher.Listener<String> {
+        String result;
+        int source = -1;
+        String error;
+        int calls;
+
+        @Override
+        public void onResult(String result, int source) {
+            this.result = result;
+            this.source = source;
+            calls++;
+        }
+
+        @Override
+        public void onError(String error) {
+            this.error = error;
+            calls++;
+        }
+    }
+
+    /**
+     * 按时间顺序执行任务，时间只在 advanceTo 时前进
+     */
+    private static final class FakeScheduler implements HedgedFetcher.Scheduler {
+        private final List<long[]> times = new ArrayList<>();
+        private final List<Runnable> tasks = new ArrayList<>();
+        private long now;
+        private long sequence;
+
+        @Override
+        public void post(Runnable task) {
+            postDelayed(task, 0);
+        }
+
+        @Override
+        public void postDelayed(Runnable task, long delayMs) {
+            times.add(new long[]{now + delayMs, sequence++});
+            tasks.add(task);
+        }
+
+        @Override
+        public void remove(Runnable task) {
+            Iterator<Runnable> it = tasks.iterator();
+            int i = 0;
+            while (it.hasNext()) {
+                if (it.next() == task) {
+                    it.remove();
+                    times.remove(i);
+                } else {
+                    i++;
+                }
+            }
+        }
+
+        void runPending() {
+            advanceTo(now);
+        }
+
+        void advanceTo(long time) {
+            while (true) {
+                int next = -1;
+                for (int i = 0; i < times.size(); i++) {
+                    long[] t = times.get(i);
+                    if (t[0] <= time && (next < 0 || t[0] < times.get(next)[0]
+                            || (t[0] == times.get(next)[0] && t[1] < times.get(next)[1]))) {
+                        next = i;
+                    }
+                }
+                if (next < 0) break;
+                now = Math.max(now, times.remove(next)[0]);
+                tasks.remove(next).run();
+            }
+            now = time;
+        }
+    }
+}
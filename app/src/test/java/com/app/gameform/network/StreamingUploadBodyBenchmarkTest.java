@@ -0,0 +1,378 @@
+package com.app.gameform.network;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+
+import static org.junit.Assert.*;
+
+/**
+ * 流式 multipart 上传与原来的 Base64 JSON 上传对比
+ * 请求发往本机上的替身服务器，服务器校验收到的图片内容；
+ * 用线程分配字节数比较两种方式在上传线程上的内存开销
+ */
+public class StreamingUploadBodyBenchmarkTest {
+
+    private static final int IMAGE_SIZE = 5 * 1024 * 1024;
+    private static final MediaType JPEG = MediaType.parse("image/jpeg");
+
+    private OkHttpClient client;
+    private StandInServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        client = new OkHttpClient.Builder()
+                .readTimeout(30, TimeUnit.SECONDS)
+                .writeTimeout(30, TimeUnit.SECONDS)
+                .build();
+        server = new StandInServer();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    @Test
+    public void multipartUploadDeliversImageAndReportsProgress() throws IOException {
+        List<long[]> progress = new ArrayList<>();
+        StreamingUploadBody image = new StreamingUploadBody(JPEG, IMAGE_SIZE, IMAGE_SIZE,
+                () -> new PatternStream(IMAGE_SIZE), (written, total) -> progress.add(new long[]{written, total}));
+
+        try (Response response = client.newCall(multipart(image)).execute()) {
+            assertEquals(200, response.code());
+            assertEquals(checksumOf(IMAGE_SIZE), Long.parseLong(response.body().string()));
+        }
+
+        assertFalse(progress.isEmpty());
+        long last = -1;
+        for (long[] p : progress) {
+            assertTrue("进度应递增", p[0] >= last);
+            assertEquals(IMAGE_SIZE, p[1]);
+            last = p[0];
+        }
+        assertEquals(IMAGE_SIZE, last);
+        // 按步长回调，而不是每个缓冲区一次
+        assertTrue("进度回调次数: " + progress.size(), progress.size() <= IMAGE_SIZE / (64 * 1024) + 2);
+    }
+
+    @Test
+    public void cancelStopsUploadMidway() {
+        long[] written = {0};
+        StreamingUploadBody[] holder = new StreamingUploadBody[1];
+        holder[0] = new StreamingUploadBody(JPEG, IMAGE_SIZE, IMAGE_SIZE,
+                () -> new PatternStream(IMAGE_SIZE), (bytes, total) -> {
+                    written[0] = bytes;
+                    if (bytes >= IMAGE_SIZE / 4) {
+                        holder[0].cancel();
+                    }
+                });
+
+        try (Response ignored = client.newCall(multipart(holder[0])).execute()) {
+            fail("取消后上传应失败");
+        } catch (IOException expected) {
+            assertTrue(holder[0].isCanceled());
+            assertTrue("取消后不应继续写入: " + written[0], written[0] < IMAGE_SIZE / 2);
+        }
+    }
+
+    @Test
+    public void oversizedImageIsRejectedWhileStreaming() {
+        // 大小未知（-1）时在写入过程中按上限中止
+        StreamingUploadBody image = new StreamingUploadBody(JPEG, -1, IMAGE_SIZE,
+                () -> new PatternStream(IMAGE_SIZE + 1), null);
+        try (Response ignored = client.newCall(multipart(image)).execute()) {
+            fail("超过大小限制应失败");
+        } catch (IOException expected) {
+            // 期望的结果
+        }
+    }
+
+    @Test
+    public void benchmarkAllocationPerUpload() throws IOException {
+        // 预热：建立连接、加载类
+        for (int i = 0; i < 2; i++) {
+            uploadStreaming();
+            uploadBase64Json();
+        }
+
+        long streaming = Long.MAX_VALUE;
+        long base64 = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            streaming = Math.min(streaming, allocatedDuring(this::uploadStreaming));
+            base64 = Math.min(base64, allocatedDuring(this::uploadBase64Json));
+        }
+
+        System.out.println(String.format(Locale.US,
+                "上传 %d KB 图片，上传线程分配：流式 multipart %d KB，Base64 JSON %d KB（%.1fx）",
+                IMAGE_SIZE / 1024, streaming / 1024, base64 / 1024, (double) base64 / streaming));
+
+        // 原方式至少要整份图片 + Base64 字符串 + JSON，流式上传应与图片大小无关
+        assertTrue("Base64 方式分配应超过图片大小的 3 倍: " + base64, base64 > 3L * IMAGE_SIZE);
+        assertTrue("流式上传分配应远小于图片大小: " + streaming, streaming < IMAGE_SIZE / 8);
+    }
+
+    // ==================== 两种上传方式 ====================
+
+    private Request multipart(StreamingUploadBody image) {
+        RequestBody body = new MultipartBody.Builder()
+                .setType(MultipartBody.FORM)
+                .addFormDataPart("fileName", "post_1_test.jpg")
+                .addFormDataPart("file", "post_1_test.jpg", image)
+                .build();
+        return new Request.Builder().url(server.url() + "/multipart").post(body).build();
+    }
+
+    private void uploadStreaming() throws IOException {
+        StreamingUploadBody image = new StreamingUploadBody(JPEG, IMAGE_SIZE, IMAGE_SIZE,
+                () -> new PatternStream(IMAGE_SIZE), null);
+        try (Response response = client.newCall(multipart(image)).execute()) {
+            assertEquals(checksumOf(IMAGE_SIZE), Long.parseLong(response.body().string()));
+        }
+    }
+
+    /**
+     * 原来的做法：1KB 缓冲读入 ByteArrayOutputStream，整体 Base64 后拼进 JSON 字符串
+     */
+    private void uploadBase64Json() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = new PatternStream(IMAGE_SIZE)) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+        }
+        String base64 = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(bytes.toByteArray());
+        String json = "{\"fileName\":\"post_1_test.jpg\",\"base64Data\":\"" + base64 + "\"}";
+        Request request = new Request.Builder()
+                .url(server.url() + "/json")
+                .post(RequestBody.create(json, MediaType.parse("application/json; charset=utf-8")))
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            assertEquals(checksumOf(IMAGE_SIZE), Long.parseLong(response.body().string()));
+        }
+    }
+
+    private interface Upload {
+        void run() throws IOException;
+    }
+
+    /**
+     * OkHttp 的同步调用在当前线程写请求体，统计这期间当前线程分配的字节数
+     */
+    private static long allocatedDuring(Upload upload) throws IOException {
+        com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long before = bean.getThreadAllocatedBytes(thread);
+        upload.run();
+        return bean.getThreadAllocatedBytes(thread) - before;
+    }
+
+    // ==================== 辅助 ====================
+
+    /**
+     * 按固定规律生成内容的输入流，不占用与大小相当的内存
+     */
+    private static final class PatternStream extends InputStream {
+        private final long size;
+        private long position;
+
+        PatternStream(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            return position < size ? byteAt(position++) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position >= size) return -1;
+            int n = (int) Math.min(len, size - position);
+            for (int i = 0; i < n; i++) {
+                b[off + i] = (byte) byteAt(position++);
+            }
+            return n;
+        }
+    }
+
+    private static int byteAt(long position) {
+        return (int) ((position * 31 + (position >> 9)) & 0xFF);
+    }
+
+    private static long checksumOf(long size) {
+        CRC32 crc = new CRC32();
+        for (long i = 0; i < size; i++) {
+            crc.update(byteAt(i));
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * 替身服务器：读取整个请求，取出图片内容（multipart 的 file 字段或 JSON 中的 Base64），返回 CRC32
+     */
+    private static final class StandInServer implements Runnable {
+        private final ServerSocket socket;
+
+        StandInServer() throws IOException {
+            socket = new ServerSocket(0, 16, InetAddress.getByName("127.0.0.1"));
+            Thread thread = new Thread(this, "stand-in-server");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + socket.getLocalPort();
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket client = socket.accept();
+                    Thread worker = new Thread(() -> serve(client), "stand-in-connection");
+                    worker.setDaemon(true);
+                    worker.start();
+                } catch (IOException e) {
+                    // 服务器关闭
+                }
+            }
+        }
+
+        private void serve(Socket client) {
+            try (Socket s = client) {
+                BufferedSource source = Okio.buffer(Okio.source(s.getInputStream()));
+                okio.BufferedSink sink = Okio.buffer(Okio.sink(s.getOutputStream()));
+                String requestLine;
+                // 同一连接上可能有多个请求
+                while ((requestLine = source.readUtf8Line()) != null) {
+                    long length = -1;
+                    String contentType = "";
+                    String line;
+                    while ((line = source.readUtf8LineStrict()).length() > 0) {
+                        String lower = line.toLowerCase(Locale.US);
+                        if (lower.startsWith("content-length:")) {
+                            length = Long.parseLong(line.substring(15).trim());
+                        } else if (lower.startsWith("content-type:")) {
+                            contentType = line.substring(13).trim();
+                        }
+                    }
+                    if (length < 0) {
+                        return;
+                    }
+                    String result;
+                    try {
+                        result = String.valueOf(requestLine.contains("/multipart")
+                                ? multipartChecksum(source, length, contentType)
+                                : base64Checksum(source, length));
+                    } catch (IOException e) {
+                        // 客户端中途取消
+                        return;
+                    }
+                    byte[] body = result.getBytes(StandardCharsets.UTF_8);
+                    sink.writeUtf8("HTTP/1.1 200 OK\r\nContent-Length: " + body.length + "\r\n\r\n");
+                    sink.write(body);
+                    sink.flush();
+                }
+            } catch (IOException e) {
+                // 连接断开
+            }
+        }
+
+        /**
+         * 边读边算 file 字段内容的 CRC，不整体缓存请求体
+         */
+        private static long multipartChecksum(BufferedSource source, long length, String contentType) throws IOException {
+            String boundary = contentType.substring(contentType.indexOf("boundary=") + 9);
+            okio.ByteString delimiter = okio.ByteString.encodeUtf8("\r\n--" + boundary);
+            long remaining = length;
+            CRC32 crc = new CRC32();
+            long result = -1;
+            // 逐个字段：读头部，再读到下一个分隔符为止
+            String first = source.readUtf8LineStrict();
+            remaining -= first.length() + 2;
+            while (true) {
+                boolean isFile = false;
+                String header;
+                while ((header = source.readUtf8LineStrict()).length() > 0) {
+                    remaining -= header.length() + 2;
+                    if (header.contains("name=\"file\"")) isFile = true;
+                }
+                remaining -= 2;
+                long index = source.indexOf(delimiter);
+                if (isFile) {
+                    crc.reset();
+                    Buffer chunk = new Buffer();
+                    long left = index;
+                    while (left > 0) {
+                        long n = Math.min(left, 8192);
+                        source.read(chunk, n);
+                        byte[] bytes = chunk.readByteArray();
+                        crc.update(bytes, 0, bytes.length);
+                        left -= bytes.length;
+                    }
+                    result = crc.getValue();
+                } else {
+                    source.skip(index);
+                }
+                remaining -= index;
+                source.skip(delimiter.size());
+                remaining -= delimiter.size();
+                String tail = source.readUtf8LineStrict();
+                remaining -= tail.length() + 2;
+                if (tail.startsWith("--")) {
+                    break;
+                }
+            }
+            if (remaining != 0) {
+                throw new IOException("请求体长度不符: " + remaining);
+            }
+            return result;
+        }
+
+        private static long base64Checksum(BufferedSource source, long length) throws IOException {
+            String json = source.readUtf8(length);
+            String data = json.substring(json.indexOf("base64,") + 7, json.lastIndexOf('"'));
+            CRC32 crc = new CRC32();
+            crc.update(Base64.getDecoder().decode(data));
+            return crc.getValue();
+        }
+    }
+}
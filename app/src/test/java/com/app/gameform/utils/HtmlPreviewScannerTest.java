@@ -0,0 +1,148 @@
+package com.app.gameform.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 单遍预览扫描
+ * 校验去标签、实体、空白合并、截断和首图的结果，并在富文本编辑器产出的长帖上与原实现比较文本；
+ * JVM 上没有 Html.fromHtml，原实现以 HtmlUtils.removeHtmlTagsRegex 的同等逻辑为基准
+ */
+public class HtmlPreviewScannerTest {
+
+    @Test
+    public void stripsTagsAndDecodesEntities() {
+        HtmlPreviewScanner.Result result = HtmlPreviewScanner.scan(
+                "<div><b>攻略</b>&nbsp;分享 &amp; 心得 &lt;1&gt; &quot;q&quot; &#39;s&#39; &#x4E2D;&#25991;</div>", 100);
+        assertEquals("攻略 分享 & 心得 <1> \"q\" 's' 中文", result.getText());
+        assertFalse(result.isTruncated());
+        assertNull(result.getFirstImageSrc());
+    }
+
+    @Test
+    public void decodesCommonNamedEntities() {
+        String html = "&ldquo;好&rdquo;&hellip; A&mdash;B&ndash;C &lsquo;x&rsquo; &middot;&bull; "
+                + "&copy;&reg;&trade; 5&times;2&deg; &laquo;&raquo; &yen;&euro;&emsp;&rarr;";
+        assertEquals("\u201C好\u201D\u2026 A\u2014B\u2013C \u2018x\u2019 \u00B7\u2022 "
+                + "\u00A9\u00AE\u2122 5\u00D72\u00B0 \u00AB\u00BB \u00A5\u20AC \u2192",
+                HtmlPreviewScanner.toPlainText(html));
+        // 实体名区分大小写
+        assertEquals("\u2032\u2033 &HELLIP;", HtmlPreviewScanner.toPlainText("&prime;&Prime; &HELLIP;"));
+    }
+
+    @Test
+    public void collapsesWhitespaceAndBlocks() {
+        String html = "  <p>第一段\n\n   还是第一段</p>\n<p></p><div><br></div><p>  第二段 </p>  ";
+        assertEquals("第一段 还是第一段\n第二段", HtmlPreviewScanner.toPlainText(html));
+    }
+
+    @Test
+    public void skipsCommentsScriptsAndUnknownEntities() {
+        String html = "<!-- 注释 --><style>p{color:red}</style>A<script>alert('x')</script>B &unknown; C < D";
+        assertEquals("AB &unknown; C < D", HtmlPreviewScanner.toPlainText(html));
+    }
+
+    @Test
+    public void stopsAtLimitAndStillFindsFirstImage() {
+        StringBuilder html = new StringBuilder("<div>");
+        for (int i = 0; i < 50; i++) {
+            html.append("一二三四五六七八九十");
+        }
+        html.append("</div><img style=\"max-width: 100%;\" src=\"http://host/a.jpg\"><br><img src='b.jpg'>");
+
+        HtmlPreviewScanner.Result result = HtmlPreviewScanner.scan(html.toString(), 25);
+        assertEquals(25, result.getText().length());
+        assertTrue(result.isTruncated());
+        assertEquals("http://host/a.jpg", result.getFirstImageSrc());
+
+        // 刚好用完字数且后面没有文字时不算截断
+        assertFalse(HtmlPreviewScanner.scan("<p>一二三</p><br>", 3).isTruncated());
+    }
+
+    @Test
+    public void readsUnquotedAndSingleQuotedSrc() {
+        assertEquals("c.png", HtmlPreviewScanner.preview("文字<IMG alt=x SRC=c.png>").getFirstImageSrc());
+        assertEquals("d.png", HtmlPreviewScanner.preview("<img data-src=\"x\" src='d.png' />").getFirstImageSrc());
+        assertNull(HtmlPreviewScanner.preview("<img alt=\"无图\">").getFirstImageSrc());
+    }
+
+    @Test
+    public void matchesLegacyTextOnLongPosts() {
+        for (String post : buildLongPosts(40)) {
+            String expected = normalize(legacyRemoveTags(post));
+            String actual = normalize(HtmlPreviewScanner.toPlainText(post));
+            assertEquals(expected, actual);
+
+            String preview = HtmlPreviewScanner.preview(post).getText();
+            assertTrue(actual.startsWith(normalize(preview)));
+        }
+    }
+
+    /**
+     * 原 HtmlUtils.removeHtmlTagsRegex 的逻辑（HtmlUtils 依赖 TextUtils，JVM 上不可直接调用）
+     */
+    private static String legacyRemoveTags(String htmlContent) {
+        String plainText = htmlContent.replaceAll("<[^>]*>", "");
+        plainText = plainText.replace("&nbsp;", " ");
+        plainText = plainText.replace("&lt;", "<");
+        plainText = plainText.replace("&gt;", ">");
+        plainText = plainText.replace("&amp;", "&");
+        plainText = plainText.replace("&quot;", "\"");
+        plainText = plainText.replace("&#39;", "'");
+        plainText = plainText.replaceAll("\\n\\s*\\n", "\n").trim();
+        return plainText;
+    }
+
+    /**
+     * 原实现不区分段落和空白，比较时统一合并所有空白
+     */
+    private static String normalize(String text) {
+        return text.replaceAll("\\s+", "");
+    }
+
+    /**
+     * 模拟富文本编辑器（contenteditable 的 innerHTML）产出的长帖：
+     * div 分段、br 换行、加粗斜体、插图、实体，篇幅从几百到上万字符
+     */
+    private static List<String> buildLongPosts(int count) {
+        String[] sentences = {
+                "这个版本的新英雄强度明显超标，排位里几乎每局都能看到。",
+                "建议前期优先升级技能二，配合闪现可以打出很高的爆发。",
+                "出装方面，核心是破甲和冷却缩减，&nbsp;后期再补一件保命装。",
+                "注意对面有控制的时候不要贸然进场，&lt;等队友先手&gt;再跟上。",
+                "以上纯属个人经验 &amp; 心得，欢迎大家在评论区补充。",
+        };
+        List<String> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder html = new StringBuilder();
+            int paragraphs = 3 + (i * 7) % 60;
+            for (int p = 0; p < paragraphs; p++) {
+                html.append("<div>");
+                if (p % 4 == 0) {
+                    html.append("<b>第").append(p + 1).append("部分</b><br>");
+                }
+                for (int s = 0; s < 3; s++) {
+                    String sentence = sentences[(i + p + s) % sentences.length];
+                    if (s == 1) {
+                        html.append("<i>").append(sentence).append("</i>");
+                    } else {
+                        html.append(sentence);
+                    }
+                }
+                html.append("</div>");
+                if (p % 5 == 2) {
+                    html.append("<img src=\"http://110.41.1.63:8080/user/public/post/")
+                            .append(i).append('_').append(p)
+                            .append(".jpg\" style=\"max-width: 100%;\"><br>");
+                }
+                html.append('\n');
+            }
+            posts.add(html.toString());
+        }
+        return posts;
+    }
+}
@@ -0,0 +1,51 @@
+package com.app.gameform.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 上传前预处理的尺寸计算
+ * 实际解码、旋转和去除 EXIF 在 androidTest 的 ImagePreprocessorInstrumentedTest 中检查
+ */
+public class ImagePreprocessorTest {
+
+    // 1200 万像素手机照片
+    private static final int PHOTO_WIDTH = 4032;
+    private static final int PHOTO_HEIGHT = 3024;
+    private static final int MAX_DIMENSION = ImagePreprocessor.DEFAULT_MAX_DIMENSION;
+
+    @Test
+    public void sampleSizeKeepsDecodedImageAboveTarget() {
+        assertEquals(2, ImagePreprocessor.sampleSizeFor(PHOTO_WIDTH, PHOTO_HEIGHT, MAX_DIMENSION));
+        assertEquals(1, ImagePreprocessor.sampleSizeFor(1080, 1920, MAX_DIMENSION));
+        assertEquals(1, ImagePreprocessor.sampleSizeFor(3199, 100, MAX_DIMENSION));
+        assertEquals(2, ImagePreprocessor.sampleSizeFor(3200, 100, MAX_DIMENSION));
+        assertEquals(4, ImagePreprocessor.sampleSizeFor(100, 8000, MAX_DIMENSION));
+
+        // 任意尺寸：降采样后最长边不小于目标，且再降一级就会小于目标
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            int width = 1 + random.nextInt(16000);
+            int height = 1 + random.nextInt(16000);
+            int sample = ImagePreprocessor.sampleSizeFor(width, height, MAX_DIMENSION);
+            int longEdge = Math.max(width, height);
+            assertEquals(0, sample & (sample - 1));
+            if (sample > 1) {
+                assertTrue(longEdge / sample >= MAX_DIMENSION);
+            }
+            assertTrue(longEdge / (sample * 2) < MAX_DIMENSION);
+        }
+    }
+
+    @Test
+    public void scaleNeverEnlarges() {
+        assertEquals(1f, ImagePreprocessor.scaleFor(800, 600, MAX_DIMENSION), 0f);
+        assertEquals(1f, ImagePreprocessor.scaleFor(MAX_DIMENSION, 10, MAX_DIMENSION), 0f);
+        float scale = ImagePreprocessor.scaleFor(2016, 1512, MAX_DIMENSION);
+        assertEquals(MAX_DIMENSION, Math.round(2016 * scale));
+        assertEquals(1200, Math.round(1512 * scale));
+    }
+}
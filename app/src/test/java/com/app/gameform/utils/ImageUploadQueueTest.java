@@ -0,0 +1,289 @@
+package com.app.gameform.utils;
+
+import android.net.Uri;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 多张图片的上传队列：并发上限、重试退避、按标识取消和全部结束后的回调
+ * 用手动推进的时钟代替主线程 Handler，上传由测试决定何时成功或失败
+ */
+public class ImageUploadQueueTest {
+
+    private static final String TOKEN = "token";
+
+    private FakeScheduler scheduler;
+    private List<FakeUpload> uploads;
+    private RecordingListener listener;
+    private ImageUploadQueue queue;
+
+    @Before
+    public void setUp() {
+        scheduler = new FakeScheduler();
+        uploads = new ArrayList<>();
+        listener = new RecordingListener();
+        queue = new ImageUploadQueue((uri, token, callback) -> {
+            FakeUpload upload = new FakeUpload(callback);
+            uploads.add(upload);
+            return upload::cancel;
+        }, 2, listener, scheduler);
+    }
+
+    @Test
+    public void atMostMaxParallelUploadAtOnce() {
+        ImageUploadQueue.Item first = queue.enqueue(null, TOKEN);
+        ImageUploadQueue.Item second = queue.enqueue(null, TOKEN);
+        ImageUploadQueue.Item third = queue.enqueue(null, TOKEN);
+
+        assertEquals(2, uploads.size());
+        assertEquals(ImageUploadQueue.State.QUEUED, third.getState());
+
+        uploads.get(1).succeed("/img/2.webp");
+        assertEquals(3, uploads.size());
+        assertEquals(ImageUploadQueue.State.UPLOADING, third.getState());
+        assertEquals(ImageUploadQueue.State.UPLOADING, first.getState());
+        assertEquals(ImageUploadQueue.State.DONE, second.getState());
+    }
+
+    @Test
+    public void retryableFailureBacksOffThenGivesUp() {
+        ImageUploadQueue.Item item = queue.enqueue(null, TOKEN);
+
+        uploads.get(0).failRetryable("timeout");
+        assertEquals(ImageUploadQueue.State.WAITING_RETRY, item.getState());
+        scheduler.advanceTo(999);
+        assertEquals(1, uploads.size());
+        scheduler.advanceTo(1000);
+        assertEquals(2, uploads.size());
+
+        // 第二次失败后等待翻倍
+        uploads.get(1).failRetryable("502");
+        scheduler.advanceTo(2999);
+        assertEquals(2, uploads.size());
+        scheduler.advanceTo(3000);
+        assertEquals(3, uploads.size());
+
+        uploads.get(2).failRetryable("503");
+        assertEquals(ImageUploadQueue.State.FAILED, item.getState());
+        assertEquals(Arrays.asList(item.id + ":503"), listener.failed);
+        scheduler.advanceTo(60_000);
+        assertEquals(3, uploads.size());
+    }
+
+    @Test
+    public void waitingRetryFreesItsSlot() {
+        queue.enqueue(null, TOKEN);
+        queue.enqueue(null, TOKEN);
+        ImageUploadQueue.Item third = queue.enqueue(null, TOKEN);
+
+        uploads.get(0).failRetryable("timeout");
+        assertEquals(ImageUploadQueue.State.UPLOADING, third.getState());
+        assertEquals(3, uploads.size());
+
+        // 重试的图片排在队首，等有空位再开始
+        scheduler.advanceTo(1000);
+        assertEquals(3, uploads.size());
+        uploads.get(2).succeed("/img/3.webp");
+        assertEquals(4, uploads.size());
+    }
+
+    @Test
+    public void nonRetryableFailureFailsAtOnce() {
+        ImageUploadQueue.Item item = queue.enqueue(null, TOKEN);
+        uploads.get(0).fail("413");
+
+        assertEquals(ImageUploadQueue.State.FAILED, item.getState());
+        assertEquals(Arrays.asList(item.id + ":413"), listener.failed);
+        scheduler.advanceTo(60_000);
+        assertEquals(1, uploads.size());
+    }
+
+    @Test
+    public void sameImageTwiceIsCanceledById() {
+        Uri uri = null;
+        ImageUploadQueue.Item first = queue.enqueue(uri, TOKEN);
+        ImageUploadQueue.Item second = queue.enqueue(uri, TOKEN);
+        assertNotEquals(first.id, second.id);
+
+        assertTrue(queue.cancel(second.id));
+        assertTrue(uploads.get(1).canceled);
+        assertFalse(uploads.get(0).canceled);
+        assertEquals(ImageUploadQueue.State.UPLOADING, first.getState());
+
+        // 取消后迟到的回调被忽略
+        uploads.get(1).succeed("/img/late.webp");
+        assertEquals(ImageUploadQueue.State.CANCELED, second.getState());
+        assertTrue(listener.uploaded.isEmpty());
+
+        uploads.get(0).succeed("/img/1.webp");
+        assertFalse(queue.cancel(first.id));
+        assertFalse(queue.cancel("upload-unknown"));
+        assertEquals(Arrays.asList("/img/1.webp"), queue.getUploadedUrls());
+    }
+
+    @Test
+    public void cancelDuringBackoffDropsTheRetry() {
+        ImageUploadQueue.Item item = queue.enqueue(null, TOKEN);
+        uploads.get(0).failRetryable("timeout");
+
+        assertTrue(queue.cancel(item.id));
+        scheduler.advanceTo(60_000);
+        assertEquals(1, uploads.size());
+        assertEquals(ImageUploadQueue.State.CANCELED, item.getState());
+        assertTrue(queue.isIdle());
+    }
+
+    @Test
+    public void whenIdleRunsAfterEveryImageFinished() {
+        queue.enqueue(null, TOKEN);
+        queue.enqueue(null, TOKEN);
+        queue.enqueue(null, TOKEN);
+        int[] idle = {0};
+        queue.whenIdle(() -> idle[0]++);
+
+        uploads.get(1).succeed("/img/2.webp");
+        uploads.get(0).fail("415");
+        assertEquals(0, idle[0]);
+        uploads.get(2).succeed("/img/3.webp");
+        assertEquals(1, idle[0]);
+
+        // 按加入顺序，不含失败的
+        assertEquals(Arrays.asList("/img/2.webp", "/img/3.webp"), queue.getUploadedUrls());
+
+        queue.whenIdle(() -> idle[0]++);
+        assertEquals(2, idle[0]);
+    }
+
+    @Test
+    public void progressIsReportedOncePerPercent() {
+        ImageUploadQueue.Item item = queue.enqueue(null, TOKEN);
+        FakeUpload upload = uploads.get(0);
+        upload.progress(10, 100);
+        upload.progress(10, 100);
+        upload.progress(50, 100);
+        // 大小未知不回调
+        upload.progress(60, -1);
+
+        assertEquals(Arrays.asList(item.id + ":10", item.id + ":50"), listener.progress);
+    }
+
+    // ==================== 辅助 ====================
+
+    private final class FakeUpload {
+        final ImageUploadHelper.ImageUploadCallback callback;
+        boolean canceled;
+
+        FakeUpload(ImageUploadHelper.ImageUploadCallback callback) {
+            this.callback = callback;
+        }
+
+        void cancel() {
+            canceled = true;
+        }
+
+        void succeed(String imageUrl) {
+            callback.onSuccess(imageUrl);
+            scheduler.runPending();
+        }
+
+        void fail(String error) {
+            callback.onFailure(error);
+            scheduler.runPending();
+        }
+
+        void failRetryable(String error) {
+            callback.onRetryableFailure(error);
+            scheduler.runPending();
+        }
+
+        void progress(long bytesWritten, long totalBytes) {
+            callback.onProgress(bytesWritten, totalBytes);
+            scheduler.runPending();
+        }
+    }
+
+    private static final class RecordingListener implements ImageUploadQueue.Listener {
+        final List<String> progress = new ArrayList<>();
+        final List<String> uploaded = new ArrayList<>();
+        final List<String> failed = new ArrayList<>();
+
+        @Override
+        public void onProgress(ImageUploadQueue.Item item, int percent) {
+            progress.add(item.id + ":" + percent);
+        }
+
+        @Override
+        public void onUploaded(ImageUploadQueue.Item item, String imageUrl) {
+            uploaded.add(item.id + ":" + imageUrl);
+        }
+
+        @Override
+        public void onFailed(ImageUploadQueue.Item item, String error) {
+            failed.add(item.id + ":" + error);
+        }
+    }
+
+    /**
+     * 按时间顺序执行任务，时间只在 advanceTo 时前进
+     */
+    private static final class FakeScheduler implements ImageUploadQueue.Scheduler {
+        private final List<long[]> times = new ArrayList<>();
+        private final List<Runnable> tasks = new ArrayList<>();
+        private long now;
+        private long sequence;
+
+        @Override
+        public void post(Runnable task) {
+            postDelayed(task, 0);
+        }
+
+        @Override
+        public void postDelayed(Runnable task, long delayMs) {
+            times.add(new long[]{now + delayMs, sequence++});
+            tasks.add(task);
+        }
+
+        @Override
+        public void remove(Runnable task) {
+            Iterator<Runnable> it = tasks.iterator();
+            int i = 0;
+            while (it.hasNext()) {
+                if (it.next() == task) {
+                    it.remove();
+                    times.remove(i);
+                } else {
+                    i++;
+                }
+            }
+        }
+
+        void runPending() {
+            advanceTo(now);
+        }
+
+        void advanceTo(long time) {
+            while (true) {
+                int next = -1;
+                for (int i = 0; i < times.size(); i++) {
+                    long[] t = times.get(i);
+                    if (t[0] <= time && (next < 0 || t[0] < times.get(next)[0]
+                            || (t[0] == times.get(next)[0] && t[1] < times.get(next)[1]))) {
+                        next = i;
+                    }
+                }
+                if (next < 0) break;
+                now = Math.max(now, times.remove(next)[0]);
+                tasks.remove(next).run();
+            }
+            now = time;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.app.gameform.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 自适应预取与固定阈值的对比
+ * 按帧模拟“快速滑动 + 停下阅读”和“慢慢阅读”两种用户，统计底部加载条露出的帧数和会话结束时多拉的条数。
+ * 固定阈值即原来的 LOAD_MORE_THRESHOLD：剩余不足几条时才加载下一页
+ */
+public class PrefetchPolicyTest {
+
+    private static final int PAGE_SIZE = 8;
+    private static final int MIN_THRESHOLD = 2;
+    private static final long LATENCY_MS = 600;
+    private static final long FRAME_MS = 16;
+    private static final long SESSION_MS = 60_000;
+
+    @Test
+    public void thresholdGrowsWithVelocityAndLatency() {
+        PrefetchPolicy policy = new PrefetchPolicy(PAGE_SIZE, MIN_THRESHOLD);
+        assertEquals(MIN_THRESHOLD, policy.getThreshold());
+
+        // 每 16ms 滑过一条，约 60 条/秒
+        long now = 1000;
+        for (int i = 0; i < 30; i++) {
+            policy.onScrolled(i, now);
+            now += FRAME_MS;
+        }
+        assertTrue(policy.getVelocity() > 40);
+        int wifiThreshold = policy.getThreshold();
+        assertTrue(wifiThreshold > MIN_THRESHOLD);
+        assertTrue(wifiThreshold <= PAGE_SIZE * 4);
+
+        // 停止滚动后回到最小提前量，空闲预取按刚才的滑动速度补足
+        policy.onScrollIdle();
+        assertEquals(MIN_THRESHOLD, policy.getThreshold());
+        assertTrue(policy.getIdleThreshold() >= wifiThreshold);
+    }
+
+    @Test
+    public void measuredLatencyOverridesConnectionDefault() {
+        PrefetchPolicy policy = new PrefetchPolicy(PAGE_SIZE, MIN_THRESHOLD);
+        policy.setConnectionType(PrefetchPolicy.ConnectionType.WIFI);
+        assertEquals(300, policy.getLatencyMs());
+
+        policy.onLoadStarted(0);
+        policy.onLoadFinished(900, true);
+        assertEquals(900, policy.getLatencyMs());
+
+        // 失败的请求不计入耗时
+        policy.onLoadStarted(1000);
+        policy.onLoadFinished(5000, false);
+        assertEquals(900, policy.getLatencyMs());
+    }
+
+    @Test
+    public void slowConnectionSkipsIdlePrefetch() {
+        PrefetchPolicy policy = new PrefetchPolicy(PAGE_SIZE, MIN_THRESHOLD);
+        assertTrue(policy.shouldPrefetchWhenIdle(20, 30));
+        assertFalse(policy.shouldPrefetchWhenIdle(10, 30));
+        policy.setConnectionType(PrefetchPolicy.ConnectionType.SLOW);
+        assertFalse(policy.shouldPrefetchWhenIdle(20, 30));
+    }
+
+    @Test
+    public void flingStallsLessThanFixedThreshold() {
+        Result fixed = simulate(false, true);
+        Result adaptive = simulate(true, true);
+
+        assertTrue("自适应预取应减少加载条露出", adaptive.stalledFrames * 5 < fixed.stalledFrames);
+        assertTrue("快速滑动时加载条应很少露出", adaptive.stallRatio() < 0.02);
+    }
+
+    @Test
+    public void slowReaderOverFetchesAtMostOnePage() {
+        Result fixed = simulate(false, false);
+        Result adaptive = simulate(true, false);
+
+        // 慢慢看的用户最多多拉一页
+        assertTrue(adaptive.overFetch() <= fixed.overFetch() + PAGE_SIZE);
+        assertEquals(0, adaptive.stalledFrames);
+    }
+
+    // ==================== 模拟 ====================
+
+    private static final class Result {
+        int stalledFrames;
+        int scrollingFrames;
+        int position;
+        int total;
+
+        double stallRatio() {
+            return scrollingFrames == 0 ? 0 : (double) stalledFrames / scrollingFrames;
+        }
+
+        int overFetch() {
+            return total - 1 - position;
+        }
+    }
+
+    /**
+     * @param fling true: 每 3 秒一次快速滑动（初速 60 条/秒，按惯性衰减，约滑过 30 条）后停下阅读；
+     *              false: 匀速 0.5 条/秒慢慢往下看
+     */
+    private static Result simulate(boolean adaptive, boolean fling) {
+        PrefetchPolicy policy = new PrefetchPolicy(PAGE_SIZE, MIN_THRESHOLD);
+        policy.setConnectionType(PrefetchPolicy.ConnectionType.CELLULAR);
+        Result result = new Result();
+        result.total = PAGE_SIZE * 2;
+        double position = 0;
+        boolean loading = false;
+        long loadDoneAt = 0;
+        boolean wasScrolling = false;
+
+        for (long now = 0; now < SESSION_MS; now += FRAME_MS) {
+            if (loading && now >= loadDoneAt) {
+                loading = false;
+                result.total += PAGE_SIZE;
+                policy.onLoadFinished(now, true);
+            }
+
+            double velocity = velocityAt(now, fling);
+            boolean scrolling = velocity > 0.2;
+            boolean loadNow = false;
+            if (scrolling) {
+                result.scrollingFrames++;
+                double next = position + velocity * FRAME_MS / 1000.0;
+                if (next > result.total - 1) {
+                    // 滑到底，露出加载条
+                    next = result.total - 1;
+                    result.stalledFrames++;
+                }
+                position = next;
+                int lastVisible = (int) position;
+                policy.onScrolled(lastVisible, now);
+                loadNow = adaptive
+                        ? policy.shouldLoadMore(lastVisible, result.total)
+                        : result.total - 1 - lastVisible <= MIN_THRESHOLD;
+            } else {
+                if (wasScrolling) {
+                    policy.onScrollIdle();
+                }
+                // 空闲预取：停止滚动后每次主线程空闲都检查一次
+                loadNow = adaptive && policy.shouldPrefetchWhenIdle((int) position, result.total);
+            }
+            wasScrolling = scrolling;
+
+            if (loadNow && !loading) {
+                loading = true;
+                loadDoneAt = now + LATENCY_MS;
+                policy.onLoadStarted(now);
+            }
+        }
+        result.position = (int) position;
+        return result;
+    }
+
+    private static double velocityAt(long now, boolean fling) {
+        if (!fling) {
+            return 0.5;
+        }
+        long inCycle = now % 3000;
+        if (inCycle >= 1500) {
+            return 0;
+        }
+        return 60 * Math.exp(-inCycle / 500.0);
+    }
+}